@@ -0,0 +1,17 @@
+package com.crossfit.pieds_croises.cache;
+
+import java.util.OptionalLong;
+import java.util.function.Consumer;
+
+// Diffuse les invalidations aux autres nœuds ; les écritures locales sont déjà invalidées par l'appelant
+public interface CacheInvalidationChannel {
+
+    void publish(VersionedResponseCache.Resource resource);
+
+    void subscribe(Consumer<VersionedResponseCache.Resource> listener);
+
+    // Version commune à tous les nœuds, pour des ETag identiques derrière un répartiteur ; absente en mode local
+    default OptionalLong sharedVersion(VersionedResponseCache.Resource resource) {
+        return OptionalLong.empty();
+    }
+}
@@ -0,0 +1,75 @@
+package com.crossfit.pieds_croises.cache;
+
+import com.crossfit.pieds_croises.datetime.DateTimeProvider;
+import com.crossfit.pieds_croises.model.CacheInvalidation;
+import com.crossfit.pieds_croises.repository.CacheInvalidationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Plusieurs nœuds sans broker : un compteur par ressource en base, relu périodiquement par chaque nœud
+@Component
+@ConditionalOnProperty(name = "app.cache.invalidation.mode", havingValue = "jdbc")
+public class JdbcCacheInvalidationChannel implements CacheInvalidationChannel {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcCacheInvalidationChannel.class);
+    private final CacheInvalidationRepository cacheInvalidationRepository;
+    private final DateTimeProvider dateTimeProvider;
+    private final List<Consumer<VersionedResponseCache.Resource>> listeners = new CopyOnWriteArrayList<>();
+    private final Map<String, Long> seenVersions = new ConcurrentHashMap<>();
+
+    // Référence prise au démarrage, avant que le nœud ne remplisse ses caches :
+    // toute écriture d'un autre nœud après ce point sera vue au premier passage
+    public JdbcCacheInvalidationChannel(CacheInvalidationRepository cacheInvalidationRepository,
+                                        DateTimeProvider dateTimeProvider) {
+        this.cacheInvalidationRepository = cacheInvalidationRepository;
+        this.dateTimeProvider = dateTimeProvider;
+        cacheInvalidationRepository.findAll()
+                .forEach(row -> seenVersions.put(row.getResource(), row.getVersion()));
+    }
+
+    @Override
+    public void publish(VersionedResponseCache.Resource resource) {
+        cacheInvalidationRepository.bump(resource.name(), dateTimeProvider.now());
+    }
+
+    // Dernière version vue en base ; un nœud n'annonce la version de ses propres écritures qu'au sondage suivant
+    @Override
+    public OptionalLong sharedVersion(VersionedResponseCache.Resource resource) {
+        return OptionalLong.of(seenVersions.getOrDefault(resource.name(), 0L));
+    }
+
+    @Override
+    public void subscribe(Consumer<VersionedResponseCache.Resource> listener) {
+        listeners.add(listener);
+    }
+
+    // Toute version plus récente que la référence invalide le cache local, une ligne apparue depuis aussi.
+    // Nos propres écritures reviennent aussi ici : une invalidation de plus, sans effet sur la cohérence
+    @Scheduled(fixedDelayString = "${app.cache.invalidation.poll-interval-ms:2000}")
+    public void poll() {
+        for (CacheInvalidation row : cacheInvalidationRepository.findAll()) {
+            Long seen = seenVersions.get(row.getResource());
+            if (seen != null && seen >= row.getVersion()) {
+                continue;
+            }
+            try {
+                VersionedResponseCache.Resource resource = VersionedResponseCache.Resource.valueOf(row.getResource());
+                listeners.forEach(listener -> listener.accept(resource));
+            } catch (IllegalArgumentException e) {
+                logger.debug("Unknown cache resource {}", row.getResource());
+            }
+            // Annoncée après l'invalidation locale : un ETag récent n'accompagne jamais une donnée ancienne
+            seenVersions.put(row.getResource(), row.getVersion());
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.crossfit.pieds_croises.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+// Déploiement sur un seul nœud : rien à diffuser
+@Component
+@ConditionalOnProperty(name = "app.cache.invalidation.mode", havingValue = "local", matchIfMissing = true)
+public class LocalCacheInvalidationChannel implements CacheInvalidationChannel {
+
+    @Override
+    public void publish(VersionedResponseCache.Resource resource) {
+    }
+
+    @Override
+    public void subscribe(Consumer<VersionedResponseCache.Resource> listener) {
+    }
+}
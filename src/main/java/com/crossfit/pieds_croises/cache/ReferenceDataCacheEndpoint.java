@@ -0,0 +1,54 @@
+package com.crossfit.pieds_croises.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// GET /actuator/referencedata : statistiques des caches de référence et versions ETag courantes
+@Component
+@Endpoint(id = "referencedata")
+public class ReferenceDataCacheEndpoint {
+
+    private final CacheManager cacheManager;
+    private final VersionedResponseCache versionedResponseCache;
+    private final String invalidationMode;
+
+    public ReferenceDataCacheEndpoint(CacheManager cacheManager, VersionedResponseCache versionedResponseCache,
+                                      @Value("${app.cache.invalidation.mode:local}") String invalidationMode) {
+        this.cacheManager = cacheManager;
+        this.versionedResponseCache = versionedResponseCache;
+        this.invalidationMode = invalidationMode;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        Map<String, Object> resources = new LinkedHashMap<>();
+        for (VersionedResponseCache.Resource resource : VersionedResponseCache.Resource.values()) {
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("version", versionedResponseCache.version(resource));
+            Cache cache = resource.getCacheName() != null ? cacheManager.getCache(resource.getCacheName()) : null;
+            if (cache instanceof CaffeineCache caffeineCache) {
+                CacheStats stats = caffeineCache.getNativeCache().stats();
+                details.put("size", caffeineCache.getNativeCache().estimatedSize());
+                details.put("hits", stats.hitCount());
+                details.put("misses", stats.missCount());
+                details.put("hitRate", stats.hitRate());
+                details.put("evictions", stats.evictionCount());
+            }
+            resources.put(resource.name().toLowerCase(), details);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("invalidationMode", invalidationMode);
+        result.put("resources", resources);
+        return result;
+    }
+}
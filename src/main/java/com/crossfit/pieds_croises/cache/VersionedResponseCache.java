@@ -0,0 +1,157 @@
+package com.crossfit.pieds_croises.cache;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// ETag = ressource + version partagée entre nœuds (mode jdbc), ou ressource + instance + version locale (mode local).
+// La version locale est incrémentée à chaque écriture dans le service concerné et sert de clé aux instantanés.
+// Les services y rangent leurs instantanés en lecture ; respond ne fait que les servir
+@Component
+public class VersionedResponseCache {
+
+    public enum Resource {
+        BOX("box"),
+        SUBSCRIPTIONS("subscriptions"),
+        EXERCISES("exercises"),
+        ACTIVE_MESSAGES(null),
+        // Principaux mis en cache par PrincipalCache : seule la diffusion entre nœuds sert, pas d'ETag
+        PRINCIPALS(null);
+
+        // Cache Caffeine qui garde les corps par version, null si la ressource n'en a pas
+        private final String cacheName;
+
+        Resource(String cacheName) {
+            this.cacheName = cacheName;
+        }
+
+        public String getCacheName() {
+            return cacheName;
+        }
+    }
+
+    // Mode local : évite qu'une version d'avant redémarrage soit confondue avec la version courante
+    private final String instanceId = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Resource, AtomicLong> versions = new EnumMap<>(Resource.class);
+    private final Map<Resource, CachedBody> bodies = new ConcurrentHashMap<>();
+    private final ObjectProvider<CacheManager> cacheManager;
+    private final CacheInvalidationChannel invalidationChannel;
+
+    public VersionedResponseCache(ObjectProvider<CacheManager> cacheManager, CacheInvalidationChannel invalidationChannel) {
+        for (Resource resource : Resource.values()) {
+            versions.put(resource, new AtomicLong());
+        }
+        this.cacheManager = cacheManager;
+        this.invalidationChannel = invalidationChannel;
+        invalidationChannel.subscribe(this::invalidateLocally);
+    }
+
+    public <T> ResponseEntity<T> respond(Resource resource, WebRequest request, Supplier<T> loader) {
+        long version = versions.get(resource).get();
+        String etag = etag(resource, version);
+        CacheControl cacheControl = resource == Resource.BOX
+                ? CacheControl.noCache().cachePublic()
+                : CacheControl.noCache().cachePrivate();
+
+        // 304 sans toucher à la base
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(loader.get());
+    }
+
+    // Appelée par les services après chaque écriture. Dans une transaction, attend le commit :
+    // une relecture déclenchée par la nouvelle version ne doit pas voir l'ancienne donnée
+    public void invalidate(Resource resource) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateNow(resource);
+                }
+            });
+        } else {
+            invalidateNow(resource);
+        }
+    }
+
+    private void invalidateNow(Resource resource) {
+        invalidateLocally(resource);
+        invalidationChannel.publish(resource);
+    }
+
+    public void invalidateAll() {
+        for (Resource resource : Resource.values()) {
+            invalidate(resource);
+        }
+    }
+
+    void invalidateLocally(Resource resource) {
+        versions.get(resource).incrementAndGet();
+        bodies.remove(resource);
+        Cache cache = cache(resource);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    public long version(Resource resource) {
+        return versions.get(resource).get();
+    }
+
+    // Instantané partagé entre tous les appelants : le chargeur doit produire une valeur immuable
+    // (liste non modifiable), et le service n'en remet que des copies
+    @SuppressWarnings("unchecked")
+    public <T> T snapshot(Resource resource, Supplier<T> loader) {
+        long version = versions.get(resource).get();
+        Cache cache = cache(resource);
+        if (cache != null) {
+            // Clé = version : un chargement commencé avant une écriture est rangé sous l'ancienne version, jamais relue
+            return (T) cache.get(version, loader::get);
+        }
+        CachedBody cached = bodies.get(resource);
+        if (cached != null && cached.version() == version) {
+            return (T) cached.body();
+        }
+        T body = loader.get();
+        // Une écriture pendant le chargement a déjà changé la version : on ne met pas en cache
+        if (versions.get(resource).get() == version) {
+            bodies.put(resource, new CachedBody(version, body));
+        }
+        return body;
+    }
+
+    private Cache cache(Resource resource) {
+        CacheManager manager = cacheManager.getIfAvailable();
+        if (manager == null || resource.getCacheName() == null) {
+            return null;
+        }
+        return manager.getCache(resource.getCacheName());
+    }
+
+    private String etag(Resource resource, long version) {
+        OptionalLong sharedVersion = invalidationChannel.sharedVersion(resource);
+        if (sharedVersion.isPresent()) {
+            return "\"" + resource.name().toLowerCase() + "-" + sharedVersion.getAsLong() + "\"";
+        }
+        return "\"" + resource.name().toLowerCase() + "-" + instanceId + "-" + version + "\"";
+    }
+
+    private record CachedBody(long version, Object body) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.crossfit.pieds_croises.controller;
 
+import com.crossfit.pieds_croises.cache.VersionedResponseCache;
 import com.crossfit.pieds_croises.dto.BoxInfoDTO;
 import com.crossfit.pieds_croises.service.BoxService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -13,6 +14,7 @@ import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @AllArgsConstructor
 @RestController
@@ -20,6 +22,7 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Box", description = "Gestion des informations de la salle de sport")
 public class BoxController {
   private final BoxService boxService;
+  private final VersionedResponseCache versionedResponseCache;
 
   @GetMapping("/box-info")
   @Operation(
@@ -30,9 +33,8 @@ public class BoxController {
       @ApiResponse(responseCode = "200", description = "Informations récupérées",
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = BoxInfoDTO.class)))
   })
-  public ResponseEntity<BoxInfoDTO> getBoxInfo() {
-    BoxInfoDTO boxInfo = boxService.getBoxInfo();
-    return ResponseEntity.ok(boxInfo);
+  public ResponseEntity<BoxInfoDTO> getBoxInfo(WebRequest request) {
+    return versionedResponseCache.respond(VersionedResponseCache.Resource.BOX, request, boxService::getBoxInfo);
   }
 
   @PutMapping("/box-info")
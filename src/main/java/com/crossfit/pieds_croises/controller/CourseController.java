@@ -2,6 +2,8 @@ package com.crossfit.pieds_croises.controller;
 
 import com.crossfit.pieds_croises.dto.CourseCreateDTO;
 import com.crossfit.pieds_croises.dto.CourseDTO;
+import com.crossfit.pieds_croises.dto.CoursePageDTO;
+import com.crossfit.pieds_croises.dto.CourseRosterDTO;
 import com.crossfit.pieds_croises.dto.CourseUpdateDTO;
 import com.crossfit.pieds_croises.service.CourseService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -16,6 +18,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
@@ -74,6 +77,31 @@ public class CourseController {
         return ResponseEntity.ok(courses);
     }
 
+    @GetMapping("/page")
+    @Operation(
+            summary = "Récupérer les cours page par page",
+            description = "Récupère les cours triés par date de début, page par page. Le curseur renvoyé dans nextCursor permet de demander la page suivante."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page récupérée avec succès",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CoursePageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Curseur ou paramètres invalides", content = @Content)
+    })
+    public ResponseEntity<CoursePageDTO> getCoursesPage(
+            @Parameter(description = "Curseur renvoyé par la page précédente")
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @Parameter(description = "Nombre de cours par page (100 maximum)", example = "20")
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @Parameter(description = "Date de début incluse au format YYYY-MM-DD", example = "2024-01-15")
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Date de fin incluse au format YYYY-MM-DD", example = "2024-01-31")
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "ID du coach", example = "2")
+            @RequestParam(value = "coachId", required = false) Long coachId) {
+        CoursePageDTO page = courseService.getCoursesPage(cursor, size, from, to, coachId);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/{id}")
     @Operation(
             summary = "Récupérer un cours par ID",
@@ -91,6 +119,68 @@ public class CourseController {
         return ResponseEntity.ok(courseDTO);
     }
 
+    @PreAuthorize("hasAnyRole('ADMIN', 'COACH')")
+    @GetMapping("/{id}/roster")
+    @Operation(
+            summary = "Récupérer la feuille d'appel d'un cours",
+            description = "Participants du cours (nom, miniature, statut, avertissements, présence), inscrits puis liste d'attente. "
+                    + "Réservé aux coachs et administrateurs."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Feuille d'appel récupérée",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CourseRosterDTO.class))),
+            @ApiResponse(responseCode = "401", description = "Non autorisé", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Accès refusé", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Cours non trouvé", content = @Content)
+    })
+    public ResponseEntity<CourseRosterDTO> getRoster(
+            @Parameter(description = "ID du cours", example = "1")
+            @PathVariable Long id) {
+        return ResponseEntity.ok(courseService.getRoster(id));
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'COACH')")
+    @PutMapping("/{id}/roster/{userId}/check-in")
+    @Operation(
+            summary = "Pointer la présence d'un participant",
+            description = "Marque un inscrit comme présent. Réservé aux coachs et administrateurs."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Présence enregistrée",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CourseRosterDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Utilisateur non inscrit à ce cours", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Non autorisé", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Accès refusé", content = @Content)
+    })
+    public ResponseEntity<CourseRosterDTO> checkIn(
+            @Parameter(description = "ID du cours", example = "1")
+            @PathVariable Long id,
+            @Parameter(description = "ID de l'utilisateur", example = "1")
+            @PathVariable Long userId) {
+        return ResponseEntity.ok(courseService.setCheckIn(id, userId, true));
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'COACH')")
+    @DeleteMapping("/{id}/roster/{userId}/check-in")
+    @Operation(
+            summary = "Annuler le pointage d'un participant",
+            description = "Retire la présence enregistrée pour un inscrit. Réservé aux coachs et administrateurs."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Pointage annulé",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CourseRosterDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Utilisateur non inscrit à ce cours", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Non autorisé", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Accès refusé", content = @Content)
+    })
+    public ResponseEntity<CourseRosterDTO> cancelCheckIn(
+            @Parameter(description = "ID du cours", example = "1")
+            @PathVariable Long id,
+            @Parameter(description = "ID de l'utilisateur", example = "1")
+            @PathVariable Long userId) {
+        return ResponseEntity.ok(courseService.setCheckIn(id, userId, false));
+    }
+
     @PostMapping
     @Operation(
             summary = "Créer un cours",
@@ -1,14 +1,21 @@
 package com.crossfit.pieds_croises.controller;
 
 import com.crossfit.pieds_croises.dto.DashboardStatsDTO;
+import com.crossfit.pieds_croises.dto.MonthlyStatsDto;
 import com.crossfit.pieds_croises.service.DashboardService;
+import com.crossfit.pieds_croises.service.MonthlyStatsRollupService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.YearMonth;
+import java.util.List;
+
 @RestController
 @RequestMapping("/stats")
 @RequiredArgsConstructor
@@ -16,10 +23,20 @@ import org.springframework.web.bind.annotation.RestController;
 public class DashboardController {
 
   private final DashboardService dashboardService;
+  private final MonthlyStatsRollupService monthlyStatsRollupService;
 
   @GetMapping
   public ResponseEntity<DashboardStatsDTO> getDashboardStats() {
     DashboardStatsDTO stats = dashboardService.getDashboardStats();
     return ResponseEntity.ok(stats);
   }
+
+  // Ex : /stats/monthly-series?from=2024-01&to=2025-12
+  @GetMapping("/monthly-series")
+  public ResponseEntity<List<MonthlyStatsDto>> getMonthlySeries(
+      @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+      @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+    List<MonthlyStatsDto> series = monthlyStatsRollupService.getMonthlySeries(from, to);
+    return ResponseEntity.ok(series);
+  }
 }
@@ -1,5 +1,6 @@
 package com.crossfit.pieds_croises.controller;
 
+import com.crossfit.pieds_croises.cache.VersionedResponseCache;
 import com.crossfit.pieds_croises.dto.ExerciceDTO;
 import com.crossfit.pieds_croises.model.Exercice;
 import com.crossfit.pieds_croises.service.ExerciseService;
@@ -9,6 +10,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -19,14 +21,16 @@ import java.util.List;
 public class ExerciseController {
 
     private final ExerciseService exerciseService;
+    private final VersionedResponseCache versionedResponseCache;
 
     @GetMapping
-    public ResponseEntity<List<ExerciceDTO>> getAllExercises() {
-        List<ExerciceDTO> exercises = exerciseService.getAllExercises();
-        if (exercises.isEmpty()) {
+    public ResponseEntity<List<ExerciceDTO>> getAllExercises(WebRequest request) {
+        ResponseEntity<List<ExerciceDTO>> response = versionedResponseCache.respond(
+                VersionedResponseCache.Resource.EXERCISES, request, exerciseService::getAllExercises);
+        if (response.getBody() != null && response.getBody().isEmpty()) {
             return ResponseEntity.noContent().build();
         }
-        return ResponseEntity.ok(exercises);
+        return response;
     }
 
     @GetMapping("/{id}")
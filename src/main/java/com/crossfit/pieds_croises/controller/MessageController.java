@@ -1,5 +1,6 @@
 package com.crossfit.pieds_croises.controller;
 
+import com.crossfit.pieds_croises.cache.VersionedResponseCache;
 import com.crossfit.pieds_croises.dto.MessageCreateDTO;
 import com.crossfit.pieds_croises.dto.MessageDTO;
 import com.crossfit.pieds_croises.model.Message;
@@ -25,6 +26,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -36,6 +38,7 @@ import java.util.List;
 public class MessageController {
 
     private final MessageService messageService;
+    private final VersionedResponseCache versionedResponseCache;
 
     @GetMapping
     @Operation(
@@ -49,9 +52,11 @@ public class MessageController {
     })
     public ResponseEntity<List<MessageDTO>> getAllMessage(
         @Parameter(description = "Filtrer par statut (active, etc.)", example = "active")
-        @RequestParam(required = false) String status) {
+        @RequestParam(required = false) String status,
+        WebRequest request) {
         if ("active".equalsIgnoreCase(status)) {
-            return ResponseEntity.ok(messageService.getActiveMessages());
+            return versionedResponseCache.respond(VersionedResponseCache.Resource.ACTIVE_MESSAGES, request,
+                messageService::getActiveMessages);
         }
         List<MessageDTO> messages = messageService.getAllMessages();
         if (messages.isEmpty()) {
@@ -1,16 +1,20 @@
 package com.crossfit.pieds_croises.controller;
 
 import com.crossfit.pieds_croises.dto.PerformanceHistoryDTO;
+import com.crossfit.pieds_croises.dto.TimeSeriesDTO;
+import com.crossfit.pieds_croises.enums.TimeSeriesGranularity;
 import com.crossfit.pieds_croises.model.User;
 import com.crossfit.pieds_croises.service.PerformanceHistoryService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -36,6 +40,20 @@ public class PerformanceHistoryController {
         return ResponseEntity.ok(performanceHistoryDTOS);
     }
 
+    // Courbe agrégée d'un exercice : au plus maxPoints périodes, quelle que soit l'ancienneté de l'historique
+    @GetMapping("/series")
+    public ResponseEntity<TimeSeriesDTO> getPerformanceSeries(
+            @RequestParam Long exerciseId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) TimeSeriesGranularity granularity,
+            @RequestParam(defaultValue = "120") int maxPoints,
+            @AuthenticationPrincipal User user
+    ) {
+        TimeSeriesDTO series = performanceHistoryService.getPerformanceSeries(user.getId(), exerciseId, from, to, granularity, maxPoints);
+        return ResponseEntity.ok(series);
+    }
+
     @PostMapping
     public ResponseEntity<PerformanceHistoryDTO> createPerformanceHistory(
             @Valid @RequestBody PerformanceHistoryDTO performanceHistoryDTO,
@@ -0,0 +1,68 @@
+package com.crossfit.pieds_croises.controller;
+
+import com.crossfit.pieds_croises.dto.LeaderboardPageDTO;
+import com.crossfit.pieds_croises.dto.PersonalRecordDTO;
+import com.crossfit.pieds_croises.model.User;
+import com.crossfit.pieds_croises.service.PersonalRecordService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@AllArgsConstructor
+@RequestMapping("/personal-records")
+@Tag(name = "Personal Records", description = "Records personnels et classements par exercice")
+public class PersonalRecordController {
+
+    private final PersonalRecordService personalRecordService;
+
+    @GetMapping
+    @Operation(
+            summary = "Récupérer mes records",
+            description = "Meilleure performance de l'utilisateur connecté pour chaque exercice pratiqué."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Records récupérés avec succès",
+                    content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = PersonalRecordDTO.class)))),
+            @ApiResponse(responseCode = "401", description = "Non autorisé", content = @Content)
+    })
+    public ResponseEntity<List<PersonalRecordDTO>> getMyPersonalRecords(
+            @Parameter(hidden = true) @AuthenticationPrincipal User user
+    ) {
+        return ResponseEntity.ok(personalRecordService.getUserBoard(user.getId()));
+    }
+
+    @GetMapping("/exercises/{exerciseId}/leaderboard")
+    @Operation(
+            summary = "Classement de la box sur un exercice",
+            description = "Classement paginé des records personnels de la box sur l'exercice, tous temps confondus : "
+                    + "charge ou répétitions décroissantes, temps croissants."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Classement récupéré avec succès",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = LeaderboardPageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Curseur ou taille de page invalide", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Exercice non trouvé", content = @Content)
+    })
+    public ResponseEntity<LeaderboardPageDTO> getLeaderboard(
+            @Parameter(description = "ID de l'exercice", example = "2")
+            @PathVariable Long exerciseId,
+            @Parameter(description = "Curseur renvoyé par la page précédente (nextCursor), absent pour la première page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Nombre de places par page (100 maximum)", example = "20")
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(personalRecordService.getLeaderboard(exerciseId, cursor, size));
+    }
+}
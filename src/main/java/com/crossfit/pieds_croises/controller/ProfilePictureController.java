@@ -0,0 +1,113 @@
+package com.crossfit.pieds_croises.controller;
+
+import com.crossfit.pieds_croises.exception.ResourceNotFoundException;
+import com.crossfit.pieds_croises.service.ProfilePictureStorageService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/uploads/profile-pictures")
+@Tag(name = "Profile picture", description = "Photos de profil et miniatures")
+public class ProfilePictureController {
+
+    // Attributs reconnus par Tomcat pour un envoi sendfile (zéro copie)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Les noms de fichiers sont uniques à chaque upload : leur contenu ne change jamais
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(30)).cachePrivate();
+
+    private final ProfilePictureStorageService profilePictureStorageService;
+
+    @GetMapping("/{filename:.+}")
+    @Operation(summary = "Récupérer une photo de profil", description = "Renvoie la photo de profil en taille originale.")
+    public void getProfilePicture(
+            @Parameter(description = "Nom du fichier") @PathVariable String filename,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path picture = existing(profilePictureStorageService.resolve(filename).orElse(null));
+        serve(picture, IMMUTABLE, request, response);
+    }
+
+    @GetMapping("/thumbnails/{filename:.+}")
+    @Operation(summary = "Récupérer une miniature", description = "Renvoie une miniature de la photo de profil (64 ou 256 px).")
+    public void getThumbnail(
+            @Parameter(description = "Nom de la miniature") @PathVariable String filename,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path thumbnail = profilePictureStorageService.resolveThumbnail(filename).orElse(null);
+        if (thumbnail != null && Files.isRegularFile(thumbnail)) {
+            serve(thumbnail, IMMUTABLE, request, response);
+            return;
+        }
+
+        // Miniature pas encore générée (upload récent ou photo antérieure) : on sert l'original sans cache,
+        // la génération n'est relancée qu'une fois quel que soit le nombre de requêtes
+        String originalName = profilePictureStorageService.originalNameOfThumbnail(filename)
+                .orElseThrow(() -> new ResourceNotFoundException("Thumbnail not found: " + filename));
+        Path original = existing(profilePictureStorageService.resolve(originalName).orElse(null));
+        profilePictureStorageService.requestThumbnails(originalName);
+        serve(original, CacheControl.noCache(), request, response);
+    }
+
+    private Path existing(Path path) {
+        if (path == null || !Files.isRegularFile(path)) {
+            throw new ResourceNotFoundException("Profile picture not found");
+        }
+        return path;
+    }
+
+    private void serve(Path file, CacheControl cacheControl, HttpServletRequest request,
+                       HttpServletResponse response) throws IOException {
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        long size = Files.size(file);
+        String etag = "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(size) + "\"";
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        response.setContentType(MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setContentLengthLong(size);
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, size);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, out);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.crossfit.pieds_croises.controller;
+
+import com.crossfit.pieds_croises.dto.StandingReservationDTO;
+import com.crossfit.pieds_croises.model.User;
+import com.crossfit.pieds_croises.service.StandingReservationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/standing-reservations")
+@Tag(name = "Standing Reservations", description = "Réservations permanentes sur les créneaux de la semaine type")
+public class StandingReservationController {
+
+    private final StandingReservationService standingReservationService;
+
+    @GetMapping
+    @Operation(
+            summary = "Récupérer mes réservations permanentes",
+            description = "Créneaux de la semaine type sur lesquels l'utilisateur connecté est inscrit automatiquement."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Réservations récupérées avec succès",
+                    content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = StandingReservationDTO.class)))),
+            @ApiResponse(responseCode = "401", description = "Non autorisé", content = @Content)
+    })
+    public ResponseEntity<List<StandingReservationDTO>> getMyStandingReservations(
+            @Parameter(hidden = true) @AuthenticationPrincipal User user
+    ) {
+        return ResponseEntity.ok(standingReservationService.getUserReservations(user.getId()));
+    }
+
+    @PutMapping("/typical-courses/{typicalCourseId}")
+    @Operation(
+            summary = "Réserver un créneau chaque semaine",
+            description = "Inscrit l'utilisateur connecté à chaque cours généré depuis ce créneau, dans la limite des places, "
+                    + "de son quota hebdomadaire et hors période de suspension."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Réservation permanente créée",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandingReservationDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Réservation déjà existante", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Non autorisé", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Créneau non trouvé", content = @Content)
+    })
+    public ResponseEntity<StandingReservationDTO> subscribe(
+            @Parameter(description = "ID du créneau de la semaine type", example = "1")
+            @PathVariable Long typicalCourseId,
+            @Parameter(hidden = true) @AuthenticationPrincipal User user
+    ) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(standingReservationService.subscribe(user, typicalCourseId));
+    }
+
+    @DeleteMapping("/typical-courses/{typicalCourseId}")
+    @Operation(
+            summary = "Annuler une réservation permanente",
+            description = "Les prochains cours générés depuis ce créneau ne réserveront plus de place. Les inscriptions existantes sont conservées."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Réservation permanente supprimée", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Non autorisé", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Réservation non trouvée", content = @Content)
+    })
+    public ResponseEntity<Void> unsubscribe(
+            @Parameter(description = "ID du créneau de la semaine type", example = "1")
+            @PathVariable Long typicalCourseId,
+            @Parameter(hidden = true) @AuthenticationPrincipal User user
+    ) {
+        standingReservationService.unsubscribe(user.getId(), typicalCourseId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.crossfit.pieds_croises.controller;
 
+import com.crossfit.pieds_croises.cache.VersionedResponseCache;
 import com.crossfit.pieds_croises.dto.SubscriptionCreateDto;
 import com.crossfit.pieds_croises.dto.SubscriptionDto;
 import com.crossfit.pieds_croises.service.SubscriptionService;
@@ -21,6 +22,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -30,6 +32,7 @@ import java.util.List;
 @Tag(name = "Subscription", description = "Gestion des types d'abonnements")
 public class SubscriptionController {
     private final SubscriptionService subscriptionService;
+    private final VersionedResponseCache versionedResponseCache;
 
     @GetMapping
     @Operation(
@@ -40,9 +43,9 @@ public class SubscriptionController {
         @ApiResponse(responseCode = "200", description = "Abonnements récupérés",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = SubscriptionDto.class)))
     })
-    public ResponseEntity<List<SubscriptionDto>> getAllSubscriptions() {
-        List<SubscriptionDto> subscriptionDtos = subscriptionService.getAllSubscriptions();
-        return ResponseEntity.ok(subscriptionDtos);
+    public ResponseEntity<List<SubscriptionDto>> getAllSubscriptions(WebRequest request) {
+        return versionedResponseCache.respond(VersionedResponseCache.Resource.SUBSCRIPTIONS, request,
+                subscriptionService::getAllSubscriptions);
     }
 
     @PostMapping
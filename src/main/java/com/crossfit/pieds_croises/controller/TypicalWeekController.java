@@ -0,0 +1,45 @@
+package com.crossfit.pieds_croises.controller;
+
+import com.crossfit.pieds_croises.dto.ScheduleGenerationResultDTO;
+import com.crossfit.pieds_croises.service.ScheduleGenerationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/typical-weeks")
+@PreAuthorize("hasRole('ROLE_ADMIN')")
+@Tag(name = "Typical week", description = "Gestion des semaines types")
+public class TypicalWeekController {
+
+    private final ScheduleGenerationService scheduleGenerationService;
+
+    @PostMapping("/{id}/generate")
+    @Operation(
+            summary = "Générer le planning d'une semaine type",
+            description = "Crée les cours de la semaine type sur toute sa période de validité. Les cours déjà générés sont ignorés, ainsi que les créneaux où le coach est déjà occupé."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Planning généré avec succès",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ScheduleGenerationResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Semaine type incomplète", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Semaine type ou coach non trouvé", content = @Content)
+    })
+    public ResponseEntity<ScheduleGenerationResultDTO> generateSchedule(
+            @Parameter(description = "ID de la semaine type", example = "1")
+            @PathVariable Long id,
+            @Parameter(description = "Coach utilisé pour les créneaux sans coach", example = "2")
+            @RequestParam(value = "coachId", required = false) Long coachId) {
+        ScheduleGenerationResultDTO result = scheduleGenerationService.generateFromTypicalWeek(id, coachId);
+        return ResponseEntity.ok(result);
+    }
+}
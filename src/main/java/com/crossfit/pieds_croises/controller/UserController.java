@@ -3,9 +3,12 @@ package com.crossfit.pieds_croises.controller;
 import com.crossfit.pieds_croises.dto.CourseDTO;
 import com.crossfit.pieds_croises.dto.UserDto;
 import com.crossfit.pieds_croises.dto.UserUpdateDto;
+import com.crossfit.pieds_croises.event.UserPrincipalChangedEvent;
+import com.crossfit.pieds_croises.exception.ResourceNotFoundException;
 import com.crossfit.pieds_croises.model.User;
 import com.crossfit.pieds_croises.model.UserCourse;
 import com.crossfit.pieds_croises.repository.UserRepository;
+import com.crossfit.pieds_croises.service.ProfilePictureStorageService;
 import com.crossfit.pieds_croises.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -16,21 +19,19 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 
 @AllArgsConstructor
 @RestController
@@ -38,9 +39,12 @@ import java.util.UUID;
 @Tag(name = "User", description = "Gestion des utilisateurs")
 public class UserController {
 
+    private static final Logger logger = LoggerFactory.getLogger(UserController.class);
     private static final long MAX_FILE_SIZE = 2_000_000L; // 2 Mo
     private final UserRepository userRepository;
     private UserService userService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProfilePictureStorageService profilePictureStorageService;
 
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping
@@ -242,10 +246,6 @@ public class UserController {
             @Parameter(description = "Fichier image à uploader")
             @RequestParam("file") MultipartFile file) throws IOException {
 
-        // Créer le dossier si nécessaire
-        Path uploadDir = Paths.get("uploads/profile-pictures");
-        Files.createDirectories(uploadDir);
-
         // Vérifier l’extension et la taille
         String contentType = file.getContentType();
         if (!List.of("image/png", "image/jpeg", "image/jpg").contains(contentType)) {
@@ -255,32 +255,28 @@ public class UserController {
             return ResponseEntity.badRequest().body("Fichier trop volumineux");
         }
 
-        // Supprimer l'ancienne photo si elle existe
-        if (user.getProfilePicture() != null) {
-            Path oldFile = Paths.get(user.getProfilePicture().replaceFirst("^/", "")); // enlever le "/" initial
-            try {
-                if (Files.exists(oldFile)) {
-                    Files.delete(oldFile);
-                }
-            } catch (IOException ex) {
-                // Log et continuer (ne pas bloquer l’upload)
-                System.err.println("Impossible de supprimer l'ancienne photo : " + oldFile + " -> " + ex.getMessage());
-            }
-        }
+        // Le principal n'est qu'un instantané : on relit l'utilisateur avant de l'enregistrer
+        User currentUser = userRepository.findById(user.getId())
+            .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + user.getId()));
 
-        // Générer un nom unique
-        String extension = StringUtils.getFilenameExtension(file.getOriginalFilename());
-        String filename = UUID.randomUUID() + "-" + user.getFirstname() + "-" + user.getLastname() + "." + extension;
-        Path filepath = uploadDir.resolve(filename);
+        // Sauvegarder le nouveau fichier (les miniatures sont générées en arrière-plan)
+        String oldPicture = currentUser.getProfilePicture();
+        String profilePicture = profilePictureStorageService.store(file, currentUser.getFirstname() + "-" + currentUser.getLastname());
 
-        // Sauvegarder le nouveau fichier
-        Files.write(filepath, file.getBytes());
+        // Supprimer l'ancienne photo et ses miniatures si elles existent
+        try {
+            profilePictureStorageService.delete(oldPicture);
+        } catch (IOException ex) {
+            // Ne bloque pas l’upload
+            logger.warn("Failed to delete previous profile picture {}: {}", oldPicture, ex.getMessage());
+        }
 
         // Mettre à jour l’utilisateur
-        user.setProfilePicture("/uploads/profile-pictures/" + filename);
-        userRepository.save(user);
+        currentUser.setProfilePicture(profilePicture);
+        userRepository.save(currentUser);
+        eventPublisher.publishEvent(new UserPrincipalChangedEvent(currentUser.getEmail()));
 
-        return ResponseEntity.ok(user.getProfilePicture());
+        return ResponseEntity.ok(currentUser.getProfilePicture());
     }
 
     @DeleteMapping("/profile/profile-picture")
@@ -296,21 +292,19 @@ public class UserController {
     public ResponseEntity<String> deleteProfilePicture(
         @Parameter(hidden = true) @AuthenticationPrincipal User user) {
         try {
-            // Vérifie qu'une photo existe
-            if (user.getProfilePicture() != null && !user.getProfilePicture().isEmpty()) {
+            User currentUser = userRepository.findById(user.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + user.getId()));
 
-                // Récupère uniquement le nom du fichier
-                String filename = Paths.get(user.getProfilePicture()).getFileName().toString();
-
-                // Construit le chemin réel côté serveur
-                Path filePath = Paths.get("uploads/profile-pictures").resolve(filename).toAbsolutePath();
+            // Vérifie qu'une photo existe
+            if (currentUser.getProfilePicture() != null && !currentUser.getProfilePicture().isEmpty()) {
 
-                // Supprime le fichier s’il existe
-                Files.deleteIfExists(filePath);
+                // Supprime le fichier et ses miniatures s’ils existent
+                profilePictureStorageService.delete(currentUser.getProfilePicture());
 
                 // Supprime la référence dans la base
-                user.setProfilePicture(null);
-                userRepository.save(user);
+                currentUser.setProfilePicture(null);
+                userRepository.save(currentUser);
+                eventPublisher.publishEvent(new UserPrincipalChangedEvent(currentUser.getEmail()));
             }
 
             return ResponseEntity.ok("Photo de profil supprimée");
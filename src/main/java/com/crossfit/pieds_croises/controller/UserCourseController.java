@@ -1,6 +1,8 @@
 package com.crossfit.pieds_croises.controller;
 
+import com.crossfit.pieds_croises.dto.AvailableUserPageDTO;
 import com.crossfit.pieds_croises.dto.CourseDTO;
+import com.crossfit.pieds_croises.dto.CourseEnrolmentBatchDTO;
 import com.crossfit.pieds_croises.dto.UserDto;
 import com.crossfit.pieds_croises.model.User;
 import com.crossfit.pieds_croises.service.UserCourseService;
@@ -10,6 +12,7 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
@@ -67,6 +70,51 @@ public class UserCourseController {
         return ResponseEntity.ok(course);
     }
 
+    @PreAuthorize("hasAnyRole('ADMIN', 'COACH')")
+    @PutMapping("/{courseId}/users")
+    @Operation(
+            summary = "Ajouter un lot d'utilisateurs à un cours",
+            description = "Inscrit une liste d'utilisateurs en une seule transaction. Les places restantes sont attribuées dans l'ordre de la liste, les suivants passent en liste d'attente. Les utilisateurs déjà inscrits sont ignorés. Réservé aux coachs et administrateurs."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Utilisateurs ajoutés avec succès",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CourseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Lot invalide ou utilisateur suspendu", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Non autorisé", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Accès refusé", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Cours ou utilisateur non trouvé", content = @Content)
+    })
+    public ResponseEntity<CourseDTO> addUsersToCourse(
+            @Parameter(description = "ID du cours", example = "1")
+            @PathVariable Long courseId,
+            @Valid @RequestBody CourseEnrolmentBatchDTO batch) {
+        CourseDTO course = userCourseService.addUsersToCourse(courseId, batch.getUserIds());
+        return ResponseEntity.ok(course);
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'COACH')")
+    @DeleteMapping("/{courseId}/users")
+    @Operation(
+            summary = "Retirer un lot d'utilisateurs d'un cours",
+            description = "Désinscrit une liste d'utilisateurs en une seule transaction et promeut la liste d'attente pour les places libérées. Les utilisateurs non inscrits sont ignorés. Réservé aux coachs et administrateurs."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Utilisateurs retirés avec succès",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CourseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Lot invalide", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Non autorisé", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Accès refusé", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Cours non trouvé", content = @Content)
+    })
+    public ResponseEntity<CourseDTO> removeUsersFromCourse(
+            @Parameter(description = "ID du cours", example = "1")
+            @PathVariable Long courseId,
+            @Parameter(description = "IDs des utilisateurs à retirer", example = "1,2,3")
+            @RequestParam List<Long> userIds) {
+        CourseDTO course = userCourseService.removeUsersFromCourse(courseId, userIds);
+        return ResponseEntity.ok(course);
+    }
+
     @DeleteMapping("/{courseId}/unsubscribe")
     @Operation(
             summary = "Se désinscrire d'un cours",
@@ -126,6 +174,34 @@ public class UserCourseController {
         return ResponseEntity.ok(users);
     }
 
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/{courseId}/available-users/search")
+    @Operation(
+            summary = "Rechercher les utilisateurs disponibles",
+            description = "Recherche paginée des utilisateurs non inscrits au cours, par début de nom, de prénom ou d'email. "
+                    + "Sans recherche, les utilisateurs sont triés par nom. Réservé aux administrateurs."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page récupérée avec succès",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = AvailableUserPageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Taille de page ou curseur invalide", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Non autorisé", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Accès refusé", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Cours non trouvé", content = @Content)
+    })
+    public ResponseEntity<AvailableUserPageDTO> searchAvailableUsers(
+            @Parameter(description = "ID du cours", example = "1")
+            @PathVariable Long courseId,
+            @Parameter(description = "Début du nom, du prénom ou de l'email", example = "dup")
+            @RequestParam(required = false) String q,
+            @Parameter(description = "Curseur de la page suivante (nextCursor de la page précédente)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Nombre d'utilisateurs par page (50 maximum)", example = "20")
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(userCourseService.searchUsersNotInCourse(courseId, q, cursor, size));
+    }
+
 
     @PreAuthorize("hasRole('ADMIN') or #userId == principal.id")
     @GetMapping("/user/{userId}/weekly-count")
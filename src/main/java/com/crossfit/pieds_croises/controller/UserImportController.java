@@ -0,0 +1,60 @@
+package com.crossfit.pieds_croises.controller;
+
+import com.crossfit.pieds_croises.dto.UserImportResultDTO;
+import com.crossfit.pieds_croises.service.UserImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.InputStream;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/users/import")
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "User import", description = "Import en masse des adhérents")
+public class UserImportController {
+
+    private final UserImportService userImportService;
+
+    @PostMapping(consumes = "text/csv")
+    @Operation(
+            summary = "Importer des adhérents depuis un CSV",
+            description = "En-tête obligatoire firstname,lastname,email ; colonnes facultatives phone,subscriptionId. "
+                    + "Le fichier est lu en flux et importé par lots ; chaque ligne reçoit un statut dans le rapport."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import terminé, voir le rapport ligne par ligne",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserImportResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Fichier illisible ou en-tête incomplet", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Accès refusé", content = @Content)
+    })
+    public ResponseEntity<UserImportResultDTO> importCsv(InputStream body) {
+        return ResponseEntity.ok(userImportService.importCsv(body));
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+            summary = "Importer des adhérents depuis un tableau JSON",
+            description = "Tableau d'objets {firstname, lastname, email, phone, subscriptionId}, lu élément par élément."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import terminé, voir le rapport ligne par ligne",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserImportResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "JSON invalide", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Accès refusé", content = @Content)
+    })
+    public ResponseEntity<UserImportResultDTO> importJson(InputStream body) {
+        return ResponseEntity.ok(userImportService.importJson(body));
+    }
+}
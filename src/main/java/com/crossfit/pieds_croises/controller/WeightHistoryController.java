@@ -1,6 +1,8 @@
 package com.crossfit.pieds_croises.controller;
 
+import com.crossfit.pieds_croises.dto.TimeSeriesDTO;
 import com.crossfit.pieds_croises.dto.WeightHistoryDTO;
+import com.crossfit.pieds_croises.enums.TimeSeriesGranularity;
 import com.crossfit.pieds_croises.model.User;
 import com.crossfit.pieds_croises.service.WeightHistoryService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,11 +14,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -53,6 +57,32 @@ public class WeightHistoryController {
         return ResponseEntity.ok(weightHistoryDTOS);
     }
 
+    @GetMapping("/series")
+    @Operation(
+        summary = "Récupérer la courbe de poids agrégée",
+        description = "Agrège l'historique de poids par jour, semaine ou mois (min, max, moyenne, dernière valeur). "
+            + "Sans granularité, la plus fine qui tient dans maxPoints est choisie."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Courbe récupérée avec succès",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TimeSeriesDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Paramètres invalides", content = @Content),
+        @ApiResponse(responseCode = "401", description = "Non autorisé", content = @Content)
+    })
+    public ResponseEntity<TimeSeriesDTO> getWeightSeries(
+            @Parameter(description = "Date de début incluse au format YYYY-MM-DD", example = "2024-01-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Date de fin incluse au format YYYY-MM-DD", example = "2024-12-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "DAY, WEEK ou MONTH (optionnel)", example = "WEEK")
+            @RequestParam(required = false) TimeSeriesGranularity granularity,
+            @Parameter(description = "Nombre maximum de points (500 maximum)", example = "120")
+            @RequestParam(defaultValue = "120") int maxPoints,
+            @Parameter(hidden = true) @AuthenticationPrincipal User user
+    ) {
+        return ResponseEntity.ok(weightHistoryService.getWeightSeries(user.getId(), from, to, granularity, maxPoints));
+    }
+
     @PostMapping
     @Operation(
         summary = "Créer une entrée d'historique de poids",
@@ -0,0 +1,16 @@
+package com.crossfit.pieds_croises.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AvailableUserDTO {
+    private Long id;
+    private String firstname;
+    private String lastname;
+    private String email;
+    private String profilePictureThumbnail64;
+}
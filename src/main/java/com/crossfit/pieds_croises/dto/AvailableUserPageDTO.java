@@ -0,0 +1,17 @@
+package com.crossfit.pieds_croises.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AvailableUserPageDTO {
+    private int size;
+    private List<AvailableUserDTO> items;
+    // Absent sur la dernière page
+    private String nextCursor;
+}
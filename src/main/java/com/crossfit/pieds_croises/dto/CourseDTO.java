@@ -19,6 +19,8 @@ public class CourseDTO {
     private short duration;
     private Integer personLimit;
     private Course.Status status;
+    private int registeredCount;
+    private int waitingCount;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private String coachName;
@@ -0,0 +1,20 @@
+package com.crossfit.pieds_croises.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CourseEnrolmentBatchDTO {
+    // L'ordre de la liste détermine qui obtient les places restantes
+    @NotEmpty(message = "La liste des utilisateurs ne doit pas être vide")
+    @Size(max = 200, message = "Un lot ne peut pas dépasser 200 utilisateurs")
+    private List<@NotNull(message = "L'id utilisateur est obligatoire") Long> userIds;
+}
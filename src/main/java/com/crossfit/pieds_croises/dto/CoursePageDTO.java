@@ -0,0 +1,16 @@
+package com.crossfit.pieds_croises.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CoursePageDTO {
+    private List<CourseDTO> items;
+    // null quand il n'y a plus de page suivante
+    private String nextCursor;
+}
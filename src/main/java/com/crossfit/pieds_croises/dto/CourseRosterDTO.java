@@ -0,0 +1,22 @@
+package com.crossfit.pieds_croises.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CourseRosterDTO {
+    private Long courseId;
+    private String title;
+    private LocalDateTime startDatetime;
+    private Integer personLimit;
+    private int registeredCount;
+    private int waitingCount;
+    // Inscrits d'abord, puis liste d'attente, chacun dans l'ordre d'inscription
+    private List<RosterAttendeeDTO> attendees;
+}
@@ -0,0 +1,18 @@
+package com.crossfit.pieds_croises.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeaderboardPageDTO {
+    private Long exerciseId;
+    private int size;
+    private List<PersonalRecordDTO> items;
+    // null quand il n'y a plus de page suivante
+    private String nextCursor;
+}
@@ -0,0 +1,24 @@
+package com.crossfit.pieds_croises.dto;
+
+import com.crossfit.pieds_croises.model.Exercice;
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PersonalRecordDTO {
+    private Long exerciseId;
+    private String exerciseName;
+    private Exercice.MeasureType measureType;
+    private Long userId;
+    private String firstname;
+    private String lastname;
+    private Float bestValue;
+    private LocalDate achievedOn;
+    // Renseigné uniquement dans le classement
+    private Long rank;
+}
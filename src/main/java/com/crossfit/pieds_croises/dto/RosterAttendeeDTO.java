@@ -0,0 +1,23 @@
+package com.crossfit.pieds_croises.dto;
+
+import com.crossfit.pieds_croises.model.UserCourse;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RosterAttendeeDTO {
+    private Long userId;
+    private String firstname;
+    private String lastname;
+    private String profilePictureThumbnail64;
+    private UserCourse.Status status;
+    private int strikeCount;
+    private LocalDateTime enrolledAt;
+    private boolean checkedIn;
+    private LocalDateTime checkedInAt;
+}
@@ -0,0 +1,24 @@
+package com.crossfit.pieds_croises.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleGenerationResultDTO {
+
+    private Long typicalWeekId;
+    private int createdCount;
+    // Cours déjà générés lors d'un précédent passage
+    private int alreadyExistingCount;
+    // Créneaux ignorés car le coach a déjà un autre cours qui chevauche
+    private List<LocalDateTime> conflicts;
+    // Inscriptions posées par les réservations permanentes sur la période générée
+    private int standingEnrolmentCount;
+
+}
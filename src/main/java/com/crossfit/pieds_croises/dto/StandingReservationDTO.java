@@ -0,0 +1,21 @@
+package com.crossfit.pieds_croises.dto;
+
+import com.crossfit.pieds_croises.model.TypicalCourse;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StandingReservationDTO {
+    private Long id;
+    private Long typicalCourseId;
+    private String title;
+    private TypicalCourse.DayOfWeek day;
+    private LocalTime hour;
+    private LocalDateTime createdAt;
+}
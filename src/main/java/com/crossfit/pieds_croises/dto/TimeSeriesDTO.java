@@ -0,0 +1,18 @@
+package com.crossfit.pieds_croises.dto;
+
+import com.crossfit.pieds_croises.enums.TimeSeriesGranularity;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TimeSeriesDTO {
+    private TimeSeriesGranularity granularity;
+    private List<TimeSeriesPointDTO> points;
+    // true si les périodes les plus anciennes ont été écartées pour respecter maxPoints
+    private boolean truncated;
+}
@@ -0,0 +1,20 @@
+package com.crossfit.pieds_croises.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TimeSeriesPointDTO {
+    private LocalDate periodStart;
+    private int count;
+    private Double min;
+    private Double max;
+    private Double avg;
+    // Dernière mesure de la période
+    private Double last;
+}
@@ -31,6 +31,8 @@ public class UserDto {
   private String phone;
 
   private String profilePicture;
+  private String profilePictureThumbnail64;
+  private String profilePictureThumbnail256;
   private LocalDateTime createdAt;
   private LocalDateTime updatedAt;
   private Byte strikeCount;
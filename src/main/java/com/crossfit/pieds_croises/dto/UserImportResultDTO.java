@@ -0,0 +1,17 @@
+package com.crossfit.pieds_croises.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserImportResultDTO {
+  private int total;
+  private int created;
+  private int rejected;
+  private List<UserImportRowResultDTO> rows;
+}
@@ -0,0 +1,32 @@
+package com.crossfit.pieds_croises.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserImportRowDTO {
+
+  @NotBlank(message = "First name is required")
+  @Size(max = 100, message = "First name is too long")
+  private String firstname;
+
+  @NotBlank(message = "Last name is required")
+  @Size(max = 100, message = "Last name is too long")
+  private String lastname;
+
+  @NotBlank(message = "Email is required")
+  @Email(message = "Please provide a valid email address")
+  @Size(max = 100, message = "Email is too long")
+  private String email;
+
+  @Size(max = 10, message = "Phone number is too long")
+  private String phone;
+
+  private Long subscriptionId;
+}
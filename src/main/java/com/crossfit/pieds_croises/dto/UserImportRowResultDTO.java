@@ -0,0 +1,28 @@
+package com.crossfit.pieds_croises.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserImportRowResultDTO {
+
+  public enum Status {
+    CREATED,
+    INVALID,
+    DUPLICATE_IN_FILE,
+    ALREADY_EXISTS,
+    FAILED
+  }
+
+  // Numéro de l'enregistrement dans le fichier, à partir de 1 (hors en-tête CSV)
+  private int row;
+  private String email;
+  private Status status;
+  private Long userId;
+  private String message;
+}
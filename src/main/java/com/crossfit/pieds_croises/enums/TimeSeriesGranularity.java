@@ -0,0 +1,30 @@
+package com.crossfit.pieds_croises.enums;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+public enum TimeSeriesGranularity {
+    DAY,
+    WEEK,
+    MONTH;
+
+    // Premier jour de la période contenant la date (semaine ISO : lundi)
+    public LocalDate periodStart(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    public long periodsBetween(LocalDate first, LocalDate last) {
+        ChronoUnit unit = switch (this) {
+            case DAY -> ChronoUnit.DAYS;
+            case WEEK -> ChronoUnit.WEEKS;
+            case MONTH -> ChronoUnit.MONTHS;
+        };
+        return unit.between(periodStart(first), periodStart(last)) + 1;
+    }
+}
@@ -0,0 +1,24 @@
+package com.crossfit.pieds_croises.event;
+
+public record MembershipStatsChangedEvent(
+        long userDelta,
+        long activeSubscriptionDelta,
+        long revenueDelta
+) {
+
+    public static MembershipStatsChangedEvent userCreated() {
+        return new MembershipStatsChangedEvent(1, 0, 0);
+    }
+
+    public static MembershipStatsChangedEvent userDeleted() {
+        return new MembershipStatsChangedEvent(-1, 0, 0);
+    }
+
+    public static MembershipStatsChangedEvent subscriptionActivated(int price) {
+        return new MembershipStatsChangedEvent(0, 1, price);
+    }
+
+    public static MembershipStatsChangedEvent subscriptionDeactivated(int price) {
+        return new MembershipStatsChangedEvent(0, -1, -price);
+    }
+}
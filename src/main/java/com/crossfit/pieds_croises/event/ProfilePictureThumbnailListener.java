@@ -0,0 +1,22 @@
+package com.crossfit.pieds_croises.event;
+
+import com.crossfit.pieds_croises.service.ProfilePictureStorageService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class ProfilePictureThumbnailListener {
+
+    private final ProfilePictureStorageService profilePictureStorageService;
+
+    // Redimensionnement hors du thread de la requête d'upload, une fois l'éventuelle transaction validée
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProfilePictureUploaded(ProfilePictureUploadedEvent event) {
+        profilePictureStorageService.generateThumbnails(event.filename());
+    }
+}
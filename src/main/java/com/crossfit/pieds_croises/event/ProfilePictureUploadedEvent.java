@@ -0,0 +1,4 @@
+package com.crossfit.pieds_croises.event;
+
+public record ProfilePictureUploadedEvent(String filename) {
+}
@@ -0,0 +1,10 @@
+package com.crossfit.pieds_croises.event;
+
+import java.time.LocalDateTime;
+
+public record SeatCountChangedEvent(
+        LocalDateTime courseStart,
+        int personLimit,
+        int delta
+) {
+}
@@ -0,0 +1,10 @@
+package com.crossfit.pieds_croises.event;
+
+import java.time.LocalDateTime;
+
+// Période sur laquelle les abonnements actifs ou le chiffre d'affaires ont changé, y compris dans le passé
+public record SubscriptionPeriodChangedEvent(
+        LocalDateTime startDate,
+        LocalDateTime endDate
+) {
+}
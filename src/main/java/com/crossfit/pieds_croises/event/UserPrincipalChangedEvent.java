@@ -0,0 +1,11 @@
+package com.crossfit.pieds_croises.event;
+
+// email null : tous les utilisateurs sont concernés (traitement de masse)
+public record UserPrincipalChangedEvent(
+        String email
+) {
+
+    public static UserPrincipalChangedEvent allUsers() {
+        return new UserPrincipalChangedEvent(null);
+    }
+}
@@ -0,0 +1,12 @@
+package com.crossfit.pieds_croises.event;
+
+import java.time.LocalDateTime;
+
+public record WaitingListPromotedEvent(
+        String email,
+        String firstname,
+        String lastname,
+        String courseTitle,
+        LocalDateTime courseDate
+) {
+}
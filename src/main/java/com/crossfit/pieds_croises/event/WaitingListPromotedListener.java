@@ -0,0 +1,34 @@
+package com.crossfit.pieds_croises.event;
+
+import com.crossfit.pieds_croises.service.EmailService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+public class WaitingListPromotedListener {
+
+    private final EmailService emailService;
+
+    // Avant le commit, dans la transaction de la promotion : la ligne d'outbox est validée avec la promotion
+    // ou annulée avec elle, et EmailOutboxDispatcher se charge de l'envoi et des nouvelles tentatives
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onWaitingListPromoted(WaitingListPromotedEvent event) {
+        Map<String, Object> variables = Map.of(
+                "firstname", event.firstname(),
+                "lastname", event.lastname(),
+                "courseTitle", event.courseTitle(),
+                "courseDate", event.courseDate()
+        );
+        emailService.sendTemplateEmail(
+                event.email(),
+                "Bonne nouvelle, une place s’est libérée !",
+                "waiting-user-course-registration-notif",
+                variables
+        );
+    }
+}
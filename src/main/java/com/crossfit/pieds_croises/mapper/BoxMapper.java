@@ -10,6 +10,9 @@ import org.mapstruct.MappingTarget;
 public interface BoxMapper {
     BoxInfoDTO convertToBoxInfoDTO(Box box);
 
+    // Copie remise aux appelants : l'instantané en cache n'est jamais exposé
+    BoxInfoDTO copy(BoxInfoDTO boxInfoDTO);
+
     @Mapping(target = "updatedAt", expression = "java(java.time.LocalDateTime.now())")
     void updateBoxFromDTO(BoxInfoDTO boxDto, @MappingTarget Box box);
 }
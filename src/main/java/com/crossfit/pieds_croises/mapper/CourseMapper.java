@@ -4,6 +4,7 @@ import com.crossfit.pieds_croises.dto.CourseCreateDTO;
 import com.crossfit.pieds_croises.dto.CourseDTO;
 import com.crossfit.pieds_croises.dto.CourseUpdateDTO;
 import com.crossfit.pieds_croises.model.Course;
+import com.crossfit.pieds_croises.repository.CourseRepository;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
@@ -28,11 +29,21 @@ public interface CourseMapper {
     )
     CourseDTO convertToDto(Course course);
 
+    @Mapping(target = "userCoursesInfo", ignore = true)
+    @Mapping(
+            target = "coachName",
+            expression = "java(item.getCoachId() != null ? item.getCoachFirstname() + \" \" + item.getCoachLastname() : null)"
+    )
+    CourseDTO convertToDto(CourseRepository.CourseListItem item);
+
     @Mapping(target = "status", expression = "java(Course.Status.OPEN)")
     @Mapping(target = "userCourses", ignore = true) // remplacé "users"
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "coach", ignore = true)
+    @Mapping(target = "registeredCount", ignore = true)
+    @Mapping(target = "waitingCount", ignore = true)
+    @Mapping(target = "typicalCourseId", ignore = true)
     Course convertToEntity(CourseCreateDTO courseCreateDTO);
 
     @Mapping(target = "id", ignore = true)
@@ -41,5 +52,8 @@ public interface CourseMapper {
     @Mapping(target = "coach", ignore = true)
     @Mapping(target = "userCourses", ignore = true)
     @Mapping(target = "status", ignore = true)
+    @Mapping(target = "registeredCount", ignore = true)
+    @Mapping(target = "waitingCount", ignore = true)
+    @Mapping(target = "typicalCourseId", ignore = true)
     void updateFromDTO(CourseUpdateDTO dto, @MappingTarget Course course);
 }
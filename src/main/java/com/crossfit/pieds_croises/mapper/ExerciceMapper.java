@@ -12,6 +12,9 @@ public interface ExerciceMapper {
     @Mapping(source = "performanceHistoryList", target = "performanceHistoryIds")
     ExerciceDTO convertToDTO(Exercice exercice);
 
+    // Copie remise aux appelants : l'instantané en cache n'est jamais exposé
+    ExerciceDTO copy(ExerciceDTO exerciceDTO);
+
     @Mapping(source = "performanceHistoryIds", target = "performanceHistoryList")
     Exercice convertToEntity(ExerciceDTO exerciceDTO);
 
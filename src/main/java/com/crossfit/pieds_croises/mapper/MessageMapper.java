@@ -12,6 +12,9 @@ public interface MessageMapper {
 
     MessageDTO convertToDto(Message message);
 
+    // Copie remise aux appelants : l'instantané en cache n'est jamais exposé
+    MessageDTO copy(MessageDTO messageDTO);
+
     @Mapping(target = "messageStatus", expression = "java(com.crossfit.pieds_croises.model.Message.MessageStatus.ACTIVE)")
     @Mapping(target = "createdAt", expression = "java(java.time.LocalDateTime.now())")
     @Mapping(target = "updatedAt", expression = "java(java.time.LocalDateTime.now())")
@@ -0,0 +1,13 @@
+package com.crossfit.pieds_croises.mapper;
+
+import com.crossfit.pieds_croises.dto.PersonalRecordDTO;
+import com.crossfit.pieds_croises.repository.PersonalRecordRepository;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface PersonalRecordMapper {
+
+    @Mapping(target = "rank", ignore = true)
+    PersonalRecordDTO convertToDto(PersonalRecordRepository.RecordItem item);
+}
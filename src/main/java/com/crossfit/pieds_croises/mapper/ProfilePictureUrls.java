@@ -0,0 +1,26 @@
+package com.crossfit.pieds_croises.mapper;
+
+import java.nio.file.Paths;
+
+// URLs publiques des photos de profil et de leurs miniatures, sans dépendance au stockage
+public final class ProfilePictureUrls {
+
+    public static final String PUBLIC_PATH = "/uploads/profile-pictures/";
+    public static final String THUMBNAILS_DIR = "thumbnails";
+
+    private ProfilePictureUrls() {
+    }
+
+    public static String thumbnailUrl(String profilePicture, int size) {
+        if (profilePicture == null || profilePicture.isEmpty()) {
+            return null;
+        }
+        String filename = Paths.get(profilePicture).getFileName().toString();
+        return PUBLIC_PATH + THUMBNAILS_DIR + "/" + thumbnailName(filename, size);
+    }
+
+    public static String thumbnailName(String filename, int size) {
+        int dot = filename.lastIndexOf('.');
+        return dot < 0 ? filename + "-" + size : filename.substring(0, dot) + "-" + size + filename.substring(dot);
+    }
+}
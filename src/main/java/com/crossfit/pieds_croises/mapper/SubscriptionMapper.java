@@ -12,6 +12,9 @@ import org.mapstruct.MappingTarget;
 public interface SubscriptionMapper {
     SubscriptionDto convertToSubscriptionDto(Subscription subscription);
 
+    // Copie remise aux appelants : l'instantané en cache n'est jamais exposé
+    SubscriptionDto copy(SubscriptionDto subscriptionDto);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "userSubscriptions", ignore = true)
     Subscription convertToSubscriptionEntity(SubscriptionCreateDto subscriptionCreateDto);
@@ -12,6 +12,8 @@ public interface UserMapper {
     @Mapping(target = "isFirstLoginComplete", ignore = true)
     @Mapping(target = "coursesId", ignore = true) // pas besoin côté user direct
     @Mapping(target = "profilePicture")
+    @Mapping(target = "profilePictureThumbnail64", ignore = true)
+    @Mapping(target = "profilePictureThumbnail256", ignore = true)
     UserDto convertToDtoForUser(User user);
 
     @Mapping(target = "id", ignore = true)
@@ -23,6 +25,8 @@ public interface UserMapper {
     @Mapping(target = "performanceHistoryList", ignore = true)
     @Mapping(target = "coursesId", ignore = true)
     @Mapping(target = "roles", source = "roles")
+    @Mapping(target = "profilePictureThumbnail64", ignore = true)
+    @Mapping(target = "profilePictureThumbnail256", ignore = true)
     UserDto convertToCreatedDto(User user);
 
     @Mapping(
@@ -33,8 +37,12 @@ public interface UserMapper {
                     ".map(user_course -> user_course.getCourse().getId())" +
                     ".toList() : java.util.Collections.emptyList())"
     )
+    @Mapping(target = "profilePictureThumbnail64", ignore = true)
+    @Mapping(target = "profilePictureThumbnail256", ignore = true)
     UserDto convertToDtoForAdmin(User user);
 
+    @Mapping(target = "profilePictureThumbnail64", ignore = true)
+    @Mapping(target = "profilePictureThumbnail256", ignore = true)
     UserDto convertToDtoForAdminWithSubscriptions(User user);
 
     @Mapping(target = "id", ignore = true)
@@ -54,6 +62,8 @@ public interface UserMapper {
                     ".map(user_course -> user_course.getCourse().getId())" +
                     ".toList() : java.util.Collections.emptyList())"
     )
+    @Mapping(target = "profilePictureThumbnail64", ignore = true)
+    @Mapping(target = "profilePictureThumbnail256", ignore = true)
     UserDto convertToDtoForAnyUser(User user);
 
     @Mapping(target = "id", ignore = true)
@@ -76,5 +86,14 @@ public interface UserMapper {
                     ".map(user_course -> user_course.getCourse().getId())" +
                     ".toList() : java.util.Collections.emptyList())"
     )
+    @Mapping(target = "profilePictureThumbnail64", ignore = true)
+    @Mapping(target = "profilePictureThumbnail256", ignore = true)
     UserDto convertToAuthDto(User user);
+
+    // URLs des miniatures déduites de la photo de profil exposée ; ignorées ci-dessus, remplies ici
+    @AfterMapping
+    default void fillProfilePictureThumbnails(@MappingTarget UserDto userDto) {
+        userDto.setProfilePictureThumbnail64(ProfilePictureUrls.thumbnailUrl(userDto.getProfilePicture(), 64));
+        userDto.setProfilePictureThumbnail256(ProfilePictureUrls.thumbnailUrl(userDto.getProfilePicture(), 256));
+    }
 }
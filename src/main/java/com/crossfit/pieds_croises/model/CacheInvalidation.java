@@ -0,0 +1,26 @@
+package com.crossfit.pieds_croises.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "cache_invalidation")
+public class CacheInvalidation {
+
+    @Id
+    @Column(length = 64)
+    private String resource;
+
+    @Column(nullable = false)
+    private long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -13,6 +13,14 @@ import java.util.List;
 @Getter
 @Setter
 @NoArgsConstructor
+// Un coach ne commence pas deux cours au même instant, un créneau type ne produit qu'un cours par date :
+// deux générations concurrentes ne peuvent pas dupliquer un cours
+@Table(indexes = {
+        @Index(name = "idx_course_start_datetime", columnList = "start_datetime, id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_course_coach_start", columnNames = {"coach_id", "start_datetime"}),
+        @UniqueConstraint(name = "uk_course_typical_course_start", columnNames = {"typical_course_id", "start_datetime"})
+})
 public class Course {
 
     @Id
@@ -38,6 +46,13 @@ public class Course {
     @Column(nullable = false)
     private Status status;
 
+    // Compteur de places maintenu uniquement par les requêtes atomiques de CourseRepository
+    @Column(name = "registered_count", columnDefinition = "INT DEFAULT 0", nullable = false, updatable = false)
+    private int registeredCount;
+
+    @Column(name = "waiting_count", columnDefinition = "INT DEFAULT 0", nullable = false, updatable = false)
+    private int waitingCount;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -51,10 +66,11 @@ public class Course {
     @JoinColumn(name = "coach_id", nullable = false)
     private User coach;
 
+    // Créneau de la semaine type dont le cours est issu, renseigné par la génération du planning
+    @Column(name = "typical_course_id", updatable = false)
+    private Long typicalCourseId;
+
     public void changeStatus() {
-        long registeredCount = userCourses.stream()
-                .filter(uc -> uc.getStatus() == UserCourse.Status.REGISTERED)
-                .count();
         if (registeredCount >= getPersonLimit()) {
             setStatus(Status.FULL);
         } else {
@@ -6,6 +6,8 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.util.List;
 
@@ -23,8 +25,10 @@ public class Exercice {
     @Column(length = 50, nullable = false, unique = true)
     private String name;
 
+    // VARCHAR plutôt qu'un ENUM MySQL : ajouter une valeur ne demande pas de modifier la colonne
     @Enumerated(EnumType.STRING)
-    @Column(name = "measure_type")
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "measure_type", length = 20)
     private MeasureType measureType;
 
     @OneToMany(mappedBy = "exercice")
@@ -33,5 +37,11 @@ public class Exercice {
     public enum MeasureType{
         REPETITION,
         WEIGHT,
+        TIME;
+
+        // Un temps est meilleur quand il est plus court, les charges et répétitions quand elles sont plus grandes
+        public boolean isLowerBetter() {
+            return this == TIME;
+        }
     }
 }
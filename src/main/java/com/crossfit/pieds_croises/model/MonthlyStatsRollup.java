@@ -0,0 +1,41 @@
+package com.crossfit.pieds_croises.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "monthly_stats_rollup")
+public class MonthlyStatsRollup {
+
+    // Premier jour du mois
+    @Id
+    @Column(name = "period_start")
+    private LocalDate periodStart;
+
+    @Column(name = "active_users_count", nullable = false)
+    private Long activeUsersCount;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal revenue;
+
+    // Un mois clos n'est recalculé qu'après une correction qui le touche
+    @Column(nullable = false)
+    private boolean closed;
+
+    // Début du calcul : une invalidation survenue pendant le calcul le rend à nouveau périmé
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+
+    // Dernière modification d'abonnement touchant ce mois, partagée par toutes les instances
+    @Column(name = "invalidated_at")
+    private LocalDateTime invalidatedAt;
+}
@@ -11,7 +11,9 @@ import java.time.LocalDate;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "performance_history")
+@Table(name = "performance_history", indexes = @Index(
+        name = "idx_performance_history_user_exercice_date",
+        columnList = "user_id, exercice_id, date, measured_value"))
 public class PerformanceHistory {
 
     @Id
@@ -0,0 +1,49 @@
+package com.crossfit.pieds_croises.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Meilleure performance d'un utilisateur sur un exercice, maintenue à chaque écriture dans performance_history
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "personal_record",
+        uniqueConstraints = @UniqueConstraint(name = "uk_personal_record_user_exercice", columnNames = {"user_id", "exercice_id"}),
+        // Un index par sens de classement : MySQL ne lit un index dans l'ordre du ORDER BY que si tous les sens concordent
+        indexes = {
+                @Index(name = "idx_personal_record_exercice_best_desc", columnList = "exercice_id, best_value DESC, achieved_on ASC, id ASC"),
+                @Index(name = "idx_personal_record_exercice_best_asc", columnList = "exercice_id, best_value ASC, achieved_on ASC, id ASC")
+        })
+public class PersonalRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "exercice_id", nullable = false)
+    private Exercice exercice;
+
+    @Column(name = "best_value", nullable = false)
+    private float bestValue;
+
+    @Column(name = "achieved_on", nullable = false)
+    private LocalDate achievedOn;
+
+    // Ligne de performance_history à l'origine du record : sa modification ou suppression déclenche un recalcul
+    @Column(name = "performance_history_id", nullable = false)
+    private Long performanceHistoryId;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
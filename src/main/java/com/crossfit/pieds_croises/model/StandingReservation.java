@@ -0,0 +1,35 @@
+package com.crossfit.pieds_croises.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Réservation permanente d'un membre sur un créneau de la semaine type, appliquée à chaque génération de cours
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "standing_reservation",
+        uniqueConstraints = @UniqueConstraint(name = "uk_standing_reservation_slot_user", columnNames = {"typical_course_id", "user_id"}),
+        indexes = @Index(name = "idx_standing_reservation_user", columnList = "user_id"))
+public class StandingReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "typical_course_id", nullable = false)
+    private TypicalCourse typicalCourse;
+
+    // Ancienneté de la réservation : départage les membres quand le créneau est complet
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
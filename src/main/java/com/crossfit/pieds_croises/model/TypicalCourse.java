@@ -37,6 +37,11 @@ public class TypicalCourse {
     @Column(name = "person_limit", nullable = false)
     private byte personLimit;
 
+    // Coach par défaut des cours générés depuis ce créneau
+    @ManyToOne
+    @JoinColumn(name = "coach_id")
+    private User coach;
+
     @ManyToMany(mappedBy = "typicalCourses")
     private List<TypicalWeek> typicalWeeks;
 
@@ -13,6 +13,10 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_user_lastname_firstname", columnList = "lastname, firstname"),
+        @Index(name = "idx_user_firstname", columnList = "firstname")
+})
 @Getter
 @Setter
 @Builder
@@ -74,9 +78,15 @@ public class User implements UserDetails {
     @OneToMany(mappedBy = "user")
     private List<PerformanceHistory> performanceHistoryList;
 
+    @OneToMany(mappedBy = "user", cascade = CascadeType.REMOVE, orphanRemoval = true)
+    private List<PersonalRecord> personalRecords;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<UserCourse> userCourses = new ArrayList<>();
 
+    @OneToMany(mappedBy = "user", cascade = CascadeType.REMOVE, orphanRemoval = true)
+    private List<StandingReservation> standingReservations;
+
     @Column(name = "registration_token", nullable = true)
     private String registrationToken;
 
@@ -166,11 +176,14 @@ public class User implements UserDetails {
     }
 
     public boolean isSuspended() {
+        return isSuspendedOn(LocalDate.now());
+    }
+
+    public boolean isSuspendedOn(LocalDate date) {
         if (this.suspensionStartDate == null || this.suspensionEndDate == null) {
             return false;
         }
-        LocalDate today = LocalDate.now();
-        return !today.isBefore(this.suspensionStartDate) && !today.isAfter(this.suspensionEndDate);
+        return !date.isBefore(this.suspensionStartDate) && !date.isAfter(this.suspensionEndDate);
     }
 
     public void resetStrikeCount() {
@@ -11,6 +11,10 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Table(
+        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "course_id"}),
+        indexes = @Index(name = "idx_user_course_waiting_list", columnList = "course_id, status, created_at")
+)
 public class UserCourse {
 
     @Id
@@ -32,6 +36,10 @@ public class UserCourse {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    // Présence pointée par le coach à l'ouverture du cours
+    @Column(name = "checked_in_at")
+    private LocalDateTime checkedInAt;
+
     public enum Status {
         REGISTERED,
         WAITING_LIST
@@ -12,7 +12,8 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "user_subscription")
+@Table(name = "user_subscription",
+        indexes = @Index(name = "idx_user_subscription_status_dates", columnList = "status, start_date, end_date"))
 public class UserSubscription {
 
     @Id
@@ -0,0 +1,21 @@
+package com.crossfit.pieds_croises.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Séances confirmées (REGISTERED) d'un utilisateur par semaine ISO, maintenues à chaque inscription et désinscription
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "weekly_session_counter")
+public class WeeklySessionCounter {
+
+    @EmbeddedId
+    private WeeklySessionCounterId id;
+
+    @Column(name = "registered_count", nullable = false)
+    private int registeredCount;
+}
@@ -0,0 +1,24 @@
+package com.crossfit.pieds_croises.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class WeeklySessionCounterId implements Serializable {
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // Lundi de la semaine ISO
+    @Column(name = "week_start", nullable = false)
+    private LocalDate weekStart;
+}
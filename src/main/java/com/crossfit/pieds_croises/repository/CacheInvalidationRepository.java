@@ -0,0 +1,25 @@
+package com.crossfit.pieds_croises.repository;
+
+import com.crossfit.pieds_croises.model.CacheInvalidation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidation, String> {
+
+    // Appelé après commit (écouteurs d'événements) : une transaction propre, jamais celle qui vient de se terminer.
+    // Un seul ordre crée la ligne ou incrémente sa version, sans course entre deux nœuds
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query(value = """
+                INSERT INTO cache_invalidation (resource, version, updated_at)
+                VALUES (:resource, 1, :now) AS new
+                ON DUPLICATE KEY UPDATE version = cache_invalidation.version + 1, updated_at = new.updated_at
+            """, nativeQuery = true)
+    int bump(@Param("resource") String resource, @Param("now") LocalDateTime now);
+}
@@ -1,11 +1,17 @@
 package com.crossfit.pieds_croises.repository;
 
 import com.crossfit.pieds_croises.model.Course;
+import com.crossfit.pieds_croises.model.UserCourse;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,27 +21,274 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
 
     Optional<Course> findByCoachIdAndStartDatetime(Long coachId, LocalDateTime startDatetime);
 
+    // Feuille d'appel en une requête : une ligne par participant, une seule ligne sans participant pour un cours vide
     @Query("""
-                SELECT COUNT(uc) 
-                FROM UserCourse uc 
-                WHERE uc.user.id = :userId 
-                  AND uc.course.startDatetime BETWEEN :startWeek AND :endWeek
-                  AND uc.status = com.crossfit.pieds_croises.model.UserCourse.Status.REGISTERED
+                SELECT c.id AS courseId, c.title AS title, c.startDatetime AS startDatetime,
+                       c.personLimit AS personLimit, c.registeredCount AS registeredCount, c.waitingCount AS waitingCount,
+                       u.id AS userId, u.firstname AS firstname, u.lastname AS lastname,
+                       u.profilePicture AS profilePicture, u.strikeCount AS strikeCount,
+                       uc.status AS status, uc.createdAt AS enrolledAt, uc.checkedInAt AS checkedInAt
+                FROM Course c
+                LEFT JOIN c.userCourses uc
+                LEFT JOIN uc.user u
+                WHERE c.id = :courseId
+                ORDER BY uc.status, uc.createdAt, uc.id
             """)
-    Long countUserCoursesInWeek(
-            @Param("userId") Long userId,
-            @Param("startWeek") LocalDateTime startWeek,
-            @Param("endWeek") LocalDateTime endWeek
-    );
+    List<RosterRow> findRoster(@Param("courseId") Long courseId);
 
+    // Verrou sur la ligne du cours pour les inscriptions par lot : les reserveSeat concurrents attendent la fin du lot
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Course c WHERE c.id = :courseId")
+    Optional<Course> findByIdForUpdate(@Param("courseId") Long courseId);
+
+    // Pagination par curseur sur (startDatetime, id) : pas d'OFFSET, la page N coûte autant que la première
+    @Query("""
+                SELECT c.id AS id, c.title AS title, c.description AS description,
+                       c.startDatetime AS startDatetime, c.duration AS duration, c.personLimit AS personLimit,
+                       c.status AS status, c.registeredCount AS registeredCount, c.waitingCount AS waitingCount,
+                       c.createdAt AS createdAt, c.updatedAt AS updatedAt,
+                       co.id AS coachId, co.firstname AS coachFirstname, co.lastname AS coachLastname
+                FROM Course c
+                LEFT JOIN c.coach co
+                WHERE (:from IS NULL OR c.startDatetime >= :from)
+                  AND (:to IS NULL OR c.startDatetime < :to)
+                  AND (:coachId IS NULL OR co.id = :coachId)
+                  AND (:afterStart IS NULL
+                       OR c.startDatetime > :afterStart
+                       OR (c.startDatetime = :afterStart AND c.id > :afterId))
+                ORDER BY c.startDatetime ASC, c.id ASC
+            """)
+    List<CourseListItem> findCoursePage(@Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to,
+                                        @Param("coachId") Long coachId,
+                                        @Param("afterStart") LocalDateTime afterStart,
+                                        @Param("afterId") Long afterId,
+                                        Pageable pageable);
+
+    // Plus long cours de ces coachs : borne basse de findCoachSlots pour voir les cours commencés avant la période
+    @Query("SELECT MAX(c.duration) FROM Course c WHERE c.coach.id IN :coachIds")
+    Short findMaxDuration(@Param("coachIds") Collection<Long> coachIds);
+
+    // Créneaux déjà occupés par ces coachs sur la période, en une seule requête
     @Query("""
-        SELECT COUNT(uc), c.personLimit
-        FROM Course c 
-        LEFT JOIN c.userCourses uc ON uc.status = com.crossfit.pieds_croises.model.UserCourse.Status.REGISTERED
+                SELECT c.coach.id AS coachId, c.startDatetime AS startDatetime,
+                       c.duration AS duration, c.typicalCourseId AS typicalCourseId
+                FROM Course c
+                WHERE c.coach.id IN :coachIds
+                  AND c.startDatetime >= :from
+                  AND c.startDatetime < :to
+            """)
+    List<CoachSlot> findCoachSlots(@Param("coachIds") Collection<Long> coachIds,
+                                   @Param("from") LocalDateTime from,
+                                   @Param("to") LocalDateTime to);
+
+    // Taux de remplissage agrégés en base à partir du compteur de places, sans jointure sur user_course
+    @Query("""
+        SELECT COUNT(c) AS courseCount,
+               COALESCE(SUM(c.registeredCount * 100.0 / c.personLimit), 0) AS occupancySum
+        FROM Course c
         WHERE c.startDatetime >= :sinceDate
-        GROUP BY c.id, c.personLimit
+          AND c.personLimit > 0
         """)
-    List<Object[]> findCourseOccupancyData(@Param("sinceDate") LocalDateTime sinceDate);
+    OccupancyTotals sumOccupancySince(@Param("sinceDate") LocalDateTime sinceDate);
+
+    interface CourseListItem {
+        Long getId();
+
+        String getTitle();
+
+        String getDescription();
+
+        LocalDateTime getStartDatetime();
+
+        short getDuration();
+
+        Integer getPersonLimit();
+
+        Course.Status getStatus();
+
+        int getRegisteredCount();
+
+        int getWaitingCount();
+
+        LocalDateTime getCreatedAt();
+
+        LocalDateTime getUpdatedAt();
+
+        Long getCoachId();
+
+        String getCoachFirstname();
+
+        String getCoachLastname();
+    }
+
+    interface CoachSlot {
+        Long getCoachId();
+
+        LocalDateTime getStartDatetime();
+
+        short getDuration();
+
+        Long getTypicalCourseId();
+    }
+
+    interface SlotCourseKey {
+        Long getId();
+
+        Long getTypicalCourseId();
+
+        LocalDateTime getStartDatetime();
+
+        LocalDateTime getCreatedAt();
+    }
+
+    interface RosterRow {
+        Long getCourseId();
+
+        String getTitle();
+
+        LocalDateTime getStartDatetime();
+
+        Integer getPersonLimit();
+
+        int getRegisteredCount();
+
+        int getWaitingCount();
+
+        Long getUserId();
+
+        String getFirstname();
+
+        String getLastname();
+
+        String getProfilePicture();
+
+        Byte getStrikeCount();
+
+        UserCourse.Status getStatus();
+
+        LocalDateTime getEnrolledAt();
+
+        LocalDateTime getCheckedInAt();
+    }
+
+    interface OccupancyTotals {
+        Long getCourseCount();
+
+        Double getOccupancySum();
+    }
+
+    // Le statut est assigné avant le compteur : MySQL évalue les SET de gauche à droite
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+                UPDATE Course c
+                SET c.status = CASE WHEN c.registeredCount + 1 >= c.personLimit
+                                    THEN com.crossfit.pieds_croises.model.Course.Status.FULL
+                                    ELSE c.status END,
+                    c.registeredCount = c.registeredCount + 1
+                WHERE c.id = :courseId
+                  AND c.registeredCount < c.personLimit
+            """)
+    int reserveSeat(@Param("courseId") Long courseId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+                UPDATE Course c
+                SET c.status = CASE WHEN c.status = com.crossfit.pieds_croises.model.Course.Status.FULL
+                                    THEN com.crossfit.pieds_croises.model.Course.Status.OPEN
+                                    ELSE c.status END,
+                    c.registeredCount = c.registeredCount - 1
+                WHERE c.id = :courseId
+                  AND c.registeredCount > 0
+            """)
+    int releaseSeat(@Param("courseId") Long courseId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+                UPDATE Course c
+                SET c.waitingCount = c.waitingCount + 1
+                WHERE c.id = :courseId
+            """)
+    int incrementWaitingCount(@Param("courseId") Long courseId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+                UPDATE Course c
+                SET c.waitingCount = c.waitingCount - 1
+                WHERE c.id = :courseId
+                  AND c.waitingCount > 0
+            """)
+    int decrementWaitingCount(@Param("courseId") Long courseId);
+
+    // Cours créés par une génération, verrouillés pendant l'application des réservations permanentes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+                SELECT c FROM Course c
+                WHERE c.id IN :courseIds
+                  AND c.typicalCourseId IS NOT NULL
+                  AND c.status <> com.crossfit.pieds_croises.model.Course.Status.CANCELLED
+                ORDER BY c.startDatetime, c.id
+            """)
+    List<Course> findSlotCoursesForUpdate(@Param("courseIds") Collection<Long> courseIds);
+
+    // Relecture des ids après l'INSERT batché, par l'index (typical_course_id, start_datetime)
+    @Query("""
+                SELECT c.id AS id, c.typicalCourseId AS typicalCourseId, c.startDatetime AS startDatetime,
+                       c.createdAt AS createdAt
+                FROM Course c
+                WHERE c.typicalCourseId IN :typicalCourseIds
+                  AND c.startDatetime >= :from
+                  AND c.startDatetime < :to
+            """)
+    List<SlotCourseKey> findSlotCourseKeys(@Param("typicalCourseIds") Collection<Long> typicalCourseIds,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to);
+
+    // Variante par lot de reserveSeat/releaseSeat : les deltas sont calculés sous le verrou de findByIdForUpdate
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+                UPDATE Course c
+                SET c.status = CASE WHEN c.status = com.crossfit.pieds_croises.model.Course.Status.CANCELLED
+                                    THEN c.status
+                                    WHEN c.registeredCount + :registeredDelta >= c.personLimit
+                                    THEN com.crossfit.pieds_croises.model.Course.Status.FULL
+                                    WHEN c.status = com.crossfit.pieds_croises.model.Course.Status.FULL
+                                    THEN com.crossfit.pieds_croises.model.Course.Status.OPEN
+                                    ELSE c.status END,
+                    c.registeredCount = c.registeredCount + :registeredDelta,
+                    c.waitingCount = c.waitingCount + :waitingDelta
+                WHERE c.id = :courseId
+            """)
+    int adjustSeatCounters(@Param("courseId") Long courseId,
+                           @Param("registeredDelta") int registeredDelta,
+                           @Param("waitingDelta") int waitingDelta);
+
+    // Réparation : recalcule les compteurs depuis user_course (inscriptions insérées en SQL, écritures hors application)
+    @Modifying
+    @Query("""
+                UPDATE Course c
+                SET c.registeredCount = CAST((
+                    SELECT COUNT(uc) FROM UserCourse uc
+                    WHERE uc.course = c
+                      AND uc.status = com.crossfit.pieds_croises.model.UserCourse.Status.REGISTERED
+                ) AS Integer),
+                    c.waitingCount = CAST((
+                    SELECT COUNT(uc) FROM UserCourse uc
+                    WHERE uc.course = c
+                      AND uc.status = com.crossfit.pieds_croises.model.UserCourse.Status.WAITING_LIST
+                ) AS Integer)
+            """)
+    int recomputeSeatCounters();
+
+    @Modifying
+    @Query("""
+                UPDATE Course c
+                SET c.status = CASE WHEN c.registeredCount >= c.personLimit
+                                    THEN com.crossfit.pieds_croises.model.Course.Status.FULL
+                                    ELSE com.crossfit.pieds_croises.model.Course.Status.OPEN END
+                WHERE c.status <> com.crossfit.pieds_croises.model.Course.Status.CANCELLED
+            """)
+    int recomputeStatuses();
 
 
 }
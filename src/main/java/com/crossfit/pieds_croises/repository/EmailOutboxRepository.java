@@ -0,0 +1,32 @@
+package com.crossfit.pieds_croises.repository;
+
+import com.crossfit.pieds_croises.model.EmailOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // SKIP LOCKED (-2) : plusieurs instances peuvent réserver des lots sans prendre deux fois le même email.
+    // Les lignes SENDING dont le bail (next_attempt_at) est expiré sont reprises
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+                SELECT e FROM EmailOutbox e
+                WHERE e.status IN (com.crossfit.pieds_croises.model.EmailOutbox.Status.PENDING,
+                                   com.crossfit.pieds_croises.model.EmailOutbox.Status.SENDING)
+                  AND e.nextAttemptAt <= :now
+                ORDER BY e.id ASC
+            """)
+    List<EmailOutbox> findDueForDispatch(@Param("now") LocalDateTime now, Pageable pageable);
+
+    long countByStatus(EmailOutbox.Status status);
+}
@@ -0,0 +1,49 @@
+package com.crossfit.pieds_croises.repository;
+
+import com.crossfit.pieds_croises.model.MonthlyStatsRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface MonthlyStatsRollupRepository extends JpaRepository<MonthlyStatsRollup, LocalDate> {
+
+    List<MonthlyStatsRollup> findByPeriodStartBetweenOrderByPeriodStartAsc(LocalDate from, LocalDate to);
+
+    // Deux instances qui calculent le même mois en même temps : la ligne existe déjà, on la met à jour,
+    // sauf si un calcul plus récent est déjà passé
+    @Transactional
+    @Modifying
+    @Query(value = """
+                INSERT INTO monthly_stats_rollup (period_start, active_users_count, revenue, closed, computed_at)
+                VALUES (:periodStart, :activeUsersCount, :revenue, :closed, :computedAt) AS new
+                ON DUPLICATE KEY UPDATE
+                    active_users_count = IF(new.computed_at >= monthly_stats_rollup.computed_at,
+                                            new.active_users_count, monthly_stats_rollup.active_users_count),
+                    revenue = IF(new.computed_at >= monthly_stats_rollup.computed_at,
+                                 new.revenue, monthly_stats_rollup.revenue),
+                    closed = IF(new.computed_at >= monthly_stats_rollup.computed_at,
+                                new.closed, monthly_stats_rollup.closed),
+                    computed_at = GREATEST(new.computed_at, monthly_stats_rollup.computed_at)
+            """, nativeQuery = true)
+    int upsert(@Param("periodStart") LocalDate periodStart,
+               @Param("activeUsersCount") long activeUsersCount,
+               @Param("revenue") BigDecimal revenue,
+               @Param("closed") boolean closed,
+               @Param("computedAt") LocalDateTime computedAt);
+
+    @Transactional
+    @Modifying
+    @Query("""
+                UPDATE MonthlyStatsRollup r
+                SET r.invalidatedAt = :now
+                WHERE r.periodStart BETWEEN :from AND :to
+            """)
+    int invalidate(@Param("from") LocalDate from, @Param("to") LocalDate to, @Param("now") LocalDateTime now);
+}
@@ -7,14 +7,35 @@ import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 public interface PerformanceHistoryRepository extends JpaRepository<PerformanceHistory, Long> {
 
     List<PerformanceHistory> findAllByUserIdOrderByDateAsc(Long userId);
 
+    // Recalcul d'un record : à valeur égale, la première fois qu'elle a été atteinte
+    Optional<PerformanceHistory> findFirstByUserIdAndExerciceIdOrderByMeasuredValueDescDateAscIdAsc(Long userId, Long exerciseId);
+
+    Optional<PerformanceHistory> findFirstByUserIdAndExerciceIdOrderByMeasuredValueAscDateAscIdAsc(Long userId, Long exerciseId);
+
     @Query("SELECT w FROM PerformanceHistory w WHERE w.user.id = :userId AND w.date >= :startDate ORDER BY w.date ASC")
     List<PerformanceHistory> findAllByUserIdForLastXMonths(
             @Param("userId") Long userId,
             @Param("startDate") LocalDate startDate
     );
+
+    // Lue entièrement dans l'index (user_id, exercice_id, date, measured_value)
+    @Query("""
+                SELECT p.date AS sampleDate, CAST(p.measuredValue AS Double) AS measuredValue
+                FROM PerformanceHistory p
+                WHERE p.user.id = :userId
+                  AND p.exercice.id = :exerciseId
+                  AND (:from IS NULL OR p.date >= :from)
+                  AND (:to IS NULL OR p.date <= :to)
+                ORDER BY p.date ASC
+            """)
+    List<TimeSeriesSample> findSamples(@Param("userId") Long userId,
+                                       @Param("exerciseId") Long exerciseId,
+                                       @Param("from") LocalDate from,
+                                       @Param("to") LocalDate to);
 }
@@ -0,0 +1,170 @@
+package com.crossfit.pieds_croises.repository;
+
+import com.crossfit.pieds_croises.model.Exercice;
+import com.crossfit.pieds_croises.model.PersonalRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface PersonalRecordRepository extends JpaRepository<PersonalRecord, Long> {
+
+    Optional<PersonalRecord> findByUserIdAndExerciceId(Long userId, Long exerciseId);
+
+    @Query("""
+                SELECT e.id AS exerciseId, e.name AS exerciseName, e.measureType AS measureType,
+                       u.id AS userId, u.firstname AS firstname, u.lastname AS lastname,
+                       pr.bestValue AS bestValue, pr.achievedOn AS achievedOn
+                FROM PersonalRecord pr
+                JOIN pr.exercice e
+                JOIN pr.user u
+                WHERE u.id = :userId
+                ORDER BY e.name ASC
+            """)
+    List<RecordItem> findBoardByUserId(@Param("userId") Long userId);
+
+    // Charges et répétitions : index idx_personal_record_exercice_best_desc ; temps : idx_personal_record_exercice_best_asc.
+    // Le tri complet (valeur, date, id) est celui de l'index : pas de tri en mémoire, la page s'arrête après k lignes
+    @Query("""
+                SELECT pr.id AS recordId, e.id AS exerciseId, e.name AS exerciseName, e.measureType AS measureType,
+                       u.id AS userId, u.firstname AS firstname, u.lastname AS lastname,
+                       pr.bestValue AS bestValue, pr.achievedOn AS achievedOn
+                FROM PersonalRecord pr
+                JOIN pr.exercice e
+                JOIN pr.user u
+                WHERE pr.exercice.id = :exerciseId
+                ORDER BY pr.bestValue DESC, pr.achievedOn ASC, pr.id ASC
+            """)
+    Slice<RecordItem> findTopHighest(@Param("exerciseId") Long exerciseId, Pageable pageable);
+
+    // Page suivante : le curseur est le dernier record affiché, lu par sa clé primaire puis comparé colonne à colonne
+    // (FLOAT contre FLOAT, sans valeur décimale repassée en paramètre). L'index est parcouru à partir de cette position
+    // au lieu de sauter les pages précédentes comme avec un OFFSET
+    @Query("""
+                SELECT pr.id AS recordId, e.id AS exerciseId, e.name AS exerciseName, e.measureType AS measureType,
+                       u.id AS userId, u.firstname AS firstname, u.lastname AS lastname,
+                       pr.bestValue AS bestValue, pr.achievedOn AS achievedOn
+                FROM PersonalRecord pr
+                JOIN pr.exercice e
+                JOIN pr.user u, PersonalRecord a
+                WHERE a.id = :afterId
+                  AND a.exercice.id = :exerciseId
+                  AND pr.exercice.id = :exerciseId
+                  AND pr.bestValue <= a.bestValue
+                  AND (pr.bestValue < a.bestValue
+                       OR pr.achievedOn > a.achievedOn
+                       OR (pr.achievedOn = a.achievedOn AND pr.id > a.id))
+                ORDER BY pr.bestValue DESC, pr.achievedOn ASC, pr.id ASC
+            """)
+    Slice<RecordItem> findTopHighestAfter(@Param("exerciseId") Long exerciseId,
+                                          @Param("afterId") Long afterId,
+                                          Pageable pageable);
+
+    @Query("""
+                SELECT pr.id AS recordId, e.id AS exerciseId, e.name AS exerciseName, e.measureType AS measureType,
+                       u.id AS userId, u.firstname AS firstname, u.lastname AS lastname,
+                       pr.bestValue AS bestValue, pr.achievedOn AS achievedOn
+                FROM PersonalRecord pr
+                JOIN pr.exercice e
+                JOIN pr.user u
+                WHERE pr.exercice.id = :exerciseId
+                ORDER BY pr.bestValue ASC, pr.achievedOn ASC, pr.id ASC
+            """)
+    Slice<RecordItem> findTopLowest(@Param("exerciseId") Long exerciseId, Pageable pageable);
+
+    @Query("""
+                SELECT pr.id AS recordId, e.id AS exerciseId, e.name AS exerciseName, e.measureType AS measureType,
+                       u.id AS userId, u.firstname AS firstname, u.lastname AS lastname,
+                       pr.bestValue AS bestValue, pr.achievedOn AS achievedOn
+                FROM PersonalRecord pr
+                JOIN pr.exercice e
+                JOIN pr.user u, PersonalRecord a
+                WHERE a.id = :afterId
+                  AND a.exercice.id = :exerciseId
+                  AND pr.exercice.id = :exerciseId
+                  AND pr.bestValue >= a.bestValue
+                  AND (pr.bestValue > a.bestValue
+                       OR pr.achievedOn > a.achievedOn
+                       OR (pr.achievedOn = a.achievedOn AND pr.id > a.id))
+                ORDER BY pr.bestValue ASC, pr.achievedOn ASC, pr.id ASC
+            """)
+    Slice<RecordItem> findTopLowestAfter(@Param("exerciseId") Long exerciseId,
+                                         @Param("afterId") Long afterId,
+                                         Pageable pageable);
+
+    // Premier record ou amélioration en une requête : deux premières mesures simultanées ne se heurtent plus
+    // sur la clé unique. performance_history_id est assigné en premier puis sert de témoin aux autres colonnes,
+    // MySQL évaluant les affectations de gauche à droite
+    @Modifying
+    @Query(value = """
+                INSERT INTO personal_record (user_id, exercice_id, best_value, achieved_on, performance_history_id, updated_at)
+                VALUES (:userId, :exerciseId, :value, :achievedOn, :performanceId, :now) AS new
+                ON DUPLICATE KEY UPDATE
+                    performance_history_id = IF(new.best_value > personal_record.best_value
+                                                OR (new.best_value = personal_record.best_value
+                                                    AND new.achieved_on < personal_record.achieved_on),
+                                                new.performance_history_id, personal_record.performance_history_id),
+                    best_value = IF(personal_record.performance_history_id = new.performance_history_id,
+                                    new.best_value, personal_record.best_value),
+                    achieved_on = IF(personal_record.performance_history_id = new.performance_history_id,
+                                     new.achieved_on, personal_record.achieved_on),
+                    updated_at = IF(personal_record.performance_history_id = new.performance_history_id,
+                                    new.updated_at, personal_record.updated_at)
+            """, nativeQuery = true)
+    int upsertIfHigher(@Param("userId") Long userId,
+                       @Param("exerciseId") Long exerciseId,
+                       @Param("value") float value,
+                       @Param("achievedOn") LocalDate achievedOn,
+                       @Param("performanceId") Long performanceId,
+                       @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = """
+                INSERT INTO personal_record (user_id, exercice_id, best_value, achieved_on, performance_history_id, updated_at)
+                VALUES (:userId, :exerciseId, :value, :achievedOn, :performanceId, :now) AS new
+                ON DUPLICATE KEY UPDATE
+                    performance_history_id = IF(new.best_value < personal_record.best_value
+                                                OR (new.best_value = personal_record.best_value
+                                                    AND new.achieved_on < personal_record.achieved_on),
+                                                new.performance_history_id, personal_record.performance_history_id),
+                    best_value = IF(personal_record.performance_history_id = new.performance_history_id,
+                                    new.best_value, personal_record.best_value),
+                    achieved_on = IF(personal_record.performance_history_id = new.performance_history_id,
+                                     new.achieved_on, personal_record.achieved_on),
+                    updated_at = IF(personal_record.performance_history_id = new.performance_history_id,
+                                    new.updated_at, personal_record.updated_at)
+            """, nativeQuery = true)
+    int upsertIfLower(@Param("userId") Long userId,
+                      @Param("exerciseId") Long exerciseId,
+                      @Param("value") float value,
+                      @Param("achievedOn") LocalDate achievedOn,
+                      @Param("performanceId") Long performanceId,
+                      @Param("now") LocalDateTime now);
+
+    interface RecordItem {
+        Long getRecordId();
+
+        Long getExerciseId();
+
+        String getExerciseName();
+
+        Exercice.MeasureType getMeasureType();
+
+        Long getUserId();
+
+        String getFirstname();
+
+        String getLastname();
+
+        float getBestValue();
+
+        LocalDate getAchievedOn();
+    }
+}
@@ -0,0 +1,27 @@
+package com.crossfit.pieds_croises.repository;
+
+import com.crossfit.pieds_croises.model.ScheduledTaskLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface ScheduledTaskLockRepository extends JpaRepository<ScheduledTaskLock, String> {
+
+    // Un seul nœud peut passer la condition lockedUntil <= now : la ligne est verrouillée par l'UPDATE
+    @Transactional
+    @Modifying
+    @Query("""
+                UPDATE ScheduledTaskLock l
+                SET l.lockedUntil = :until, l.lockedAt = :now, l.lockedBy = :owner
+                WHERE l.name = :name
+                AND l.lockedUntil <= :now
+            """)
+    int tryAcquire(@Param("name") String name,
+                   @Param("now") LocalDateTime now,
+                   @Param("until") LocalDateTime until,
+                   @Param("owner") String owner);
+}
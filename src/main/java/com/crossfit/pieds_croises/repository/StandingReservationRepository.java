@@ -0,0 +1,59 @@
+package com.crossfit.pieds_croises.repository;
+
+import com.crossfit.pieds_croises.model.StandingReservation;
+import com.crossfit.pieds_croises.model.TypicalCourse;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface StandingReservationRepository extends JpaRepository<StandingReservation, Long> {
+
+    boolean existsByUserIdAndTypicalCourseId(Long userId, Long typicalCourseId);
+
+    Optional<StandingReservation> findByUserIdAndTypicalCourseId(Long userId, Long typicalCourseId);
+
+    @Query("""
+                SELECT sr.id AS id, tc.id AS typicalCourseId, tc.title AS title, tc.day AS day,
+                       tc.hour AS hour, sr.createdAt AS createdAt
+                FROM StandingReservation sr
+                JOIN sr.typicalCourse tc
+                WHERE sr.user.id = :userId
+                ORDER BY tc.day, tc.hour
+            """)
+    List<StandingReservationItem> findItemsByUserId(@Param("userId") Long userId);
+
+    // Membres de plusieurs créneaux en une requête, dans l'ordre d'ancienneté de leur réservation
+    @Query("""
+                SELECT sr.typicalCourse.id AS typicalCourseId, sr.user.id AS userId
+                FROM StandingReservation sr
+                WHERE sr.typicalCourse.id IN :typicalCourseIds
+                ORDER BY sr.createdAt, sr.id
+            """)
+    List<SlotMember> findMembersBySlotIds(@Param("typicalCourseIds") Collection<Long> typicalCourseIds);
+
+    interface StandingReservationItem {
+        Long getId();
+
+        Long getTypicalCourseId();
+
+        String getTitle();
+
+        TypicalCourse.DayOfWeek getDay();
+
+        LocalTime getHour();
+
+        LocalDateTime getCreatedAt();
+    }
+
+    interface SlotMember {
+        Long getTypicalCourseId();
+
+        Long getUserId();
+    }
+}
@@ -0,0 +1,10 @@
+package com.crossfit.pieds_croises.repository;
+
+import java.time.LocalDate;
+
+// Projection commune aux historiques (poids, performances) : seulement la date et la valeur mesurée
+public interface TimeSeriesSample {
+    LocalDate getSampleDate();
+
+    Double getMeasuredValue();
+}
@@ -2,8 +2,20 @@ package com.crossfit.pieds_croises.repository;
 
 import com.crossfit.pieds_croises.model.TypicalWeek;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
 
 public interface TypicalWeekRepository extends JpaRepository<TypicalWeek, Long> {
     // Custom query methods can be defined here if needed
     // For example, find by name or measure type
+
+    @Query("""
+                SELECT DISTINCT tw FROM TypicalWeek tw
+                LEFT JOIN FETCH tw.typicalCourses tc
+                LEFT JOIN FETCH tc.coach
+                WHERE tw.id = :id
+            """)
+    Optional<TypicalWeek> findWithCoursesById(@Param("id") Long id);
 }
@@ -1,9 +1,19 @@
 package com.crossfit.pieds_croises.repository;
 
 import com.crossfit.pieds_croises.model.UserCourse;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +21,111 @@ public interface UserCourseRepository extends JpaRepository<UserCourse, Long> {
 
     Optional<UserCourse> findByUserIdAndCourseId(Long userId, Long courseId);
 
+    boolean existsByUserIdAndCourseId(Long userId, Long courseId);
+
+    long countByCourseIdAndStatus(Long courseId, UserCourse.Status status);
+
+    // Tête de la liste d'attente dans l'ordre d'arrivée (index course_id, status, created_at), limitée aux membres
+    // sous leur quota hebdomadaire : seules les lignes d'une page sont verrouillées. Le quota est celui de l'abonnement
+    // actif qui finit le plus tard (même règle que WeeklySessionQuotaService.quotaAt), sans abonnement pas de limite.
+    // afterId / afterCreatedAt : reprise après le dernier candidat examiné
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+                SELECT uc
+                FROM UserCourse uc
+                JOIN FETCH uc.user u
+                LEFT JOIN WeeklySessionCounter w ON w.id.userId = u.id AND w.id.weekStart = :weekStart
+                WHERE uc.course.id = :courseId
+                  AND uc.status = :status
+                  AND (:afterId IS NULL
+                       OR uc.createdAt > :afterCreatedAt
+                       OR (uc.createdAt = :afterCreatedAt AND uc.id > :afterId))
+                  AND NOT EXISTS (
+                      SELECT 1 FROM UserSubscription us
+                      JOIN us.subscription s
+                      WHERE us.user = u
+                        AND us.status = 'ACTIVE'
+                        AND us.startDate <= :courseStart
+                        AND us.endDate >= :courseStart
+                        AND s.sessionPerWeek > 0
+                        AND s.sessionPerWeek <= COALESCE(w.registeredCount, 0)
+                        AND us.endDate = (
+                            SELECT MAX(us2.endDate) FROM UserSubscription us2
+                            WHERE us2.user = u
+                              AND us2.status = 'ACTIVE'
+                              AND us2.startDate <= :courseStart
+                              AND us2.endDate >= :courseStart
+                        )
+                  )
+                ORDER BY uc.createdAt, uc.id
+            """)
+    List<UserCourse> findEligibleQueueHead(@Param("courseId") Long courseId,
+                                           @Param("status") UserCourse.Status status,
+                                           @Param("weekStart") LocalDate weekStart,
+                                           @Param("courseStart") LocalDateTime courseStart,
+                                           @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                           @Param("afterId") Long afterId,
+                                           Pageable pageable);
+
+    // Inscriptions existantes d'un lot d'utilisateurs, sans charger les entités
+    @Query("""
+                SELECT uc.id AS id, uc.user.id AS userId, uc.status AS status
+                FROM UserCourse uc
+                WHERE uc.course.id = :courseId
+                  AND uc.user.id IN :userIds
+            """)
+    List<EnrolmentItem> findEnrolments(@Param("courseId") Long courseId, @Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query("""
+                UPDATE UserCourse uc
+                SET uc.checkedInAt = :checkedInAt
+                WHERE uc.course.id = :courseId
+                  AND uc.user.id = :userId
+                  AND uc.status = com.crossfit.pieds_croises.model.UserCourse.Status.REGISTERED
+            """)
+    int updateCheckIn(@Param("courseId") Long courseId,
+                      @Param("userId") Long userId,
+                      @Param("checkedInAt") LocalDateTime checkedInAt);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE UserCourse uc SET uc.status = :status WHERE uc.id IN :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") UserCourse.Status status);
+
+    // Participants d'une page de cours en une seule requête, sans charger les entités User
+    @Query("""
+                SELECT uc.course.id AS courseId, uc.user.id AS userId, uc.status AS status
+                FROM UserCourse uc
+                WHERE uc.course.id IN :courseIds
+                ORDER BY uc.course.id, uc.createdAt, uc.id
+            """)
+    List<AttendeeItem> findAttendeesByCourseIds(@Param("courseIds") Collection<Long> courseIds);
+
+    interface AttendeeItem {
+        Long getCourseId();
+
+        Long getUserId();
+
+        UserCourse.Status getStatus();
+    }
+
+    @Query("SELECT DISTINCT uc.course.id FROM UserCourse uc WHERE uc.user.id = :userId ORDER BY uc.course.id")
+    List<Long> findCourseIdsByUserId(@Param("userId") Long userId);
+
+    @Query("""
+                SELECT uc.user.id
+                FROM UserCourse uc
+                WHERE uc.course.id = :courseId
+                  AND uc.status = com.crossfit.pieds_croises.model.UserCourse.Status.REGISTERED
+            """)
+    List<Long> findRegisteredUserIds(@Param("courseId") Long courseId);
+
+    interface EnrolmentItem {
+        Long getId();
+
+        Long getUserId();
+
+        UserCourse.Status getStatus();
+    }
+
 }
@@ -1,11 +1,17 @@
 package com.crossfit.pieds_croises.repository;
 
+import com.crossfit.pieds_croises.enums.SuspensionType;
 import com.crossfit.pieds_croises.model.Course;
 import com.crossfit.pieds_croises.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,9 +32,167 @@ public interface UserRepository extends JpaRepository<User, Long> {
             """)
     List<User> findAllUsersNotInCourse(@Param("course") Course course, @Param("coach") User coach);
 
+    // Sélecteur d'ajout à un cours, sans recherche : parcours de idx_user_lastname_firstname dans l'ordre, sans tri
+    @Query("""
+                SELECT u.id AS id, u.firstname AS firstname, u.lastname AS lastname,
+                       u.email AS email, u.profilePicture AS profilePicture
+                FROM User u
+                WHERE NOT EXISTS (
+                      SELECT 1 FROM UserCourse uc
+                      WHERE uc.user = u AND uc.course.id = :courseId
+                  )
+                  AND NOT EXISTS (
+                      SELECT 1 FROM Course c
+                      WHERE c.id = :courseId AND c.coach = u
+                  )
+                ORDER BY u.lastname, u.firstname, u.id
+            """)
+    Slice<AvailableUser> findUsersNotInCourse(@Param("courseId") Long courseId, Pageable pageable);
+
+    // Page suivante : reprend après le dernier utilisateur renvoyé, lu par sa clé primaire (les noms vides passent en premier)
+    @Query("""
+                SELECT u.id AS id, u.firstname AS firstname, u.lastname AS lastname,
+                       u.email AS email, u.profilePicture AS profilePicture
+                FROM User u
+                JOIN User a ON a.id = :afterId
+                WHERE (u.lastname > a.lastname
+                       OR (a.lastname IS NULL AND u.lastname IS NOT NULL)
+                       OR ((u.lastname = a.lastname OR (u.lastname IS NULL AND a.lastname IS NULL))
+                           AND (u.firstname > a.firstname
+                                OR (a.firstname IS NULL AND u.firstname IS NOT NULL)
+                                OR ((u.firstname = a.firstname OR (u.firstname IS NULL AND a.firstname IS NULL))
+                                    AND u.id > a.id))))
+                  AND NOT EXISTS (
+                      SELECT 1 FROM UserCourse uc
+                      WHERE uc.user = u AND uc.course.id = :courseId
+                  )
+                  AND NOT EXISTS (
+                      SELECT 1 FROM Course c
+                      WHERE c.id = :courseId AND c.coach = u
+                  )
+                ORDER BY u.lastname, u.firstname, u.id
+            """)
+    Slice<AvailableUser> findUsersNotInCourseAfter(@Param("courseId") Long courseId,
+                                                   @Param("afterId") Long afterId,
+                                                   Pageable pageable);
+
+    // Avec recherche : une lecture par plage sur chaque index (nom, prénom, email) plutôt qu'un OR qui parcourt la table,
+    // seul l'ensemble trouvé est trié
+    @Query(value = """
+                SELECT u.id AS id, u.firstname AS firstname, u.lastname AS lastname,
+                       u.email AS email, u.profile_picture AS profilePicture
+                FROM (
+                    SELECT id FROM user WHERE lastname LIKE :prefix ESCAPE '!'
+                    UNION SELECT id FROM user WHERE firstname LIKE :prefix ESCAPE '!'
+                    UNION SELECT id FROM user WHERE email LIKE :prefix ESCAPE '!'
+                ) matched
+                JOIN user u ON u.id = matched.id
+                WHERE NOT EXISTS (
+                      SELECT 1 FROM user_course uc
+                      WHERE uc.user_id = u.id AND uc.course_id = :courseId
+                  )
+                  AND NOT EXISTS (
+                      SELECT 1 FROM course c
+                      WHERE c.id = :courseId AND c.coach_id = u.id
+                  )
+                ORDER BY u.lastname, u.firstname, u.id
+            """, nativeQuery = true)
+    Slice<AvailableUser> searchUsersNotInCourse(@Param("courseId") Long courseId,
+                                                @Param("prefix") String prefix,
+                                                Pageable pageable);
+
+    @Query(value = """
+                SELECT u.id AS id, u.firstname AS firstname, u.lastname AS lastname,
+                       u.email AS email, u.profile_picture AS profilePicture
+                FROM (
+                    SELECT id FROM user WHERE lastname LIKE :prefix ESCAPE '!'
+                    UNION SELECT id FROM user WHERE firstname LIKE :prefix ESCAPE '!'
+                    UNION SELECT id FROM user WHERE email LIKE :prefix ESCAPE '!'
+                ) matched
+                JOIN user u ON u.id = matched.id
+                JOIN user a ON a.id = :afterId
+                WHERE (u.lastname > a.lastname
+                       OR (a.lastname IS NULL AND u.lastname IS NOT NULL)
+                       OR (u.lastname <=> a.lastname
+                           AND (u.firstname > a.firstname
+                                OR (a.firstname IS NULL AND u.firstname IS NOT NULL)
+                                OR (u.firstname <=> a.firstname AND u.id > a.id))))
+                  AND NOT EXISTS (
+                      SELECT 1 FROM user_course uc
+                      WHERE uc.user_id = u.id AND uc.course_id = :courseId
+                  )
+                  AND NOT EXISTS (
+                      SELECT 1 FROM course c
+                      WHERE c.id = :courseId AND c.coach_id = u.id
+                  )
+                ORDER BY u.lastname, u.firstname, u.id
+            """, nativeQuery = true)
+    Slice<AvailableUser> searchUsersNotInCourseAfter(@Param("courseId") Long courseId,
+                                                     @Param("prefix") String prefix,
+                                                     @Param("afterId") Long afterId,
+                                                     Pageable pageable);
+
+    interface AvailableUser {
+        Long getId();
+
+        String getFirstname();
+
+        String getLastname();
+
+        String getEmail();
+
+        String getProfilePicture();
+    }
+
 
     @Query("SELECT DISTINCT u FROM User u " + "LEFT JOIN FETCH u.userSubscriptions us " + " LEFT JOIN FETCH us.subscription s")
     List<User> findAllWithUserSubscriptions();
 
     Optional<User> findByResetPasswordToken(String token);
+
+    // Import en masse : une requête par lot pour les doublons, puis pour relire les ids générés
+    @Query("SELECT u.id AS id, u.email AS email FROM User u WHERE u.email IN :emails")
+    List<EmailId> findIdsByEmails(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT u.phone FROM User u WHERE u.phone IN :phones")
+    List<String> findExistingPhones(@Param("phones") Collection<String> phones);
+
+    interface EmailId {
+        Long getId();
+
+        String getEmail();
+    }
+
+    // Suspensions terminées : PENALTY remet aussi les strikes à zéro
+    @Modifying
+    @Query("""
+                UPDATE User u
+                SET u.suspensionType = null, u.suspensionStartDate = null, u.suspensionEndDate = null,
+                    u.strikeCount = null
+                WHERE u.suspensionType = :penalty
+                AND u.suspensionStartDate IS NOT NULL
+                AND u.suspensionEndDate < :today
+            """)
+    int resetExpiredPenaltySuspensions(@Param("today") LocalDate today, @Param("penalty") SuspensionType penalty);
+
+    @Modifying
+    @Query("""
+                UPDATE User u
+                SET u.suspensionType = null, u.suspensionStartDate = null, u.suspensionEndDate = null
+                WHERE u.suspensionType = :holiday
+                AND u.suspensionStartDate IS NOT NULL
+                AND u.suspensionEndDate < :today
+            """)
+    int resetExpiredHolidaySuspensions(@Param("today") LocalDate today, @Param("holiday") SuspensionType holiday);
+
+    // Gel d'abonnement : dates renseignées sans type
+    @Modifying
+    @Query("""
+                UPDATE User u
+                SET u.suspensionType = :holiday
+                WHERE u.suspensionType IS NULL
+                AND u.suspensionStartDate IS NOT NULL
+                AND u.suspensionEndDate >= :today
+            """)
+    int markUntypedSuspensionsAsHoliday(@Param("today") LocalDate today, @Param("holiday") SuspensionType holiday);
 }
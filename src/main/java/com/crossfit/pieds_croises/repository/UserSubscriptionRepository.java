@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -44,6 +45,54 @@ public interface UserSubscriptionRepository extends JpaRepository<UserSubscripti
 
     Long countByStatus(UserSubscriptionStatus status);
 
-    @Query("SELECT s.price FROM UserSubscription us JOIN us.subscription s WHERE us.status = 'ACTIVE'")
-    List<Integer> findActiveSubscriptionsWithPrices();
+    // Abonnements actifs d'un lot d'utilisateurs qui recouvrent la période, avec leur quota de séances
+    @Query("SELECT us.user.id AS userId, us.startDate AS startDate, us.endDate AS endDate, " +
+        "s.sessionPerWeek AS sessionPerWeek FROM UserSubscription us " +
+        "JOIN us.subscription s " +
+        "WHERE us.user.id IN :userIds " +
+        "AND us.status = 'ACTIVE' " +
+        "AND us.startDate < :to " +
+        "AND us.endDate >= :from")
+    List<ActiveQuota> findActiveQuotas(@Param("userIds") Collection<Long> userIds,
+                                       @Param("from") LocalDateTime from,
+                                       @Param("to") LocalDateTime to);
+
+    @Query("SELECT COALESCE(SUM(s.price), 0) FROM UserSubscription us JOIN us.subscription s WHERE us.status = 'ACTIVE'")
+    Long sumActiveSubscriptionPrices();
+
+    @Query("SELECT us.user.id AS userId, us.startDate AS startDate, us.endDate AS endDate, " +
+        "s.sessionPerWeek AS sessionPerWeek FROM UserSubscription us " +
+        "JOIN us.subscription s " +
+        "WHERE us.user.id = :userId " +
+        "AND us.status = 'ACTIVE' " +
+        "AND us.startDate <= :at " +
+        "AND us.endDate >= :at " +
+        "ORDER BY us.endDate DESC")
+    List<ActiveQuota> findActiveQuotasAt(@Param("userId") Long userId, @Param("at") LocalDateTime at);
+
+    // Prix des abonnements actifs d'un utilisateur, lus avant sa suppression pour les statistiques du tableau de bord
+    @Query("SELECT s.price FROM UserSubscription us JOIN us.subscription s " +
+        "WHERE us.user.id = :userId AND us.status = 'ACTIVE'")
+    List<Integer> findActiveSubscriptionPricesByUserId(@Param("userId") Long userId);
+
+    // Période couverte par les abonnements d'un utilisateur, lue avant sa suppression
+    @Query("SELECT MIN(us.startDate) AS startDate, MAX(us.endDate) AS endDate FROM UserSubscription us " +
+        "WHERE us.user.id = :userId")
+    SubscriptionPeriod findSubscriptionPeriodByUserId(@Param("userId") Long userId);
+
+    interface SubscriptionPeriod {
+        LocalDateTime getStartDate();
+
+        LocalDateTime getEndDate();
+    }
+
+    interface ActiveQuota {
+        Long getUserId();
+
+        LocalDateTime getStartDate();
+
+        LocalDateTime getEndDate();
+
+        Integer getSessionPerWeek();
+    }
 }
@@ -0,0 +1,45 @@
+package com.crossfit.pieds_croises.repository;
+
+import com.crossfit.pieds_croises.model.WeeklySessionCounter;
+import com.crossfit.pieds_croises.model.WeeklySessionCounterId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface WeeklySessionCounterRepository extends JpaRepository<WeeklySessionCounter, WeeklySessionCounterId> {
+
+    List<WeeklySessionCounter> findByIdUserIdInAndIdWeekStartBetween(Collection<Long> userIds, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query(value = """
+                INSERT IGNORE INTO weekly_session_counter (user_id, week_start, registered_count)
+                VALUES (:userId, :weekStart, 0)
+            """, nativeQuery = true)
+    int ensureRow(@Param("userId") Long userId, @Param("weekStart") LocalDate weekStart);
+
+    // Vérification et incrément en une requête : la ligne reste verrouillée jusqu'à la fin de la transaction
+    @Modifying
+    @Query("""
+                UPDATE WeeklySessionCounter w
+                SET w.registeredCount = w.registeredCount + 1
+                WHERE w.id.userId = :userId
+                  AND w.id.weekStart = :weekStart
+                  AND w.registeredCount < :quota
+            """)
+    int tryIncrement(@Param("userId") Long userId,
+                     @Param("weekStart") LocalDate weekStart,
+                     @Param("quota") int quota);
+
+    @Modifying
+    @Query(value = """
+                INSERT INTO weekly_session_counter (user_id, week_start, registered_count)
+                VALUES (:userId, :weekStart, GREATEST(:delta, 0))
+                ON DUPLICATE KEY UPDATE registered_count = GREATEST(registered_count + :delta, 0)
+            """, nativeQuery = true)
+    int addDelta(@Param("userId") Long userId, @Param("weekStart") LocalDate weekStart, @Param("delta") int delta);
+}
@@ -17,4 +17,17 @@ public interface WeightHistoryRepository  extends JpaRepository<WeightHistory, L
             @Param("userId") Long userId,
             @Param("startDate") LocalDate startDate
     );
+
+    // Lue entièrement dans l'index (user_id, date, weight)
+    @Query("""
+                SELECT w.date AS sampleDate, w.weight AS measuredValue
+                FROM WeightHistory w
+                WHERE w.user.id = :userId
+                  AND (:from IS NULL OR w.date >= :from)
+                  AND (:to IS NULL OR w.date <= :to)
+                ORDER BY w.date ASC
+            """)
+    List<TimeSeriesSample> findSamples(@Param("userId") Long userId,
+                                       @Param("from") LocalDate from,
+                                       @Param("to") LocalDate to);
 }
@@ -1,5 +1,6 @@
 package com.crossfit.pieds_croises.security;
 
+import com.crossfit.pieds_croises.event.UserPrincipalChangedEvent;
 import com.crossfit.pieds_croises.model.User;
 import com.crossfit.pieds_croises.repository.UserRepository;
 import com.crossfit.pieds_croises.service.EmailService;
@@ -7,6 +8,7 @@ import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -28,6 +30,7 @@ public class AuthenticationService {
     private final UserRepository userRepository;
     private final EmailService emailService;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${app.base-url}${app.reset-password.uri}")
     private String resetPasswordUrl;
@@ -82,5 +85,6 @@ public class AuthenticationService {
         user.setResetPasswordTokenExpiryDate(null);
 
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserPrincipalChangedEvent(user.getEmail()));
     }
 }
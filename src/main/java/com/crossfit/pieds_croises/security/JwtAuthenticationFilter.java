@@ -1,5 +1,6 @@
 package com.crossfit.pieds_croises.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -10,23 +11,23 @@ import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
   private final JwtService jwtService;
-  private final UserDetailsService userDetailsService;
+  private final PrincipalCache principalCache;
   private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
-  public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+  public JwtAuthenticationFilter(JwtService jwtService, PrincipalCache principalCache) {
     this.jwtService = jwtService;
-    this.userDetailsService = userDetailsService;
+    this.principalCache = principalCache;
   }
 
   @Override
@@ -35,7 +36,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     // Ignore swagger endpoints
     String path = request.getRequestURI();
-    logger.info("Processing request for path: {}", path);
+    logger.debug("Processing request for path: {}", path);
 
     if (isSwaggerEndpoint(path)) {
       logger.debug("Ignoring Swagger endpoint: {}", path);
@@ -46,31 +47,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     String jwt = extractJwtFromCookie(request);
 
     if (jwt == null) {
-      logger.info("No JWT token found in cookies");
+      logger.debug("No JWT token found in cookies");
       filterChain.doFilter(request, response);
       return;
     }
 
     try {
-      String username = jwtService.extractClaims(jwt).getSubject();
+      Optional<Claims> claims = jwtService.parseValidClaims(jwt);
+      String username = claims.map(Claims::getSubject).orElse(null);
+      logger.debug("Is JWT valid? {}", claims.isPresent());
 
       if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        // Les rôles viennent du principal en cache, vidé à chaque changement : un rôle retiré l'est aussitôt
+        UserDetails userDetails = principalCache.getPrincipal(username);
 
-        boolean isValid = jwtService.validateJwtToken(jwt);
-        logger.info("Is JWT valid? {}", isValid);
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+            userDetails, null, userDetails.getAuthorities());
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-        if (isValid) {
-          UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-          UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-              userDetails, null, userDetails.getAuthorities());
-          authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-          SecurityContextHolder.getContext().setAuthentication(authentication);
-          logger.info("Authentication set in SecurityContext for user: {}", username);
-        }
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        logger.debug("Authentication set in SecurityContext for user: {}", username);
       } else if (SecurityContextHolder.getContext().getAuthentication() != null) {
-        logger.info("User already authenticated: {}", SecurityContextHolder.getContext().getAuthentication().getName());
+        logger.debug("User already authenticated: {}", SecurityContextHolder.getContext().getAuthentication().getName());
       }
 
     } catch (Exception e) {
@@ -85,12 +83,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     if (request.getCookies() != null) {
       for (Cookie cookie : request.getCookies()) {
         if ("token".equals(cookie.getName())) {
-          logger.info("Found token cookie with value length: {}", cookie.getValue().length());
+          logger.debug("Found token cookie with value length: {}", cookie.getValue().length());
           return cookie.getValue();
         }
       }
     }
-    logger.info("No cookies found or no 'token' cookie present");
+    logger.debug("No cookies found or no 'token' cookie present");
     return null;
   }
 
@@ -2,35 +2,59 @@ package com.crossfit.pieds_croises.security;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.Optional;
 
 import javax.crypto.SecretKey;
 
 @Service
 public class JwtService {
+  private static final String ROLES_CLAIM = "roles";
+
   @Value("${security.jwt.secret-key}")
   private String secretKey;
 
   @Value("${security.jwt.expiration-time}")
   private long jwtExpiration;
 
+  // La clé et le parser sont immuables et thread-safe : on les construit une seule fois
+  private volatile SecretKey signingKey;
+  private volatile JwtParser jwtParser;
+
   private SecretKey getSigningKey() {
-    return Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+    SecretKey key = signingKey;
+    if (key == null) {
+      key = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+      signingKey = key;
+    }
+    return key;
+  }
+
+  private JwtParser getParser() {
+    JwtParser parser = jwtParser;
+    if (parser == null) {
+      parser = Jwts.parserBuilder().setSigningKey(getSigningKey()).build();
+      jwtParser = parser;
+    }
+    return parser;
   }
 
   public String generateToken(UserDetails userDetails) {
     return Jwts.builder()
         .setSubject(userDetails.getUsername())
-        .claim("roles", userDetails.getAuthorities())
+        // Informatif pour le front : l'autorisation lit les rôles du principal, pas du token
+        .claim(ROLES_CLAIM, userDetails.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList())
         .setIssuedAt(new Date())
         .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
         .signWith(getSigningKey(), SignatureAlgorithm.HS256)
@@ -38,22 +62,24 @@ public class JwtService {
   }
 
   public Claims extractClaims(String token) {
-    return Jwts.parserBuilder()
-        .setSigningKey(getSigningKey())
-        .build()
+    return getParser()
         .parseClaimsJws(token)
         .getBody();
   }
 
-  public boolean validateJwtToken(String token) {
+  // Vérifie la signature et l'expiration en un seul parsing
+  public Optional<Claims> parseValidClaims(String token) {
     try {
-      Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token);
-      return true;
+      return Optional.of(extractClaims(token));
     } catch (JwtException | IllegalArgumentException e) {
-      return false;
+      return Optional.empty();
     }
   }
 
+  public boolean validateJwtToken(String token) {
+    return parseValidClaims(token).isPresent();
+  }
+
   public String getEmailFromToken(String token) {
     return extractClaims(token).getSubject();
   }
@@ -0,0 +1,78 @@
+package com.crossfit.pieds_croises.security;
+
+import com.crossfit.pieds_croises.cache.CacheInvalidationChannel;
+import com.crossfit.pieds_croises.cache.VersionedResponseCache;
+import com.crossfit.pieds_croises.event.UserPrincipalChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+@Component
+public class PrincipalCache {
+
+  private final UserDetailsService userDetailsService;
+  private final CacheInvalidationChannel invalidationChannel;
+  private final boolean enabled;
+  private final Cache<String, PrincipalSnapshot> principals;
+
+  public PrincipalCache(UserDetailsService userDetailsService,
+                        CacheInvalidationChannel invalidationChannel,
+                        MeterRegistry meterRegistry,
+                        @Value("${security.principal-cache.enabled:false}") boolean enabled,
+                        @Value("${security.principal-cache.ttl-seconds:60}") long ttlSeconds,
+                        @Value("${security.principal-cache.max-size:10000}") long maxSize) {
+    this.userDetailsService = userDetailsService;
+    this.invalidationChannel = invalidationChannel;
+    this.enabled = enabled;
+    this.principals = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+        .recordStats()
+        .build();
+    // Expose cache.gets{result=hit|miss}, cache.evictions, cache.size
+    CaffeineCacheMetrics.monitor(meterRegistry, principals, "principals");
+    // Le canal ne transporte que la ressource : un changement sur un autre nœud vide tout le cache local
+    invalidationChannel.subscribe(resource -> {
+      if (resource == VersionedResponseCache.Resource.PRINCIPALS) {
+        evictAll();
+      }
+    });
+  }
+
+  // Le cache garde un instantané immuable ; chaque requête reçoit son propre User détaché
+  public UserDetails getPrincipal(String username) {
+    if (!enabled) {
+      return userDetailsService.loadUserByUsername(username);
+    }
+    return principals.get(username, key -> PrincipalSnapshot.of(userDetailsService.loadUserByUsername(key))).toUser();
+  }
+
+  public void evict(String username) {
+    principals.invalidate(username);
+  }
+
+  public void evictAll() {
+    principals.invalidateAll();
+  }
+
+  // Après commit pour ne pas remettre en cache l'ancienne version ; sans transaction, exécuté immédiatement
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserPrincipalChanged(UserPrincipalChangedEvent event) {
+    if (event.email() == null) {
+      evictAll();
+    } else {
+      evict(event.email());
+    }
+    if (enabled) {
+      invalidationChannel.publish(VersionedResponseCache.Resource.PRINCIPALS);
+    }
+  }
+}
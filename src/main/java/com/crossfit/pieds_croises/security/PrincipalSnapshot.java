@@ -0,0 +1,45 @@
+package com.crossfit.pieds_croises.security;
+
+import com.crossfit.pieds_croises.model.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Copie immuable de ce que l'authentification et les contrôleurs lisent du principal ;
+// jamais d'entité JPA partagée entre requêtes
+record PrincipalSnapshot(
+    Long id,
+    String email,
+    String password,
+    String firstname,
+    String lastname,
+    String profilePicture,
+    Set<String> roles
+) {
+
+  static PrincipalSnapshot of(UserDetails details) {
+    if (details instanceof User user) {
+      return new PrincipalSnapshot(user.getId(), user.getEmail(), user.getPassword(), user.getFirstname(),
+          user.getLastname(), user.getProfilePicture(), user.getRoles() != null ? Set.copyOf(user.getRoles()) : Set.of());
+    }
+    return new PrincipalSnapshot(null, details.getUsername(), details.getPassword(), null, null, null,
+        details.getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .collect(Collectors.toUnmodifiableSet()));
+  }
+
+  // Une instance détachée par requête : les contrôleurs continuent de recevoir un User
+  User toUser() {
+    return User.builder()
+        .id(id)
+        .email(email)
+        .password(password)
+        .firstname(firstname)
+        .lastname(lastname)
+        .profilePicture(profilePicture)
+        .roles(roles)
+        .build();
+  }
+}
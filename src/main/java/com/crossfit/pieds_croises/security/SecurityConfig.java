@@ -42,6 +42,9 @@ public class SecurityConfig {
             .requestMatchers("/v3/api-docs", "/v3/api-docs/**").permitAll()
             .requestMatchers("/swagger-resources/**").permitAll()
             .requestMatchers("/webjars/**").permitAll()
+            // Sondes de disponibilité sans jeton ; métriques et statistiques de cache réservées aux admins
+            .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+            .requestMatchers("/actuator/**").hasRole("ADMIN")
             .anyRequest().authenticated())
         .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
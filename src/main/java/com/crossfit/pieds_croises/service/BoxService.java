@@ -1,5 +1,6 @@
 package com.crossfit.pieds_croises.service;
 
+import com.crossfit.pieds_croises.cache.VersionedResponseCache;
 import com.crossfit.pieds_croises.dto.BoxInfoDTO;
 import com.crossfit.pieds_croises.mapper.BoxMapper;
 import com.crossfit.pieds_croises.model.Box;
@@ -13,8 +14,13 @@ public class BoxService {
 
     private final BoxMapper boxMapper;
     private final BoxRepository boxRepository;
+    private final VersionedResponseCache versionedResponseCache;
 
     public BoxInfoDTO getBoxInfo() {
+        return boxMapper.copy(versionedResponseCache.snapshot(VersionedResponseCache.Resource.BOX, this::loadBoxInfo));
+    }
+
+    private BoxInfoDTO loadBoxInfo() {
         Box box = boxRepository.findAll()
                 .stream()
                 .findFirst()
@@ -29,6 +35,7 @@ public class BoxService {
                 .orElseThrow(() -> new RuntimeException("No box found"));
         boxMapper.updateBoxFromDTO(boxDTO, existingBox);
         boxRepository.save(existingBox);
+        versionedResponseCache.invalidate(VersionedResponseCache.Resource.BOX);
         return boxMapper.convertToBoxInfoDTO(existingBox);
     }
 }
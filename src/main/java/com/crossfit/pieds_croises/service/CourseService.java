@@ -1,113 +1,238 @@
-package com.crossfit.pieds_croises.service;
-
-import com.crossfit.pieds_croises.datetime.DateTimeProvider;
-import com.crossfit.pieds_croises.dto.CourseCreateDTO;
-import com.crossfit.pieds_croises.dto.CourseDTO;
-import com.crossfit.pieds_croises.dto.CourseUpdateDTO;
-import com.crossfit.pieds_croises.exception.BusinessException;
-import com.crossfit.pieds_croises.exception.ResourceNotFoundException;
-import com.crossfit.pieds_croises.mapper.CourseMapper;
-import com.crossfit.pieds_croises.mapper.UserMapper;
-import com.crossfit.pieds_croises.model.Course;
-import com.crossfit.pieds_croises.model.User;
-import com.crossfit.pieds_croises.repository.CourseRepository;
-import com.crossfit.pieds_croises.repository.UserCourseRepository;
-import com.crossfit.pieds_croises.repository.UserRepository;
-import jakarta.validation.Valid;
-import lombok.RequiredArgsConstructor;
-import org.springframework.stereotype.Service;
-
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.util.List;
-import java.util.stream.Collectors;
-
-@Service
-@RequiredArgsConstructor
-public class CourseService {
-    private final CourseRepository courseRepository;
-    private final CourseMapper courseMapper;
-    private final UserRepository userRepository;
-    private final DateTimeProvider dateTimeProvider;
-
-    public List<CourseDTO> getAllCourses() {
-        List<Course> courses = courseRepository.findAll();
-
-        return courses.stream().map(courseMapper::convertToDto).collect(Collectors.toList());
-    }
-
-    public List<CourseDTO> getCoursesNextTwoWeeks() {
-        LocalDateTime now = dateTimeProvider.now();
-        List<Course> courses = courseRepository.findByStartDatetimeBetweenOrderByStartDatetimeAsc(now, now.plusWeeks(2));
-
-        return courses.stream().map(courseMapper::convertToDto).collect(Collectors.toList());
-    }
-
-    public List<CourseDTO> getCoursesByDay(LocalDate date) {
-
-        LocalDateTime startOfDay = date.atStartOfDay();
-        LocalDateTime endOfDay = date.atTime(23, 59, 59);
-
-        List<Course> courses = courseRepository.findByStartDatetimeBetweenOrderByStartDatetimeAsc(startOfDay, endOfDay);
-
-        return courses.stream().map(courseMapper::convertToDto).collect(Collectors.toList());
-    }
-
-    public CourseDTO getCourseByID(Long id) {
-        Course course = courseRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Course with id " + id + " not found"));
-        return courseMapper.convertToDto(course);
-    }
-
-    public CourseDTO createCourse(@Valid CourseCreateDTO courseCreateDTO) {
-
-        courseRepository.findByCoachIdAndStartDatetime(courseCreateDTO.getCoachId(), courseCreateDTO.getStartDatetime())
-                .ifPresent(course -> {
-                    throw new BusinessException("A course already exists with this coach at this start date.");
-                });
-
-        Course course = courseMapper.convertToEntity(courseCreateDTO);
-
-        User coach = userRepository.findById(courseCreateDTO.getCoachId())
-                .orElseThrow(() -> new ResourceNotFoundException("Coach not found with id : " + courseCreateDTO.getCoachId()));
-
-        if (!coach.isCoach()) {
-            throw new ResourceNotFoundException("The selected user does not have the role of coach");
-        }
-
-        LocalDateTime now = dateTimeProvider.now();
-        course.setCreatedAt(now);
-        course.setUpdatedAt(now);
-        course.setCoach(coach);
-
-        course = courseRepository.save(course);
-        return courseMapper.convertToDto(course);
-    }
-
-  public CourseDTO updateCourse(Long id, @Valid CourseUpdateDTO courseUpdateDTO) {
-    Course existingCourse = courseRepository.findById(id)
-        .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
-
-    User coach = userRepository.findById(courseUpdateDTO.getCoachId())
-        .orElseThrow(() -> new ResourceNotFoundException("Coach not found with id : " + courseUpdateDTO.getCoachId()));
-
-    if (!coach.isCoach()) {
-      throw new ResourceNotFoundException("The selected user does not have the role of coach");
-    }
-
-    courseMapper.updateFromDTO(courseUpdateDTO, existingCourse);
-
-    existingCourse.setCoach(coach);
-
-    Course savedCourse = courseRepository.save(existingCourse);
-    return courseMapper.convertToDto(savedCourse);
-  }
-
-
-    public void deleteCourse(Long id) {
-        Course course = courseRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
-
-        courseRepository.delete(course);
-    }
-}
+package com.crossfit.pieds_croises.service;
+
+import com.crossfit.pieds_croises.datetime.DateTimeProvider;
+import com.crossfit.pieds_croises.dto.CourseCreateDTO;
+import com.crossfit.pieds_croises.dto.CourseDTO;
+import com.crossfit.pieds_croises.dto.CoursePageDTO;
+import com.crossfit.pieds_croises.dto.CourseRosterDTO;
+import com.crossfit.pieds_croises.dto.CourseUpdateDTO;
+import com.crossfit.pieds_croises.dto.RosterAttendeeDTO;
+import com.crossfit.pieds_croises.dto.UserCourseDTO;
+import com.crossfit.pieds_croises.exception.BusinessException;
+import com.crossfit.pieds_croises.exception.ResourceNotFoundException;
+import com.crossfit.pieds_croises.mapper.CourseMapper;
+import com.crossfit.pieds_croises.mapper.ProfilePictureUrls;
+import com.crossfit.pieds_croises.mapper.UserMapper;
+import com.crossfit.pieds_croises.model.Course;
+import com.crossfit.pieds_croises.model.User;
+import com.crossfit.pieds_croises.model.WeeklySessionCounterId;
+import com.crossfit.pieds_croises.repository.CourseRepository;
+import com.crossfit.pieds_croises.repository.UserCourseRepository;
+import com.crossfit.pieds_croises.repository.UserRepository;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class CourseService {
+    private final CourseRepository courseRepository;
+    private final CourseMapper courseMapper;
+    private final UserRepository userRepository;
+    private final DateTimeProvider dateTimeProvider;
+    private final UserCourseRepository userCourseRepository;
+    private final WeeklySessionQuotaService weeklySessionQuotaService;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    public List<CourseDTO> getAllCourses() {
+        List<Course> courses = courseRepository.findAll();
+
+        return courses.stream().map(courseMapper::convertToDto).collect(Collectors.toList());
+    }
+
+    // Deux requêtes par page (cours + participants), quelle que soit la taille de la page
+    public CoursePageDTO getCoursesPage(String cursor, int size, LocalDate from, LocalDate to, Long coachId) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BusinessException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        LocalDateTime afterStart = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = decodeCursor(cursor);
+            afterStart = LocalDateTime.parse(position[0]);
+            afterId = Long.valueOf(position[1]);
+        }
+
+        List<CourseRepository.CourseListItem> rows = courseRepository.findCoursePage(
+                from != null ? from.atStartOfDay() : null,
+                to != null ? to.plusDays(1).atStartOfDay() : null,
+                coachId, afterStart, afterId,
+                PageRequest.of(0, size + 1));
+
+        boolean hasNext = rows.size() > size;
+        List<CourseRepository.CourseListItem> page = hasNext ? rows.subList(0, size) : rows;
+
+        Map<Long, List<UserCourseDTO>> attendees = page.isEmpty() ? Map.of() : userCourseRepository
+                .findAttendeesByCourseIds(page.stream().map(CourseRepository.CourseListItem::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(UserCourseRepository.AttendeeItem::getCourseId,
+                        Collectors.mapping(a -> new UserCourseDTO(a.getUserId(), a.getStatus()), Collectors.toList())));
+
+        List<CourseDTO> items = page.stream()
+                .map(item -> {
+                    CourseDTO dto = courseMapper.convertToDto(item);
+                    dto.setUserCoursesInfo(attendees.getOrDefault(item.getId(), List.of()));
+                    return dto;
+                })
+                .toList();
+
+        CourseRepository.CourseListItem last = hasNext ? page.get(page.size() - 1) : null;
+        return CoursePageDTO.builder()
+                .items(items)
+                .nextCursor(last != null ? encodeCursor(last.getStartDatetime(), last.getId()) : null)
+                .build();
+    }
+
+    public List<CourseDTO> getCoursesNextTwoWeeks() {
+        LocalDateTime now = dateTimeProvider.now();
+        List<Course> courses = courseRepository.findByStartDatetimeBetweenOrderByStartDatetimeAsc(now, now.plusWeeks(2));
+
+        return courses.stream().map(courseMapper::convertToDto).collect(Collectors.toList());
+    }
+
+    public List<CourseDTO> getCoursesByDay(LocalDate date) {
+
+        LocalDateTime startOfDay = date.atStartOfDay();
+        LocalDateTime endOfDay = date.atTime(23, 59, 59);
+
+        List<Course> courses = courseRepository.findByStartDatetimeBetweenOrderByStartDatetimeAsc(startOfDay, endOfDay);
+
+        return courses.stream().map(courseMapper::convertToDto).collect(Collectors.toList());
+    }
+
+    public CourseDTO getCourseByID(Long id) {
+        Course course = courseRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Course with id " + id + " not found"));
+        return courseMapper.convertToDto(course);
+    }
+
+    // Une seule requête de projection, quel que soit le nombre de participants
+    public CourseRosterDTO getRoster(Long courseId) {
+        List<CourseRepository.RosterRow> rows = courseRepository.findRoster(courseId);
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException("Course not found with id: " + courseId);
+        }
+
+        CourseRepository.RosterRow course = rows.get(0);
+        List<RosterAttendeeDTO> attendees = rows.stream()
+                .filter(row -> row.getUserId() != null)
+                .map(row -> RosterAttendeeDTO.builder()
+                        .userId(row.getUserId())
+                        .firstname(row.getFirstname())
+                        .lastname(row.getLastname())
+                        .profilePictureThumbnail64(ProfilePictureUrls.thumbnailUrl(row.getProfilePicture(), 64))
+                        .status(row.getStatus())
+                        .strikeCount(row.getStrikeCount() != null ? row.getStrikeCount() : 0)
+                        .enrolledAt(row.getEnrolledAt())
+                        .checkedIn(row.getCheckedInAt() != null)
+                        .checkedInAt(row.getCheckedInAt())
+                        .build())
+                .toList();
+
+        return CourseRosterDTO.builder()
+                .courseId(course.getCourseId())
+                .title(course.getTitle())
+                .startDatetime(course.getStartDatetime())
+                .personLimit(course.getPersonLimit())
+                .registeredCount(course.getRegisteredCount())
+                .waitingCount(course.getWaitingCount())
+                .attendees(attendees)
+                .build();
+    }
+
+    @Transactional
+    public CourseRosterDTO setCheckIn(Long courseId, Long userId, boolean checkedIn) {
+        LocalDateTime checkedInAt = checkedIn ? dateTimeProvider.now() : null;
+        if (userCourseRepository.updateCheckIn(courseId, userId, checkedInAt) == 0) {
+            throw new BusinessException("User not registered in this course");
+        }
+        return getRoster(courseId);
+    }
+
+    public CourseDTO createCourse(@Valid CourseCreateDTO courseCreateDTO) {
+
+        courseRepository.findByCoachIdAndStartDatetime(courseCreateDTO.getCoachId(), courseCreateDTO.getStartDatetime())
+                .ifPresent(course -> {
+                    throw new BusinessException("A course already exists with this coach at this start date.");
+                });
+
+        Course course = courseMapper.convertToEntity(courseCreateDTO);
+
+        User coach = userRepository.findById(courseCreateDTO.getCoachId())
+                .orElseThrow(() -> new ResourceNotFoundException("Coach not found with id : " + courseCreateDTO.getCoachId()));
+
+        if (!coach.isCoach()) {
+            throw new ResourceNotFoundException("The selected user does not have the role of coach");
+        }
+
+        LocalDateTime now = dateTimeProvider.now();
+        course.setCreatedAt(now);
+        course.setUpdatedAt(now);
+        course.setCoach(coach);
+
+        course = courseRepository.save(course);
+        return courseMapper.convertToDto(course);
+    }
+
+  public CourseDTO updateCourse(Long id, @Valid CourseUpdateDTO courseUpdateDTO) {
+    Course existingCourse = courseRepository.findById(id)
+        .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
+
+    User coach = userRepository.findById(courseUpdateDTO.getCoachId())
+        .orElseThrow(() -> new ResourceNotFoundException("Coach not found with id : " + courseUpdateDTO.getCoachId()));
+
+    if (!coach.isCoach()) {
+      throw new ResourceNotFoundException("The selected user does not have the role of coach");
+    }
+
+    courseMapper.updateFromDTO(courseUpdateDTO, existingCourse);
+
+    existingCourse.setCoach(coach);
+
+    Course savedCourse = courseRepository.save(existingCourse);
+    return courseMapper.convertToDto(savedCourse);
+  }
+
+
+    // Les inscriptions partent en cascade : la séance est rendue au quota hebdomadaire des inscrits, dans la même transaction
+    @Transactional
+    public void deleteCourse(Long id) {
+        Course course = courseRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
+
+        LocalDate week = WeeklySessionQuotaService.weekStart(course.getStartDatetime());
+        weeklySessionQuotaService.addAll(userCourseRepository.findRegisteredUserIds(id).stream()
+                .collect(Collectors.toMap(userId -> new WeeklySessionCounterId(userId, week), userId -> -1)));
+        courseRepository.delete(course);
+    }
+
+    private String encodeCursor(LocalDateTime startDatetime, Long id) {
+        String position = startDatetime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (position.length != 2) {
+                throw new BusinessException("Invalid cursor");
+            }
+            LocalDateTime.parse(position[0]);
+            Long.parseLong(position[1]);
+            return position;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessException("Invalid cursor");
+        }
+    }
+}
@@ -1,67 +1,92 @@
 package com.crossfit.pieds_croises.service;
 
+import com.crossfit.pieds_croises.datetime.DateTimeProvider;
 import com.crossfit.pieds_croises.dto.DashboardStatsDTO;
 import com.crossfit.pieds_croises.enums.UserSubscriptionStatus;
-import com.crossfit.pieds_croises.model.UserCourse;
+import com.crossfit.pieds_croises.event.MembershipStatsChangedEvent;
+import com.crossfit.pieds_croises.event.SeatCountChangedEvent;
 import com.crossfit.pieds_croises.repository.*;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
 
+// Les statistiques sont tenues en mémoire : mises à jour par événements, recalculées périodiquement
 @Service
 @RequiredArgsConstructor
 public class DashboardService {
 
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+    private static final int OCCUPANCY_WINDOW_DAYS = 30;
+
     private final UserRepository userRepository;
     private final UserSubscriptionRepository userSubscriptionRepository;
     private final CourseRepository courseRepository;
-    private final UserCourseRepository userCourseRepository;
+    private final DateTimeProvider dateTimeProvider;
+
+    private final AtomicLong totalUsers = new AtomicLong();
+    private final AtomicLong activeUsers = new AtomicLong();
+    private final AtomicLong monthlyRevenue = new AtomicLong();
+    private final AtomicLong occupancyCourseCount = new AtomicLong();
+    private final DoubleAdder occupancySum = new DoubleAdder();
 
     public DashboardStatsDTO getDashboardStats() {
+        long courseCount = occupancyCourseCount.get();
         return DashboardStatsDTO.builder()
-                .totalUsers(getTotalUsers())
-                .activeUsers(getActiveUsers())
-                .monthlyRevenue(getMonthlyRevenue())
-                .averageCourseOccupancyRate(getAverageCourseOccupancyRate())
+                .totalUsers(totalUsers.get())
+                .activeUsers(activeUsers.get())
+                .monthlyRevenue(BigDecimal.valueOf(monthlyRevenue.get()))
+                .averageCourseOccupancyRate(courseCount == 0 ? 0.0 : occupancySum.sum() / courseCount)
                 .build();
     }
 
-    private Long getTotalUsers() {
-        return userRepository.count();
-    }
+    // Rattrape ce que les événements ne couvrent pas : fenêtre glissante de 30 jours, création/suppression de cours
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.dashboard.reconcile-interval-ms:300000}",
+            initialDelayString = "${app.dashboard.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        // Valeurs relevées avant les lectures : seul l'écart est appliqué, les événements reçus entre-temps sont conservés
+        long totalUsersSnapshot = totalUsers.get();
+        long activeUsersSnapshot = activeUsers.get();
+        long monthlyRevenueSnapshot = monthlyRevenue.get();
+        long occupancyCourseCountSnapshot = occupancyCourseCount.get();
+        double occupancySumSnapshot = occupancySum.sum();
 
-    private Long getActiveUsers() {
-        return userSubscriptionRepository.countByStatus(UserSubscriptionStatus.ACTIVE);
-    }
+        LocalDateTime since = dateTimeProvider.now().minusDays(OCCUPANCY_WINDOW_DAYS);
+        CourseRepository.OccupancyTotals occupancy = courseRepository.sumOccupancySince(since);
+        long freshTotalUsers = userRepository.count();
+        long freshActiveUsers = userSubscriptionRepository.countByStatus(UserSubscriptionStatus.ACTIVE);
+        long freshMonthlyRevenue = userSubscriptionRepository.sumActiveSubscriptionPrices();
 
-    private BigDecimal getMonthlyRevenue() {
-        List<Integer> activeSubscriptionPrices = userSubscriptionRepository.findActiveSubscriptionsWithPrices();
-        
-        return activeSubscriptionPrices.stream()
-                .map(BigDecimal::new)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        totalUsers.addAndGet(freshTotalUsers - totalUsersSnapshot);
+        activeUsers.addAndGet(freshActiveUsers - activeUsersSnapshot);
+        monthlyRevenue.addAndGet(freshMonthlyRevenue - monthlyRevenueSnapshot);
+        occupancyCourseCount.addAndGet(occupancy.getCourseCount() - occupancyCourseCountSnapshot);
+        occupancySum.add(occupancy.getOccupancySum() - occupancySumSnapshot);
+        logger.debug("Dashboard statistics reconciled");
     }
 
-    private Double getAverageCourseOccupancyRate() {
-        // Récupérer tous les cours des 30 derniers jours
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        List<Object[]> courseOccupancyData = courseRepository.findCourseOccupancyData(thirtyDaysAgo);
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMembershipStatsChanged(MembershipStatsChangedEvent event) {
+        totalUsers.addAndGet(event.userDelta());
+        activeUsers.addAndGet(event.activeSubscriptionDelta());
+        monthlyRevenue.addAndGet(event.revenueDelta());
+    }
 
-        if (courseOccupancyData.isEmpty()) {
-            return 0.0;
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatCountChanged(SeatCountChangedEvent event) {
+        LocalDateTime since = dateTimeProvider.now().minusDays(OCCUPANCY_WINDOW_DAYS);
+        if (event.personLimit() > 0 && !event.courseStart().isBefore(since)) {
+            occupancySum.add(event.delta() * 100.0 / event.personLimit());
         }
-
-        double totalOccupancyRate = courseOccupancyData.stream()
-                .mapToDouble(result -> {
-                    Long registeredCount = (Long) result[0];
-                    Integer personLimit = (Integer) result[1];
-                    return (double) registeredCount / personLimit * 100;
-                })
-                .sum();
-
-        return totalOccupancyRate / courseOccupancyData.size();
     }
-}
\ No newline at end of file
+}
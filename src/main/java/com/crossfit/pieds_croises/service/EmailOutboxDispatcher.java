@@ -0,0 +1,179 @@
+package com.crossfit.pieds_croises.service;
+
+import com.crossfit.pieds_croises.datetime.DateTimeProvider;
+import com.crossfit.pieds_croises.model.EmailOutbox;
+import com.crossfit.pieds_croises.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class EmailOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final JavaMailSender javaMailSender;
+    private final DateTimeProvider dateTimeProvider;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicLong pendingEmails = new AtomicLong();
+    private final Timer deliveryLatency;
+    private final Counter sentEmails;
+    private final Counter failedEmails;
+
+    @Value("${spring.mail.username}")
+    private String from;
+    @Value("${app.mail.outbox.batch-size:50}")
+    private int batchSize;
+    @Value("${app.mail.outbox.max-attempts:5}")
+    private int maxAttempts;
+    @Value("${app.mail.outbox.initial-backoff-seconds:30}")
+    private long initialBackoffSeconds;
+    // Doit rester bien au-delà de la durée d'envoi d'un lot : passé ce délai, un autre nœud reprend les emails
+    @Value("${app.mail.outbox.lease-seconds:300}")
+    private long leaseSeconds;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository emailOutboxRepository, JavaMailSender javaMailSender,
+                                 DateTimeProvider dateTimeProvider, TransactionTemplate transactionTemplate,
+                                 MeterRegistry meterRegistry) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.javaMailSender = javaMailSender;
+        this.dateTimeProvider = dateTimeProvider;
+        this.transactionTemplate = transactionTemplate;
+        Gauge.builder("email.outbox.pending", pendingEmails, AtomicLong::get)
+                .description("Emails waiting in the outbox")
+                .register(meterRegistry);
+        this.deliveryLatency = Timer.builder("email.outbox.delivery.latency")
+                .description("Time between queuing and SMTP delivery")
+                .register(meterRegistry);
+        this.sentEmails = Counter.builder("email.outbox.sent").register(meterRegistry);
+        this.failedEmails = Counter.builder("email.outbox.failed").register(meterRegistry);
+    }
+
+    // Trois temps : réservation du lot (transaction courte), envoi SMTP hors transaction, puis enregistrement
+    // des résultats (transaction courte). Aucun verrou de ligne n'est tenu pendant l'envoi
+    public int dispatchBatch() {
+        LocalDateTime now = dateTimeProvider.now();
+        List<EmailOutbox> batch = transactionTemplate.execute(status -> claim(now));
+
+        int sent = 0;
+        if (batch != null && !batch.isEmpty()) {
+            Map<MimeMessage, EmailOutbox> messages = new IdentityHashMap<>();
+            for (EmailOutbox email : batch) {
+                try {
+                    messages.put(toMimeMessage(email), email);
+                } catch (MessagingException e) {
+                    markFailure(email, now, e);
+                }
+            }
+            sent = send(messages, dateTimeProvider.now());
+            transactionTemplate.executeWithoutResult(status -> emailOutboxRepository.saveAll(batch));
+        }
+
+        pendingEmails.set(emailOutboxRepository.countByStatus(EmailOutbox.Status.PENDING));
+        return sent;
+    }
+
+    // SKIP LOCKED le temps de passer le lot en SENDING ; next_attempt_at devient la fin du bail.
+    // Un nœud arrêté en plein envoi laisse des lignes SENDING reprises à l'expiration du bail (envoi au moins une fois)
+    private List<EmailOutbox> claim(LocalDateTime now) {
+        List<EmailOutbox> batch = emailOutboxRepository.findDueForDispatch(now, PageRequest.of(0, batchSize));
+        for (EmailOutbox email : batch) {
+            email.setStatus(EmailOutbox.Status.SENDING);
+            email.setNextAttemptAt(now.plusSeconds(leaseSeconds));
+        }
+        return batch;
+    }
+
+    private int send(Map<MimeMessage, EmailOutbox> messages, LocalDateTime now) {
+        if (messages.isEmpty()) {
+            return 0;
+        }
+
+        Map<Object, Exception> failures;
+        try {
+            // JavaMailSenderImpl ouvre une seule connexion SMTP pour l'ensemble du lot
+            javaMailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            failures = Map.of();
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages().isEmpty() ? allFailed(messages, e) : e.getFailedMessages();
+        } catch (MailException e) {
+            failures = allFailed(messages, e);
+        }
+
+        int sent = 0;
+        for (Map.Entry<MimeMessage, EmailOutbox> entry : messages.entrySet()) {
+            EmailOutbox email = entry.getValue();
+            Exception failure = failures.get(entry.getKey());
+            if (failure != null) {
+                markFailure(email, now, failure);
+            } else {
+                email.setStatus(EmailOutbox.Status.SENT);
+                email.setAttempts(email.getAttempts() + 1);
+                email.setSentAt(now);
+                email.setLastError(null);
+                deliveryLatency.record(Duration.between(email.getCreatedAt(), now));
+                sentEmails.increment();
+                sent++;
+            }
+        }
+        logger.info("Email outbox batch: {} sent, {} failed", sent, messages.size() - sent);
+        return sent;
+    }
+
+    private MimeMessage toMimeMessage(EmailOutbox email) throws MessagingException {
+        MimeMessage message = javaMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+        helper.setTo(email.getRecipient());
+        helper.setFrom(from);
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getHtmlContent(), true);
+        return message;
+    }
+
+    private void markFailure(EmailOutbox email, LocalDateTime now, Exception e) {
+        int attempts = email.getAttempts() + 1;
+        email.setAttempts(attempts);
+        email.setLastError(e.getMessage());
+
+        if (attempts >= maxAttempts) {
+            email.setStatus(EmailOutbox.Status.FAILED);
+            failedEmails.increment();
+            logger.error("Giving up on email {} to {} after {} attempts: {}",
+                    email.getId(), email.getRecipient(), attempts, e.getMessage());
+        } else {
+            // Backoff exponentiel : 30s, 1min, 2min, 4min...
+            long delaySeconds = initialBackoffSeconds << (attempts - 1);
+            email.setStatus(EmailOutbox.Status.PENDING);
+            email.setNextAttemptAt(now.plusSeconds(delaySeconds));
+            logger.warn("Error during sending email {} to {}, retry in {}s: {}",
+                    email.getId(), email.getRecipient(), delaySeconds, e.getMessage());
+        }
+    }
+
+    private Map<Object, Exception> allFailed(Map<MimeMessage, EmailOutbox> messages, Exception e) {
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        messages.keySet().forEach(message -> failures.put(message, e));
+        return failures;
+    }
+}
@@ -1,20 +1,19 @@
 package com.crossfit.pieds_croises.service;
 
-import com.crossfit.pieds_croises.exception.EmailSendingException;
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import com.crossfit.pieds_croises.datetime.DateTimeProvider;
+import com.crossfit.pieds_croises.model.EmailOutbox;
+import com.crossfit.pieds_croises.repository.EmailOutboxRepository;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -22,38 +21,51 @@ import java.util.Map;
 public class EmailService {
 
   private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
-  private final JavaMailSender javaMailSender;
-  private final TemplateEngine templateEngine;
-
-  @Value("${spring.mail.username}")
-  private String from;
-
+  private static final String INSERT_OUTBOX_SQL = "INSERT INTO email_outbox "
+      + "(recipient, subject, html_content, status, attempts, next_attempt_at, created_at) VALUES (?, ?, ?, ?, 0, ?, ?)";
+  private final EmailOutboxRepository emailOutboxRepository;
+  private final EmailTemplateRenderer emailTemplateRenderer;
+  private final DateTimeProvider dateTimeProvider;
+  private final JdbcTemplate jdbcTemplate;
+
+  // L'envoi SMTP est fait par EmailOutboxDispatcher, hors du thread de la requête
   public void sendHtmlEmail(String to, String subject, String htmlContent) {
-    try {
-      MimeMessage message = javaMailSender.createMimeMessage();
-      MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+    emailOutboxRepository.save(toOutbox(to, subject, htmlContent, dateTimeProvider.now()));
+    logger.info("Email queued for {}", to);
+  }
 
-      helper.setTo(to);
-      helper.setFrom(from);
-      helper.setSubject(subject);
-      helper.setText(htmlContent, true);
+  public void sendTemplateEmail(String to, String subject, String templateName, Map<String, Object> variables) {
+    String htmlContent = emailTemplateRenderer.render(templateName, variables);
+    sendHtmlEmail(to, subject, htmlContent);
 
-      javaMailSender.send(message);
-      logger.info("Email sends to {}", to);
+  }
 
-    } catch (MessagingException e) {
-      logger.error("Error during sending email to {}: {}", to, e.getMessage());
-      throw new EmailSendingException("Error during sending email to" + to, e);
+  // Envoi groupé (ex : changement de planning) : les rendus sont faits à la suite puis insérés en un batch JDBC,
+  // saveAll ne regroupant pas les INSERT d'une entité à id IDENTITY
+  public void sendBulkTemplateEmail(String subject, String templateName, Map<String, Map<String, Object>> variablesByRecipient) {
+    List<String> recipients = new ArrayList<>(variablesByRecipient.keySet());
+    List<String> contents = emailTemplateRenderer.renderAll(templateName,
+        recipients.stream().map(variablesByRecipient::get).toList());
+
+    LocalDateTime now = dateTimeProvider.now();
+    List<Object[]> rows = new ArrayList<>(recipients.size());
+    for (int i = 0; i < recipients.size(); i++) {
+      rows.add(new Object[]{recipients.get(i), subject, contents.get(i), EmailOutbox.Status.PENDING.name(), now, now});
     }
+    jdbcTemplate.batchUpdate(INSERT_OUTBOX_SQL, rows);
+    logger.info("{} emails queued with template {}", rows.size(), templateName);
   }
 
-  public void sendTemplateEmail(String to, String subject, String templateName, Map<String, Object> variables) {
-    Context context = new Context();
-    context.setVariables(variables);
-
-    String htmlContent = templateEngine.process("email/" + templateName, context);
-    sendHtmlEmail(to, subject, htmlContent);
-
+  private EmailOutbox toOutbox(String to, String subject, String htmlContent, LocalDateTime now) {
+    return EmailOutbox.builder()
+        .recipient(to)
+        .subject(subject)
+        .htmlContent(htmlContent)
+        .status(EmailOutbox.Status.PENDING)
+        .attempts(0)
+        .nextAttemptAt(now)
+        .createdAt(now)
+        .build();
   }
 
   public String generateInvitationLink(String baseUrl, String token) {
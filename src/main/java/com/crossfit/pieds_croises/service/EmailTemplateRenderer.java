@@ -0,0 +1,137 @@
+package com.crossfit.pieds_croises.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.exceptions.TemplateEngineException;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class EmailTemplateRenderer {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailTemplateRenderer.class);
+    private static final String TEMPLATE_PREFIX = "email/";
+    static final List<String> TEMPLATES = List.of(
+            "first-connection",
+            "reset-password",
+            "waiting-user-course-registration-notif"
+    );
+    private static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+    // En dessous, découper le lot coûte plus que le rendu lui-même
+    private static final int MIN_RENDERS_PER_THREAD = 16;
+
+    private final TemplateEngine templateEngine;
+    private final int renderThreads;
+    private final ExecutorService renderExecutor;
+
+    public EmailTemplateRenderer(TemplateEngine templateEngine,
+                                 @Value("${app.mail.render-threads:2}") int renderThreads) {
+        this.templateEngine = templateEngine;
+        this.renderThreads = Math.max(1, renderThreads);
+        // Pool dédié et borné : un envoi groupé n'occupe ni le pool commun ni les threads des requêtes.
+        // File pleine : le thread appelant rend lui-même sa tranche
+        AtomicInteger threadCount = new AtomicInteger();
+        this.renderExecutor = new ThreadPoolExecutor(this.renderThreads, this.renderThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(this.renderThreads * 4),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "email-render-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    // Premier rendu au démarrage pour que les templates soient déjà parsés dans le cache Thymeleaf
+    @EventListener(ApplicationReadyEvent.class)
+    public void preloadTemplates() {
+        for (String templateName : TEMPLATES) {
+            try {
+                render(templateName, Map.of());
+            } catch (TemplateEngineException e) {
+                logger.warn("Unable to preload email template {}: {}", templateName, e.getMessage());
+            }
+        }
+        logger.info("{} email templates preloaded", TEMPLATES.size());
+    }
+
+    // Un buffer par rendu isolé, dimensionné pour un email : rien de retenu entre deux requêtes
+    public String render(String templateName, Map<String, Object> variables) {
+        return render(templateName, variables, new StringWriter(INITIAL_BUFFER_SIZE));
+    }
+
+    // Tranches contiguës rendues en parallèle sur le pool dédié, chacune avec un seul buffer réutilisé ;
+    // l'ordre des variables est conservé
+    public List<String> renderAll(String templateName, List<Map<String, Object>> variables) {
+        int chunks = Math.min(renderThreads, variables.size() / MIN_RENDERS_PER_THREAD);
+        if (chunks <= 1) {
+            return renderChunk(templateName, variables);
+        }
+
+        int chunkSize = (variables.size() + chunks - 1) / chunks;
+        List<Future<List<String>>> futures = new ArrayList<>(chunks);
+        for (int from = 0; from < variables.size(); from += chunkSize) {
+            List<Map<String, Object>> chunk = variables.subList(from, Math.min(from + chunkSize, variables.size()));
+            futures.add(renderExecutor.submit(() -> renderChunk(templateName, chunk)));
+        }
+
+        List<String> rendered = new ArrayList<>(variables.size());
+        for (Future<List<String>> future : futures) {
+            rendered.addAll(join(future));
+        }
+        return rendered;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderExecutor.shutdown();
+    }
+
+    private List<String> renderChunk(String templateName, List<Map<String, Object>> variables) {
+        StringWriter buffer = new StringWriter(INITIAL_BUFFER_SIZE);
+        List<String> rendered = new ArrayList<>(variables.size());
+        for (Map<String, Object> vars : variables) {
+            rendered.add(render(templateName, vars, buffer));
+        }
+        return rendered;
+    }
+
+    // Le buffer est vidé avant chaque rendu : sa capacité sert d'un email à l'autre sans réallocation
+    private String render(String templateName, Map<String, Object> variables, StringWriter buffer) {
+        buffer.getBuffer().setLength(0);
+        Context context = new Context();
+        context.setVariables(variables);
+        templateEngine.process(TEMPLATE_PREFIX + templateName, context, buffer);
+        return buffer.toString();
+    }
+
+    private static List<String> join(Future<List<String>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Email rendering interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Email rendering failed", e.getCause());
+        }
+    }
+}
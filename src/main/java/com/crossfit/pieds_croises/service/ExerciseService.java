@@ -1,5 +1,6 @@
 package com.crossfit.pieds_croises.service;
 
+import com.crossfit.pieds_croises.cache.VersionedResponseCache;
 import com.crossfit.pieds_croises.dto.ExerciceDTO;
 import com.crossfit.pieds_croises.exception.ResourceNotFoundException;
 import com.crossfit.pieds_croises.mapper.ExerciceMapper;
@@ -19,8 +20,15 @@ public class ExerciseService {
 
     private final ExerciseRepository exerciseRepository;
     private final ExerciceMapper exerciseMapper;
+    private final VersionedResponseCache versionedResponseCache;
 
     public List<ExerciceDTO> getAllExercises() {
+        List<ExerciceDTO> exercises = versionedResponseCache.snapshot(
+                VersionedResponseCache.Resource.EXERCISES, this::loadAllExercises);
+        return exercises.stream().map(exerciseMapper::copy).toList();
+    }
+
+    private List<ExerciceDTO> loadAllExercises() {
         List<Exercice> exercises = exerciseRepository.findAll();
         return exercises.stream().map(exerciseMapper::convertToDTO).toList();
     }
@@ -33,6 +41,7 @@ public class ExerciseService {
 
     public ExerciceDTO createExercise(Exercice exercise) {
         Exercice savedExercise = exerciseRepository.save(exercise);
+        versionedResponseCache.invalidate(VersionedResponseCache.Resource.EXERCISES);
         return exerciseMapper.convertToDTO(savedExercise);
     }
 
@@ -43,6 +52,7 @@ public class ExerciseService {
         exercise.setMeasureType(exerciseDetails.getMeasureType());
         exercise.setPerformanceHistoryList(exerciseDetails.getPerformanceHistoryList());
         Exercice updatedExercise = exerciseRepository.save(exercise);
+        versionedResponseCache.invalidate(VersionedResponseCache.Resource.EXERCISES);
         return exerciseMapper.convertToDTO(updatedExercise);
     }
 
@@ -50,5 +60,6 @@ public class ExerciseService {
         Exercice exercise = exerciseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Exercise with id " + id + " not found!"));
         exerciseRepository.delete(exercise);
+        versionedResponseCache.invalidate(VersionedResponseCache.Resource.EXERCISES);
     }
 }
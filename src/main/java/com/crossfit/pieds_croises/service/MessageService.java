@@ -1,5 +1,6 @@
 package com.crossfit.pieds_croises.service;
 
+import com.crossfit.pieds_croises.cache.VersionedResponseCache;
 import com.crossfit.pieds_croises.datetime.DateTimeProvider;
 import com.crossfit.pieds_croises.dto.MessageCreateDTO;
 import com.crossfit.pieds_croises.dto.MessageDTO;
@@ -23,6 +24,7 @@ public class MessageService {
     private final MessageMapper messageMapper;
     private final MessageRepository messageRepository;
     private final DateTimeProvider dateTimeProvider;
+    private final VersionedResponseCache versionedResponseCache;
 
     public List<MessageDTO> getAllMessages() {
         List<Message> messages = messageRepository.findAll();
@@ -38,12 +40,19 @@ public class MessageService {
     }
 
     public List<MessageDTO> getActiveMessages() {
-        List<Message> messages = messageRepository.findActiveMessagesOrderByExpirationDateDesc(dateTimeProvider.today());
+        List<MessageDTO> messages = versionedResponseCache.snapshot(
+                VersionedResponseCache.Resource.ACTIVE_MESSAGES, this::loadActiveMessages);
 
         if (messages.isEmpty()) {
             throw new ResourceNotFoundException("There are no current messages");
         }
-        return messages.stream().map(messageMapper::convertToDto).collect(Collectors.toList());
+        return messages.stream().map(messageMapper::copy).collect(Collectors.toList());
+    }
+
+    private List<MessageDTO> loadActiveMessages() {
+        return messageRepository.findActiveMessagesOrderByExpirationDateDesc(dateTimeProvider.today()).stream()
+                .map(messageMapper::convertToDto)
+                .toList();
     }
 
     public MessageDTO updateMessageStatus(Long id, Message.MessageStatus status) {
@@ -53,6 +62,7 @@ public class MessageService {
         existingMessage.setUpdatedAt(LocalDateTime.now());
 
         Message savedMessage = messageRepository.save(existingMessage);
+        versionedResponseCache.invalidate(VersionedResponseCache.Resource.ACTIVE_MESSAGES);
         return messageMapper.convertToDto(savedMessage);
     }
 
@@ -61,6 +71,7 @@ public class MessageService {
         Message message = messageMapper.convertToEntity(messageCreateDTO);
 
         Message savedMessage = messageRepository.save(message);
+        versionedResponseCache.invalidate(VersionedResponseCache.Resource.ACTIVE_MESSAGES);
         return messageMapper.convertToDto(savedMessage);
     }
 
@@ -70,6 +81,7 @@ public class MessageService {
 
         messageMapper.updateFromDto(messageCreateDTO, existingMessage);
         Message savedMessage = messageRepository.save(existingMessage);
+        versionedResponseCache.invalidate(VersionedResponseCache.Resource.ACTIVE_MESSAGES);
         return messageMapper.convertToDto(savedMessage);
     }
 
@@ -77,5 +89,6 @@ public class MessageService {
         Message message = messageRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Message not found with id: " + id));
         messageRepository.delete(message);
+        versionedResponseCache.invalidate(VersionedResponseCache.Resource.ACTIVE_MESSAGES);
     }
 }
@@ -0,0 +1,133 @@
+package com.crossfit.pieds_croises.service;
+
+import com.crossfit.pieds_croises.datetime.DateTimeProvider;
+import com.crossfit.pieds_croises.dto.MonthlyStatsDto;
+import com.crossfit.pieds_croises.event.SubscriptionPeriodChangedEvent;
+import com.crossfit.pieds_croises.exception.BusinessException;
+import com.crossfit.pieds_croises.model.MonthlyStatsRollup;
+import com.crossfit.pieds_croises.repository.MonthlyStatsRollupRepository;
+import com.crossfit.pieds_croises.repository.UserSubscriptionRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class MonthlyStatsRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MonthlyStatsRollupService.class);
+    private static final int MAX_MONTHS = 120;
+
+    private final MonthlyStatsRollupRepository monthlyStatsRollupRepository;
+    private final UserSubscriptionRepository userSubscriptionRepository;
+    private final DateTimeProvider dateTimeProvider;
+
+    public List<MonthlyStatsDto> getMonthlySeries(YearMonth from, YearMonth to) {
+        if (from.isAfter(to)) {
+            throw new BusinessException("'from' must be before or equal to 'to'");
+        }
+        if (ChronoUnit.MONTHS.between(from, to) >= MAX_MONTHS) {
+            throw new BusinessException("The requested range cannot exceed " + MAX_MONTHS + " months");
+        }
+
+        YearMonth currentMonth = YearMonth.from(dateTimeProvider.today());
+        YearMonth last = to.isAfter(currentMonth) ? currentMonth : to;
+        if (from.isAfter(last)) {
+            return List.of();
+        }
+
+        // Une seule requête sur la table de rollup, quelle que soit la profondeur de l'historique
+        Map<YearMonth, MonthlyStatsRollup> rollups = monthlyStatsRollupRepository
+                .findByPeriodStartBetweenOrderByPeriodStartAsc(from.atDay(1), last.atDay(1))
+                .stream()
+                .collect(Collectors.toMap(r -> YearMonth.from(r.getPeriodStart()), Function.identity()));
+
+        List<MonthlyStatsDto> series = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(last); month = month.plusMonths(1)) {
+            MonthlyStatsRollup rollup = rollups.get(month);
+            if (rollup == null || needsRefresh(rollup, month, currentMonth)) {
+                rollup = computeAndStore(month, currentMonth);
+            }
+            series.add(toDto(rollup));
+        }
+        return series;
+    }
+
+    @Scheduled(fixedDelayString = "${app.stats.rollup-refresh-interval-ms:900000}",
+            initialDelayString = "${app.stats.rollup-refresh-interval-ms:900000}")
+    public void refreshCurrentMonth() {
+        YearMonth currentMonth = YearMonth.from(dateTimeProvider.today());
+        // Clôture le mois précédent au changement de mois
+        MonthlyStatsRollup previous = monthlyStatsRollupRepository.findById(currentMonth.minusMonths(1).atDay(1)).orElse(null);
+        if (previous != null && !previous.isClosed()) {
+            computeAndStore(currentMonth.minusMonths(1), currentMonth);
+        }
+        computeAndStore(currentMonth, currentMonth);
+    }
+
+    // Marque en base les mois touchés, clos compris : toutes les instances les recalculent à la prochaine lecture
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubscriptionPeriodChanged(SubscriptionPeriodChangedEvent event) {
+        YearMonth from = YearMonth.from(event.startDate());
+        YearMonth to = event.endDate() != null ? YearMonth.from(event.endDate()) : from;
+        YearMonth currentMonth = YearMonth.from(dateTimeProvider.today());
+        if (to.isAfter(currentMonth)) {
+            to = currentMonth;
+        }
+        if (!from.isAfter(to)) {
+            monthlyStatsRollupRepository.invalidate(from.atDay(1), to.atDay(1), dateTimeProvider.now());
+        }
+    }
+
+    private boolean needsRefresh(MonthlyStatsRollup rollup, YearMonth month, YearMonth currentMonth) {
+        if (rollup.getInvalidatedAt() != null && !rollup.getInvalidatedAt().isBefore(rollup.getComputedAt())) {
+            return true;
+        }
+        return !rollup.isClosed() && month.isBefore(currentMonth);
+    }
+
+    private MonthlyStatsRollup computeAndStore(YearMonth month, YearMonth currentMonth) {
+        // Horodaté avant les lectures : une invalidation concurrente reste plus récente que ce calcul
+        LocalDateTime computedAt = dateTimeProvider.now();
+        LocalDateTime startDate = month.atDay(1).atStartOfDay();
+        LocalDateTime endDate = month.atEndOfMonth().atTime(23, 59, 59);
+        Long activeUsers = userSubscriptionRepository.countActiveUserSubscriptionsByMonth(startDate, endDate);
+        BigDecimal revenue = userSubscriptionRepository.calculateMonthlyRevenue(startDate, endDate);
+
+        MonthlyStatsRollup rollup = MonthlyStatsRollup.builder()
+                .periodStart(month.atDay(1))
+                .activeUsersCount(activeUsers == null ? 0L : activeUsers)
+                .revenue(revenue == null ? BigDecimal.ZERO : revenue)
+                .closed(month.isBefore(currentMonth))
+                .computedAt(computedAt)
+                .build();
+        monthlyStatsRollupRepository.upsert(rollup.getPeriodStart(), rollup.getActiveUsersCount(), rollup.getRevenue(),
+                rollup.isClosed(), computedAt);
+        logger.debug("Monthly stats rollup computed for {}", month);
+        return rollup;
+    }
+
+    private MonthlyStatsDto toDto(MonthlyStatsRollup rollup) {
+        LocalDate periodStart = rollup.getPeriodStart();
+        return MonthlyStatsDto.builder()
+                .year(periodStart.getYear())
+                .month(periodStart.getMonthValue())
+                .activeUsersCount(rollup.getActiveUsersCount())
+                .revenue(rollup.getRevenue())
+                .build();
+    }
+}
@@ -2,6 +2,8 @@ package com.crossfit.pieds_croises.service;
 
 import com.crossfit.pieds_croises.datetime.DateTimeProvider;
 import com.crossfit.pieds_croises.dto.PerformanceHistoryDTO;
+import com.crossfit.pieds_croises.dto.TimeSeriesDTO;
+import com.crossfit.pieds_croises.enums.TimeSeriesGranularity;
 import com.crossfit.pieds_croises.exception.ResourceNotFoundException;
 import com.crossfit.pieds_croises.mapper.PerformanceHistoryMapper;
 import com.crossfit.pieds_croises.model.Exercice;
@@ -13,6 +15,7 @@ import com.crossfit.pieds_croises.repository.UserRepository;
 import lombok.AllArgsConstructor;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -27,6 +30,7 @@ public class PerformanceHistoryService {
     private final UserRepository userRepository;
     private final ExerciseRepository exerciseRepository;
     private final DateTimeProvider dateTimeProvider;
+    private final PersonalRecordService personalRecordService;
 
     public List<PerformanceHistoryDTO> getAllPerformanceHistory(Long userId) {
         List<PerformanceHistory> performanceHistoryList = performanceHistoryRepository.findAllByUserIdOrderByDateAsc(userId);
@@ -43,6 +47,14 @@ public class PerformanceHistoryService {
                 .collect(Collectors.toList());
     }
 
+    public TimeSeriesDTO getPerformanceSeries(Long userId, Long exerciseId, LocalDate from, LocalDate to,
+                                              TimeSeriesGranularity granularity, int maxPoints) {
+        TimeSeriesDownsampler.validate(from, to, maxPoints);
+        return TimeSeriesDownsampler.downsample(
+                performanceHistoryRepository.findSamples(userId, exerciseId, from, to), granularity, maxPoints);
+    }
+
+    @Transactional
     public PerformanceHistoryDTO createPerformanceHistory(PerformanceHistoryDTO performanceHistoryDTO, Long userId) {
         PerformanceHistory performanceHistory = performanceHistoryMapper.convertToEntity(performanceHistoryDTO);
 
@@ -55,9 +67,11 @@ public class PerformanceHistoryService {
         performanceHistory.setExercice(exercise);
 
         PerformanceHistory savedPerformanceHistory = performanceHistoryRepository.save(performanceHistory);
+        personalRecordService.onPerformanceRecorded(savedPerformanceHistory);
         return performanceHistoryMapper.convertToDTO(savedPerformanceHistory);
     }
 
+    @Transactional
     public PerformanceHistoryDTO updatePerformanceHistory(Long id, PerformanceHistoryDTO performanceHistoryDTO, Long userId) {
         PerformanceHistory performanceHistory = performanceHistoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("PerformanceHistory with id " + id + " not found."));
@@ -69,12 +83,15 @@ public class PerformanceHistoryService {
         Exercice exercise = exerciseRepository.findById(performanceHistoryDTO.getExerciseId())
                 .orElseThrow(() -> new ResourceNotFoundException("Exercise with id " + performanceHistoryDTO.getExerciseId() + " not found."));
 
+        Exercice previousExercise = performanceHistory.getExercice();
         performanceHistoryMapper.updateEntityFromDTO(performanceHistoryDTO, performanceHistory);
         performanceHistory.setExercice(exercise);
         PerformanceHistory updatedPerformanceHistory = performanceHistoryRepository.save(performanceHistory);
+        personalRecordService.onPerformanceUpdated(updatedPerformanceHistory, previousExercise);
         return performanceHistoryMapper.convertToDTO(updatedPerformanceHistory);
     }
 
+    @Transactional
     public void deletePerformanceHistory(Long id, Long userId) {
         PerformanceHistory performanceHistory = performanceHistoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("PerformanceHistory with id " + id + " not found."));
@@ -82,5 +99,6 @@ public class PerformanceHistoryService {
             throw new AccessDeniedException("Not authorized to delete this performanceHistory.");
         }
         performanceHistoryRepository.delete(performanceHistory);
+        personalRecordService.onPerformanceDeleted(performanceHistory);
     }
 }
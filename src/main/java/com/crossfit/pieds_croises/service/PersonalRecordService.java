@@ -0,0 +1,218 @@
+package com.crossfit.pieds_croises.service;
+
+import com.crossfit.pieds_croises.datetime.DateTimeProvider;
+import com.crossfit.pieds_croises.dto.LeaderboardPageDTO;
+import com.crossfit.pieds_croises.dto.PersonalRecordDTO;
+import com.crossfit.pieds_croises.exception.BusinessException;
+import com.crossfit.pieds_croises.exception.ResourceNotFoundException;
+import com.crossfit.pieds_croises.mapper.PersonalRecordMapper;
+import com.crossfit.pieds_croises.model.Exercice;
+import com.crossfit.pieds_croises.model.PerformanceHistory;
+import com.crossfit.pieds_croises.model.PersonalRecord;
+import com.crossfit.pieds_croises.repository.ExerciseRepository;
+import com.crossfit.pieds_croises.repository.PerformanceHistoryRepository;
+import com.crossfit.pieds_croises.repository.PersonalRecordRepository;
+import lombok.AllArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@AllArgsConstructor
+public class PersonalRecordService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PersonalRecordService.class);
+    private static final int MAX_LEADERBOARD_SIZE = 100;
+
+    // Reconstruction complète : une ligne est le record si aucune autre mesure du même couple ne la bat
+    private static final String REBUILD_SQL = """
+            INSERT INTO personal_record (user_id, exercice_id, best_value, achieved_on, performance_history_id, updated_at)
+            SELECT ph.user_id, ph.exercice_id, ph.measured_value, ph.date, ph.id, ?
+            FROM performance_history ph
+            JOIN exercice e ON e.id = ph.exercice_id
+            WHERE ph.user_id IS NOT NULL
+              AND NOT EXISTS (
+                  SELECT 1 FROM performance_history b
+                  WHERE b.user_id = ph.user_id
+                    AND b.exercice_id = ph.exercice_id
+                    AND ((e.measure_type = 'TIME' AND b.measured_value < ph.measured_value)
+                      OR ((e.measure_type IS NULL OR e.measure_type <> 'TIME') AND b.measured_value > ph.measured_value)
+                      OR (b.measured_value = ph.measured_value
+                          AND (b.date < ph.date OR (b.date = ph.date AND b.id < ph.id))))
+              )
+            """;
+
+    private final PersonalRecordRepository personalRecordRepository;
+    private final PerformanceHistoryRepository performanceHistoryRepository;
+    private final ExerciseRepository exerciseRepository;
+    private final PersonalRecordMapper personalRecordMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final DateTimeProvider dateTimeProvider;
+
+    public List<PersonalRecordDTO> getUserBoard(Long userId) {
+        return personalRecordRepository.findBoardByUserId(userId).stream()
+                .map(personalRecordMapper::convertToDto)
+                .toList();
+    }
+
+    // Classement de tous les temps uniquement : lecture des records dans l'ordre de l'index (exercice_id, best_value, achieved_on, id).
+    // Pagination par curseur (dernier record affiché) : pas d'OFFSET, le rang continue celui du curseur
+    public LeaderboardPageDTO getLeaderboard(Long exerciseId, String cursor, int size) {
+        if (size < 1 || size > MAX_LEADERBOARD_SIZE) {
+            throw new BusinessException("Leaderboard size must be between 1 and " + MAX_LEADERBOARD_SIZE);
+        }
+        LeaderboardCursor after = cursor != null ? decodeCursor(cursor) : null;
+        Exercice exercise = exerciseRepository.findById(exerciseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Exercise with id " + exerciseId + " not found."));
+
+        Pageable pageable = PageRequest.of(0, size);
+        boolean lowerIsBetter = lowerIsBetter(exercise);
+        Slice<PersonalRecordRepository.RecordItem> records;
+        if (after == null) {
+            records = lowerIsBetter
+                    ? personalRecordRepository.findTopLowest(exerciseId, pageable)
+                    : personalRecordRepository.findTopHighest(exerciseId, pageable);
+        } else {
+            records = lowerIsBetter
+                    ? personalRecordRepository.findTopLowestAfter(exerciseId, after.recordId(), pageable)
+                    : personalRecordRepository.findTopHighestAfter(exerciseId, after.recordId(), pageable);
+        }
+
+        long rank = after != null ? after.rank() : 0L;
+        List<PersonalRecordDTO> items = new ArrayList<>();
+        for (PersonalRecordRepository.RecordItem record : records.getContent()) {
+            PersonalRecordDTO item = personalRecordMapper.convertToDto(record);
+            item.setRank(++rank);
+            items.add(item);
+        }
+        String nextCursor = records.hasNext() && !items.isEmpty()
+                ? encodeCursor(records.getContent().get(items.size() - 1).getRecordId(), rank)
+                : null;
+        return new LeaderboardPageDTO(exerciseId, size, items, nextCursor);
+    }
+
+    // Nouvelle mesure : comparée au record courant par l'upsert lui-même, sans lecture préalable
+    public void onPerformanceRecorded(PerformanceHistory performance) {
+        Long userId = performance.getUser().getId();
+        Exercice exercise = performance.getExercice();
+        if (lowerIsBetter(exercise)) {
+            personalRecordRepository.upsertIfLower(userId, exercise.getId(), performance.getMeasuredValue(),
+                    performance.getDate(), performance.getId(), dateTimeProvider.now());
+        } else {
+            personalRecordRepository.upsertIfHigher(userId, exercise.getId(), performance.getMeasuredValue(),
+                    performance.getDate(), performance.getId(), dateTimeProvider.now());
+        }
+    }
+
+    public void onPerformanceUpdated(PerformanceHistory performance, Exercice previousExercise) {
+        Long userId = performance.getUser().getId();
+        if (previousExercise != null && !previousExercise.getId().equals(performance.getExercice().getId())) {
+            recompute(userId, previousExercise);
+        }
+
+        Optional<PersonalRecord> current = personalRecordRepository.findByUserIdAndExerciceId(userId, performance.getExercice().getId());
+        if (current.isPresent() && performance.getId().equals(current.get().getPerformanceHistoryId())) {
+            // Le record lui-même a été modifié : il a pu baisser
+            recompute(userId, performance.getExercice());
+        } else {
+            onPerformanceRecorded(performance);
+        }
+    }
+
+    public void onPerformanceDeleted(PerformanceHistory performance) {
+        if (performance.getExercice() == null) {
+            return;
+        }
+        Long userId = performance.getUser().getId();
+        personalRecordRepository.findByUserIdAndExerciceId(userId, performance.getExercice().getId())
+                .filter(record -> performance.getId().equals(record.getPerformanceHistoryId()))
+                .ifPresent(record -> recompute(userId, performance.getExercice()));
+    }
+
+    // Une seule requête indexée sur (user_id, exercice_id) pour retrouver la meilleure mesure restante
+    void recompute(Long userId, Exercice exercise) {
+        Optional<PerformanceHistory> best = lowerIsBetter(exercise)
+                ? performanceHistoryRepository.findFirstByUserIdAndExerciceIdOrderByMeasuredValueAscDateAscIdAsc(userId, exercise.getId())
+                : performanceHistoryRepository.findFirstByUserIdAndExerciceIdOrderByMeasuredValueDescDateAscIdAsc(userId, exercise.getId());
+        Optional<PersonalRecord> current = personalRecordRepository.findByUserIdAndExerciceId(userId, exercise.getId());
+
+        if (best.isEmpty()) {
+            current.ifPresent(personalRecordRepository::delete);
+            return;
+        }
+        PersonalRecord record = current.orElseGet(() -> PersonalRecord.builder()
+                .user(best.get().getUser())
+                .exercice(exercise)
+                .build());
+        apply(record, best.get());
+    }
+
+    // Base vierge ou chargée par data.sql : les records n'existent pas encore.
+    // Une table déjà alimentée est maintenue par les écritures et réparée la nuit
+    @Transactional
+    public int rebuildIfEmpty() {
+        Boolean hasRecords = jdbcTemplate.queryForObject("SELECT EXISTS(SELECT 1 FROM personal_record)", Boolean.class);
+        if (Boolean.TRUE.equals(hasRecords)) {
+            return 0;
+        }
+        return rebuildAll();
+    }
+
+    // La nuit : rattrape les mesures insérées en SQL ou supprimées en cascade
+    @Transactional
+    public int rebuildAll() {
+        jdbcTemplate.update("DELETE FROM personal_record");
+        int rebuilt = jdbcTemplate.update(REBUILD_SQL, dateTimeProvider.now());
+        logger.info("Personal records rebuilt: {}", rebuilt);
+        return rebuilt;
+    }
+
+    private void apply(PersonalRecord record, PerformanceHistory performance) {
+        record.setBestValue(performance.getMeasuredValue());
+        record.setAchievedOn(performance.getDate());
+        record.setPerformanceHistoryId(performance.getId());
+        record.setUpdatedAt(dateTimeProvider.now());
+        personalRecordRepository.save(record);
+    }
+
+    private record LeaderboardCursor(long recordId, long rank) {
+    }
+
+    // R : id du dernier record affiché et son rang
+    private static String encodeCursor(Long recordId, long rank) {
+        String position = "R|" + recordId + "|" + rank;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static LeaderboardCursor decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (position.length != 3 || !position[0].equals("R")) {
+                throw new BusinessException("Invalid cursor");
+            }
+            long recordId = Long.parseLong(position[1]);
+            long rank = Long.parseLong(position[2]);
+            if (recordId < 1 || rank < 1) {
+                throw new BusinessException("Invalid cursor");
+            }
+            return new LeaderboardCursor(recordId, rank);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Invalid cursor");
+        }
+    }
+
+    private static boolean lowerIsBetter(Exercice exercise) {
+        return exercise.getMeasureType() != null && exercise.getMeasureType().isLowerBetter();
+    }
+}
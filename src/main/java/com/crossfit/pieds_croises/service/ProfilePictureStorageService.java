@@ -0,0 +1,216 @@
+package com.crossfit.pieds_croises.service;
+
+import com.crossfit.pieds_croises.event.ProfilePictureUploadedEvent;
+import com.crossfit.pieds_croises.exception.BusinessException;
+import com.crossfit.pieds_croises.mapper.ProfilePictureUrls;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+public class ProfilePictureStorageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProfilePictureStorageService.class);
+    public static final List<Integer> THUMBNAIL_SIZES = List.of(64, 256);
+
+    private final Path root;
+    private final ApplicationEventPublisher eventPublisher;
+    // Miniatures demandées récemment : une rafale de GET sur une miniature absente ne relance qu'une génération
+    private final Cache<String, Boolean> requestedThumbnails = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .build();
+
+    public ProfilePictureStorageService(@Value("${app.uploads.profile-pictures-dir:uploads/profile-pictures}") String rootDir,
+                                        ApplicationEventPublisher eventPublisher) {
+        this.root = Paths.get(rootDir).toAbsolutePath().normalize();
+        this.eventPublisher = eventPublisher;
+    }
+
+    // Copie canal à canal vers un fichier temporaire : l'upload n'est jamais chargé entièrement en mémoire.
+    // Le format est lu dans les octets reçus, jamais dans le Content-Type ou le nom fourni par le client
+    public String store(MultipartFile file, String baseName) throws IOException {
+        Files.createDirectories(root);
+        Path temp = Files.createTempFile(root, "upload-", ".part");
+
+        try {
+            try (InputStream in = file.getInputStream();
+                 ReadableByteChannel source = Channels.newChannel(in);
+                 FileChannel destination = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                long position = 0;
+                long transferred;
+                while ((transferred = destination.transferFrom(source, position, 1 << 20)) > 0) {
+                    position += transferred;
+                }
+            }
+            String extension = detectExtension(temp)
+                    .orElseThrow(() -> new BusinessException("Format de fichier non supporté"));
+            String filename = UUID.randomUUID() + "-" + sanitize(baseName) + "." + extension;
+            Files.move(temp, root.resolve(filename), StandardCopyOption.ATOMIC_MOVE);
+            requestThumbnails(filename);
+            return ProfilePictureUrls.PUBLIC_PATH + filename;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Publie la génération des miniatures, au plus une fois par minute pour un même fichier
+    public void requestThumbnails(String filename) {
+        if (requestedThumbnails.asMap().putIfAbsent(filename, Boolean.TRUE) == null) {
+            eventPublisher.publishEvent(new ProfilePictureUploadedEvent(filename));
+        }
+    }
+
+    public void delete(String profilePicture) throws IOException {
+        if (profilePicture == null || profilePicture.isEmpty()) {
+            return;
+        }
+        String filename = Paths.get(profilePicture).getFileName().toString();
+        Optional<Path> original = resolve(filename);
+        if (original.isPresent()) {
+            Files.deleteIfExists(original.get());
+        }
+        for (int size : THUMBNAIL_SIZES) {
+            Optional<Path> thumbnail = resolveThumbnail(ProfilePictureUrls.thumbnailName(filename, size));
+            if (thumbnail.isPresent()) {
+                Files.deleteIfExists(thumbnail.get());
+            }
+        }
+    }
+
+    public Optional<Path> resolve(String filename) {
+        return resolveUnder(root, filename);
+    }
+
+    public Optional<Path> resolveThumbnail(String thumbnailName) {
+        return resolveUnder(root.resolve(ProfilePictureUrls.THUMBNAILS_DIR), thumbnailName);
+    }
+
+    // "xxx-64.png" -> "xxx.png"
+    public Optional<String> originalNameOfThumbnail(String thumbnailName) {
+        int dash = thumbnailName.lastIndexOf('-');
+        int dot = thumbnailName.lastIndexOf('.');
+        if (dash < 0 || dot < dash) {
+            return Optional.empty();
+        }
+        return Optional.of(thumbnailName.substring(0, dash) + thumbnailName.substring(dot));
+    }
+
+    public void generateThumbnails(String filename) {
+        Optional<Path> original = resolve(filename);
+        if (original.isEmpty() || !Files.exists(original.get())) {
+            return;
+        }
+        String format = formatOf(filename);
+        try {
+            BufferedImage source = ImageIO.read(original.get().toFile());
+            if (source == null) {
+                logger.warn("Unreadable profile picture, no thumbnail generated: {}", filename);
+                return;
+            }
+            Path thumbnailsDir = Files.createDirectories(root.resolve(ProfilePictureUrls.THUMBNAILS_DIR));
+            for (int size : THUMBNAIL_SIZES) {
+                BufferedImage thumbnail = squareThumbnail(source, size, "png".equals(format));
+                Path temp = Files.createTempFile(thumbnailsDir, "thumb-", ".part");
+                try {
+                    ImageIO.write(thumbnail, format, temp.toFile());
+                    Files.move(temp, thumbnailsDir.resolve(ProfilePictureUrls.thumbnailName(filename, size)),
+                            StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Thumbnail generation failed for {}: {}", filename, e.getMessage());
+        }
+    }
+
+    // PNG ou JPEG d'après l'en-tête du fichier, sans décoder l'image
+    private static Optional<String> detectExtension(Path file) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            if (input == null) {
+                return Optional.empty();
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            while (readers.hasNext()) {
+                ImageReader reader = readers.next();
+                try {
+                    String format = reader.getFormatName().toLowerCase(Locale.ROOT);
+                    if (format.equals("png")) {
+                        return Optional.of("png");
+                    }
+                    if (format.equals("jpeg") || format.equals("jpg")) {
+                        return Optional.of("jpg");
+                    }
+                } finally {
+                    reader.dispose();
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    // Le nom de l'utilisateur finit dans le nom de fichier : ni séparateur ni "..", seulement lettres, chiffres et tirets
+    private static String sanitize(String baseName) {
+        return baseName == null ? "" : baseName.replaceAll("[^\\p{L}\\p{N}-]", "_");
+    }
+
+    private static String formatOf(String filename) {
+        String extension = StringUtils.getFilenameExtension(filename);
+        return "png".equalsIgnoreCase(extension) ? "png" : "jpeg";
+    }
+
+    // Recadrage carré centré puis redimensionnement
+    private static BufferedImage squareThumbnail(BufferedImage source, int size, boolean alpha) {
+        int side = Math.min(source.getWidth(), source.getHeight());
+        int x = (source.getWidth() - side) / 2;
+        int y = (source.getHeight() - side) / 2;
+
+        BufferedImage thumbnail = new BufferedImage(size, size, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, size, size, x, y, x + side, y + side, null);
+        } finally {
+            graphics.dispose();
+        }
+        return thumbnail;
+    }
+
+    private static Optional<Path> resolveUnder(Path directory, String filename) {
+        Path resolved = directory.resolve(filename).normalize();
+        return resolved.getParent() != null && resolved.getParent().equals(directory)
+                ? Optional.of(resolved)
+                : Optional.empty();
+    }
+}
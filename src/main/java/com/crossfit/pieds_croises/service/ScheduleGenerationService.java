@@ -0,0 +1,219 @@
+package com.crossfit.pieds_croises.service;
+
+import com.crossfit.pieds_croises.datetime.DateTimeProvider;
+import com.crossfit.pieds_croises.dto.ScheduleGenerationResultDTO;
+import com.crossfit.pieds_croises.exception.BusinessException;
+import com.crossfit.pieds_croises.exception.ResourceNotFoundException;
+import com.crossfit.pieds_croises.model.Course;
+import com.crossfit.pieds_croises.model.TypicalCourse;
+import com.crossfit.pieds_croises.model.TypicalWeek;
+import com.crossfit.pieds_croises.model.User;
+import com.crossfit.pieds_croises.repository.CourseRepository;
+import com.crossfit.pieds_croises.repository.TypicalWeekRepository;
+import com.crossfit.pieds_croises.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class ScheduleGenerationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduleGenerationService.class);
+
+    // Un cours déjà créé par une génération concurrente (clés uniques coach/début et créneau type/début)
+    // laisse la ligne intacte au lieu d'annuler tout le lot ; contrairement à IGNORE, les autres erreurs remontent
+    private static final String INSERT_COURSE_SQL = """
+            INSERT INTO course (title, description, start_datetime, duration, person_limit, status,
+                                registered_count, waiting_count, created_at, updated_at, coach_id, typical_course_id)
+            VALUES (?, ?, ?, ?, ?, ?, 0, 0, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE id = id
+            """;
+
+    private final TypicalWeekRepository typicalWeekRepository;
+    private final CourseRepository courseRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final DateTimeProvider dateTimeProvider;
+    private final StandingReservationService standingReservationService;
+
+    // Une lecture du modèle, une requête de conflits, un INSERT batché : relancer la génération
+    // ne recrée pas les cours déjà présents
+    @Transactional
+    public ScheduleGenerationResultDTO generateFromTypicalWeek(Long typicalWeekId, Long defaultCoachId) {
+        TypicalWeek typicalWeek = typicalWeekRepository.findWithCoursesById(typicalWeekId)
+                .orElseThrow(() -> new ResourceNotFoundException("Typical week not found with id: " + typicalWeekId));
+
+        LocalDate startDate = typicalWeek.getDateStartValidity();
+        LocalDate endDate = typicalWeek.getDateEndValidity();
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            throw new BusinessException("The typical week has no valid validity period");
+        }
+
+        User defaultCoach = defaultCoachId == null ? null : userRepository.findById(defaultCoachId)
+                .orElseThrow(() -> new ResourceNotFoundException("Coach not found with id : " + defaultCoachId));
+
+        Map<DayOfWeek, List<TypicalCourse>> templatesByDay = new EnumMap<>(DayOfWeek.class);
+        Map<Long, User> coaches = new HashMap<>();
+        for (TypicalCourse template : typicalWeek.getTypicalCourses()) {
+            if (template.getDay() == null || template.getHour() == null) {
+                throw new BusinessException("Typical course " + template.getId() + " has no day or hour");
+            }
+            User coach = template.getCoach() != null ? template.getCoach() : defaultCoach;
+            if (coach == null) {
+                throw new BusinessException("No coach assigned to typical course " + template.getId());
+            }
+            if (!coach.isCoach()) {
+                throw new ResourceNotFoundException("The selected user does not have the role of coach");
+            }
+            coaches.put(coach.getId(), coach);
+            templatesByDay.computeIfAbsent(toDayOfWeek(template.getDay()), d -> new ArrayList<>()).add(template);
+        }
+
+        if (coaches.isEmpty()) {
+            return ScheduleGenerationResultDTO.builder()
+                    .typicalWeekId(typicalWeekId)
+                    .conflicts(List.of())
+                    .build();
+        }
+
+        // Intervalles réels par coach : un cours commencé la veille (ou avant la période) qui déborde est vu
+        Short longestExisting = courseRepository.findMaxDuration(coaches.keySet());
+        BusySlots busySlots = new BusySlots();
+        LocalDateTime from = startDate.atStartOfDay();
+        courseRepository.findCoachSlots(coaches.keySet(),
+                        from.minusMinutes(longestExisting != null ? longestExisting : 0),
+                        endDate.plusDays(1).atStartOfDay())
+                .forEach(existing -> busySlots.add(existing.getCoachId(),
+                        new Slot(existing.getStartDatetime(), existing.getDuration(), existing.getTypicalCourseId())));
+
+        // À la seconde : relu tel quel quelle que soit la précision de la colonne created_at
+        LocalDateTime now = dateTimeProvider.now().truncatedTo(ChronoUnit.SECONDS);
+        List<Object[]> rows = new ArrayList<>();
+        List<Occurrence> occurrences = new ArrayList<>();
+        List<LocalDateTime> conflicts = new ArrayList<>();
+        int alreadyExisting = 0;
+
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            for (TypicalCourse template : templatesByDay.getOrDefault(date.getDayOfWeek(), List.of())) {
+                User coach = template.getCoach() != null ? template.getCoach() : defaultCoach;
+                Slot candidate = new Slot(date.atTime(template.getHour()), template.getDuration(), template.getId());
+                List<Slot> overlapping = busySlots.overlapping(coach.getId(), candidate);
+
+                if (overlapping.stream().anyMatch(candidate::sameAs)) {
+                    alreadyExisting++;
+                } else if (!overlapping.isEmpty()) {
+                    conflicts.add(candidate.start());
+                } else {
+                    busySlots.add(coach.getId(), candidate);
+                    occurrences.add(new Occurrence(template.getId(), candidate.start()));
+                    rows.add(new Object[]{
+                            template.getTitle(),
+                            template.getDescription(),
+                            candidate.start(),
+                            template.getDuration(),
+                            template.getPersonLimit(),
+                            Course.Status.OPEN.name(),
+                            now,
+                            now,
+                            coach.getId(),
+                            template.getId()
+                    });
+                }
+            }
+        }
+
+        int standingEnrolments = 0;
+        List<Long> createdIds = List.of();
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_COURSE_SQL, rows);
+            // Les compteurs du lot ne disent rien sous rewriteBatchedStatements (SUCCESS_NO_INFO) :
+            // les lignes de ce passage se reconnaissent à leur created_at, une ligne concurrente garde le sien
+            Set<Occurrence> planned = new HashSet<>(occurrences);
+            createdIds = courseRepository.findSlotCourseKeys(
+                            planned.stream().map(Occurrence::typicalCourseId).collect(Collectors.toSet()),
+                            startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay()).stream()
+                    .filter(key -> planned.contains(new Occurrence(key.getTypicalCourseId(), key.getStartDatetime())))
+                    .filter(key -> now.equals(key.getCreatedAt()))
+                    .map(CourseRepository.SlotCourseKey::getId)
+                    .toList();
+            alreadyExisting += occurrences.size() - createdIds.size();
+        }
+        if (!createdIds.isEmpty()) {
+            // Les réservations permanentes ne portent que sur les cours de ce passage, dans la même transaction,
+            // avant l'ouverture au public. Un cours concurrent créé dans la même seconde passé pour inséré
+            // n'y change rien : l'inscription verrouille le cours et ignore les membres déjà inscrits
+            standingEnrolments = standingReservationService.enrolStandingMembers(createdIds);
+        }
+        logger.info("Typical week {} generated: {} courses created, {} already existing, {} conflicts, {} standing enrolments",
+                typicalWeekId, createdIds.size(), alreadyExisting, conflicts.size(), standingEnrolments);
+
+        return ScheduleGenerationResultDTO.builder()
+                .typicalWeekId(typicalWeekId)
+                .createdCount(createdIds.size())
+                .alreadyExistingCount(alreadyExisting)
+                .conflicts(conflicts)
+                .standingEnrolmentCount(standingEnrolments)
+                .build();
+    }
+
+    private static DayOfWeek toDayOfWeek(TypicalCourse.DayOfWeek day) {
+        // LUNDI..DIMANCHE suit le même ordre que java.time.DayOfWeek
+        return DayOfWeek.of(day.ordinal() + 1);
+    }
+
+    // Créneaux de chaque coach triés par début ; seuls ceux commencés moins de maxDuration avant le candidat
+    // peuvent encore le chevaucher
+    private static final class BusySlots {
+        private final Map<Long, NavigableMap<LocalDateTime, List<Slot>>> byCoach = new HashMap<>();
+        private long maxDuration;
+
+        void add(Long coachId, Slot slot) {
+            byCoach.computeIfAbsent(coachId, k -> new TreeMap<>())
+                    .computeIfAbsent(slot.start(), k -> new ArrayList<>())
+                    .add(slot);
+            maxDuration = Math.max(maxDuration, slot.duration());
+        }
+
+        List<Slot> overlapping(Long coachId, Slot candidate) {
+            NavigableMap<LocalDateTime, List<Slot>> slots = byCoach.get(coachId);
+            if (slots == null) {
+                return List.of();
+            }
+            return slots.subMap(candidate.start().minusMinutes(maxDuration), true, candidate.end(), true).values().stream()
+                    .flatMap(List::stream)
+                    .filter(candidate::overlaps)
+                    .toList();
+        }
+    }
+
+    private record Occurrence(Long typicalCourseId, LocalDateTime start) {
+    }
+
+    private record Slot(LocalDateTime start, short duration, Long typicalCourseId) {
+
+        LocalDateTime end() {
+            return start.plusMinutes(duration);
+        }
+
+        // Même créneau type au même début : déjà généré. Un cours manuel au même horaire reste un conflit
+        boolean sameAs(Slot other) {
+            return start.equals(other.start) && typicalCourseId != null && typicalCourseId.equals(other.typicalCourseId);
+        }
+
+        boolean overlaps(Slot other) {
+            return start.isBefore(other.end()) && other.start.isBefore(end())
+                    || start.equals(other.start);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.crossfit.pieds_croises.service;
+
+import com.crossfit.pieds_croises.datetime.DateTimeProvider;
+import com.crossfit.pieds_croises.model.ScheduledTaskLock;
+import com.crossfit.pieds_croises.repository.ScheduledTaskLockRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Service
+public class ScheduledTaskLockService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduledTaskLockService.class);
+    private final ScheduledTaskLockRepository scheduledTaskLockRepository;
+    private final DateTimeProvider dateTimeProvider;
+    private final String owner;
+
+    public ScheduledTaskLockService(ScheduledTaskLockRepository scheduledTaskLockRepository,
+                                    DateTimeProvider dateTimeProvider) {
+        this.scheduledTaskLockRepository = scheduledTaskLockRepository;
+        this.dateTimeProvider = dateTimeProvider;
+        this.owner = resolveOwner();
+    }
+
+    // Le verrou n'est pas relâché en fin de tâche : il expire après lockFor,
+    // ce qui empêche un nœud dont le cron se déclenche un peu plus tard de rejouer la tâche
+    public boolean tryLock(String name, Duration lockFor) {
+        LocalDateTime now = dateTimeProvider.now();
+        createIfMissing(name, now);
+
+        boolean acquired = scheduledTaskLockRepository.tryAcquire(name, now, now.plus(lockFor), owner) == 1;
+        if (!acquired) {
+            logger.info("Task {} is locked by another node, skipping", name);
+        }
+        return acquired;
+    }
+
+    private void createIfMissing(String name, LocalDateTime now) {
+        if (scheduledTaskLockRepository.existsById(name)) {
+            return;
+        }
+        try {
+            scheduledTaskLockRepository.saveAndFlush(ScheduledTaskLock.builder()
+                    .name(name)
+                    .lockedUntil(now.minusSeconds(1))
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // Créée en parallèle par un autre nœud
+            logger.debug("Lock row {} already created", name);
+        }
+    }
+
+    private static String resolveOwner() {
+        try {
+            return InetAddress.getLocalHost().getHostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        } catch (UnknownHostException e) {
+            return UUID.randomUUID().toString();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.crossfit.pieds_croises.service;
+
+import com.crossfit.pieds_croises.datetime.DateTimeProvider;
+import com.crossfit.pieds_croises.dto.StandingReservationDTO;
+import com.crossfit.pieds_croises.event.SeatCountChangedEvent;
+import com.crossfit.pieds_croises.exception.BusinessException;
+import com.crossfit.pieds_croises.exception.ResourceNotFoundException;
+import com.crossfit.pieds_croises.model.Course;
+import com.crossfit.pieds_croises.model.StandingReservation;
+import com.crossfit.pieds_croises.model.TypicalCourse;
+import com.crossfit.pieds_croises.model.User;
+import com.crossfit.pieds_croises.model.UserCourse;
+import com.crossfit.pieds_croises.model.WeeklySessionCounterId;
+import com.crossfit.pieds_croises.repository.CourseRepository;
+import com.crossfit.pieds_croises.repository.StandingReservationRepository;
+import com.crossfit.pieds_croises.repository.TypicalCourseRepository;
+import com.crossfit.pieds_croises.repository.UserCourseRepository;
+import com.crossfit.pieds_croises.repository.UserRepository;
+import com.crossfit.pieds_croises.repository.UserSubscriptionRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class StandingReservationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StandingReservationService.class);
+
+    private final StandingReservationRepository standingReservationRepository;
+    private final TypicalCourseRepository typicalCourseRepository;
+    private final CourseRepository courseRepository;
+    private final UserRepository userRepository;
+    private final UserCourseRepository userCourseRepository;
+    private final UserSubscriptionRepository userSubscriptionRepository;
+    private final UserCourseService userCourseService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DateTimeProvider dateTimeProvider;
+    private final WeeklySessionQuotaService weeklySessionQuotaService;
+
+    public List<StandingReservationDTO> getUserReservations(Long userId) {
+        return standingReservationRepository.findItemsByUserId(userId).stream()
+                .map(item -> StandingReservationDTO.builder()
+                        .id(item.getId())
+                        .typicalCourseId(item.getTypicalCourseId())
+                        .title(item.getTitle())
+                        .day(item.getDay())
+                        .hour(item.getHour())
+                        .createdAt(item.getCreatedAt())
+                        .build())
+                .toList();
+    }
+
+    @Transactional
+    public StandingReservationDTO subscribe(User user, Long typicalCourseId) {
+        TypicalCourse typicalCourse = typicalCourseRepository.findById(typicalCourseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Typical course not found with id: " + typicalCourseId));
+        if (standingReservationRepository.existsByUserIdAndTypicalCourseId(user.getId(), typicalCourseId)) {
+            throw new BusinessException("Standing reservation already exists for this slot");
+        }
+
+        StandingReservation reservation = standingReservationRepository.save(StandingReservation.builder()
+                .user(user)
+                .typicalCourse(typicalCourse)
+                .createdAt(dateTimeProvider.now())
+                .build());
+        return StandingReservationDTO.builder()
+                .id(reservation.getId())
+                .typicalCourseId(typicalCourse.getId())
+                .title(typicalCourse.getTitle())
+                .day(typicalCourse.getDay())
+                .hour(typicalCourse.getHour())
+                .createdAt(reservation.getCreatedAt())
+                .build();
+    }
+
+    // Les inscriptions déjà posées par les passages précédents sont conservées
+    @Transactional
+    public void unsubscribe(Long userId, Long typicalCourseId) {
+        StandingReservation reservation = standingReservationRepository.findByUserIdAndTypicalCourseId(userId, typicalCourseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Standing reservation not found for typical course: " + typicalCourseId));
+        standingReservationRepository.delete(reservation);
+    }
+
+    // Un passage pour les cours qu'une génération vient de créer : quelques lectures groupées,
+    // un INSERT batché puis un ajustement des compteurs par cours, et relancer le passage n'inscrit personne deux fois.
+    // Les cours existants ne sont pas repris : un membre désinscrit d'une séance le reste
+    @Transactional
+    public int enrolStandingMembers(Collection<Long> courseIds) {
+        if (courseIds.isEmpty()) {
+            return 0;
+        }
+        List<Course> courses = courseRepository.findSlotCoursesForUpdate(courseIds);
+        if (courses.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, List<Long>> membersBySlot = standingReservationRepository.findMembersBySlotIds(
+                        courses.stream().map(Course::getTypicalCourseId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.groupingBy(StandingReservationRepository.SlotMember::getTypicalCourseId,
+                        Collectors.mapping(StandingReservationRepository.SlotMember::getUserId, Collectors.toList())));
+        if (membersBySlot.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> userIds = membersBySlot.values().stream().flatMap(List::stream).collect(Collectors.toSet());
+        Map<Long, User> users = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        // Semaines ISO complètes : le compteur inclut aussi les cours réservés à la main
+        LocalDate firstWeek = WeeklySessionQuotaService.weekStart(courses.get(0).getStartDatetime());
+        LocalDate lastWeek = WeeklySessionQuotaService.weekStart(courses.get(courses.size() - 1).getStartDatetime());
+        Map<WeeklySessionCounterId, Integer> weeklyCounts =
+                new HashMap<>(weeklySessionQuotaService.getCounts(userIds, firstWeek, lastWeek));
+        Map<WeeklySessionCounterId, Integer> weeklyDeltas = new HashMap<>();
+        Map<Long, List<UserSubscriptionRepository.ActiveQuota>> quotas = userSubscriptionRepository
+                .findActiveQuotas(userIds, firstWeek.atStartOfDay(), lastWeek.plusWeeks(1).atStartOfDay()).stream()
+                .collect(Collectors.groupingBy(UserSubscriptionRepository.ActiveQuota::getUserId));
+
+        Set<Enrolment> enrolled = userCourseRepository.findAttendeesByCourseIds(courses.stream().map(Course::getId).toList())
+                .stream()
+                .map(attendee -> new Enrolment(attendee.getCourseId(), attendee.getUserId()))
+                .collect(Collectors.toSet());
+
+        LocalDateTime now = dateTimeProvider.now();
+        List<Object[]> rows = new ArrayList<>();
+        Map<Long, int[]> seatDeltas = new LinkedHashMap<>();
+        List<SeatCountChangedEvent> events = new ArrayList<>();
+        for (Course course : courses) {
+            int freeSeats = Math.max(0, course.getPersonLimit() - course.getRegisteredCount());
+            int registered = 0;
+            int waiting = 0;
+            for (Long userId : membersBySlot.getOrDefault(course.getTypicalCourseId(), List.of())) {
+                if (enrolled.contains(new Enrolment(course.getId(), userId))) {
+                    continue;
+                }
+                User user = users.get(userId);
+                if (user == null || user.isSuspendedOn(course.getStartDatetime().toLocalDate())) {
+                    continue;
+                }
+                int quota = WeeklySessionQuotaService.quotaAt(quotas.getOrDefault(userId, List.of()), course.getStartDatetime());
+                WeeklySessionCounterId week = new WeeklySessionCounterId(userId,
+                        WeeklySessionQuotaService.weekStart(course.getStartDatetime()));
+                if (weeklyCounts.getOrDefault(week, 0) >= quota) {
+                    continue;
+                }
+
+                UserCourse.Status status;
+                if (registered < freeSeats) {
+                    status = UserCourse.Status.REGISTERED;
+                    registered++;
+                    weeklyCounts.merge(week, 1, Integer::sum);
+                    weeklyDeltas.merge(week, 1, Integer::sum);
+                } else {
+                    status = UserCourse.Status.WAITING_LIST;
+                    waiting++;
+                }
+                rows.add(new Object[]{userId, course.getId(), status.name(), now});
+            }
+            if (registered + waiting > 0) {
+                seatDeltas.put(course.getId(), new int[]{registered, waiting});
+            }
+            if (registered > 0) {
+                events.add(new SeatCountChangedEvent(course.getStartDatetime(), course.getPersonLimit(), registered));
+            }
+        }
+
+        if (!rows.isEmpty()) {
+            userCourseService.insertEnrolments(rows);
+            seatDeltas.forEach((courseId, delta) -> courseRepository.adjustSeatCounters(courseId, delta[0], delta[1]));
+            weeklySessionQuotaService.addAll(weeklyDeltas);
+        }
+        events.forEach(event -> eventPublisher.publishEvent(event));
+        logger.info("Standing reservations applied on {} courses: {} enrolments", courses.size(), rows.size());
+        return rows.size();
+    }
+
+    private record Enrolment(Long courseId, Long userId) {
+    }
+}
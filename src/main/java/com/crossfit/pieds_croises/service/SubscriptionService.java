@@ -1,5 +1,6 @@
 package com.crossfit.pieds_croises.service;
 
+import com.crossfit.pieds_croises.cache.VersionedResponseCache;
 import com.crossfit.pieds_croises.dto.SubscriptionCreateDto;
 import com.crossfit.pieds_croises.dto.SubscriptionDto;
 import com.crossfit.pieds_croises.exception.DuplicateResourceException;
@@ -17,6 +18,7 @@ import java.util.List;
 public class SubscriptionService {
     private final SubscriptionRepository subscriptionRepository;
     private final SubscriptionMapper subscriptionMapper;
+    private final VersionedResponseCache versionedResponseCache;
 
     public SubscriptionDto addSubscription(SubscriptionCreateDto subscriptionCreateDto) {
         if (subscriptionRepository.existsByName(subscriptionCreateDto.getName())) {
@@ -30,6 +32,7 @@ public class SubscriptionService {
         Subscription subscription = subscriptionMapper.convertToSubscriptionEntity(subscriptionCreateDto);
 
         Subscription savedSubscription = subscriptionRepository.save(subscription);
+        versionedResponseCache.invalidate(VersionedResponseCache.Resource.SUBSCRIPTIONS);
         return subscriptionMapper.convertToSubscriptionDto(savedSubscription);
     }
 
@@ -45,6 +48,7 @@ public class SubscriptionService {
 
         subscriptionMapper.updateSubscriptionFromDto(subscriptionDto, subscription);
         Subscription updatedSubscription = subscriptionRepository.save(subscription);
+        versionedResponseCache.invalidate(VersionedResponseCache.Resource.SUBSCRIPTIONS);
         return subscriptionMapper.convertToSubscriptionDto(updatedSubscription);
     }
 
@@ -52,14 +56,22 @@ public class SubscriptionService {
         Subscription subscription = subscriptionRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Subscription not found"));
         subscriptionRepository.delete(subscription);
+        versionedResponseCache.invalidate(VersionedResponseCache.Resource.SUBSCRIPTIONS);
     }
 
     public List<SubscriptionDto> getAllSubscriptions() {
-        List<Subscription> subscriptions = subscriptionRepository.findAll();
+        List<SubscriptionDto> subscriptions = versionedResponseCache.snapshot(
+                VersionedResponseCache.Resource.SUBSCRIPTIONS, this::loadAllSubscriptions);
         if (subscriptions.isEmpty()) {
             throw new ResourceNotFoundException("No subscriptions found");
         }
         return subscriptions.stream()
+                .map(subscriptionMapper::copy)
+                .toList();
+    }
+
+    private List<SubscriptionDto> loadAllSubscriptions() {
+        return subscriptionRepository.findAll().stream()
                 .map(subscriptionMapper::convertToSubscriptionDto)
                 .toList();
     }
@@ -0,0 +1,99 @@
+package com.crossfit.pieds_croises.service;
+
+import com.crossfit.pieds_croises.dto.TimeSeriesDTO;
+import com.crossfit.pieds_croises.dto.TimeSeriesPointDTO;
+import com.crossfit.pieds_croises.enums.TimeSeriesGranularity;
+import com.crossfit.pieds_croises.exception.BusinessException;
+import com.crossfit.pieds_croises.repository.TimeSeriesSample;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Agrège les mesures (triées par date) en au plus maxPoints périodes : la taille du graphique ne dépend plus de l'ancienneté
+public final class TimeSeriesDownsampler {
+
+    public static final int DEFAULT_MAX_POINTS = 120;
+    public static final int MAX_POINTS = 500;
+
+    private TimeSeriesDownsampler() {
+    }
+
+    public static void validate(LocalDate from, LocalDate to, int maxPoints) {
+        if (maxPoints < 1 || maxPoints > MAX_POINTS) {
+            throw new BusinessException("maxPoints must be between 1 and " + MAX_POINTS);
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BusinessException("from must be before to");
+        }
+    }
+
+    public static TimeSeriesDTO downsample(List<? extends TimeSeriesSample> samples,
+                                           TimeSeriesGranularity granularity,
+                                           int maxPoints) {
+        if (samples.isEmpty()) {
+            return new TimeSeriesDTO(granularity != null ? granularity : TimeSeriesGranularity.DAY, List.of(), false);
+        }
+
+        // Sans granularité demandée : la plus fine qui tient dans maxPoints
+        TimeSeriesGranularity effective = granularity != null
+                ? granularity
+                : chooseGranularity(samples.getFirst().getSampleDate(), samples.getLast().getSampleDate(), maxPoints);
+
+        Map<LocalDate, Bucket> buckets = new LinkedHashMap<>();
+        for (TimeSeriesSample sample : samples) {
+            if (sample.getMeasuredValue() == null) {
+                continue;
+            }
+            buckets.computeIfAbsent(effective.periodStart(sample.getSampleDate()), Bucket::new)
+                    .add(sample.getMeasuredValue());
+        }
+
+        List<TimeSeriesPointDTO> points = new ArrayList<>(buckets.size());
+        for (Bucket bucket : buckets.values()) {
+            points.add(bucket.toPoint());
+        }
+
+        boolean truncated = points.size() > maxPoints;
+        if (truncated) {
+            points = new ArrayList<>(points.subList(points.size() - maxPoints, points.size()));
+        }
+        return new TimeSeriesDTO(effective, points, truncated);
+    }
+
+    static TimeSeriesGranularity chooseGranularity(LocalDate first, LocalDate last, int maxPoints) {
+        for (TimeSeriesGranularity candidate : TimeSeriesGranularity.values()) {
+            if (candidate.periodsBetween(first, last) <= maxPoints) {
+                return candidate;
+            }
+        }
+        return TimeSeriesGranularity.MONTH;
+    }
+
+    private static final class Bucket {
+        private final LocalDate periodStart;
+        private int count;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        private double sum;
+        private double last;
+
+        private Bucket(LocalDate periodStart) {
+            this.periodStart = periodStart;
+        }
+
+        private void add(double value) {
+            count++;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            sum += value;
+            last = value;
+        }
+
+        private TimeSeriesPointDTO toPoint() {
+            return new TimeSeriesPointDTO(periodStart, count, min, max, sum / count, last);
+        }
+    }
+}
@@ -1,48 +1,74 @@
 package com.crossfit.pieds_croises.service;
 
+import com.crossfit.pieds_croises.dto.AvailableUserDTO;
+import com.crossfit.pieds_croises.dto.AvailableUserPageDTO;
 import com.crossfit.pieds_croises.dto.CourseDTO;
 import com.crossfit.pieds_croises.dto.UserDto;
+import com.crossfit.pieds_croises.event.SeatCountChangedEvent;
+import com.crossfit.pieds_croises.event.WaitingListPromotedEvent;
 import com.crossfit.pieds_croises.exception.BusinessException;
 import com.crossfit.pieds_croises.exception.ResourceNotFoundException;
 import com.crossfit.pieds_croises.mapper.CourseMapper;
+import com.crossfit.pieds_croises.mapper.ProfilePictureUrls;
 import com.crossfit.pieds_croises.mapper.UserMapper;
 import com.crossfit.pieds_croises.model.Course;
 import com.crossfit.pieds_croises.model.User;
 import com.crossfit.pieds_croises.model.UserCourse;
+import com.crossfit.pieds_croises.model.WeeklySessionCounterId;
 import com.crossfit.pieds_croises.repository.CourseRepository;
 import com.crossfit.pieds_croises.repository.UserCourseRepository;
 import com.crossfit.pieds_croises.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.time.DayOfWeek;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class UserCourseService {
+    private static final String INSERT_USER_COURSE_SQL =
+            "INSERT INTO user_course (user_id, course_id, status, created_at) VALUES (?, ?, ?, ?)";
+    private static final int MAX_AVAILABLE_USERS_PAGE_SIZE = 50;
+    // Candidats lus en plus des places à pourvoir, au cas où un membre aurait atteint son quota entre-temps
+    private static final int QUEUE_PAGE_SLACK = 2;
+
     private final CourseRepository courseRepository;
     private final CourseMapper courseMapper;
     private final UserMapper userMapper;
     private final UserRepository userRepository;
     private final UserCourseRepository userCourseRepository;
-    private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final WeeklySessionQuotaService weeklySessionQuotaService;
 
+    @Transactional
     public CourseDTO addUserToCourse(Long courseId, Long userId) {
-        Course course = courseRepository.findById(courseId)
+        LocalDateTime courseStart = courseRepository.findById(courseId)
+                .map(Course::getStartDatetime)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + courseId));
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
 
         // Vérifier si l'inscription existe déjà
-        boolean alreadyRegistered = userCourseRepository.findByUserIdAndCourseId(userId, courseId).isPresent();
-        if (alreadyRegistered) {
+        if (userCourseRepository.existsByUserIdAndCourseId(userId, courseId)) {
             throw new BusinessException("User already registered to this course");
         }
 
@@ -50,77 +76,246 @@ public class UserCourseService {
             throw new BusinessException("User is suspended");
         }
 
-        // Déterminer le statut automatiquement selon le nombre d'inscrits
-        long registeredCount = course.getUserCourses().stream()
-                .filter(user_course -> user_course.getStatus() == UserCourse.Status.REGISTERED)
-                .count();
+        // Réservation atomique d'une place : si aucune ligne n'est modifiée, le cours est complet
+        UserCourse.Status status = courseRepository.reserveSeat(courseId) == 1
+                ? UserCourse.Status.REGISTERED
+                : UserCourse.Status.WAITING_LIST;
 
-        UserCourse.Status status = (registeredCount >= course.getPersonLimit())
-                ? UserCourse.Status.WAITING_LIST
-                : UserCourse.Status.REGISTERED;
+        // Un dépassement de quota annule la transaction, place réservée comprise
+        if (status == UserCourse.Status.REGISTERED) {
+            weeklySessionQuotaService.consume(userId, courseStart);
+        } else {
+            weeklySessionQuotaService.checkAvailable(userId, courseStart);
+        }
 
         // Créer le lien UserCourse
         UserCourse userCourse = UserCourse.builder()
                 .user(user)
-                .course(course)
+                .course(courseRepository.getReferenceById(courseId))
                 .status(status)
                 .createdAt(LocalDateTime.now())
                 .build();
 
         userCourseRepository.save(userCourse);
+        if (status == UserCourse.Status.WAITING_LIST) {
+            courseRepository.incrementWaitingCount(courseId);
+        }
 
-        course.getUserCourses().add(userCourse);
-        user.getUserCourses().add(userCourse);
-
-        course.changeStatus();
-        courseRepository.save(course);
-
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + courseId));
+        if (status == UserCourse.Status.REGISTERED) {
+            publishSeatCountChanged(course, 1);
+        }
         return courseMapper.convertToDto(course);
     }
 
+    @Transactional
     public CourseDTO deleteUserFromCourse(Long courseId, Long userId) {
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + courseId));
+        if (!courseRepository.existsById(courseId)) {
+            throw new ResourceNotFoundException("Course not found with id: " + courseId);
+        }
 
         // Vérifier que l'utilisateur est bien inscrit
-        UserCourse userCourse = course.getUserCourses().stream()
-                .filter(user_course -> user_course.getUser().getId().equals(userId))
-                .findFirst()
+        UserCourse userCourse = userCourseRepository.findByUserIdAndCourseId(userId, courseId)
                 .orElseThrow(() -> new BusinessException("User not enrolled in this course"));
 
         // Supprimer la relation user-course
-        course.getUserCourses().remove(userCourse);
-        userCourse.getUser().getUserCourses().remove(userCourse);
-
-        // Vérifie la liste d’attente et inscrit le premier
-        course.getUserCourses().stream()
-                .filter(user_course -> user_course.getStatus() == UserCourse.Status.WAITING_LIST)
-                .sorted(Comparator.comparing(UserCourse::getCreatedAt)) // plus ancien en premier
-                .findFirst()
-                .ifPresent(firstWaiting -> {
-                    firstWaiting.setStatus(UserCourse.Status.REGISTERED);
-
-                    // Envoi de l’email de notification
-                    Map<String, Object> variables = Map.of(
-                            "firstname", firstWaiting.getUser().getFirstname(),
-                            "lastname", firstWaiting.getUser().getLastname(),
-                            "courseTitle", course.getTitle(),
-                            "courseDate", course.getStartDatetime()
-                    );
-                    emailService.sendTemplateEmail(
-                            firstWaiting.getUser().getEmail(),
-                            "Bonne nouvelle, une place s’est libérée !",
-                            "waiting-user-course-registration-notif", // ton template thymeleaf
-                            variables
-                    );
-                });
-
-        course.changeStatus();
-        courseRepository.save(course);
+        userCourseRepository.delete(userCourse);
+
+        if (userCourse.getStatus() == UserCourse.Status.REGISTERED) {
+            // Libérer la place verrouille la ligne du cours jusqu'à la fin de la transaction
+            courseRepository.releaseSeat(courseId);
+            weeklySessionQuotaService.release(userId, userCourse.getCourse().getStartDatetime());
+            publishSeatCountChanged(userCourse.getCourse(), -1);
+            promoteFromWaitingList(userCourse.getCourse());
+        } else if (userCourse.getStatus() == UserCourse.Status.WAITING_LIST) {
+            courseRepository.decrementWaitingCount(courseId);
+        }
 
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + courseId));
         return courseMapper.convertToDto(course);
     }
 
+    // Inscription d'un lot : la capacité est lue une seule fois sous verrou, l'ordre de la requête départage les places
+    @Transactional
+    public CourseDTO addUsersToCourse(Long courseId, List<Long> userIds) {
+        Course course = courseRepository.findByIdForUpdate(courseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + courseId));
+
+        List<Long> requested = new ArrayList<>(new LinkedHashSet<>(userIds));
+        Map<Long, User> users = userRepository.findAllById(requested).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        List<Long> missing = requested.stream().filter(id -> !users.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            throw new ResourceNotFoundException("Users not found with ids: " + missing);
+        }
+        List<Long> suspended = requested.stream().filter(id -> users.get(id).isSuspended()).toList();
+        if (!suspended.isEmpty()) {
+            throw new BusinessException("Users are suspended: " + suspended);
+        }
+
+        // Les utilisateurs déjà inscrits sont ignorés : rejouer le même lot ne change rien
+        Set<Long> enrolled = userCourseRepository.findEnrolments(courseId, requested).stream()
+                .map(UserCourseRepository.EnrolmentItem::getUserId)
+                .collect(Collectors.toSet());
+        List<Long> toEnrol = requested.stream().filter(id -> !enrolled.contains(id)).toList();
+        if (toEnrol.isEmpty()) {
+            return courseMapper.convertToDto(course);
+        }
+
+        int freeSeats = Math.max(0, course.getPersonLimit() - course.getRegisteredCount());
+        int registered = Math.min(freeSeats, toEnrol.size());
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(toEnrol.size());
+        for (int i = 0; i < toEnrol.size(); i++) {
+            UserCourse.Status status = i < registered ? UserCourse.Status.REGISTERED : UserCourse.Status.WAITING_LIST;
+            rows.add(new Object[]{toEnrol.get(i), courseId, status.name(), now});
+        }
+        // Même created_at pour tout le lot : l'id croissant conserve l'ordre de la requête dans la liste d'attente
+        insertEnrolments(rows);
+        courseRepository.adjustSeatCounters(courseId, registered, toEnrol.size() - registered);
+        // Inscription par l'encadrement : les compteurs hebdomadaires suivent, sans blocage sur le quota
+        LocalDate week = WeeklySessionQuotaService.weekStart(course.getStartDatetime());
+        weeklySessionQuotaService.addAll(toEnrol.subList(0, registered).stream()
+                .collect(Collectors.toMap(id -> new WeeklySessionCounterId(id, week), id -> 1)));
+
+        Course updated = courseRepository.findById(courseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + courseId));
+        if (registered > 0) {
+            publishSeatCountChanged(updated, registered);
+        }
+        return courseMapper.convertToDto(updated);
+    }
+
+    // Retrait d'un lot : les places libérées sont redistribuées en une fois aux premiers de la liste d'attente
+    @Transactional
+    public CourseDTO removeUsersFromCourse(Long courseId, List<Long> userIds) {
+        Course course = courseRepository.findByIdForUpdate(courseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + courseId));
+
+        List<UserCourseRepository.EnrolmentItem> enrolments =
+                userCourseRepository.findEnrolments(courseId, new LinkedHashSet<>(userIds));
+        if (enrolments.isEmpty()) {
+            return courseMapper.convertToDto(course);
+        }
+        return courseMapper.convertToDto(removeEnrolments(course, enrolments, true));
+    }
+
+    // Avant la suppression d'un utilisateur : ses inscriptions sont retirées cours par cours (ordre des id, verrou
+    // du cours pris à chaque fois) pour que les places, la liste d'attente et les quotas hebdomadaires suivent.
+    // Seuls les cours à venir font monter la liste d'attente
+    @Transactional
+    public void removeUserFromAllCourses(Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Long courseId : userCourseRepository.findCourseIdsByUserId(userId)) {
+            Course course = courseRepository.findByIdForUpdate(courseId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + courseId));
+            List<UserCourseRepository.EnrolmentItem> enrolments = userCourseRepository.findEnrolments(courseId, Set.of(userId));
+            if (!enrolments.isEmpty()) {
+                removeEnrolments(course, enrolments, course.getStartDatetime().isAfter(now));
+            }
+        }
+    }
+
+    // Le cours doit être verrouillé par l'appelant (findByIdForUpdate)
+    private Course removeEnrolments(Course course, List<UserCourseRepository.EnrolmentItem> enrolments, boolean promote) {
+        Long courseId = course.getId();
+        int registeredRemoved = (int) enrolments.stream()
+                .filter(e -> e.getStatus() == UserCourse.Status.REGISTERED)
+                .count();
+        int waitingRemoved = enrolments.size() - registeredRemoved;
+        userCourseRepository.deleteAllByIdInBatch(enrolments.stream().map(UserCourseRepository.EnrolmentItem::getId).toList());
+
+        int freeSeats = course.getPersonLimit() - (course.getRegisteredCount() - registeredRemoved);
+        List<UserCourse> promoted = promote && freeSeats > 0 && course.getWaitingCount() > waitingRemoved
+                ? claimQueueHead(courseId, course.getStartDatetime(), freeSeats)
+                : List.of();
+        if (!promoted.isEmpty()) {
+            userCourseRepository.updateStatus(promoted.stream().map(UserCourse::getId).toList(), UserCourse.Status.REGISTERED);
+        }
+
+        int registeredDelta = promoted.size() - registeredRemoved;
+        courseRepository.adjustSeatCounters(courseId, registeredDelta, -waitingRemoved - promoted.size());
+        LocalDate week = WeeklySessionQuotaService.weekStart(course.getStartDatetime());
+        Map<WeeklySessionCounterId, Integer> weeklyDeltas = new HashMap<>();
+        enrolments.stream()
+                .filter(e -> e.getStatus() == UserCourse.Status.REGISTERED)
+                .forEach(e -> weeklyDeltas.merge(new WeeklySessionCounterId(e.getUserId(), week), -1, Integer::sum));
+        weeklySessionQuotaService.addAll(weeklyDeltas);
+
+        Course updated = courseRepository.findById(courseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + courseId));
+        if (registeredDelta != 0) {
+            publishSeatCountChanged(updated, registeredDelta);
+        }
+        promoted.forEach(uc -> publishPromoted(uc.getUser(), updated));
+        return updated;
+    }
+
+    // Lignes (user_id, course_id, status, created_at) insérées en un batch ; l'appelant ajuste les compteurs
+    // du cours avec courseRepository.adjustSeatCounters
+    void insertEnrolments(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate(INSERT_USER_COURSE_SQL, rows);
+    }
+
+    private void promoteFromWaitingList(Course course) {
+        List<UserCourse> claimed = claimQueueHead(course.getId(), course.getStartDatetime(), 1);
+        if (claimed.isEmpty()) {
+            return;
+        }
+        UserCourse promoted = claimed.get(0);
+        if (courseRepository.reserveSeat(course.getId()) == 0) {
+            weeklySessionQuotaService.release(promoted.getUser().getId(), course.getStartDatetime());
+            return;
+        }
+        courseRepository.decrementWaitingCount(course.getId());
+        promoted.setStatus(UserCourse.Status.REGISTERED);
+        userCourseRepository.save(promoted);
+
+        publishSeatCountChanged(course, 1);
+        publishPromoted(promoted.getUser(), course);
+    }
+
+    // Lit la tête de file par petites pages, déjà filtrée sur le quota, et consomme le quota des membres retenus ;
+    // ceux qui ont atteint leur quota depuis leur entrée dans la file gardent leur rang. tryConsume reste l'arbitre :
+    // un membre qui a réservé entre la lecture et l'incrément est sauté et la page suivante est lue
+    private List<UserCourse> claimQueueHead(Long courseId, LocalDateTime courseStart, int seats) {
+        LocalDate week = WeeklySessionQuotaService.weekStart(courseStart);
+        List<UserCourse> claimed = new ArrayList<>(seats);
+        UserCourse last = null;
+        while (claimed.size() < seats) {
+            int pageSize = seats - claimed.size() + QUEUE_PAGE_SLACK;
+            List<UserCourse> page = userCourseRepository.findEligibleQueueHead(courseId, UserCourse.Status.WAITING_LIST,
+                    week, courseStart, last != null ? last.getCreatedAt() : null, last != null ? last.getId() : null,
+                    PageRequest.of(0, pageSize));
+            for (UserCourse candidate : page) {
+                last = candidate;
+                if (weeklySessionQuotaService.tryConsume(candidate.getUser().getId(), courseStart)) {
+                    claimed.add(candidate);
+                    if (claimed.size() == seats) {
+                        break;
+                    }
+                }
+            }
+            if (page.size() < pageSize) {
+                break;
+            }
+        }
+        return claimed;
+    }
+
+    private void publishPromoted(User user, Course course) {
+        // L'email rejoint l'outbox dans la transaction de la promotion, l'envoi SMTP se fait hors de la requête
+        eventPublisher.publishEvent(new WaitingListPromotedEvent(
+                user.getEmail(),
+                user.getFirstname(),
+                user.getLastname(),
+                course.getTitle(),
+                course.getStartDatetime()
+        ));
+    }
+
     public List<UserDto> getUsersNotInCourse(Long id) {
         Course course = courseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
@@ -130,21 +325,88 @@ public class UserCourseService {
                 .collect(Collectors.toList());
     }
 
-    public Long getUserWeeklyCourseCount(Long userId, LocalDate weekDate) {
-        // Calculate civil week
-        LocalDate monday = weekDate.with(DayOfWeek.MONDAY);
-        LocalDate sunday = monday.plusDays(6);
+    // Pagination par curseur (dernier utilisateur renvoyé) : chaque page repart de l'index, sans OFFSET
+    public AvailableUserPageDTO searchUsersNotInCourse(Long courseId, String query, String cursor, int size) {
+        if (size < 1 || size > MAX_AVAILABLE_USERS_PAGE_SIZE) {
+            throw new BusinessException("Page size must be between 1 and " + MAX_AVAILABLE_USERS_PAGE_SIZE);
+        }
+        Long afterId = cursor != null ? decodeCursor(cursor) : null;
+        if (!courseRepository.existsById(courseId)) {
+            throw new ResourceNotFoundException("Course not found with id: " + courseId);
+        }
+
+        String prefix = toPrefixPattern(query);
+        Pageable pageable = PageRequest.of(0, size);
+        Slice<UserRepository.AvailableUser> slice;
+        if (prefix == null) {
+            slice = afterId == null
+                    ? userRepository.findUsersNotInCourse(courseId, pageable)
+                    : userRepository.findUsersNotInCourseAfter(courseId, afterId, pageable);
+        } else {
+            slice = afterId == null
+                    ? userRepository.searchUsersNotInCourse(courseId, prefix, pageable)
+                    : userRepository.searchUsersNotInCourseAfter(courseId, prefix, afterId, pageable);
+        }
+        List<AvailableUserDTO> items = slice.getContent().stream()
+                .map(user -> AvailableUserDTO.builder()
+                        .id(user.getId())
+                        .firstname(user.getFirstname())
+                        .lastname(user.getLastname())
+                        .email(user.getEmail())
+                        .profilePictureThumbnail64(ProfilePictureUrls.thumbnailUrl(user.getProfilePicture(), 64))
+                        .build())
+                .toList();
+        String nextCursor = slice.hasNext() ? encodeCursor(items.get(items.size() - 1).getId()) : null;
+        return new AvailableUserPageDTO(size, items, nextCursor);
+    }
+
+    private static String encodeCursor(Long userId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(("U|" + userId).getBytes(StandardCharsets.UTF_8));
+    }
 
-        LocalDateTime startWeek = monday.atStartOfDay();
-        LocalDateTime endWeek = sunday.atTime(23, 59, 59);
+    private static Long decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (position.length != 2 || !position[0].equals("U")) {
+                throw new BusinessException("Invalid cursor");
+            }
+            long userId = Long.parseLong(position[1]);
+            if (userId < 1) {
+                throw new BusinessException("Invalid cursor");
+            }
+            return userId;
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Invalid cursor");
+        }
+    }
 
-        Long count = courseRepository.countUserCoursesInWeek(userId, startWeek, endWeek);
+    // Motif LIKE 'xxx%' : seul un préfixe permet d'utiliser les index ; les jokers saisis sont échappés
+    static String toPrefixPattern(String query) {
+        if (query == null || query.isBlank()) {
+            return null;
+        }
+        return query.trim()
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_") + "%";
+    }
 
-        if (count == null) {
-            throw new ResourceNotFoundException("Aucun utilisateur trouvé avec l'id " + userId);
+    // Lecture du compteur par clé primaire (utilisateur, lundi de la semaine)
+    public Long getUserWeeklyCourseCount(Long userId, LocalDate weekDate) {
+        return weeklySessionQuotaService.getCount(userId, weekDate);
+    }
+
+    private void publishSeatCountChanged(Course course, int delta) {
+        if (course.getStartDatetime() != null && course.getPersonLimit() != null) {
+            eventPublisher.publishEvent(new SeatCountChangedEvent(course.getStartDatetime(), course.getPersonLimit(), delta));
         }
+    }
 
-        return count;
+    @Transactional
+    public int recomputeSeatCounters() {
+        int courses = courseRepository.recomputeSeatCounters();
+        courseRepository.recomputeStatuses();
+        return courses;
     }
 
 }
@@ -0,0 +1,411 @@
+package com.crossfit.pieds_croises.service;
+
+import com.crossfit.pieds_croises.datetime.DateTimeProvider;
+import com.crossfit.pieds_croises.dto.UserImportResultDTO;
+import com.crossfit.pieds_croises.dto.UserImportRowDTO;
+import com.crossfit.pieds_croises.dto.UserImportRowResultDTO;
+import com.crossfit.pieds_croises.enums.UserSubscriptionStatus;
+import com.crossfit.pieds_croises.event.MembershipStatsChangedEvent;
+import com.crossfit.pieds_croises.event.SubscriptionPeriodChangedEvent;
+import com.crossfit.pieds_croises.exception.BusinessException;
+import com.crossfit.pieds_croises.model.Subscription;
+import com.crossfit.pieds_croises.repository.SubscriptionRepository;
+import com.crossfit.pieds_croises.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class UserImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+    static final int CHUNK_SIZE = 500;
+    private static final String DEFAULT_ROLE = "ROLE_USER";
+
+    private static final String INSERT_USER_SQL = """
+            INSERT INTO user (firstname, lastname, email, phone, created_at, updated_at,
+                              registration_token, registration_token_expiry_date, is_first_login_complete)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, false)
+            """;
+    private static final String INSERT_ROLE_SQL = "INSERT INTO user_roles (user_id, roles) VALUES (?, ?)";
+    private static final String INSERT_USER_SUBSCRIPTION_SQL = """
+            INSERT INTO user_subscription (start_date, end_date, freeze_days_remaining, user_id, subscription_id, status)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    private final UserRepository userRepository;
+    private final SubscriptionRepository subscriptionRepository;
+    private final EmailService emailService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final DateTimeProvider dateTimeProvider;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.base-url}${app.registration.uri}")
+    private String registrationUrl;
+    @Value("${app.registration.token-expiration-days}")
+    private int registrationTokenExpirationDays;
+
+    // En-tête obligatoire : firstname,lastname,email ; colonnes facultatives : phone,subscriptionId
+    public UserImportResultDTO importCsv(InputStream inputStream) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        return importRows(new CsvRowIterator(reader));
+    }
+
+    // Tableau JSON d'objets UserImportRowDTO, lu élément par élément
+    public UserImportResultDTO importJson(InputStream inputStream) {
+        try {
+            MappingIterator<UserImportRowDTO> values = objectMapper.readerFor(UserImportRowDTO.class).readValues(inputStream);
+            return importRows(new JsonRowIterator(values));
+        } catch (IOException e) {
+            throw new BusinessException("Invalid JSON import file");
+        }
+    }
+
+    // Le fichier est lu en flux et traité par lots : chaque lot est validé, dédoublonné et inséré dans sa propre transaction
+    UserImportResultDTO importRows(Iterator<ParsedRow> rows) {
+        Map<Long, Subscription> subscriptions = subscriptionRepository.findAll().stream()
+                .collect(Collectors.toMap(Subscription::getId, Function.identity()));
+        Set<String> seenEmails = new HashSet<>();
+        Set<String> seenPhones = new HashSet<>();
+        List<UserImportRowResultDTO> results = new ArrayList<>();
+
+        List<ParsedRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        while (rows.hasNext()) {
+            chunk.add(rows.next());
+            if (chunk.size() == CHUNK_SIZE) {
+                results.addAll(importChunk(chunk, subscriptions, seenEmails, seenPhones));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(importChunk(chunk, subscriptions, seenEmails, seenPhones));
+        }
+
+        results.sort(Comparator.comparingInt(UserImportRowResultDTO::getRow));
+        int created = (int) results.stream().filter(r -> r.getStatus() == UserImportRowResultDTO.Status.CREATED).count();
+        logger.info("User import: {} rows, {} created, {} rejected", results.size(), created, results.size() - created);
+        return new UserImportResultDTO(results.size(), created, results.size() - created, results);
+    }
+
+    private List<UserImportRowResultDTO> importChunk(List<ParsedRow> chunk, Map<Long, Subscription> subscriptions,
+                                                     Set<String> seenEmails, Set<String> seenPhones) {
+        List<UserImportRowResultDTO> results = new ArrayList<>(chunk.size());
+        List<ParsedRow> candidates = new ArrayList<>(chunk.size());
+
+        for (ParsedRow row : chunk) {
+            UserImportRowDTO data = row.data();
+            String error = row.error() != null ? row.error() : validate(data, subscriptions);
+            if (error != null) {
+                results.add(result(row, UserImportRowResultDTO.Status.INVALID, error));
+                continue;
+            }
+            data.setEmail(data.getEmail().trim());
+            data.setPhone(data.getPhone() == null || data.getPhone().isBlank() ? null : data.getPhone().trim());
+            boolean duplicatePhone = data.getPhone() != null && !seenPhones.add(data.getPhone());
+            if (!seenEmails.add(data.getEmail().toLowerCase(Locale.ROOT)) || duplicatePhone) {
+                results.add(result(row, UserImportRowResultDTO.Status.DUPLICATE_IN_FILE,
+                        duplicatePhone ? "Phone number already used in this file" : "Email already used in this file"));
+                continue;
+            }
+            candidates.add(row);
+        }
+        if (candidates.isEmpty()) {
+            return results;
+        }
+
+        // Doublons en base : une requête pour les emails, une pour les téléphones
+        Set<String> existingEmails = userRepository.findIdsByEmails(candidates.stream().map(r -> r.data().getEmail()).toList())
+                .stream().map(e -> e.getEmail().toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+        List<String> phones = candidates.stream().map(r -> r.data().getPhone()).filter(Objects::nonNull).toList();
+        Set<String> existingPhones = phones.isEmpty() ? Set.of() : new HashSet<>(userRepository.findExistingPhones(phones));
+
+        List<ParsedRow> toInsert = new ArrayList<>(candidates.size());
+        for (ParsedRow row : candidates) {
+            if (existingEmails.contains(row.data().getEmail().toLowerCase(Locale.ROOT))) {
+                results.add(result(row, UserImportRowResultDTO.Status.ALREADY_EXISTS, "User already exists"));
+            } else if (row.data().getPhone() != null && existingPhones.contains(row.data().getPhone())) {
+                results.add(result(row, UserImportRowResultDTO.Status.ALREADY_EXISTS, "Phone number already used"));
+            } else {
+                toInsert.add(row);
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return results;
+        }
+
+        try {
+            Map<String, Long> ids = transactionTemplate.execute(status -> insertChunk(toInsert, subscriptions));
+            addCreated(results, toInsert, ids);
+        } catch (RuntimeException e) {
+            // Conflit concurrent, erreur de rendu d'invitation... : le lot est annulé puis rejoué ligne par ligne
+            // pour isoler les lignes fautives ; l'import continue dans tous les cas
+            logger.warn("User import chunk of {} rows failed, retrying row by row: {}", toInsert.size(), e.getMessage());
+            for (ParsedRow row : toInsert) {
+                results.add(insertSingle(row, subscriptions, seenEmails, seenPhones));
+            }
+        }
+        return results;
+    }
+
+    private UserImportRowResultDTO insertSingle(ParsedRow row, Map<Long, Subscription> subscriptions,
+                                                Set<String> seenEmails, Set<String> seenPhones) {
+        try {
+            Map<String, Long> ids = transactionTemplate.execute(status -> insertChunk(List.of(row), subscriptions));
+            List<UserImportRowResultDTO> created = new ArrayList<>(1);
+            addCreated(created, List.of(row), ids);
+            return created.get(0);
+        } catch (RuntimeException e) {
+            logger.warn("User import row {} failed: {}", row.row(), e.getMessage());
+            // La ligne n'a pas été créée : une ligne suivante avec le même email ou téléphone reste acceptée
+            seenEmails.remove(row.data().getEmail().toLowerCase(Locale.ROOT));
+            if (row.data().getPhone() != null) {
+                seenPhones.remove(row.data().getPhone());
+            }
+            return result(row, UserImportRowResultDTO.Status.FAILED, "Row rolled back, please retry this row");
+        }
+    }
+
+    private void addCreated(List<UserImportRowResultDTO> results, List<ParsedRow> rows, Map<String, Long> ids) {
+        for (ParsedRow row : rows) {
+            UserImportRowResultDTO created = result(row, UserImportRowResultDTO.Status.CREATED, null);
+            created.setUserId(ids.get(row.data().getEmail().toLowerCase(Locale.ROOT)));
+            results.add(created);
+        }
+    }
+
+    // Utilisateurs, rôles et abonnements en INSERT batchés ; invitations ajoutées à la file d'envoi dans la même transaction
+    private Map<String, Long> insertChunk(List<ParsedRow> rows, Map<Long, Subscription> subscriptions) {
+        LocalDateTime now = dateTimeProvider.now();
+        LocalDateTime tokenExpiry = now.plusDays(registrationTokenExpirationDays);
+        Map<String, String> tokens = new HashMap<>();
+        List<Object[]> userRows = new ArrayList<>(rows.size());
+        for (ParsedRow row : rows) {
+            UserImportRowDTO data = row.data();
+            String token = UUID.randomUUID().toString();
+            tokens.put(data.getEmail(), token);
+            userRows.add(new Object[]{data.getFirstname().trim(), data.getLastname().trim(), data.getEmail(), data.getPhone(),
+                    now, now, token, tokenExpiry});
+        }
+        jdbcTemplate.batchUpdate(INSERT_USER_SQL, userRows);
+
+        Map<String, Long> ids = userRepository.findIdsByEmails(tokens.keySet()).stream()
+                .collect(Collectors.toMap(e -> e.getEmail().toLowerCase(Locale.ROOT), UserRepository.EmailId::getId));
+
+        List<Object[]> roleRows = new ArrayList<>(rows.size());
+        List<Object[]> subscriptionRows = new ArrayList<>();
+        long revenue = 0;
+        Map<String, Map<String, Object>> invitations = new LinkedHashMap<>();
+        for (ParsedRow row : rows) {
+            UserImportRowDTO data = row.data();
+            Long userId = ids.get(data.getEmail().toLowerCase(Locale.ROOT));
+            roleRows.add(new Object[]{userId, DEFAULT_ROLE});
+
+            if (data.getSubscriptionId() != null) {
+                Subscription subscription = subscriptions.get(data.getSubscriptionId());
+                subscriptionRows.add(new Object[]{now, now.plusDays(subscription.getDuration()), subscription.getFreezeDaysAllowed(),
+                        userId, subscription.getId(), UserSubscriptionStatus.ACTIVE.name()});
+                revenue += subscription.getPrice();
+            }
+
+            String link = emailService.generateInvitationLink(registrationUrl, tokens.get(data.getEmail()), data.getFirstname());
+            invitations.put(data.getEmail(), Map.of("registrationEmailLink", link));
+        }
+        jdbcTemplate.batchUpdate(INSERT_ROLE_SQL, roleRows);
+        if (!subscriptionRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_USER_SUBSCRIPTION_SQL, subscriptionRows);
+        }
+        emailService.sendBulkTemplateEmail("Votre accès à la plateforme CrossFit Pieds Croisés", "first-connection", invitations);
+
+        eventPublisher.publishEvent(new MembershipStatsChangedEvent(rows.size(), subscriptionRows.size(), revenue));
+        if (!subscriptionRows.isEmpty()) {
+            eventPublisher.publishEvent(new SubscriptionPeriodChangedEvent(now, now));
+        }
+        return ids;
+    }
+
+    private String validate(UserImportRowDTO data, Map<Long, Subscription> subscriptions) {
+        Set<ConstraintViolation<UserImportRowDTO>> violations = validator.validate(data);
+        if (!violations.isEmpty()) {
+            return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining(", "));
+        }
+        if (data.getSubscriptionId() != null && !subscriptions.containsKey(data.getSubscriptionId())) {
+            return "Subscription not found";
+        }
+        return null;
+    }
+
+    private UserImportRowResultDTO result(ParsedRow row, UserImportRowResultDTO.Status status, String message) {
+        String email = row.data() != null ? row.data().getEmail() : null;
+        return new UserImportRowResultDTO(row.row(), email, status, null, message);
+    }
+
+    record ParsedRow(int row, UserImportRowDTO data, String error) {
+    }
+
+    private static final class JsonRowIterator implements Iterator<ParsedRow> {
+        private final MappingIterator<UserImportRowDTO> values;
+        private int row;
+
+        private JsonRowIterator(MappingIterator<UserImportRowDTO> values) {
+            this.values = values;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                return values.hasNextValue();
+            } catch (IOException e) {
+                throw new BusinessException("Invalid JSON after row " + row);
+            }
+        }
+
+        @Override
+        public ParsedRow next() {
+            row++;
+            try {
+                return new ParsedRow(row, values.nextValue(), null);
+            } catch (JsonMappingException e) {
+                // Élément mal typé : signalé dans le rapport, la lecture continue
+                return new ParsedRow(row, null, "Invalid JSON object");
+            } catch (IOException e) {
+                throw new BusinessException("Invalid JSON at row " + row);
+            }
+        }
+    }
+
+    private static final class CsvRowIterator implements Iterator<ParsedRow> {
+        private final BufferedReader reader;
+        private final Map<String, Integer> columns = new HashMap<>();
+        private final char separator;
+        private String nextLine;
+        private int row;
+
+        private CsvRowIterator(BufferedReader reader) {
+            this.reader = reader;
+            String header = readLine();
+            if (header == null) {
+                throw new BusinessException("CSV file is empty");
+            }
+            separator = header.indexOf(';') >= 0 && header.indexOf(',') < 0 ? ';' : ',';
+            List<String> names = split(header.replace("\uFEFF", ""));
+            for (int i = 0; i < names.size(); i++) {
+                columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            for (String required : List.of("firstname", "lastname", "email")) {
+                if (!columns.containsKey(required)) {
+                    throw new BusinessException("CSV header must contain column " + required);
+                }
+            }
+            nextLine = nextNonBlankLine();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextLine != null;
+        }
+
+        @Override
+        public ParsedRow next() {
+            if (nextLine == null) {
+                throw new NoSuchElementException();
+            }
+            String line = nextLine;
+            nextLine = nextNonBlankLine();
+            row++;
+            try {
+                List<String> values = split(line);
+                String subscriptionId = column(values, "subscriptionid");
+                UserImportRowDTO data = UserImportRowDTO.builder()
+                        .firstname(column(values, "firstname"))
+                        .lastname(column(values, "lastname"))
+                        .email(column(values, "email"))
+                        .phone(column(values, "phone"))
+                        .subscriptionId(subscriptionId == null || subscriptionId.isBlank() ? null : Long.valueOf(subscriptionId.trim()))
+                        .build();
+                return new ParsedRow(row, data, null);
+            } catch (NumberFormatException e) {
+                return new ParsedRow(row, null, "Invalid subscriptionId");
+            } catch (IllegalArgumentException e) {
+                return new ParsedRow(row, null, e.getMessage());
+            }
+        }
+
+        private String column(List<String> values, String name) {
+            Integer index = columns.get(name);
+            return index == null || index >= values.size() ? null : values.get(index);
+        }
+
+        private String nextNonBlankLine() {
+            String line;
+            do {
+                line = readLine();
+            } while (line != null && line.isBlank());
+            return line;
+        }
+
+        private String readLine() {
+            try {
+                return reader.readLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        // Séparateur déduit de l'en-tête : virgule ou point-virgule (export Excel FR), guillemets doubles pour échapper
+        private List<String> split(String line) {
+            List<String> values = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        current.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == separator) {
+                    values.add(current.toString());
+                    current.setLength(0);
+                } else {
+                    current.append(c);
+                }
+            }
+            if (quoted) {
+                throw new IllegalArgumentException("Unterminated quoted value");
+            }
+            values.add(current.toString());
+            return values;
+        }
+    }
+}
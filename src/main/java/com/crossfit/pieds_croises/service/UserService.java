@@ -2,6 +2,9 @@ package com.crossfit.pieds_croises.service;
 
 import com.crossfit.pieds_croises.dto.*;
 import com.crossfit.pieds_croises.datetime.DateTimeProvider;
+import com.crossfit.pieds_croises.event.MembershipStatsChangedEvent;
+import com.crossfit.pieds_croises.event.SubscriptionPeriodChangedEvent;
+import com.crossfit.pieds_croises.event.UserPrincipalChangedEvent;
 import com.crossfit.pieds_croises.dto.CourseDTO;
 import com.crossfit.pieds_croises.dto.FirstLoginDto;
 import com.crossfit.pieds_croises.dto.UserDto;
@@ -15,16 +18,20 @@ import com.crossfit.pieds_croises.mapper.UserMapper;
 import com.crossfit.pieds_croises.model.User;
 import com.crossfit.pieds_croises.model.UserCourse;
 import com.crossfit.pieds_croises.repository.UserRepository;
+import com.crossfit.pieds_croises.repository.UserSubscriptionRepository;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 
@@ -38,7 +45,10 @@ public class UserService {
   private final PasswordEncoder passwordEncoder;
   private final CourseMapper courseMapper;
   private final UserSubscriptionService userSubscriptionService;
+  private final UserCourseService userCourseService;
+  private final UserSubscriptionRepository userSubscriptionRepository;
   private final DateTimeProvider dateTimeProvider;
+  private final ApplicationEventPublisher eventPublisher;
 
   @Value("${app.base-url}${app.registration.uri}")
   private String registrationUrl;
@@ -124,6 +134,7 @@ public class UserService {
         emailVariables);
 
     User createdUser = userRepository.save(user);
+    eventPublisher.publishEvent(MembershipStatsChangedEvent.userCreated());
     logger.info("User created with ID {}", createdUser.getId());
 
     if (userDto.getSubscriptionId() != null) {
@@ -154,12 +165,17 @@ public class UserService {
 
     User existingUser = userRepository.findById(id)
         .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+    String previousEmail = existingUser.getEmail();
 
     userMapper.updateUserFromDto(userDto, existingUser);
     existingUser.setUpdatedAt(dateTimeProvider.now());
 
     try {
         User updatedUser = userRepository.save(existingUser);
+        eventPublisher.publishEvent(new UserPrincipalChangedEvent(previousEmail));
+        if (!Objects.equals(previousEmail, updatedUser.getEmail())) {
+            eventPublisher.publishEvent(new UserPrincipalChangedEvent(updatedUser.getEmail()));
+        }
         return userMapper.convertToDtoForAdmin(updatedUser);
     } catch (Exception e) {
         throw new RuntimeException("Failed to update user with id: " + id, e);
@@ -175,16 +191,32 @@ public class UserService {
 
     try {
       User updatedUser = userRepository.save(existingUser);
+      eventPublisher.publishEvent(new UserPrincipalChangedEvent(username));
+      if (!Objects.equals(username, updatedUser.getEmail())) {
+        eventPublisher.publishEvent(new UserPrincipalChangedEvent(updatedUser.getEmail()));
+      }
       return userMapper.convertToDtoForUser(updatedUser);
     } catch (Exception e) {
       throw new RuntimeException("Failed to update user: " + username, e);
     }
   }
 
+  @Transactional
   public void deleteUser(Long id) {
     User user = userRepository.findById(id)
         .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+    // Inscriptions retirées avant la cascade : places rendues, liste d'attente promue, quotas libérés
+    userCourseService.removeUserFromAllCourses(id);
+    // Ses abonnements partent avec lui : les statistiques des mois concernés sont à recalculer
+    UserSubscriptionRepository.SubscriptionPeriod period = userSubscriptionRepository.findSubscriptionPeriodByUserId(id);
+    List<Integer> activePrices = userSubscriptionRepository.findActiveSubscriptionPricesByUserId(id);
     userRepository.delete(user);
+    eventPublisher.publishEvent(new UserPrincipalChangedEvent(user.getEmail()));
+    eventPublisher.publishEvent(MembershipStatsChangedEvent.userDeleted());
+    activePrices.forEach(price -> eventPublisher.publishEvent(MembershipStatsChangedEvent.subscriptionDeactivated(price)));
+    if (period != null && period.getStartDate() != null) {
+      eventPublisher.publishEvent(new SubscriptionPeriodChangedEvent(period.getStartDate(), period.getEndDate()));
+    }
   }
 
   public void completeFirstLogin(FirstLoginDto dto) {
@@ -207,6 +239,7 @@ public class UserService {
     user.setUpdatedAt(LocalDateTime.now());
 
     userRepository.save(user);
+    eventPublisher.publishEvent(new UserPrincipalChangedEvent(user.getEmail()));
     logger.info("First long completed for user ID {}", user.getId());
   }
 }
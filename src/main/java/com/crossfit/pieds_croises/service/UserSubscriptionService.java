@@ -3,6 +3,9 @@ package com.crossfit.pieds_croises.service;
 import com.crossfit.pieds_croises.datetime.DateTimeProvider;
 import com.crossfit.pieds_croises.dto.UserSubscriptionDto;
 import com.crossfit.pieds_croises.enums.UserSubscriptionStatus;
+import com.crossfit.pieds_croises.event.MembershipStatsChangedEvent;
+import com.crossfit.pieds_croises.event.SubscriptionPeriodChangedEvent;
+import com.crossfit.pieds_croises.event.UserPrincipalChangedEvent;
 import com.crossfit.pieds_croises.exception.ForbiddenException;
 import com.crossfit.pieds_croises.exception.ResourceNotFoundException;
 import com.crossfit.pieds_croises.mapper.UserSubscriptionMapper;
@@ -13,6 +16,7 @@ import com.crossfit.pieds_croises.repository.SubscriptionRepository;
 import com.crossfit.pieds_croises.repository.UserRepository;
 import com.crossfit.pieds_croises.repository.UserSubscriptionRepository;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -31,6 +35,7 @@ public class UserSubscriptionService {
     private final UserRepository userRepository;
     private final UserSubscriptionMapper userSubscriptionMapper;
     private final DateTimeProvider dateTimeProvider;
+    private final ApplicationEventPublisher eventPublisher;
 
     public UserSubscriptionDto createUserSubscription(UserSubscriptionDto userSubscriptionDto) {
         User user = userRepository.findById(userSubscriptionDto.getUserId())
@@ -47,10 +52,13 @@ public class UserSubscriptionService {
 
         if (existingUserSubscription.isPresent()) {
             UserSubscription currentSubscription = existingUserSubscription.get();
+            publishDeactivationIfActive(currentSubscription);
+            LocalDateTime previousEndDate = currentSubscription.getEndDate();
 
             currentSubscription.setEndDate(currentDate);
             currentSubscription.setStatus(UserSubscriptionStatus.CANCELLED);
             userSubscriptionRepository.save(currentSubscription);
+            eventPublisher.publishEvent(new SubscriptionPeriodChangedEvent(currentSubscription.getStartDate(), previousEndDate));
         }
 
         UserSubscription userSubscription = userSubscriptionMapper.convertToUserSubscriptionEntity(userSubscriptionDto);
@@ -62,6 +70,9 @@ public class UserSubscriptionService {
         userSubscription.setEndDate(currentDate.plusDays(subscription.getDuration()));
 
         UserSubscription savedUserSubscription = userSubscriptionRepository.save(userSubscription);
+        eventPublisher.publishEvent(MembershipStatsChangedEvent.subscriptionActivated(subscription.getPrice()));
+        eventPublisher.publishEvent(new SubscriptionPeriodChangedEvent(savedUserSubscription.getStartDate(),
+            savedUserSubscription.getEndDate()));
 
         return userSubscriptionMapper.convertToUserSubscriptionDto(savedUserSubscription);
     }
@@ -124,13 +135,16 @@ public class UserSubscriptionService {
             throw new ForbiddenException("Cannot freeze more days than remaining");
         }
 
-        currentUserSubscription.setEndDate(currentUserSubscription.getEndDate().plusDays(daysToFreeze));
+        LocalDateTime previousEndDate = currentUserSubscription.getEndDate();
+        currentUserSubscription.setEndDate(previousEndDate.plusDays(daysToFreeze));
         currentUserSubscription.setFreezeDaysRemaining(remainingDays - daysToFreeze);
         userSubscriptionRepository.save(currentUserSubscription);
+        eventPublisher.publishEvent(new SubscriptionPeriodChangedEvent(previousEndDate, currentUserSubscription.getEndDate()));
 
         user.setSuspensionStartDate(freezeStartDate.toLocalDate());
         user.setSuspensionEndDate(freezeEndDate.toLocalDate());
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserPrincipalChangedEvent(user.getEmail()));
     }
 
     public void deleteUserSubscription(Long userSubscriptionId) {
@@ -139,16 +153,28 @@ public class UserSubscriptionService {
 
         User user = userSubscription.getUser();
         user.resetSuspensionTypeAndDates();
+        publishDeactivationIfActive(userSubscription);
         userSubscriptionRepository.delete(userSubscription);
         userRepository.save(user);
+        eventPublisher.publishEvent(new SubscriptionPeriodChangedEvent(userSubscription.getStartDate(), userSubscription.getEndDate()));
+        eventPublisher.publishEvent(new UserPrincipalChangedEvent(user.getEmail()));
     }
 
     public void cancelUserSubscription(Long userSubscriptionId) {
         UserSubscription userSubscription = userSubscriptionRepository.findById(userSubscriptionId)
             .orElseThrow(() -> new ResourceNotFoundException("User subscription not found"));
 
+        publishDeactivationIfActive(userSubscription);
         userSubscription.setStatus(UserSubscriptionStatus.CANCELLED);
         userSubscriptionRepository.save(userSubscription);
+        eventPublisher.publishEvent(new SubscriptionPeriodChangedEvent(userSubscription.getStartDate(), userSubscription.getEndDate()));
+    }
+
+    private void publishDeactivationIfActive(UserSubscription userSubscription) {
+        if (userSubscription.getStatus() == UserSubscriptionStatus.ACTIVE && userSubscription.getSubscription() != null) {
+            eventPublisher.publishEvent(
+                MembershipStatsChangedEvent.subscriptionDeactivated(userSubscription.getSubscription().getPrice()));
+        }
     }
 
     public boolean isOwnerOfSubscription(Long userSubscriptionId) {
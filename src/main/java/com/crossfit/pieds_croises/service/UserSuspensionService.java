@@ -1,21 +1,29 @@
 package com.crossfit.pieds_croises.service;
 
+import com.crossfit.pieds_croises.datetime.DateTimeProvider;
 import com.crossfit.pieds_croises.enums.SuspensionType;
+import com.crossfit.pieds_croises.event.UserPrincipalChangedEvent;
 import com.crossfit.pieds_croises.model.User;
 import com.crossfit.pieds_croises.repository.UserRepository;
 import lombok.AllArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.util.List;
 
 @AllArgsConstructor
 @Service
 public class UserSuspensionService {
+    private static final Logger logger = LoggerFactory.getLogger(UserSuspensionService.class);
     // TODO: Récupérer ses valeurs depuis la table de configuration de la box
     private static final int MAX_STRIKES = 5;
     private static final int SUSPENSION_DAYS = 7;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DateTimeProvider dateTimeProvider;
 
     public void applyStrike(Long userId) {
         User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
@@ -24,6 +32,7 @@ public class UserSuspensionService {
             user.applyPenaltySuspension(SUSPENSION_DAYS);
         }
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserPrincipalChangedEvent(user.getEmail()));
     }
 
     public void removeStrike(Long userId) {
@@ -32,32 +41,25 @@ public class UserSuspensionService {
         user.resetSuspensionTypeAndDates();
         user.resetStrikeCount();
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserPrincipalChangedEvent(user.getEmail()));
     }
 
-    public void checkAndResetSuspensions() {
-        List<User> users = userRepository.findAll();
-        LocalDate today = LocalDate.now();
-        for (User user : users) {
-            LocalDate start = user.getSuspensionStartDate();
-            LocalDate end = user.getSuspensionEndDate();
-            SuspensionType suspensionType = user.getSuspensionType();
-
-            boolean hasSuspensionDates = start != null && end != null;
-
-            if (hasSuspensionDates && today.isAfter(end)) {
-                if (suspensionType == SuspensionType.PENALTY) {
-                    user.resetSuspensionTypeAndDates();
-                    user.resetStrikeCount();
-
-                } else if (suspensionType == SuspensionType.HOLIDAY) {
-                    user.resetSuspensionTypeAndDates();
-                }
-            } else if (hasSuspensionDates && suspensionType == null) {
-                user.setSuspensionType(SuspensionType.HOLIDAY);
-
-            }
-            userRepository.save(user);
+    // Trois UPDATE ensemblistes : seules les lignes concernées sont touchées
+    @Transactional
+    public int checkAndResetSuspensions() {
+        LocalDate today = dateTimeProvider.today();
+
+        int penalties = userRepository.resetExpiredPenaltySuspensions(today, SuspensionType.PENALTY);
+        int holidays = userRepository.resetExpiredHolidaySuspensions(today, SuspensionType.HOLIDAY);
+        int untyped = userRepository.markUntypedSuspensionsAsHoliday(today, SuspensionType.HOLIDAY);
+        int changed = penalties + holidays + untyped;
+
+        logger.info("Suspension sweep: {} penalties reset, {} holidays ended, {} freezes marked as holiday",
+                penalties, holidays, untyped);
+        if (changed > 0) {
+            eventPublisher.publishEvent(UserPrincipalChangedEvent.allUsers());
         }
+        return changed;
     }
 
 }
@@ -0,0 +1,147 @@
+package com.crossfit.pieds_croises.service;
+
+import com.crossfit.pieds_croises.datetime.DateTimeProvider;
+import com.crossfit.pieds_croises.exception.BusinessException;
+import com.crossfit.pieds_croises.model.WeeklySessionCounter;
+import com.crossfit.pieds_croises.model.WeeklySessionCounterId;
+import com.crossfit.pieds_croises.repository.UserSubscriptionRepository;
+import com.crossfit.pieds_croises.repository.WeeklySessionCounterRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+// Quota hebdomadaire de l'abonnement (sessionPerWeek) adossé au compteur weekly_session_counter
+@Service
+@RequiredArgsConstructor
+public class WeeklySessionQuotaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WeeklySessionQuotaService.class);
+
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private static final String ADD_DELTA_SQL = """
+            INSERT INTO weekly_session_counter (user_id, week_start, registered_count)
+            VALUES (?, ?, GREATEST(?, 0))
+            ON DUPLICATE KEY UPDATE registered_count = GREATEST(registered_count + ?, 0)
+            """;
+
+    private static final String DELETE_COUNTERS_SQL = "DELETE FROM weekly_session_counter WHERE week_start >= ?";
+
+    // WEEKDAY() vaut 0 le lundi : même découpage que weekStart()
+    private static final String REBUILD_COUNTERS_SQL = """
+            INSERT INTO weekly_session_counter (user_id, week_start, registered_count)
+            SELECT uc.user_id, DATE(c.start_datetime) - INTERVAL WEEKDAY(c.start_datetime) DAY, COUNT(*)
+            FROM user_course uc
+            JOIN course c ON c.id = uc.course_id
+            WHERE uc.status = 'REGISTERED'
+              AND c.start_datetime >= ?
+            GROUP BY uc.user_id, DATE(c.start_datetime) - INTERVAL WEEKDAY(c.start_datetime) DAY
+            """;
+
+    private final WeeklySessionCounterRepository counterRepository;
+    private final UserSubscriptionRepository userSubscriptionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final DateTimeProvider dateTimeProvider;
+
+    public static LocalDate weekStart(LocalDate date) {
+        return date.with(DayOfWeek.MONDAY);
+    }
+
+    public static LocalDate weekStart(LocalDateTime dateTime) {
+        return weekStart(dateTime.toLocalDate());
+    }
+
+    // Sans abonnement actif ou sans nombre de séances défini (0 via l'API, null en base), aucune limite n'est appliquée
+    public static int quotaOf(Integer sessionPerWeek) {
+        return sessionPerWeek == null || sessionPerWeek <= 0 ? UNLIMITED : sessionPerWeek;
+    }
+
+    // Règle unique pour les inscriptions manuelles et les réservations permanentes :
+    // quota de l'abonnement actif à la date du cours, illimité sans abonnement
+    public static int quotaAt(Collection<UserSubscriptionRepository.ActiveQuota> subscriptions, LocalDateTime courseStart) {
+        return subscriptions.stream()
+                .filter(s -> !s.getStartDate().isAfter(courseStart) && !s.getEndDate().isBefore(courseStart))
+                .findFirst()
+                .map(s -> quotaOf(s.getSessionPerWeek()))
+                .orElse(UNLIMITED);
+    }
+
+    public int findQuota(Long userId, LocalDateTime courseStart) {
+        return quotaAt(userSubscriptionRepository.findActiveQuotasAt(userId, courseStart), courseStart);
+    }
+
+    // Inscription confirmée : l'UPDATE conditionnel vérifie et incrémente atomiquement, sous le verrou de la ligne
+    @Transactional
+    public void consume(Long userId, LocalDateTime courseStart) {
+        if (!tryConsume(userId, courseStart)) {
+            throw new BusinessException("Weekly session quota reached");
+        }
+    }
+
+    // false si le quota est atteint : rien n'est incrémenté
+    @Transactional
+    public boolean tryConsume(Long userId, LocalDateTime courseStart) {
+        LocalDate week = weekStart(courseStart);
+        int quota = findQuota(userId, courseStart);
+        if (quota == UNLIMITED) {
+            counterRepository.addDelta(userId, week, 1);
+            return true;
+        }
+        counterRepository.ensureRow(userId, week);
+        return counterRepository.tryIncrement(userId, week, quota) == 1;
+    }
+
+    // Liste d'attente : le quota n'est pas consommé, mais un membre déjà au maximum ne peut pas s'y ajouter
+    public void checkAvailable(Long userId, LocalDateTime courseStart) {
+        int quota = findQuota(userId, courseStart);
+        if (quota != UNLIMITED && getCount(userId, courseStart.toLocalDate()) >= quota) {
+            throw new BusinessException("Weekly session quota reached");
+        }
+    }
+
+    @Transactional
+    public void release(Long userId, LocalDateTime courseStart) {
+        counterRepository.addDelta(userId, weekStart(courseStart), -1);
+    }
+
+    // Variante par lot : une ligne par (utilisateur, semaine) avec le delta cumulé
+    @Transactional
+    public void addAll(Map<WeeklySessionCounterId, Integer> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(ADD_DELTA_SQL, deltas.entrySet().stream()
+                .map(e -> new Object[]{e.getKey().getUserId(), e.getKey().getWeekStart(), e.getValue(), e.getValue()})
+                .toList());
+    }
+
+    public long getCount(Long userId, LocalDate weekDate) {
+        return counterRepository.findById(new WeeklySessionCounterId(userId, weekStart(weekDate)))
+                .map(WeeklySessionCounter::getRegisteredCount)
+                .orElse(0);
+    }
+
+    public Map<WeeklySessionCounterId, Integer> getCounts(Collection<Long> userIds, LocalDate fromWeek, LocalDate toWeek) {
+        return counterRepository.findByIdUserIdInAndIdWeekStartBetween(userIds, fromWeek, toWeek).stream()
+                .collect(Collectors.toMap(WeeklySessionCounter::getId, WeeklySessionCounter::getRegisteredCount));
+    }
+
+    // Réparation à partir de la semaine courante : inscriptions insérées en SQL, écritures hors application
+    @Transactional
+    public int rebuildCounters() {
+        LocalDate fromWeek = weekStart(dateTimeProvider.today());
+        jdbcTemplate.update(DELETE_COUNTERS_SQL, fromWeek);
+        int rows = jdbcTemplate.update(REBUILD_COUNTERS_SQL, fromWeek.atStartOfDay());
+        logger.info("Weekly session counters rebuilt from {}: {} rows", fromWeek, rows);
+        return rows;
+    }
+}
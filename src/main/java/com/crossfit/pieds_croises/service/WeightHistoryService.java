@@ -1,7 +1,9 @@
 package com.crossfit.pieds_croises.service;
 
 import com.crossfit.pieds_croises.datetime.DateTimeProvider;
+import com.crossfit.pieds_croises.dto.TimeSeriesDTO;
 import com.crossfit.pieds_croises.dto.WeightHistoryDTO;
+import com.crossfit.pieds_croises.enums.TimeSeriesGranularity;
 import com.crossfit.pieds_croises.exception.ResourceNotFoundException;
 import com.crossfit.pieds_croises.mapper.WeightHistoryMapper;
 import com.crossfit.pieds_croises.model.User;
@@ -40,6 +42,12 @@ public class WeightHistoryService {
                 .collect(Collectors.toList());
     }
 
+    public TimeSeriesDTO getWeightSeries(Long userId, LocalDate from, LocalDate to,
+                                         TimeSeriesGranularity granularity, int maxPoints) {
+        TimeSeriesDownsampler.validate(from, to, maxPoints);
+        return TimeSeriesDownsampler.downsample(weightHistoryRepository.findSamples(userId, from, to), granularity, maxPoints);
+    }
+
     public WeightHistoryDTO createWeightHistory(WeightHistoryDTO weightHistoryDTO, Long userId) {
         WeightHistory weightHistory = weightHistoryMapper.convertToEntity(weightHistoryDTO);
 
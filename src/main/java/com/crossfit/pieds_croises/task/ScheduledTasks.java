@@ -1,18 +1,91 @@
 package com.crossfit.pieds_croises.task;
 
+import com.crossfit.pieds_croises.cache.VersionedResponseCache;
+import com.crossfit.pieds_croises.service.EmailOutboxDispatcher;
+import com.crossfit.pieds_croises.service.PersonalRecordService;
+import com.crossfit.pieds_croises.service.ScheduledTaskLockService;
+import com.crossfit.pieds_croises.service.UserCourseService;
 import com.crossfit.pieds_croises.service.UserSuspensionService;
+import com.crossfit.pieds_croises.service.WeeklySessionQuotaService;
 import lombok.AllArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @Component
 @AllArgsConstructor
 public class ScheduledTasks {
 
+    private static final String SUSPENSION_SWEEP_LOCK = "suspension-sweep";
+    private static final String COUNTER_REPAIR_LOCK = "course-counter-repair";
+    private static final String PERSONAL_RECORD_REBUILD_LOCK = "personal-record-rebuild";
+    private static final String PERSONAL_RECORD_SEED_LOCK = "personal-record-seed";
+
     private UserSuspensionService userSuspensionService;
+    private UserCourseService userCourseService;
+    private EmailOutboxDispatcher emailOutboxDispatcher;
+    private ScheduledTaskLockService scheduledTaskLockService;
+    private VersionedResponseCache versionedResponseCache;
+    private PersonalRecordService personalRecordService;
+    private WeeklySessionQuotaService weeklySessionQuotaService;
 
-    @Scheduled(fixedRate = 86400000) // 24 hours in milliseconds
+    // Tous les jours à heure fixe ; un seul nœud exécute le balayage
+    @Scheduled(cron = "${app.suspension.sweep-cron:0 5 0 * * *}", zone = "${app.timezone:Europe/Paris}")
     public void checkAndResetSuspensions() {
-        userSuspensionService.checkAndResetSuspensions();
+        if (scheduledTaskLockService.tryLock(SUSPENSION_SWEEP_LOCK, Duration.ofHours(1))) {
+            userSuspensionService.checkAndResetSuspensions();
+        }
+    }
+
+    // Les inscriptions insérées en SQL (data.sql) ne passent pas par les compteurs de places.
+    // Même verrou que la réparation nocturne : un redémarrage en rafale des nœuds ne relance pas le recalcul
+    // pendant que les autres nœuds servent des réservations
+    @EventListener(ApplicationReadyEvent.class)
+    public void recomputeSeatCounters() {
+        if (scheduledTaskLockService.tryLock(COUNTER_REPAIR_LOCK, Duration.ofMinutes(10))) {
+            userCourseService.recomputeSeatCounters();
+            weeklySessionQuotaService.rebuildCounters();
+        }
+    }
+
+    // Filet de sécurité : chaque chemin d'écriture, suppressions d'utilisateurs et de cours comprises, tient déjà
+    // registeredCount, waitingCount et les quotas à jour ; ce recalcul ne corrige que les écritures hors application
+    @Scheduled(cron = "${app.course.counter-repair-cron:0 30 3 * * *}", zone = "${app.timezone:Europe/Paris}")
+    public void repairSeatCounters() {
+        if (scheduledTaskLockService.tryLock(COUNTER_REPAIR_LOCK, Duration.ofHours(1))) {
+            userCourseService.recomputeSeatCounters();
+            weeklySessionQuotaService.rebuildCounters();
+        }
+    }
+
+    // Les performances insérées en SQL (data.sql) n'ont pas encore de record : un seul nœud amorce la table,
+    // et seulement si elle est vide
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedPersonalRecords() {
+        if (scheduledTaskLockService.tryLock(PERSONAL_RECORD_SEED_LOCK, Duration.ofMinutes(10))) {
+            personalRecordService.rebuildIfEmpty();
+        }
+    }
+
+    @Scheduled(cron = "${app.personal-record.rebuild-cron:0 45 3 * * *}", zone = "${app.timezone:Europe/Paris}")
+    public void repairPersonalRecords() {
+        if (scheduledTaskLockService.tryLock(PERSONAL_RECORD_REBUILD_LOCK, Duration.ofHours(1))) {
+            personalRecordService.rebuildAll();
+        }
+    }
+
+    // Les messages actifs dépendent de la date du jour, sans écriture en base à minuit
+    @Scheduled(cron = "0 0 0 * * *", zone = "${app.timezone:Europe/Paris}")
+    public void expireActiveMessages() {
+        versionedResponseCache.invalidate(VersionedResponseCache.Resource.ACTIVE_MESSAGES);
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms:5000}",
+            initialDelayString = "${app.mail.outbox.poll-interval-ms:5000}")
+    public void dispatchEmails() {
+        emailOutboxDispatcher.dispatchBatch();
     }
 }
@@ -0,0 +1,129 @@
+package com.crossfit.pieds_croises.cache;
+
+import com.crossfit.pieds_croises.datetime.DateTimeProvider;
+import com.crossfit.pieds_croises.repository.CacheInvalidationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+// Comme en production : chaque appel au dépôt dans sa propre transaction, sans contexte de persistance partagé
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JdbcCacheInvalidationChannelIntegrationTest {
+
+    private final DateTimeProvider dateTimeProvider = new DateTimeProvider(Clock.systemDefaultZone());
+
+    @Autowired
+    private CacheInvalidationRepository cacheInvalidationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheInvalidationRepository.deleteAll();
+    }
+
+    @Test
+    void writeBeforeFirstPollShouldReachOtherNode() {
+        // Une ligne existe déjà (écriture d'un déploiement précédent)
+        new JdbcCacheInvalidationChannel(cacheInvalidationRepository, dateTimeProvider)
+                .publish(VersionedResponseCache.Resource.BOX);
+
+        JdbcCacheInvalidationChannel nodeA = new JdbcCacheInvalidationChannel(cacheInvalidationRepository, dateTimeProvider);
+        JdbcCacheInvalidationChannel nodeB = new JdbcCacheInvalidationChannel(cacheInvalidationRepository, dateTimeProvider);
+        List<VersionedResponseCache.Resource> received = listen(nodeB);
+
+        // Écriture sur A avant que B n'ait jamais interrogé la table
+        nodeA.publish(VersionedResponseCache.Resource.BOX);
+        nodeB.poll();
+
+        assertThat(received).containsExactly(VersionedResponseCache.Resource.BOX);
+    }
+
+    @Test
+    void firstPublishOfAResourceShouldReachOtherNode() {
+        JdbcCacheInvalidationChannel nodeA = new JdbcCacheInvalidationChannel(cacheInvalidationRepository, dateTimeProvider);
+        JdbcCacheInvalidationChannel nodeB = new JdbcCacheInvalidationChannel(cacheInvalidationRepository, dateTimeProvider);
+        List<VersionedResponseCache.Resource> received = listen(nodeB);
+
+        // Aucune ligne au démarrage : la première écriture crée la ligne
+        nodeA.publish(VersionedResponseCache.Resource.EXERCISES);
+        nodeB.poll();
+        nodeB.poll();
+
+        assertThat(received).containsExactly(VersionedResponseCache.Resource.EXERCISES);
+    }
+
+    @Test
+    void publishAfterCommitShouldReachOtherNode() {
+        JdbcCacheInvalidationChannel nodeA = new JdbcCacheInvalidationChannel(cacheInvalidationRepository, dateTimeProvider);
+        JdbcCacheInvalidationChannel nodeB = new JdbcCacheInvalidationChannel(cacheInvalidationRepository, dateTimeProvider);
+        List<VersionedResponseCache.Resource> received = listen(nodeB);
+
+        // Comme PrincipalCache.onUserPrincipalChanged : publication depuis une transaction déjà validée
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        nodeA.publish(VersionedResponseCache.Resource.PRINCIPALS);
+                        nodeA.publish(VersionedResponseCache.Resource.PRINCIPALS);
+                    }
+                }));
+        nodeB.poll();
+
+        assertThat(received).containsExactly(VersionedResponseCache.Resource.PRINCIPALS);
+        assertThat(cacheInvalidationRepository.findById(VersionedResponseCache.Resource.PRINCIPALS.name()))
+                .hasValueSatisfying(row -> assertThat(row.getVersion()).isEqualTo(2L));
+    }
+
+    @Test
+    void sharedVersionShouldFollowTheTableAfterPoll() {
+        JdbcCacheInvalidationChannel nodeA = new JdbcCacheInvalidationChannel(cacheInvalidationRepository, dateTimeProvider);
+        JdbcCacheInvalidationChannel nodeB = new JdbcCacheInvalidationChannel(cacheInvalidationRepository, dateTimeProvider);
+
+        nodeA.publish(VersionedResponseCache.Resource.BOX);
+        assertThat(nodeB.sharedVersion(VersionedResponseCache.Resource.BOX)).hasValue(0L);
+
+        nodeA.poll();
+        nodeB.poll();
+
+        assertThat(nodeA.sharedVersion(VersionedResponseCache.Resource.BOX)).hasValue(1L);
+        assertThat(nodeB.sharedVersion(VersionedResponseCache.Resource.BOX)).hasValue(1L);
+    }
+
+    @Test
+    void unchangedVersionsShouldNotInvalidate() {
+        new JdbcCacheInvalidationChannel(cacheInvalidationRepository, dateTimeProvider)
+                .publish(VersionedResponseCache.Resource.SUBSCRIPTIONS);
+        JdbcCacheInvalidationChannel node = new JdbcCacheInvalidationChannel(cacheInvalidationRepository, dateTimeProvider);
+        List<VersionedResponseCache.Resource> received = listen(node);
+
+        node.poll();
+
+        assertThat(received).isEmpty();
+    }
+
+    private List<VersionedResponseCache.Resource> listen(JdbcCacheInvalidationChannel channel) {
+        List<VersionedResponseCache.Resource> received = new CopyOnWriteArrayList<>();
+        channel.subscribe(received::add);
+        return received;
+    }
+}
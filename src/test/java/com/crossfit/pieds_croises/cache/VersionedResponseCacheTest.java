@@ -0,0 +1,190 @@
+package com.crossfit.pieds_croises.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VersionedResponseCacheTest {
+
+    // Remplace le canal partagé (base, broker...) : chaque publication est relayée aux autres nœuds
+    private final List<InMemoryChannel> network = new CopyOnWriteArrayList<>();
+    // Versions de la table partagée (mode jdbc) ; vide = mode local
+    private final Map<VersionedResponseCache.Resource, Long> sharedVersions = new ConcurrentHashMap<>();
+
+    private CacheManager cacheManagerA;
+    private CacheManager cacheManagerB;
+    private VersionedResponseCache nodeA;
+    private VersionedResponseCache nodeB;
+
+    @BeforeEach
+    public void setUp() {
+        cacheManagerA = new ConcurrentMapCacheManager("box");
+        cacheManagerB = new ConcurrentMapCacheManager("box");
+        nodeA = node(cacheManagerA);
+        nodeB = node(cacheManagerB);
+    }
+
+    @Test
+    public void testRespond_NotModifiedWhenEtagMatches() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        ResponseEntity<String> first = nodeA.respond(VersionedResponseCache.Resource.BOX, request(null),
+                () -> "box-" + loads.incrementAndGet());
+
+        // Act
+        ResponseEntity<String> second = nodeA.respond(VersionedResponseCache.Resource.BOX,
+                request(first.getHeaders().getETag()), () -> "box-" + loads.incrementAndGet());
+
+        // Assert
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testRespond_SharedVersionMatchesAcrossNodes() {
+        // Arrange
+        sharedVersions.put(VersionedResponseCache.Resource.BOX, 7L);
+        ResponseEntity<String> fromA = nodeA.respond(VersionedResponseCache.Resource.BOX, request(null), () -> "box");
+
+        // Act : la requête suivante arrive sur l'autre nœud
+        ResponseEntity<String> fromB = nodeB.respond(VersionedResponseCache.Resource.BOX,
+                request(fromA.getHeaders().getETag()), () -> "box");
+
+        // Assert
+        assertThat(fromA.getHeaders().getETag()).isEqualTo("\"box-7\"");
+        assertThat(fromB.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    public void testInvalidate_PropagatesToOtherNode() {
+        // Arrange
+        AtomicInteger loadsB = new AtomicInteger();
+        cacheManagerB.getCache("box").put("info", "old box");
+        ResponseEntity<String> before = nodeB.respond(VersionedResponseCache.Resource.BOX, request(null),
+                () -> "box-" + loadsB.incrementAndGet());
+        long versionBefore = nodeB.version(VersionedResponseCache.Resource.BOX);
+
+        // Act : écriture traitée par le nœud A
+        nodeA.invalidate(VersionedResponseCache.Resource.BOX);
+        ResponseEntity<String> after = nodeB.respond(VersionedResponseCache.Resource.BOX,
+                request(before.getHeaders().getETag()), () -> "box-" + loadsB.incrementAndGet());
+
+        // Assert
+        assertThat(nodeB.version(VersionedResponseCache.Resource.BOX)).isEqualTo(versionBefore + 1);
+        assertThat(cacheManagerB.getCache("box").get("info")).isNull();
+        assertThat(after.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(after.getBody()).isEqualTo("box-2");
+        assertThat(after.getHeaders().getETag()).isNotEqualTo(before.getHeaders().getETag());
+    }
+
+    @Test
+    public void testInvalidate_OtherResourcesUntouched() {
+        // Arrange
+        long exercisesBefore = nodeB.version(VersionedResponseCache.Resource.EXERCISES);
+
+        // Act
+        nodeA.invalidate(VersionedResponseCache.Resource.SUBSCRIPTIONS);
+
+        // Assert
+        assertThat(nodeB.version(VersionedResponseCache.Resource.EXERCISES)).isEqualTo(exercisesBefore);
+        assertThat(nodeB.version(VersionedResponseCache.Resource.SUBSCRIPTIONS)).isEqualTo(1);
+    }
+
+    @Test
+    public void testInvalidate_InTransactionWaitsForCommit() {
+        // Arrange
+        long versionBefore = nodeA.version(VersionedResponseCache.Resource.BOX);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            nodeA.invalidate(VersionedResponseCache.Resource.BOX);
+
+            // Assert : rien avant le commit, sur aucun nœud
+            assertThat(nodeA.version(VersionedResponseCache.Resource.BOX)).isEqualTo(versionBefore);
+            assertThat(nodeB.version(VersionedResponseCache.Resource.BOX)).isEqualTo(versionBefore);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertThat(nodeA.version(VersionedResponseCache.Resource.BOX)).isEqualTo(versionBefore + 1);
+            assertThat(nodeB.version(VersionedResponseCache.Resource.BOX)).isEqualTo(versionBefore + 1);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testSnapshot_KeyedByVersion() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        nodeA.snapshot(VersionedResponseCache.Resource.BOX, () -> "box-" + loads.incrementAndGet());
+        assertThat(nodeA.snapshot(VersionedResponseCache.Resource.BOX, () -> "box-" + loads.incrementAndGet()))
+                .isEqualTo("box-1");
+        long version = nodeA.version(VersionedResponseCache.Resource.BOX);
+
+        // Act : un chargement lent range l'ancienne donnée après l'invalidation
+        nodeA.invalidate(VersionedResponseCache.Resource.BOX);
+        cacheManagerA.getCache("box").put(version, "stale box");
+        String after = nodeA.snapshot(VersionedResponseCache.Resource.BOX, () -> "box-" + loads.incrementAndGet());
+
+        // Assert
+        assertThat(after).isEqualTo("box-2");
+    }
+
+    private VersionedResponseCache node(CacheManager cacheManager) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("cacheManager", cacheManager);
+        InMemoryChannel channel = new InMemoryChannel();
+        network.add(channel);
+        return new VersionedResponseCache(beanFactory.getBeanProvider(CacheManager.class), channel);
+    }
+
+    private ServletWebRequest request(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/box");
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+
+    private class InMemoryChannel implements CacheInvalidationChannel {
+
+        private final List<Consumer<VersionedResponseCache.Resource>> listeners = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void publish(VersionedResponseCache.Resource resource) {
+            network.stream()
+                    .filter(channel -> channel != this)
+                    .forEach(channel -> channel.listeners.forEach(listener -> listener.accept(resource)));
+        }
+
+        @Override
+        public void subscribe(Consumer<VersionedResponseCache.Resource> listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public OptionalLong sharedVersion(VersionedResponseCache.Resource resource) {
+            Long version = sharedVersions.get(resource);
+            return version != null ? OptionalLong.of(version) : OptionalLong.empty();
+        }
+    }
+}
@@ -2,26 +2,32 @@ package com.crossfit.pieds_croises.controller;
 
 import com.crossfit.pieds_croises.dto.BoxInfoDTO;
 import com.crossfit.pieds_croises.exception.ResourceNotFoundException;
+import com.crossfit.pieds_croises.cache.LocalCacheInvalidationChannel;
+import com.crossfit.pieds_croises.cache.VersionedResponseCache;
 import com.crossfit.pieds_croises.security.CustomUserDetailsService;
 import com.crossfit.pieds_croises.security.JwtAuthenticationFilter;
 import com.crossfit.pieds_croises.security.JwtService;
 import com.crossfit.pieds_croises.service.BoxService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(BoxController.class)
 @AutoConfigureMockMvc(addFilters = false)
+@Import({VersionedResponseCache.class, LocalCacheInvalidationChannel.class})
 @ActiveProfiles("test")
 public class BoxControllerTest {
 
@@ -40,6 +46,39 @@ public class BoxControllerTest {
     @MockitoBean
     private CustomUserDetailsService customUserDetailsService;
 
+    @Autowired
+    private VersionedResponseCache versionedResponseCache;
+
+    @BeforeEach
+    void resetResponseCache() {
+        versionedResponseCache.invalidateAll();
+    }
+
+    @Test
+    public void testGetBoxInfo_returnsNotModifiedForCurrentEtag() throws Exception {
+        // Arrange
+        BoxInfoDTO boxInfo = new BoxInfoDTO();
+        boxInfo.setName("PiedsCroises");
+        when(boxService.getBoxInfo()).thenReturn(boxInfo);
+
+        // Act & Assert
+        String etag = mockMvc.perform(get("/box/box-info"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.name").value("PiedsCroises"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/box/box-info").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        // Une écriture change la version : l'ancien ETag ne correspond plus
+        versionedResponseCache.invalidate(VersionedResponseCache.Resource.BOX);
+        mockMvc.perform(get("/box/box-info").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+
+        verify(boxService, times(2)).getBoxInfo();
+    }
+
     @Test
     public void testUpdateBox() throws Exception{
         // Arrange
@@ -2,11 +2,15 @@ package com.crossfit.pieds_croises.controller;
 
 import com.crossfit.pieds_croises.dto.CourseCreateDTO;
 import com.crossfit.pieds_croises.dto.CourseDTO;
+import com.crossfit.pieds_croises.dto.CoursePageDTO;
+import com.crossfit.pieds_croises.dto.CourseRosterDTO;
+import com.crossfit.pieds_croises.dto.RosterAttendeeDTO;
 import com.crossfit.pieds_croises.dto.CourseUpdateDTO;
 import com.crossfit.pieds_croises.dto.UserDto;
 import com.crossfit.pieds_croises.exception.BusinessException;
 import com.crossfit.pieds_croises.exception.ResourceNotFoundException;
 import com.crossfit.pieds_croises.model.User;
+import com.crossfit.pieds_croises.model.UserCourse;
 import com.crossfit.pieds_croises.security.CustomUserDetailsService;
 import com.crossfit.pieds_croises.security.JwtAuthenticationFilter;
 import com.crossfit.pieds_croises.security.JwtService;
@@ -110,6 +114,28 @@ public class CourseControllerTest {
                 .andExpect(jsonPath("$[1].title").value("Course 2"));
     }
 
+    @Test
+    public void testGetCoursesPage() throws Exception {
+        // Arrange
+        CourseDTO course = new CourseDTO();
+        course.setTitle("Course 1");
+        LocalDate from = LocalDate.of(2025, 10, 1);
+
+        when(courseService.getCoursesPage("abc", 10, from, null, 2L))
+                .thenReturn(new CoursePageDTO(List.of(course), "def"));
+
+        // Act & Assert
+        mockMvc.perform(get("/courses/page")
+                        .param("cursor", "abc")
+                        .param("size", "10")
+                        .param("from", from.toString())
+                        .param("coachId", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].title").value("Course 1"))
+                .andExpect(jsonPath("$.nextCursor").value("def"));
+    }
+
     @Test
     public void testGetCourseById() throws Exception {
         // Arrange
@@ -137,6 +163,31 @@ public class CourseControllerTest {
                 .andExpect(content().string("Course with id 99 not found"));
     }
 
+    @Test
+    public void testGetRoster() throws Exception {
+        // Arrange
+        CourseRosterDTO roster = CourseRosterDTO.builder()
+                .courseId(1L)
+                .title("WOD")
+                .attendees(List.of(RosterAttendeeDTO.builder()
+                        .userId(10L)
+                        .firstname("John")
+                        .status(UserCourse.Status.REGISTERED)
+                        .strikeCount(1)
+                        .checkedIn(true)
+                        .build()))
+                .build();
+        when(courseService.getRoster(1L)).thenReturn(roster);
+
+        // Act & Assert
+        mockMvc.perform(get("/courses/{id}/roster", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("WOD"))
+                .andExpect(jsonPath("$.attendees[0].firstname").value("John"))
+                .andExpect(jsonPath("$.attendees[0].status").value("REGISTERED"))
+                .andExpect(jsonPath("$.attendees[0].checkedIn").value(true));
+    }
+
     @Test
     public void testCreateCourse() throws Exception {
         // Arrange
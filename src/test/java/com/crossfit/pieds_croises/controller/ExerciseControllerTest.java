@@ -3,14 +3,18 @@ package com.crossfit.pieds_croises.controller;
 import com.crossfit.pieds_croises.dto.ExerciceDTO;
 import com.crossfit.pieds_croises.exception.ResourceNotFoundException;
 import com.crossfit.pieds_croises.model.Exercice;
+import com.crossfit.pieds_croises.cache.LocalCacheInvalidationChannel;
+import com.crossfit.pieds_croises.cache.VersionedResponseCache;
 import com.crossfit.pieds_croises.security.CustomUserDetailsService;
 import com.crossfit.pieds_croises.security.JwtAuthenticationFilter;
 import com.crossfit.pieds_croises.security.JwtService;
 import com.crossfit.pieds_croises.service.ExerciseService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -27,6 +31,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @WebMvcTest(ExerciseController.class)
 @AutoConfigureMockMvc(addFilters = false)
+@Import({VersionedResponseCache.class, LocalCacheInvalidationChannel.class})
 @ActiveProfiles("test")
 public class ExerciseControllerTest {
 
@@ -45,6 +50,14 @@ public class ExerciseControllerTest {
     @MockitoBean
     private CustomUserDetailsService customUserDetailsService;
 
+    @Autowired
+    private VersionedResponseCache versionedResponseCache;
+
+    @BeforeEach
+    void resetResponseCache() {
+        versionedResponseCache.invalidateAll();
+    }
+
     @Test
     public void getAllExercises() throws Exception {
         // Arrange
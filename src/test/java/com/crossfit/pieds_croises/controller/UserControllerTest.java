@@ -8,6 +8,7 @@ import com.crossfit.pieds_croises.repository.UserRepository;
 import com.crossfit.pieds_croises.security.CustomUserDetailsService;
 import com.crossfit.pieds_croises.security.JwtAuthenticationFilter;
 import com.crossfit.pieds_croises.security.JwtService;
+import com.crossfit.pieds_croises.service.ProfilePictureStorageService;
 import com.crossfit.pieds_croises.service.UserService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -45,6 +46,9 @@ public class UserControllerTest {
     @MockitoBean
     private UserRepository userRepository;
 
+    @MockitoBean
+    private ProfilePictureStorageService profilePictureStorageService;
+
     @MockitoBean
     private JwtService jwtService;
 
@@ -1,6 +1,9 @@
 package com.crossfit.pieds_croises.controller;
 
+import com.crossfit.pieds_croises.dto.TimeSeriesDTO;
+import com.crossfit.pieds_croises.dto.TimeSeriesPointDTO;
 import com.crossfit.pieds_croises.dto.WeightHistoryDTO;
+import com.crossfit.pieds_croises.enums.TimeSeriesGranularity;
 import com.crossfit.pieds_croises.exception.ResourceNotFoundException;
 import com.crossfit.pieds_croises.model.User;
 import com.crossfit.pieds_croises.security.CustomUserDetailsService;
@@ -106,6 +109,34 @@ public class WeightHistoryControllerTest {
                 .andExpect(jsonPath("$[1].weight").value(62.00));
     }
 
+    @Test
+    public void testGetWeightSeries() throws Exception {
+        // Arrange
+        User mockUser = new User();
+        mockUser.setId(1L);
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                mockUser,
+                null,
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))
+        );
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        TimeSeriesPointDTO point = new TimeSeriesPointDTO(LocalDate.of(2025, 3, 1), 4, 77.5, 80.0, 78.6, 77.5);
+        when(weightHistoryService.getWeightSeries(1L, LocalDate.of(2025, 1, 1), null, TimeSeriesGranularity.MONTH, 12))
+                .thenReturn(new TimeSeriesDTO(TimeSeriesGranularity.MONTH, List.of(point), false));
+
+        // Act & Assert
+        mockMvc.perform(get("/weight-histories/series")
+                        .param("from", "2025-01-01")
+                        .param("granularity", "MONTH")
+                        .param("maxPoints", "12"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.granularity").value("MONTH"))
+                .andExpect(jsonPath("$.points.length()").value(1))
+                .andExpect(jsonPath("$.points[0].periodStart").value("2025-03-01"))
+                .andExpect(jsonPath("$.points[0].last").value(77.5));
+    }
+
     @Test
     public void testCreateWeightHistory() throws Exception {
         // Arrange
@@ -0,0 +1,119 @@
+package com.crossfit.pieds_croises.repository;
+
+import com.crossfit.pieds_croises.model.Course;
+import com.crossfit.pieds_croises.model.User;
+import com.crossfit.pieds_croises.model.UserCourse;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional
+class CourseRepositoryIntegrationTest {
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void rosterShouldUseOneStatementWhateverTheRosterSize() {
+        User coach = saveUser("coach", "ROLE_COACH");
+        Course small = saveCourseWithAttendees(coach, 3);
+        Course large = saveCourseWithAttendees(coach, 25);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(rosterStatementCount(small.getId(), 3)).isEqualTo(1);
+        assertThat(rosterStatementCount(large.getId(), 25)).isEqualTo(1);
+    }
+
+    @Test
+    void rosterOfEmptyCourseShouldReturnTheCourseOnly() {
+        Course empty = saveCourseWithAttendees(saveUser("coach", "ROLE_COACH"), 0);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<CourseRepository.RosterRow> rows = courseRepository.findRoster(empty.getId());
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).getCourseId()).isEqualTo(empty.getId());
+        assertThat(rows.get(0).getUserId()).isNull();
+    }
+
+    private long rosterStatementCount(Long courseId, int attendees) {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<CourseRepository.RosterRow> rows = courseRepository.findRoster(courseId);
+        // Lire chaque champ exposé ne doit déclencher aucun chargement supplémentaire
+        rows.forEach(row -> {
+            row.getFirstname();
+            row.getLastname();
+            row.getProfilePicture();
+            row.getStrikeCount();
+            row.getStatus();
+            row.getCheckedInAt();
+        });
+
+        assertThat(rows).hasSize(attendees);
+        assertThat(rows).extracting(CourseRepository.RosterRow::getUserId).doesNotContainNull();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Course saveCourseWithAttendees(User coach, int attendees) {
+        LocalDateTime now = LocalDateTime.now();
+        Course course = new Course();
+        course.setTitle("WOD");
+        course.setStartDatetime(now.plusDays(1));
+        course.setDuration((short) 60);
+        course.setPersonLimit(20);
+        course.setStatus(Course.Status.OPEN);
+        course.setCreatedAt(now);
+        course.setUpdatedAt(now);
+        course.setCoach(coach);
+        courseRepository.save(course);
+
+        for (int i = 0; i < attendees; i++) {
+            entityManager.persist(UserCourse.builder()
+                    .course(course)
+                    .user(saveUser("member", "ROLE_USER"))
+                    .status(i < 20 ? UserCourse.Status.REGISTERED : UserCourse.Status.WAITING_LIST)
+                    .createdAt(now.plusSeconds(i))
+                    .checkedInAt(i % 2 == 0 ? now : null)
+                    .build());
+        }
+        return course;
+    }
+
+    private User saveUser(String prefix, String role) {
+        LocalDateTime now = LocalDateTime.now();
+        User user = User.builder()
+                .firstname(prefix)
+                .lastname("Roster")
+                .email(prefix + "-" + UUID.randomUUID().toString().substring(0, 8) + "@example.com")
+                .roles(Set.of(role))
+                .strikeCount((byte) 1)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        entityManager.persist(user);
+        return user;
+    }
+}
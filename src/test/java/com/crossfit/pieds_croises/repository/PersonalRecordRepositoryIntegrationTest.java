@@ -0,0 +1,152 @@
+package com.crossfit.pieds_croises.repository;
+
+import com.crossfit.pieds_croises.model.Exercice;
+import com.crossfit.pieds_croises.model.PersonalRecord;
+import com.crossfit.pieds_croises.model.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional
+class PersonalRecordRepositoryIntegrationTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 10, 12, 0);
+
+    @Autowired
+    private PersonalRecordRepository personalRecordRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void upsertIfHigherShouldKeepTheBestWeight() {
+        User user = saveUser();
+        Exercice squat = saveExercise(Exercice.MeasureType.WEIGHT);
+
+        personalRecordRepository.upsertIfHigher(user.getId(), squat.getId(), 100f, LocalDate.of(2025, 3, 1), 1L, NOW);
+        personalRecordRepository.upsertIfHigher(user.getId(), squat.getId(), 90f, LocalDate.of(2025, 3, 2), 2L, NOW);
+        assertRecord(user, squat, 100f, LocalDate.of(2025, 3, 1), 1L);
+
+        personalRecordRepository.upsertIfHigher(user.getId(), squat.getId(), 110f, LocalDate.of(2025, 3, 3), 3L, NOW);
+        assertRecord(user, squat, 110f, LocalDate.of(2025, 3, 3), 3L);
+
+        // À valeur égale, la mesure la plus ancienne garde le record
+        personalRecordRepository.upsertIfHigher(user.getId(), squat.getId(), 110f, LocalDate.of(2025, 2, 1), 4L, NOW);
+        assertRecord(user, squat, 110f, LocalDate.of(2025, 2, 1), 4L);
+    }
+
+    @Test
+    void upsertIfLowerShouldKeepTheBestTime() {
+        User user = saveUser();
+        Exercice row = saveExercise(Exercice.MeasureType.TIME);
+
+        personalRecordRepository.upsertIfLower(user.getId(), row.getId(), 420f, LocalDate.of(2025, 3, 1), 1L, NOW);
+        personalRecordRepository.upsertIfLower(user.getId(), row.getId(), 450f, LocalDate.of(2025, 3, 2), 2L, NOW);
+        assertRecord(user, row, 420f, LocalDate.of(2025, 3, 1), 1L);
+
+        personalRecordRepository.upsertIfLower(user.getId(), row.getId(), 400f, LocalDate.of(2025, 3, 3), 3L, NOW);
+        assertRecord(user, row, 400f, LocalDate.of(2025, 3, 3), 3L);
+    }
+
+    @Test
+    void leaderboardPagesShouldFollowIndexOrderAcrossTies() {
+        Exercice squat = saveExercise(Exercice.MeasureType.WEIGHT);
+        // 100.1 n'est pas représentable exactement en FLOAT : l'égalité doit tenir sans repasser par un paramètre décimal
+        User first = saveUser();
+        User tiedEarlier = saveUser();
+        User tiedLater = saveUser();
+        User last = saveUser();
+        personalRecordRepository.upsertIfHigher(first.getId(), squat.getId(), 120f, LocalDate.of(2025, 3, 1), 1L, NOW);
+        personalRecordRepository.upsertIfHigher(tiedLater.getId(), squat.getId(), 100.1f, LocalDate.of(2025, 3, 5), 2L, NOW);
+        personalRecordRepository.upsertIfHigher(tiedEarlier.getId(), squat.getId(), 100.1f, LocalDate.of(2025, 3, 2), 3L, NOW);
+        personalRecordRepository.upsertIfHigher(last.getId(), squat.getId(), 80f, LocalDate.of(2025, 3, 1), 4L, NOW);
+        entityManager.clear();
+
+        List<PersonalRecordRepository.RecordItem> firstPage =
+                personalRecordRepository.findTopHighest(squat.getId(), PageRequest.of(0, 2)).getContent();
+        List<PersonalRecordRepository.RecordItem> secondPage = personalRecordRepository
+                .findTopHighestAfter(squat.getId(), firstPage.get(1).getRecordId(), PageRequest.of(0, 2)).getContent();
+
+        assertThat(firstPage).extracting(PersonalRecordRepository.RecordItem::getUserId)
+                .containsExactly(first.getId(), tiedEarlier.getId());
+        assertThat(secondPage).extracting(PersonalRecordRepository.RecordItem::getUserId)
+                .containsExactly(tiedLater.getId(), last.getId());
+    }
+
+    @Test
+    void leaderboardKeysetQueryShouldReadTheIndexWithoutSorting() {
+        Exercice squat = saveExercise(Exercice.MeasureType.WEIGHT);
+        User user = saveUser();
+        personalRecordRepository.upsertIfHigher(user.getId(), squat.getId(), 100f, LocalDate.of(2025, 3, 1), 1L, NOW);
+        Long recordId = personalRecordRepository.findByUserIdAndExerciceId(user.getId(), squat.getId()).orElseThrow().getId();
+
+        // Même forme que findTopHighestAfter : l'ancre est lue par sa clé primaire (table const),
+        // le parcours de pr doit suivre idx_personal_record_exercice_best_desc sans filesort
+        @SuppressWarnings("unchecked")
+        List<Object[]> plan = entityManager.createNativeQuery("""
+                        EXPLAIN SELECT pr.id
+                        FROM personal_record pr
+                        JOIN personal_record a ON a.id = :afterId AND a.exercice_id = :exerciseId
+                        WHERE pr.exercice_id = :exerciseId
+                          AND pr.best_value <= a.best_value
+                          AND (pr.best_value < a.best_value
+                               OR pr.achieved_on > a.achieved_on
+                               OR (pr.achieved_on = a.achieved_on AND pr.id > a.id))
+                        ORDER BY pr.best_value DESC, pr.achieved_on ASC, pr.id ASC
+                        LIMIT 20
+                        """)
+                .setParameter("afterId", recordId)
+                .setParameter("exerciseId", squat.getId())
+                .getResultList();
+
+        assertThat(plan).noneMatch(row -> String.valueOf(row[row.length - 1]).contains("Using filesort"));
+    }
+
+    private void assertRecord(User user, Exercice exercise, float value, LocalDate achievedOn, Long performanceId) {
+        entityManager.clear();
+        PersonalRecord record = personalRecordRepository.findByUserIdAndExerciceId(user.getId(), exercise.getId()).orElseThrow();
+        assertThat(record.getBestValue()).isEqualTo(value);
+        assertThat(record.getAchievedOn()).isEqualTo(achievedOn);
+        assertThat(record.getPerformanceHistoryId()).isEqualTo(performanceId);
+    }
+
+    private Exercice saveExercise(Exercice.MeasureType measureType) {
+        Exercice exercise = Exercice.builder()
+                .name("ex-" + UUID.randomUUID().toString().substring(0, 8))
+                .measureType(measureType)
+                .build();
+        entityManager.persist(exercise);
+        entityManager.flush();
+        return exercise;
+    }
+
+    private User saveUser() {
+        User user = User.builder()
+                .firstname("Record")
+                .lastname("Holder")
+                .email("record-" + UUID.randomUUID().toString().substring(0, 8) + "@example.com")
+                .roles(Set.of("ROLE_USER"))
+                .createdAt(NOW)
+                .updatedAt(NOW)
+                .build();
+        entityManager.persist(user);
+        entityManager.flush();
+        return user;
+    }
+}
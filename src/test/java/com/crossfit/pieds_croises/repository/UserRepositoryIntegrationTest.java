@@ -1,20 +1,28 @@
 package com.crossfit.pieds_croises.repository;
 
+import com.crossfit.pieds_croises.enums.SuspensionType;
 import com.crossfit.pieds_croises.model.Course;
 import com.crossfit.pieds_croises.model.User;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -32,6 +40,9 @@ class UserRepositoryIntegrationTest {
     @Autowired
     private CourseRepository courseRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @BeforeEach
     void loadTestData() {
         ResourceDatabasePopulator populator = new ResourceDatabasePopulator(
@@ -73,9 +84,115 @@ class UserRepositoryIntegrationTest {
                 .contains("admin@example.com");
     }
 
+    @Test
+    void shouldSearchUsersNotInCourseByPrefix() {
+        Course course = courseRepository.findAll().stream()
+                .filter(c -> c.getCoach().getEmail().equals("coach@example.com"))
+                .findFirst()
+                .orElseThrow();
+
+        Slice<UserRepository.AvailableUser> all = userRepository.findUsersNotInCourse(
+                course.getId(), PageRequest.of(0, 50));
+        Slice<UserRepository.AvailableUser> byLastname = userRepository.searchUsersNotInCourse(
+                course.getId(), "dup%", PageRequest.of(0, 50));
+        Slice<UserRepository.AvailableUser> byEmail = userRepository.searchUsersNotInCourse(
+                course.getId(), "admin@%", PageRequest.of(0, 50));
+        Slice<UserRepository.AvailableUser> coach = userRepository.searchUsersNotInCourse(
+                course.getId(), "rico%", PageRequest.of(0, 50));
+
+        assertThat(all.getContent())
+                .extracting(UserRepository.AvailableUser::getEmail)
+                .contains("jean.dupont@example.com", "admin@example.com")
+                .doesNotContain("coach@example.com");
+        assertThat(byLastname.getContent())
+                .extracting(UserRepository.AvailableUser::getEmail)
+                .containsExactly("jean.dupont@example.com");
+        assertThat(byEmail.getContent())
+                .extracting(UserRepository.AvailableUser::getEmail)
+                .containsExactly("admin@example.com");
+        assertThat(coach.getContent()).isEmpty();
+    }
+
+    @Test
+    void shouldPageUsersNotInCourseAfterLastUser() {
+        Course course = courseRepository.findAll().stream()
+                .filter(c -> c.getCoach().getEmail().equals("coach@example.com"))
+                .findFirst()
+                .orElseThrow();
+        List<Long> expected = userRepository.findUsersNotInCourse(course.getId(), PageRequest.of(0, 50)).getContent().stream()
+                .map(UserRepository.AvailableUser::getId)
+                .toList();
+
+        // Une page d'un utilisateur à la fois, chaque page reprenant après le dernier renvoyé
+        List<Long> paged = new ArrayList<>();
+        Slice<UserRepository.AvailableUser> page = userRepository.findUsersNotInCourse(course.getId(), PageRequest.of(0, 1));
+        paged.add(page.getContent().get(0).getId());
+        while (page.hasNext()) {
+            page = userRepository.findUsersNotInCourseAfter(course.getId(), paged.get(paged.size() - 1), PageRequest.of(0, 1));
+            paged.add(page.getContent().get(0).getId());
+        }
+        Slice<UserRepository.AvailableUser> searched = userRepository.searchUsersNotInCourseAfter(
+                course.getId(), "%", expected.get(0), PageRequest.of(0, 50));
+
+        assertThat(paged).isEqualTo(expected);
+        assertThat(searched.getContent()).extracting(UserRepository.AvailableUser::getId)
+                .isEqualTo(expected.subList(1, expected.size()));
+    }
+
+    @Test
+    void shouldResetOnlyExpiredSuspensions() {
+        LocalDate today = LocalDate.of(2025, 10, 1);
+        User expiredPenalty = saveSuspendedUser("expired.penalty@example.com", SuspensionType.PENALTY,
+                today.minusDays(10), today.minusDays(1), (byte) 5);
+        User activePenalty = saveSuspendedUser("active.penalty@example.com", SuspensionType.PENALTY,
+                today.minusDays(2), today.plusDays(5), (byte) 5);
+        User expiredHoliday = saveSuspendedUser("expired.holiday@example.com", SuspensionType.HOLIDAY,
+                today.minusDays(10), today.minusDays(1), (byte) 2);
+        User freeze = saveSuspendedUser("freeze@example.com", null,
+                today.plusDays(1), today.plusDays(8), null);
+
+        int penalties = userRepository.resetExpiredPenaltySuspensions(today, SuspensionType.PENALTY);
+        int holidays = userRepository.resetExpiredHolidaySuspensions(today, SuspensionType.HOLIDAY);
+        int untyped = userRepository.markUntypedSuspensionsAsHoliday(today, SuspensionType.HOLIDAY);
+        entityManager.clear();
+
+        assertThat(penalties).isEqualTo(1);
+        assertThat(holidays).isEqualTo(1);
+        assertThat(untyped).isEqualTo(1);
+
+        User reloadedPenalty = userRepository.findById(expiredPenalty.getId()).orElseThrow();
+        assertThat(reloadedPenalty.getSuspensionType()).isNull();
+        assertThat(reloadedPenalty.getStrikeCount()).isNull();
+
+        User reloadedHoliday = userRepository.findById(expiredHoliday.getId()).orElseThrow();
+        assertThat(reloadedHoliday.getSuspensionEndDate()).isNull();
+        assertThat(reloadedHoliday.getStrikeCount()).isEqualTo((byte) 2);
+
+        assertThat(userRepository.findById(activePenalty.getId()).orElseThrow().getSuspensionType())
+                .isEqualTo(SuspensionType.PENALTY);
+        assertThat(userRepository.findById(freeze.getId()).orElseThrow().getSuspensionType())
+                .isEqualTo(SuspensionType.HOLIDAY);
+    }
+
     @Test
     void shouldFindAllWithUserSubscriptions() {
         List<User> users = userRepository.findAllWithUserSubscriptions();
         assertThat(users).isNotNull();
     }
+
+    private User saveSuspendedUser(String email, SuspensionType type, LocalDate start, LocalDate end, Byte strikes) {
+        LocalDateTime now = LocalDateTime.now();
+        return userRepository.saveAndFlush(User.builder()
+                .firstname("Suspended")
+                .lastname("User")
+                .email(email)
+                .roles(Set.of("ROLE_USER"))
+                .suspensionType(type)
+                .suspensionStartDate(start)
+                .suspensionEndDate(end)
+                .strikeCount(strikes)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+    }
 }
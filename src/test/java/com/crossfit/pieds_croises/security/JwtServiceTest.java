@@ -0,0 +1,48 @@
+package com.crossfit.pieds_croises.security;
+
+import com.crossfit.pieds_croises.model.User;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 60000L);
+    }
+
+    @Test
+    void testGenerateToken_rolesWrittenAsNames() {
+        User user = User.builder().email("john@example.com").roles(Set.of("ROLE_ADMIN")).build();
+
+        String token = jwtService.generateToken(user);
+        Optional<Claims> claims = jwtService.parseValidClaims(token);
+
+        assertThat(claims).isPresent();
+        assertThat(claims.get().getSubject()).isEqualTo("john@example.com");
+        assertThat(claims.get().get("roles")).isEqualTo(List.of("ROLE_ADMIN"));
+    }
+
+    @Test
+    void testParseValidClaims_tamperedToken() {
+        User user = User.builder().email("john@example.com").roles(Set.of("ROLE_USER")).build();
+        String token = jwtService.generateToken(user);
+
+        assertThat(jwtService.parseValidClaims(token + "x")).isEmpty();
+        assertThat(jwtService.validateJwtToken("not-a-jwt")).isFalse();
+    }
+}
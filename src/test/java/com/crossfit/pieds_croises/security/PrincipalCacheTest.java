@@ -0,0 +1,110 @@
+package com.crossfit.pieds_croises.security;
+
+import com.crossfit.pieds_croises.cache.CacheInvalidationChannel;
+import com.crossfit.pieds_croises.cache.VersionedResponseCache;
+import com.crossfit.pieds_croises.event.UserPrincipalChangedEvent;
+import com.crossfit.pieds_croises.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class PrincipalCacheTest {
+
+    private UserDetailsService userDetailsService;
+    private CacheInvalidationChannel invalidationChannel;
+    private SimpleMeterRegistry meterRegistry;
+    private PrincipalCache principalCache;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsService = mock(UserDetailsService.class);
+        invalidationChannel = mock(CacheInvalidationChannel.class);
+        meterRegistry = new SimpleMeterRegistry();
+        principalCache = new PrincipalCache(userDetailsService, invalidationChannel, meterRegistry, true, 60, 100);
+        when(userDetailsService.loadUserByUsername("john@example.com"))
+                .thenAnswer(invocation -> User.builder().id(1L).email("john@example.com").roles(Set.of("ROLE_USER")).build());
+    }
+
+    @Test
+    void testGetPrincipal_eachRequestGetsItsOwnCopy() {
+        User first = (User) principalCache.getPrincipal("john@example.com");
+        first.setFirstname("Changed");
+        User second = (User) principalCache.getPrincipal("john@example.com");
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getId()).isEqualTo(1L);
+        assertThat(second.getFirstname()).isNull();
+        assertThat(second.getRoles()).containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void testOnUserPrincipalChanged_broadcastsToOtherNodes() {
+        principalCache.onUserPrincipalChanged(new UserPrincipalChangedEvent("john@example.com"));
+
+        verify(invalidationChannel).publish(VersionedResponseCache.Resource.PRINCIPALS);
+    }
+
+    @Test
+    void testRemoteInvalidation_reloadsUser() {
+        ArgumentCaptor<Consumer<VersionedResponseCache.Resource>> listener = ArgumentCaptor.captor();
+        verify(invalidationChannel).subscribe(listener.capture());
+        principalCache.getPrincipal("john@example.com");
+
+        listener.getValue().accept(VersionedResponseCache.Resource.EXERCISES);
+        principalCache.getPrincipal("john@example.com");
+        listener.getValue().accept(VersionedResponseCache.Resource.PRINCIPALS);
+        principalCache.getPrincipal("john@example.com");
+
+        verify(userDetailsService, times(2)).loadUserByUsername("john@example.com");
+    }
+
+    @Test
+    void testGetPrincipal_secondCallServedFromCache() {
+        principalCache.getPrincipal("john@example.com");
+        principalCache.getPrincipal("john@example.com");
+
+        verify(userDetailsService, times(1)).loadUserByUsername("john@example.com");
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "principals").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "principals").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testOnUserPrincipalChanged_reloadsUpdatedUser() {
+        principalCache.getPrincipal("john@example.com");
+
+        principalCache.onUserPrincipalChanged(new UserPrincipalChangedEvent("john@example.com"));
+        principalCache.getPrincipal("john@example.com");
+
+        verify(userDetailsService, times(2)).loadUserByUsername("john@example.com");
+    }
+
+    @Test
+    void testOnUserPrincipalChanged_allUsers() {
+        principalCache.getPrincipal("john@example.com");
+
+        principalCache.onUserPrincipalChanged(UserPrincipalChangedEvent.allUsers());
+        principalCache.getPrincipal("john@example.com");
+
+        verify(userDetailsService, times(2)).loadUserByUsername("john@example.com");
+    }
+
+    @Test
+    void testGetPrincipal_disabledAlwaysLoads() {
+        PrincipalCache disabled = new PrincipalCache(userDetailsService, invalidationChannel, meterRegistry, false, 60, 100);
+
+        disabled.getPrincipal("john@example.com");
+        disabled.getPrincipal("john@example.com");
+
+        verify(userDetailsService, times(2)).loadUserByUsername("john@example.com");
+    }
+}
@@ -3,6 +3,8 @@ package com.crossfit.pieds_croises.service;
 import com.crossfit.pieds_croises.datetime.DateTimeProvider;
 import com.crossfit.pieds_croises.dto.CourseCreateDTO;
 import com.crossfit.pieds_croises.dto.CourseDTO;
+import com.crossfit.pieds_croises.dto.CoursePageDTO;
+import com.crossfit.pieds_croises.dto.CourseRosterDTO;
 import com.crossfit.pieds_croises.dto.CourseUpdateDTO;
 import com.crossfit.pieds_croises.exception.BusinessException;
 import com.crossfit.pieds_croises.exception.ResourceNotFoundException;
@@ -10,13 +12,17 @@ import com.crossfit.pieds_croises.mapper.CourseMapper;
 import com.crossfit.pieds_croises.mapper.UserMapper;
 import com.crossfit.pieds_croises.model.Course;
 import com.crossfit.pieds_croises.model.User;
+import com.crossfit.pieds_croises.model.UserCourse;
+import com.crossfit.pieds_croises.model.WeeklySessionCounterId;
 import com.crossfit.pieds_croises.repository.CourseRepository;
+import com.crossfit.pieds_croises.repository.UserCourseRepository;
 import com.crossfit.pieds_croises.repository.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDate;
@@ -25,6 +31,10 @@ import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -46,6 +56,12 @@ public class CourseServiceTest {
     @Mock
     private DateTimeProvider dateTimeProvider;
 
+    @Mock
+    private UserCourseRepository userCourseRepository;
+
+    @Mock
+    private WeeklySessionQuotaService weeklySessionQuotaService;
+
     @InjectMocks
     private CourseService courseService;
 
@@ -179,6 +195,81 @@ public class CourseServiceTest {
         verifyNoInteractions(courseMapper);
     }
 
+    @Test
+    public void testGetRoster_MapsProjectionRows() {
+        // Arrange
+        LocalDateTime start = LocalDateTime.of(2025, 10, 7, 19, 0);
+        CourseRepository.RosterRow present = rosterRow(start, 10L, "john.jpg", (byte) 2, UserCourse.Status.REGISTERED, start.minusMinutes(5));
+        CourseRepository.RosterRow waiting = rosterRow(start, 11L, null, null, UserCourse.Status.WAITING_LIST, null);
+        when(courseRepository.findRoster(1L)).thenReturn(List.of(present, waiting));
+
+        // Act
+        CourseRosterDTO roster = courseService.getRoster(1L);
+
+        // Assert
+        assertThat(roster.getTitle()).isEqualTo("WOD");
+        assertThat(roster.getAttendees()).hasSize(2);
+        assertThat(roster.getAttendees().get(0).getProfilePictureThumbnail64())
+                .isEqualTo("/uploads/profile-pictures/thumbnails/john-64.jpg");
+        assertThat(roster.getAttendees().get(0).isCheckedIn()).isTrue();
+        assertThat(roster.getAttendees().get(0).getStrikeCount()).isEqualTo(2);
+        assertThat(roster.getAttendees().get(1).isCheckedIn()).isFalse();
+        assertThat(roster.getAttendees().get(1).getStrikeCount()).isZero();
+        verifyNoInteractions(userRepository, userCourseRepository, courseMapper);
+    }
+
+    @Test
+    public void testGetRoster_EmptyCourse_ReturnsNoAttendee() {
+        // Arrange
+        CourseRepository.RosterRow courseOnly = rosterRow(LocalDateTime.of(2025, 10, 7, 19, 0), null, null, null, null, null);
+        when(courseRepository.findRoster(1L)).thenReturn(List.of(courseOnly));
+
+        // Act
+        CourseRosterDTO roster = courseService.getRoster(1L);
+
+        // Assert
+        assertThat(roster.getCourseId()).isEqualTo(1L);
+        assertThat(roster.getAttendees()).isEmpty();
+    }
+
+    @Test
+    public void testGetRoster_UnknownCourse_ShouldThrowException() {
+        // Arrange
+        when(courseRepository.findRoster(1L)).thenReturn(List.of());
+
+        // Act & Assert
+        assertThatThrownBy(() -> courseService.getRoster(1L))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    public void testSetCheckIn_NotRegistered_ShouldThrowException() {
+        // Arrange
+        when(dateTimeProvider.now()).thenReturn(LocalDateTime.of(2025, 10, 7, 18, 55));
+        when(userCourseRepository.updateCheckIn(1L, 10L, LocalDateTime.of(2025, 10, 7, 18, 55))).thenReturn(0);
+
+        // Act & Assert
+        assertThatThrownBy(() -> courseService.setCheckIn(1L, 10L, true))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("User not registered in this course");
+        verify(courseRepository, never()).findRoster(any());
+    }
+
+    private CourseRepository.RosterRow rosterRow(LocalDateTime start, Long userId, String picture, Byte strikes,
+                                                 UserCourse.Status status, LocalDateTime checkedInAt) {
+        CourseRepository.RosterRow row = mock(CourseRepository.RosterRow.class);
+        lenient().when(row.getCourseId()).thenReturn(1L);
+        lenient().when(row.getTitle()).thenReturn("WOD");
+        lenient().when(row.getStartDatetime()).thenReturn(start);
+        lenient().when(row.getPersonLimit()).thenReturn(12);
+        lenient().when(row.getUserId()).thenReturn(userId);
+        lenient().when(row.getProfilePicture()).thenReturn(picture);
+        lenient().when(row.getStrikeCount()).thenReturn(strikes);
+        lenient().when(row.getStatus()).thenReturn(status);
+        lenient().when(row.getCheckedInAt()).thenReturn(checkedInAt);
+        return row;
+    }
+
     @Test
     public void testCreateCourse() {
         // Arrange
@@ -392,4 +483,78 @@ public class CourseServiceTest {
         verify(userRepository, times(1)).findById(2L);
         verifyNoMoreInteractions(courseMapper, courseRepository);
     }
+
+    @Test
+    public void testGetCoursesPage_ReturnsCursorWhenMoreRows() {
+        // Arrange
+        LocalDateTime start = LocalDateTime.of(2025, 10, 1, 6, 0);
+        CourseRepository.CourseListItem first = mockListItem(1L, start);
+        CourseRepository.CourseListItem second = mockListItem(2L, start);
+        CourseRepository.CourseListItem extra = mock(CourseRepository.CourseListItem.class);
+        UserCourseRepository.AttendeeItem attendee = mock(UserCourseRepository.AttendeeItem.class);
+        when(attendee.getCourseId()).thenReturn(1L);
+        when(attendee.getUserId()).thenReturn(10L);
+        when(attendee.getStatus()).thenReturn(UserCourse.Status.REGISTERED);
+
+        when(courseRepository.findCoursePage(isNull(), isNull(), isNull(), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(List.of(first, second, extra));
+        when(userCourseRepository.findAttendeesByCourseIds(anyList())).thenReturn(List.of(attendee));
+        when(courseMapper.convertToDto(first)).thenReturn(new CourseDTO());
+        when(courseMapper.convertToDto(second)).thenReturn(new CourseDTO());
+
+        // Act
+        CoursePageDTO page = courseService.getCoursesPage(null, 2, null, null, null);
+
+        // Assert
+        assertThat(page.getItems()).hasSize(2);
+        assertThat(page.getItems().get(0).getUserCoursesInfo()).hasSize(1);
+        assertThat(page.getItems().get(1).getUserCoursesInfo()).isEmpty();
+        assertThat(page.getNextCursor()).isNotNull();
+        verify(userCourseRepository, times(1)).findAttendeesByCourseIds(List.of(1L, 2L));
+
+        // La page suivante repart après le dernier cours renvoyé
+        when(courseRepository.findCoursePage(isNull(), isNull(), isNull(), eq(start), eq(2L), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        CoursePageDTO next = courseService.getCoursesPage(page.getNextCursor(), 2, null, null, null);
+
+        assertThat(next.getItems()).isEmpty();
+        assertThat(next.getNextCursor()).isNull();
+    }
+
+    @Test
+    public void testGetCoursesPage_InvalidCursor() {
+        // Act & Assert
+        assertThatThrownBy(() -> courseService.getCoursesPage("not-a-cursor", 20, null, null, null))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Invalid cursor");
+        verifyNoInteractions(courseRepository, userCourseRepository);
+    }
+
+    @Test
+    public void testDeleteCourse_ReleasesWeeklyQuotaOfRegisteredMembers() {
+        // Arrange
+        Course course = new Course();
+        course.setId(1L);
+        course.setStartDatetime(LocalDateTime.of(2025, 10, 1, 6, 0));
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        when(userCourseRepository.findRegisteredUserIds(1L)).thenReturn(List.of(10L, 11L));
+
+        // Act
+        courseService.deleteCourse(1L);
+
+        // Assert
+        LocalDate week = LocalDate.of(2025, 9, 29);
+        verify(weeklySessionQuotaService).addAll(Map.of(
+                new WeeklySessionCounterId(10L, week), -1,
+                new WeeklySessionCounterId(11L, week), -1));
+        verify(courseRepository).delete(course);
+    }
+
+    private CourseRepository.CourseListItem mockListItem(Long id, LocalDateTime start) {
+        CourseRepository.CourseListItem item = mock(CourseRepository.CourseListItem.class);
+        when(item.getId()).thenReturn(id);
+        lenient().when(item.getStartDatetime()).thenReturn(start);
+        return item;
+    }
 }
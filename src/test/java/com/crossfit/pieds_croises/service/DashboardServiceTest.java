@@ -0,0 +1,116 @@
+package com.crossfit.pieds_croises.service;
+
+import com.crossfit.pieds_croises.datetime.DateTimeProvider;
+import com.crossfit.pieds_croises.dto.DashboardStatsDTO;
+import com.crossfit.pieds_croises.enums.UserSubscriptionStatus;
+import com.crossfit.pieds_croises.event.MembershipStatsChangedEvent;
+import com.crossfit.pieds_croises.event.SeatCountChangedEvent;
+import com.crossfit.pieds_croises.repository.CourseRepository;
+import com.crossfit.pieds_croises.repository.UserRepository;
+import com.crossfit.pieds_croises.repository.UserSubscriptionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@ActiveProfiles("test")
+public class DashboardServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 10, 1, 12, 0);
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserSubscriptionRepository userSubscriptionRepository;
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private DateTimeProvider dateTimeProvider;
+
+    @InjectMocks
+    private DashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        when(dateTimeProvider.now()).thenReturn(NOW);
+        when(userRepository.count()).thenReturn(10L);
+        when(userSubscriptionRepository.countByStatus(UserSubscriptionStatus.ACTIVE)).thenReturn(4L);
+        when(userSubscriptionRepository.sumActiveSubscriptionPrices()).thenReturn(200L);
+        when(courseRepository.sumOccupancySince(any())).thenReturn(occupancy(2L, 150.0));
+        dashboardService.reconcile();
+    }
+
+    @Test
+    public void testGetDashboardStats_servedFromSnapshot() {
+        // Act
+        DashboardStatsDTO stats = dashboardService.getDashboardStats();
+        dashboardService.getDashboardStats();
+
+        // Assert
+        assertThat(stats.getTotalUsers()).isEqualTo(10L);
+        assertThat(stats.getActiveUsers()).isEqualTo(4L);
+        assertThat(stats.getMonthlyRevenue()).isEqualByComparingTo(BigDecimal.valueOf(200));
+        assertThat(stats.getAverageCourseOccupancyRate()).isEqualTo(75.0);
+        verify(userRepository, times(1)).count();
+    }
+
+    @Test
+    public void testEvents_updateSnapshotIncrementally() {
+        // Act
+        dashboardService.onMembershipStatsChanged(MembershipStatsChangedEvent.userCreated());
+        dashboardService.onMembershipStatsChanged(MembershipStatsChangedEvent.subscriptionActivated(50));
+        dashboardService.onSeatCountChanged(new SeatCountChangedEvent(NOW.minusDays(1), 10, 1));
+        // Hors de la fenêtre de 30 jours : ignoré
+        dashboardService.onSeatCountChanged(new SeatCountChangedEvent(NOW.minusDays(40), 10, 1));
+
+        // Assert
+        DashboardStatsDTO stats = dashboardService.getDashboardStats();
+        assertThat(stats.getTotalUsers()).isEqualTo(11L);
+        assertThat(stats.getActiveUsers()).isEqualTo(5L);
+        assertThat(stats.getMonthlyRevenue()).isEqualByComparingTo(BigDecimal.valueOf(250));
+        assertThat(stats.getAverageCourseOccupancyRate()).isEqualTo(80.0);
+    }
+
+    @Test
+    public void testReconcile_keepsEventsReceivedDuringReads() {
+        // Arrange : une inscription arrive pendant la lecture, la base ne la voit pas encore
+        when(userRepository.count()).thenAnswer(invocation -> {
+            dashboardService.onMembershipStatsChanged(MembershipStatsChangedEvent.userCreated());
+            return 10L;
+        });
+
+        // Act
+        dashboardService.reconcile();
+
+        // Assert
+        assertThat(dashboardService.getDashboardStats().getTotalUsers()).isEqualTo(11L);
+    }
+
+    private CourseRepository.OccupancyTotals occupancy(Long courseCount, Double occupancySum) {
+        return new CourseRepository.OccupancyTotals() {
+            @Override
+            public Long getCourseCount() {
+                return courseCount;
+            }
+
+            @Override
+            public Double getOccupancySum() {
+                return occupancySum;
+            }
+        };
+    }
+}
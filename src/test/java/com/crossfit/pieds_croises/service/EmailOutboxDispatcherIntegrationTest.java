@@ -0,0 +1,111 @@
+package com.crossfit.pieds_croises.service;
+
+import com.crossfit.pieds_croises.model.EmailOutbox;
+import com.crossfit.pieds_croises.repository.EmailOutboxRepository;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "spring.mail.protocol=smtp",
+        "spring.mail.properties.mail.smtp.auth=false",
+        "spring.mail.properties.mail.smtp.starttls.enable=false",
+        "app.mail.outbox.poll-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+class EmailOutboxDispatcherIntegrationTest {
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmailOutboxDispatcher emailOutboxDispatcher;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    private GreenMail greenMail;
+
+    @BeforeEach
+    void setUp() {
+        emailOutboxRepository.deleteAll();
+        greenMail = new GreenMail(ServerSetupTest.SMTP);
+        greenMail.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        greenMail.stop();
+        emailOutboxRepository.deleteAll();
+    }
+
+    @Test
+    void dispatchBatch_deliversQueuedEmails() {
+        emailService.sendHtmlEmail("first@example.com", "Subject 1", "<h1>Hello 1</h1>");
+        emailService.sendHtmlEmail("second@example.com", "Subject 2", "<h1>Hello 2</h1>");
+
+        int sent = emailOutboxDispatcher.dispatchBatch();
+
+        assertThat(sent).isEqualTo(2);
+        assertThat(greenMail.getReceivedMessages()).hasSize(2);
+        assertThat(emailOutboxRepository.findAll())
+                .extracting(EmailOutbox::getStatus)
+                .containsOnly(EmailOutbox.Status.SENT);
+    }
+
+    @Test
+    void dispatchBatch_smtpDown_keepsEmailPendingWithBackoff() {
+        greenMail.stop();
+        emailService.sendHtmlEmail("first@example.com", "Subject", "<h1>Hello</h1>");
+
+        int sent = emailOutboxDispatcher.dispatchBatch();
+
+        assertThat(sent).isZero();
+        List<EmailOutbox> emails = emailOutboxRepository.findAll();
+        assertThat(emails).hasSize(1);
+        EmailOutbox email = emails.get(0);
+        assertThat(email.getStatus()).isEqualTo(EmailOutbox.Status.PENDING);
+        assertThat(email.getAttempts()).isEqualTo(1);
+        assertThat(email.getNextAttemptAt()).isAfter(LocalDateTime.now());
+        assertThat(email.getLastError()).isNotBlank();
+    }
+
+    @Test
+    void dispatchBatch_takesOverExpiredLeasesOnly() {
+        EmailOutbox abandoned = saveSending("abandoned@example.com", LocalDateTime.now().minusMinutes(1));
+        EmailOutbox claimedElsewhere = saveSending("claimed@example.com", LocalDateTime.now().plusMinutes(5));
+
+        int sent = emailOutboxDispatcher.dispatchBatch();
+
+        assertThat(sent).isEqualTo(1);
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+        assertThat(emailOutboxRepository.findById(abandoned.getId()).orElseThrow().getStatus())
+                .isEqualTo(EmailOutbox.Status.SENT);
+        assertThat(emailOutboxRepository.findById(claimedElsewhere.getId()).orElseThrow().getStatus())
+                .isEqualTo(EmailOutbox.Status.SENDING);
+    }
+
+    private EmailOutbox saveSending(String recipient, LocalDateTime leaseUntil) {
+        return emailOutboxRepository.save(EmailOutbox.builder()
+                .recipient(recipient)
+                .subject("Subject")
+                .htmlContent("<h1>Hello</h1>")
+                .status(EmailOutbox.Status.SENDING)
+                .attempts(0)
+                .nextAttemptAt(leaseUntil)
+                .createdAt(LocalDateTime.now().minusMinutes(10))
+                .build());
+    }
+}
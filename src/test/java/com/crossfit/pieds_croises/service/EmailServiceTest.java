@@ -1,14 +1,18 @@
 package com.crossfit.pieds_croises.service;
 
-import jakarta.mail.internet.MimeMessage;
+import com.crossfit.pieds_croises.datetime.DateTimeProvider;
+import com.crossfit.pieds_croises.model.EmailOutbox;
+import com.crossfit.pieds_croises.repository.EmailOutboxRepository;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
 
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -18,10 +22,16 @@ import static org.mockito.Mockito.*;
 class EmailServiceTest {
 
     @MockitoBean
-    private JavaMailSender javaMailSender;
+    private EmailOutboxRepository emailOutboxRepository;
 
     @MockitoBean
-    private TemplateEngine templateEngine;
+    private DateTimeProvider dateTimeProvider;
+
+    @MockitoBean
+    private EmailTemplateRenderer emailTemplateRenderer;
+
+    @MockitoBean
+    private JdbcTemplate jdbcTemplate;
 
     @Autowired
     private EmailService emailService;
@@ -39,29 +49,56 @@ class EmailServiceTest {
     }
 
     @Test
-    void testSendHtmlEmail_sendsEmail() throws Exception {
-        MimeMessage mimeMessage = mock(MimeMessage.class);
-        when(javaMailSender.createMimeMessage()).thenReturn(mimeMessage);
+    void testSendHtmlEmail_queuesEmail() {
+        LocalDateTime now = LocalDateTime.of(2025, 10, 1, 6, 0);
+        when(dateTimeProvider.now()).thenReturn(now);
 
         emailService.sendHtmlEmail("test@example.com", "Subject", "<h1>Hello</h1>");
 
-        verify(javaMailSender, times(1)).send(mimeMessage);
+        ArgumentCaptor<EmailOutbox> captor = ArgumentCaptor.forClass(EmailOutbox.class);
+        verify(emailOutboxRepository, times(1)).save(captor.capture());
+        EmailOutbox queued = captor.getValue();
+        assertThat(queued.getRecipient()).isEqualTo("test@example.com");
+        assertThat(queued.getHtmlContent()).isEqualTo("<h1>Hello</h1>");
+        assertThat(queued.getStatus()).isEqualTo(EmailOutbox.Status.PENDING);
+        assertThat(queued.getAttempts()).isZero();
+        assertThat(queued.getNextAttemptAt()).isEqualTo(now);
     }
 
     @Test
-    void testSendTemplateEmail_processesTemplateAndSends() throws Exception {
-        MimeMessage mimeMessage = mock(MimeMessage.class);
-        when(javaMailSender.createMimeMessage()).thenReturn(mimeMessage);
+    void testSendTemplateEmail_processesTemplateAndQueues() {
+        when(dateTimeProvider.now()).thenReturn(LocalDateTime.of(2025, 10, 1, 6, 0));
 
         // Simuler le rendu du template
-        when(templateEngine.process(eq("email/test-template"), any(Context.class))).thenReturn("<h1>Rendered</h1>");
+        when(emailTemplateRenderer.render(eq("test-template"), any())).thenReturn("<h1>Rendered</h1>");
 
         emailService.sendTemplateEmail("test@example.com", "Subject", "test-template", Map.of("name", "John"));
 
         // Vérifier que le template a été appelé
-        verify(templateEngine, times(1)).process(eq("email/test-template"), any(Context.class));
-        // Vérifier que l'email a été envoyé
-        verify(javaMailSender, times(1)).send(mimeMessage);
+        verify(emailTemplateRenderer, times(1)).render(eq("test-template"), any());
+        // Vérifier que l'email a été mis en file d'attente
+        verify(emailOutboxRepository, times(1)).save(any(EmailOutbox.class));
+    }
+
+    @Test
+    void testSendBulkTemplateEmail_rendersOncePerRecipientAndQueuesInOneBatch() {
+        LocalDateTime now = LocalDateTime.of(2025, 10, 1, 6, 0);
+        when(dateTimeProvider.now()).thenReturn(now);
+        Map<String, Map<String, Object>> variablesByRecipient = new LinkedHashMap<>();
+        variablesByRecipient.put("a@example.com", Map.of("firstname", "Alice"));
+        variablesByRecipient.put("b@example.com", Map.of("firstname", "Bob"));
+        when(emailTemplateRenderer.renderAll("test-template", List.of(Map.of("firstname", "Alice"), Map.of("firstname", "Bob"))))
+                .thenReturn(List.of("<p>Alice</p>", "<p>Bob</p>"));
+
+        emailService.sendBulkTemplateEmail("Subject", "test-template", variablesByRecipient);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith("INSERT INTO email_outbox"), captor.capture());
+        assertThat(captor.getValue()).containsExactly(
+                new Object[]{"a@example.com", "Subject", "<p>Alice</p>", "PENDING", now, now},
+                new Object[]{"b@example.com", "Subject", "<p>Bob</p>", "PENDING", now, now});
+        verifyNoInteractions(emailOutboxRepository);
     }
 
 }
@@ -0,0 +1,69 @@
+package com.crossfit.pieds_croises.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailTemplateRendererTest {
+
+    private EmailTemplateRenderer emailTemplateRenderer;
+
+    @BeforeEach
+    void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+
+        TemplateEngine templateEngine = new TemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+        emailTemplateRenderer = new EmailTemplateRenderer(templateEngine, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        emailTemplateRenderer.shutdown();
+    }
+
+    @Test
+    void testPreloadTemplates_allTemplatesResolve() {
+        emailTemplateRenderer.preloadTemplates();
+
+        for (String templateName : EmailTemplateRenderer.TEMPLATES) {
+            assertThat(emailTemplateRenderer.render(templateName, Map.of())).isNotBlank();
+        }
+    }
+
+    @Test
+    void testRender_consecutiveRendersDoNotLeakPreviousContent() {
+        String first = emailTemplateRenderer.render("reset-password", Map.of("resetPasswordEmailLink", "http://first"));
+        String second = emailTemplateRenderer.render("reset-password", Map.of("resetPasswordEmailLink", "http://second"));
+
+        assertThat(first).contains("http://first");
+        assertThat(second).contains("http://second").doesNotContain("http://first");
+    }
+
+    @Test
+    void testRenderAll_parallelChunksKeepOrderOfVariables() {
+        List<Map<String, Object>> variables = IntStream.range(0, 50)
+                .<Map<String, Object>>mapToObj(i -> Map.of("resetPasswordEmailLink", "http://link/" + i))
+                .toList();
+
+        List<String> rendered = emailTemplateRenderer.renderAll("reset-password", variables);
+
+        assertThat(rendered).hasSize(50);
+        for (int i = 0; i < 50; i++) {
+            assertThat(rendered.get(i)).contains("http://link/" + i + "\"");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.crossfit.pieds_croises.service;
 
+import com.crossfit.pieds_croises.cache.VersionedResponseCache;
 import com.crossfit.pieds_croises.dto.ExerciceDTO;
 import com.crossfit.pieds_croises.exception.ResourceNotFoundException;
 import com.crossfit.pieds_croises.mapper.ExerciceMapper;
@@ -15,6 +16,7 @@ import org.springframework.test.context.ActiveProfiles;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -30,6 +32,9 @@ public class ExerciseServiceTest {
     @Mock
     private ExerciceMapper exerciseMapper;
 
+    @Mock
+    private VersionedResponseCache versionedResponseCache;
+
     @InjectMocks
     private ExerciseService exerciseService;
 
@@ -40,18 +45,24 @@ public class ExerciseServiceTest {
         Exercice exercise2 = new Exercice();
         ExerciceDTO exerciseDTO1 = new ExerciceDTO();
         ExerciceDTO exerciseDTO2 = new ExerciceDTO();
+        ExerciceDTO copy1 = new ExerciceDTO();
+        ExerciceDTO copy2 = new ExerciceDTO();
         List<Exercice> exercises = List.of(exercise1, exercise2);
 
+        when(versionedResponseCache.snapshot(eq(VersionedResponseCache.Resource.EXERCISES), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
         when(exerciseRepository.findAll()).thenReturn(exercises);
         when(exerciseMapper.convertToDTO(exercise1)).thenReturn(exerciseDTO1);
         when(exerciseMapper.convertToDTO(exercise2)).thenReturn(exerciseDTO2);
+        when(exerciseMapper.copy(exerciseDTO1)).thenReturn(copy1);
+        when(exerciseMapper.copy(exerciseDTO2)).thenReturn(copy2);
 
         // Act
         List<ExerciceDTO> result = exerciseService.getAllExercises();
 
-        // Assert
+        // Assert : l'instantané en cache n'est jamais remis tel quel
         assertThat(result).hasSize(2);
-        assertThat(result).containsExactly(exerciseDTO1, exerciseDTO2);
+        assertThat(result).containsExactly(copy1, copy2);
         verify(exerciseRepository, times(1)).findAll();
         verify(exerciseMapper, times(1)).convertToDTO(exercise1);
         verify(exerciseMapper, times(1)).convertToDTO(exercise2);
@@ -1,5 +1,6 @@
 package com.crossfit.pieds_croises.service;
 
+import com.crossfit.pieds_croises.cache.VersionedResponseCache;
 import com.crossfit.pieds_croises.datetime.DateTimeProvider;
 import com.crossfit.pieds_croises.dto.MessageCreateDTO;
 import com.crossfit.pieds_croises.dto.MessageDTO;
@@ -35,6 +36,9 @@ public class MessageServiceTest {
     @Mock
     private DateTimeProvider dateTimeProvider;
 
+    @Mock
+    private VersionedResponseCache versionedResponseCache;
+
     @InjectMocks
     private MessageService messageService;
 
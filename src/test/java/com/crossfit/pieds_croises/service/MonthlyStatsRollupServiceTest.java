@@ -0,0 +1,148 @@
+package com.crossfit.pieds_croises.service;
+
+import com.crossfit.pieds_croises.datetime.DateTimeProvider;
+import com.crossfit.pieds_croises.dto.MonthlyStatsDto;
+import com.crossfit.pieds_croises.event.SubscriptionPeriodChangedEvent;
+import com.crossfit.pieds_croises.exception.BusinessException;
+import com.crossfit.pieds_croises.model.MonthlyStatsRollup;
+import com.crossfit.pieds_croises.repository.MonthlyStatsRollupRepository;
+import com.crossfit.pieds_croises.repository.UserSubscriptionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@ActiveProfiles("test")
+public class MonthlyStatsRollupServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 10, 15);
+
+    @Mock
+    private MonthlyStatsRollupRepository monthlyStatsRollupRepository;
+
+    @Mock
+    private UserSubscriptionRepository userSubscriptionRepository;
+
+    @Mock
+    private DateTimeProvider dateTimeProvider;
+
+    @InjectMocks
+    private MonthlyStatsRollupService monthlyStatsRollupService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(dateTimeProvider.today()).thenReturn(TODAY);
+    }
+
+    @Test
+    public void testGetMonthlySeries_closedMonthsServedFromRollup() {
+        // Arrange
+        List<MonthlyStatsRollup> stored = new ArrayList<>();
+        for (YearMonth month = YearMonth.of(2023, 11); month.isBefore(YearMonth.of(2025, 10)); month = month.plusMonths(1)) {
+            stored.add(rollup(month, true));
+        }
+        // Le mois en cours a été invalidé (par n'importe quelle instance) depuis son dernier calcul
+        MonthlyStatsRollup current = rollup(YearMonth.of(2025, 10), false);
+        current.setInvalidatedAt(LocalDateTime.of(2025, 10, 2, 0, 0));
+        stored.add(current);
+        when(monthlyStatsRollupRepository.findByPeriodStartBetweenOrderByPeriodStartAsc(
+                LocalDate.of(2023, 11, 1), LocalDate.of(2025, 10, 1))).thenReturn(stored);
+        when(dateTimeProvider.now()).thenReturn(TODAY.atTime(12, 0));
+        when(userSubscriptionRepository.countActiveUserSubscriptionsByMonth(any(), any())).thenReturn(7L);
+        when(userSubscriptionRepository.calculateMonthlyRevenue(any(), any())).thenReturn(BigDecimal.valueOf(350));
+
+        // Act
+        List<MonthlyStatsDto> series = monthlyStatsRollupService.getMonthlySeries(YearMonth.of(2023, 11), YearMonth.of(2025, 12));
+
+        // Assert
+        assertThat(series).hasSize(24);
+        assertThat(series.get(0).getYear()).isEqualTo(2023);
+        assertThat(series.get(0).getMonth()).isEqualTo(11);
+        assertThat(series.get(23).getActiveUsersCount()).isEqualTo(7L);
+        // Seul le mois en cours a été recalculé
+        verify(userSubscriptionRepository, times(1)).countActiveUserSubscriptionsByMonth(any(), any());
+        verify(monthlyStatsRollupRepository, times(1)).upsert(LocalDate.of(2025, 10, 1), 7L, BigDecimal.valueOf(350),
+                false, TODAY.atTime(12, 0));
+    }
+
+    @Test
+    public void testGetMonthlySeries_missingClosedMonthComputedOnceAndClosed() {
+        // Arrange
+        when(monthlyStatsRollupRepository.findByPeriodStartBetweenOrderByPeriodStartAsc(any(), any())).thenReturn(List.of());
+        when(dateTimeProvider.now()).thenReturn(TODAY.atTime(12, 0));
+        when(userSubscriptionRepository.countActiveUserSubscriptionsByMonth(any(), any())).thenReturn(3L);
+        when(userSubscriptionRepository.calculateMonthlyRevenue(any(), any())).thenReturn(BigDecimal.valueOf(120));
+
+        // Act
+        monthlyStatsRollupService.getMonthlySeries(YearMonth.of(2025, 5), YearMonth.of(2025, 5));
+
+        // Assert
+        verify(monthlyStatsRollupRepository).upsert(LocalDate.of(2025, 5, 1), 3L, BigDecimal.valueOf(120),
+                true, TODAY.atTime(12, 0));
+    }
+
+    @Test
+    public void testGetMonthlySeries_closedMonthRecomputedAfterLateCorrection() {
+        // Arrange : mai est clos, mais un abonnement qui le couvrait a été supprimé après son calcul
+        MonthlyStatsRollup may = rollup(YearMonth.of(2025, 5), true);
+        may.setInvalidatedAt(LocalDateTime.of(2025, 10, 3, 9, 0));
+        when(monthlyStatsRollupRepository.findByPeriodStartBetweenOrderByPeriodStartAsc(any(), any())).thenReturn(List.of(may));
+        when(dateTimeProvider.now()).thenReturn(TODAY.atTime(12, 0));
+        when(userSubscriptionRepository.countActiveUserSubscriptionsByMonth(any(), any())).thenReturn(9L);
+        when(userSubscriptionRepository.calculateMonthlyRevenue(any(), any())).thenReturn(BigDecimal.valueOf(450));
+
+        // Act
+        List<MonthlyStatsDto> series = monthlyStatsRollupService.getMonthlySeries(YearMonth.of(2025, 5), YearMonth.of(2025, 5));
+
+        // Assert
+        assertThat(series.get(0).getActiveUsersCount()).isEqualTo(9L);
+        verify(monthlyStatsRollupRepository).upsert(LocalDate.of(2025, 5, 1), 9L, BigDecimal.valueOf(450),
+                true, TODAY.atTime(12, 0));
+    }
+
+    @Test
+    public void testOnSubscriptionPeriodChanged_invalidatesTouchedMonthsUpToCurrent() {
+        // Arrange
+        when(dateTimeProvider.now()).thenReturn(TODAY.atTime(12, 0));
+
+        // Act
+        monthlyStatsRollupService.onSubscriptionPeriodChanged(new SubscriptionPeriodChangedEvent(
+                LocalDateTime.of(2025, 3, 10, 8, 0), LocalDateTime.of(2026, 3, 10, 8, 0)));
+
+        // Assert
+        verify(monthlyStatsRollupRepository).invalidate(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 10, 1),
+                TODAY.atTime(12, 0));
+    }
+
+    @Test
+    public void testGetMonthlySeries_invalidRange() {
+        assertThatThrownBy(() -> monthlyStatsRollupService.getMonthlySeries(YearMonth.of(2025, 5), YearMonth.of(2025, 1)))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    private MonthlyStatsRollup rollup(YearMonth month, boolean closed) {
+        return MonthlyStatsRollup.builder()
+                .periodStart(month.atDay(1))
+                .activeUsersCount(10L)
+                .revenue(BigDecimal.valueOf(500))
+                .closed(closed)
+                .computedAt(LocalDateTime.of(2025, 10, 1, 0, 0))
+                .build();
+    }
+}
@@ -45,6 +45,9 @@ public class PerformanceHistoryServiceTest {
     @Mock
     private DateTimeProvider dateTimeProvider;
 
+    @Mock
+    private PersonalRecordService personalRecordService;
+
     @InjectMocks
     private PerformanceHistoryService performanceHistoryService;
 
@@ -134,6 +137,7 @@ public class PerformanceHistoryServiceTest {
         verify(exerciseRepository, times(1)).findById(exerciseId);
         verify(performanceHistoryRepository, times(1)).save(performanceHistory);
         verify(performanceHistoryMapper, times(1)).convertToDTO(savedPerformanceHistory);
+        verify(personalRecordService, times(1)).onPerformanceRecorded(savedPerformanceHistory);
     }
 
     @Test
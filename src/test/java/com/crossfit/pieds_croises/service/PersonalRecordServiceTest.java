@@ -0,0 +1,260 @@
+package com.crossfit.pieds_croises.service;
+
+import com.crossfit.pieds_croises.datetime.DateTimeProvider;
+import com.crossfit.pieds_croises.dto.LeaderboardPageDTO;
+import com.crossfit.pieds_croises.dto.PersonalRecordDTO;
+import com.crossfit.pieds_croises.exception.BusinessException;
+import com.crossfit.pieds_croises.mapper.PersonalRecordMapper;
+import com.crossfit.pieds_croises.model.Exercice;
+import com.crossfit.pieds_croises.model.PerformanceHistory;
+import com.crossfit.pieds_croises.model.PersonalRecord;
+import com.crossfit.pieds_croises.model.User;
+import com.crossfit.pieds_croises.repository.ExerciseRepository;
+import com.crossfit.pieds_croises.repository.PerformanceHistoryRepository;
+import com.crossfit.pieds_croises.repository.PersonalRecordRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyFloat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@ActiveProfiles("test")
+public class PersonalRecordServiceTest {
+
+    @Mock
+    private PersonalRecordRepository personalRecordRepository;
+
+    @Mock
+    private PerformanceHistoryRepository performanceHistoryRepository;
+
+    @Mock
+    private ExerciseRepository exerciseRepository;
+
+    @Mock
+    private PersonalRecordMapper personalRecordMapper;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private DateTimeProvider dateTimeProvider;
+
+    @InjectMocks
+    private PersonalRecordService personalRecordService;
+
+    @Test
+    public void testOnPerformanceRecorded_UpsertsHigherWeight() {
+        // Arrange
+        Exercice squat = buildExercise(2L, Exercice.MeasureType.WEIGHT);
+        LocalDateTime now = LocalDateTime.of(2025, 3, 1, 12, 0);
+        when(dateTimeProvider.now()).thenReturn(now);
+
+        // Act
+        personalRecordService.onPerformanceRecorded(buildPerformance(10L, squat, 100f, LocalDate.of(2025, 3, 1)));
+
+        // Assert : aucune lecture préalable, la comparaison est faite par l'upsert
+        verify(personalRecordRepository).upsertIfHigher(1L, 2L, 100f, LocalDate.of(2025, 3, 1), 10L, now);
+        verify(personalRecordRepository, never()).findByUserIdAndExerciceId(any(), any());
+        verify(personalRecordRepository, never()).save(any());
+    }
+
+    @Test
+    public void testOnPerformanceRecorded_LowerTimeIsBetter() {
+        // Arrange
+        Exercice row = buildExercise(3L, Exercice.MeasureType.TIME);
+        LocalDateTime now = LocalDateTime.of(2025, 3, 1, 12, 0);
+        when(dateTimeProvider.now()).thenReturn(now);
+
+        // Act
+        personalRecordService.onPerformanceRecorded(buildPerformance(10L, row, 400f, LocalDate.of(2025, 3, 1)));
+
+        // Assert
+        verify(personalRecordRepository).upsertIfLower(1L, 3L, 400f, LocalDate.of(2025, 3, 1), 10L, now);
+        verify(personalRecordRepository, never()).upsertIfHigher(any(), any(), anyFloat(), any(), any(), any());
+    }
+
+    @Test
+    public void testRebuildIfEmpty_SkipsPopulatedTable() {
+        // Arrange
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class))).thenReturn(true);
+
+        // Act
+        int rebuilt = personalRecordService.rebuildIfEmpty();
+
+        // Assert
+        assertThat(rebuilt).isZero();
+        verify(jdbcTemplate, never()).update(anyString());
+    }
+
+    @Test
+    public void testOnPerformanceDeleted_RecomputesWhenRecordRowIsDeleted() {
+        // Arrange
+        Exercice squat = buildExercise(2L, Exercice.MeasureType.WEIGHT);
+        PerformanceHistory deleted = buildPerformance(10L, squat, 120f, LocalDate.of(2025, 3, 1));
+        PerformanceHistory nextBest = buildPerformance(8L, squat, 110f, LocalDate.of(2025, 2, 1));
+        PersonalRecord record = buildRecord(squat, 120f, 10L);
+        when(personalRecordRepository.findByUserIdAndExerciceId(1L, 2L)).thenReturn(Optional.of(record));
+        when(performanceHistoryRepository.findFirstByUserIdAndExerciceIdOrderByMeasuredValueDescDateAscIdAsc(1L, 2L))
+                .thenReturn(Optional.of(nextBest));
+        when(dateTimeProvider.now()).thenReturn(LocalDateTime.of(2025, 3, 2, 12, 0));
+
+        // Act
+        personalRecordService.onPerformanceDeleted(deleted);
+
+        // Assert
+        assertThat(record.getBestValue()).isEqualTo(110f);
+        assertThat(record.getAchievedOn()).isEqualTo(LocalDate.of(2025, 2, 1));
+        assertThat(record.getPerformanceHistoryId()).isEqualTo(8L);
+        verify(personalRecordRepository).save(record);
+    }
+
+    @Test
+    public void testOnPerformanceDeleted_RemovesRecordWhenNoHistoryLeft() {
+        // Arrange
+        Exercice squat = buildExercise(2L, Exercice.MeasureType.WEIGHT);
+        PersonalRecord record = buildRecord(squat, 120f, 10L);
+        when(personalRecordRepository.findByUserIdAndExerciceId(1L, 2L)).thenReturn(Optional.of(record));
+        when(performanceHistoryRepository.findFirstByUserIdAndExerciceIdOrderByMeasuredValueDescDateAscIdAsc(1L, 2L))
+                .thenReturn(Optional.empty());
+
+        // Act
+        personalRecordService.onPerformanceDeleted(buildPerformance(10L, squat, 120f, LocalDate.of(2025, 3, 1)));
+
+        // Assert
+        verify(personalRecordRepository).delete(record);
+    }
+
+    @Test
+    public void testOnPerformanceDeleted_OtherRowLeavesRecordUntouched() {
+        // Arrange
+        Exercice squat = buildExercise(2L, Exercice.MeasureType.WEIGHT);
+        PersonalRecord record = buildRecord(squat, 120f, 10L);
+        when(personalRecordRepository.findByUserIdAndExerciceId(1L, 2L)).thenReturn(Optional.of(record));
+
+        // Act
+        personalRecordService.onPerformanceDeleted(buildPerformance(11L, squat, 90f, LocalDate.of(2025, 1, 1)));
+
+        // Assert
+        verifyNoInteractions(performanceHistoryRepository);
+        verify(personalRecordRepository, never()).save(any());
+        verify(personalRecordRepository, never()).delete(any());
+    }
+
+    @Test
+    public void testGetLeaderboard_UsesAscendingOrderForTime() {
+        // Arrange
+        Exercice row = buildExercise(3L, Exercice.MeasureType.TIME);
+        PersonalRecordRepository.RecordItem first = mock(PersonalRecordRepository.RecordItem.class);
+        PersonalRecordRepository.RecordItem second = mock(PersonalRecordRepository.RecordItem.class);
+        when(exerciseRepository.findById(3L)).thenReturn(Optional.of(row));
+        when(second.getRecordId()).thenReturn(42L);
+        when(personalRecordRepository.findTopLowestAfter(eq(3L), eq(7L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(first, second), PageRequest.of(0, 2), true));
+        when(personalRecordMapper.convertToDto(first)).thenReturn(new PersonalRecordDTO());
+        when(personalRecordMapper.convertToDto(second)).thenReturn(new PersonalRecordDTO());
+
+        // Act : deuxième page, le curseur pointe sur le record 7 classé 2e
+        LeaderboardPageDTO result = personalRecordService.getLeaderboard(3L, cursor("R|7|2"), 2);
+
+        // Assert
+        assertThat(result.getItems()).extracting(PersonalRecordDTO::getRank).containsExactly(3L, 4L);
+        assertThat(result.getNextCursor()).isEqualTo(cursor("R|42|4"));
+        verify(personalRecordRepository, never()).findTopHighestAfter(any(), any(), any());
+        verifyNoInteractions(performanceHistoryRepository);
+    }
+
+    @Test
+    public void testGetLeaderboard_FirstPageUsesIndexOrderWithoutCursor() {
+        // Arrange
+        Exercice squat = buildExercise(2L, Exercice.MeasureType.WEIGHT);
+        PersonalRecordRepository.RecordItem item = mock(PersonalRecordRepository.RecordItem.class);
+        when(exerciseRepository.findById(2L)).thenReturn(Optional.of(squat));
+        when(personalRecordRepository.findTopHighest(eq(2L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(item), PageRequest.of(0, 20), false));
+        when(personalRecordMapper.convertToDto(item)).thenReturn(new PersonalRecordDTO());
+
+        // Act
+        LeaderboardPageDTO result = personalRecordService.getLeaderboard(2L, null, 20);
+
+        // Assert
+        assertThat(result.getItems()).extracting(PersonalRecordDTO::getRank).containsExactly(1L);
+        assertThat(result.getNextCursor()).isNull();
+    }
+
+    @Test
+    public void testGetLeaderboard_InvalidSize() {
+        // Act & Assert
+        assertThatThrownBy(() -> personalRecordService.getLeaderboard(3L, null, 0))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Leaderboard size must be between 1 and 100");
+        verifyNoInteractions(personalRecordRepository);
+    }
+
+    @Test
+    public void testGetLeaderboard_InvalidCursor() {
+        // Act & Assert : curseur illisible, rang négatif ou préfixe inconnu
+        assertThatThrownBy(() -> personalRecordService.getLeaderboard(3L, "not-a-cursor!", 20))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> personalRecordService.getLeaderboard(3L, cursor("R|7|-1"), 20))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> personalRecordService.getLeaderboard(3L, cursor("W|7|2"), 20))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Invalid cursor");
+        verifyNoInteractions(personalRecordRepository, exerciseRepository);
+    }
+
+    private static String cursor(String position) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Exercice buildExercise(Long id, Exercice.MeasureType measureType) {
+        Exercice exercise = new Exercice();
+        exercise.setId(id);
+        exercise.setMeasureType(measureType);
+        return exercise;
+    }
+
+    private PerformanceHistory buildPerformance(Long id, Exercice exercise, float value, LocalDate date) {
+        User user = new User();
+        user.setId(1L);
+        return PerformanceHistory.builder()
+                .id(id)
+                .user(user)
+                .exercice(exercise)
+                .measuredValue(value)
+                .date(date)
+                .build();
+    }
+
+    private PersonalRecord buildRecord(Exercice exercise, float value, Long performanceHistoryId) {
+        return PersonalRecord.builder()
+                .exercice(exercise)
+                .bestValue(value)
+                .achievedOn(LocalDate.of(2025, 1, 1))
+                .performanceHistoryId(performanceHistoryId)
+                .build();
+    }
+}
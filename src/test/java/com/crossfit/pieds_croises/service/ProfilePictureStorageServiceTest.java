@@ -0,0 +1,132 @@
+package com.crossfit.pieds_croises.service;
+
+import com.crossfit.pieds_croises.event.ProfilePictureUploadedEvent;
+import com.crossfit.pieds_croises.exception.BusinessException;
+import com.crossfit.pieds_croises.mapper.ProfilePictureUrls;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ActiveProfiles("test")
+public class ProfilePictureStorageServiceTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private ApplicationEventPublisher eventPublisher;
+    private ProfilePictureStorageService storageService;
+
+    @BeforeEach
+    void setUp() {
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        storageService = new ProfilePictureStorageService(uploadDir.toString(), eventPublisher);
+    }
+
+    @Test
+    void storeStreamsFileAndGeneratesThumbnails() throws Exception {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "photo.png", "image/png", png(400, 300));
+
+        // Act
+        String url = storageService.store(file, "John-Doe");
+        String filename = url.substring(ProfilePictureUrls.PUBLIC_PATH.length());
+        storageService.generateThumbnails(filename);
+
+        // Assert
+        assertThat(url).startsWith("/uploads/profile-pictures/").endsWith("-John-Doe.png");
+        assertThat(Files.readAllBytes(uploadDir.resolve(filename))).isEqualTo(file.getBytes());
+        verify(eventPublisher).publishEvent(new ProfilePictureUploadedEvent(filename));
+
+        BufferedImage small = ImageIO.read(uploadDir.resolve("thumbnails").resolve(filename.replace(".png", "-64.png")).toFile());
+        BufferedImage medium = ImageIO.read(uploadDir.resolve("thumbnails").resolve(filename.replace(".png", "-256.png")).toFile());
+        assertThat(small.getWidth()).isEqualTo(64);
+        assertThat(small.getHeight()).isEqualTo(64);
+        assertThat(medium.getWidth()).isEqualTo(256);
+        assertThat(ProfilePictureUrls.thumbnailUrl(url, 64))
+                .isEqualTo("/uploads/profile-pictures/thumbnails/" + filename.replace(".png", "-64.png"));
+    }
+
+    @Test
+    void deleteRemovesOriginalAndThumbnails() throws Exception {
+        // Arrange
+        String url = storageService.store(new MockMultipartFile("file", "photo.png", "image/png", png(100, 100)), "John-Doe");
+        String filename = url.substring(ProfilePictureUrls.PUBLIC_PATH.length());
+        storageService.generateThumbnails(filename);
+
+        // Act
+        storageService.delete(url);
+
+        // Assert
+        assertThat(uploadDir.resolve(filename)).doesNotExist();
+        assertThat(uploadDir.resolve("thumbnails")).isEmptyDirectory();
+    }
+
+    @Test
+    void storeDetectsFormatFromBytes() throws Exception {
+        // Arrange : PNG annoncé comme JPEG, nom d'utilisateur avec séparateurs
+        MockMultipartFile file = new MockMultipartFile("file", "photo.jpg", "image/jpeg", png(10, 10));
+
+        // Act
+        String url = storageService.store(file, "../John/Doe");
+
+        // Assert
+        assertThat(url).endsWith("-___John_Doe.png");
+        assertThat(uploadDir.resolve(url.substring(ProfilePictureUrls.PUBLIC_PATH.length()))).exists();
+    }
+
+    @Test
+    void storeRejectsNonImageContent() throws IOException {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "photo.png", "image/png", "<svg onload=alert(1)>".getBytes());
+
+        // Act & Assert
+        assertThatThrownBy(() -> storageService.store(file, "John-Doe"))
+                .isInstanceOf(BusinessException.class);
+        try (Stream<Path> files = Files.list(uploadDir)) {
+            assertThat(files).isEmpty();
+        }
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void requestThumbnailsPublishesOncePerBurst() {
+        // Act
+        storageService.requestThumbnails("abc-John-Doe.png");
+        storageService.requestThumbnails("abc-John-Doe.png");
+        storageService.requestThumbnails("abc-John-Doe.png");
+
+        // Assert
+        verify(eventPublisher, times(1)).publishEvent(new ProfilePictureUploadedEvent("abc-John-Doe.png"));
+    }
+
+    @Test
+    void resolveRejectsPathTraversal() {
+        assertThat(storageService.resolve("../secret.png")).isEmpty();
+        assertThat(storageService.resolveThumbnail("../photo.png")).isEmpty();
+        assertThat(storageService.originalNameOfThumbnail("abc-John-Doe-64.png")).contains("abc-John-Doe.png");
+    }
+
+    private byte[] png(int width, int height) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+}
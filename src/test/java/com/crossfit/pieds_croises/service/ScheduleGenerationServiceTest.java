@@ -0,0 +1,263 @@
+package com.crossfit.pieds_croises.service;
+
+import com.crossfit.pieds_croises.datetime.DateTimeProvider;
+import com.crossfit.pieds_croises.dto.ScheduleGenerationResultDTO;
+import com.crossfit.pieds_croises.exception.BusinessException;
+import com.crossfit.pieds_croises.model.TypicalCourse;
+import com.crossfit.pieds_croises.model.TypicalWeek;
+import com.crossfit.pieds_croises.model.User;
+import com.crossfit.pieds_croises.repository.CourseRepository;
+import com.crossfit.pieds_croises.repository.TypicalWeekRepository;
+import com.crossfit.pieds_croises.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@ActiveProfiles("test")
+public class ScheduleGenerationServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 10, 1, 12, 0);
+
+    @Mock
+    private TypicalWeekRepository typicalWeekRepository;
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private DateTimeProvider dateTimeProvider;
+
+    @Mock
+    private StandingReservationService standingReservationService;
+
+    @InjectMocks
+    private ScheduleGenerationService scheduleGenerationService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGenerate_SkipsExistingAndConflictingSlots() {
+        // Arrange : deux semaines (lundi 6 -> dimanche 19 octobre 2025), un WOD le lundi à 7h
+        User coach = buildCoach(2L);
+        TypicalCourse wod = buildTypicalCourse("WOD", TypicalCourse.DayOfWeek.LUNDI, coach);
+        TypicalWeek week = buildWeek(LocalDate.of(2025, 10, 6), LocalDate.of(2025, 10, 19), wod);
+
+        // Le premier lundi est déjà généré, le second est occupé par un cours manuel du coach
+        CourseRepository.CoachSlot generated = buildSlot(2L, LocalDateTime.of(2025, 10, 6, 7, 0), 1L);
+        CourseRepository.CoachSlot other = buildSlot(2L, LocalDateTime.of(2025, 10, 13, 6, 30), null);
+
+        when(typicalWeekRepository.findWithCoursesById(1L)).thenReturn(Optional.of(week));
+        when(courseRepository.findCoachSlots(eq(Set.of(2L)), any(), any())).thenReturn(List.of(generated, other));
+        when(dateTimeProvider.now()).thenReturn(NOW);
+
+        // Act
+        ScheduleGenerationResultDTO result = scheduleGenerationService.generateFromTypicalWeek(1L, null);
+
+        // Assert
+        assertThat(result.getCreatedCount()).isZero();
+        assertThat(result.getAlreadyExistingCount()).isEqualTo(1);
+        assertThat(result.getConflicts()).containsExactly(LocalDateTime.of(2025, 10, 13, 7, 0));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(List.class));
+        verifyNoInteractions(standingReservationService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGenerate_InsertsEveryOccurrenceInOneBatch() {
+        // Arrange
+        User coach = buildCoach(2L);
+        TypicalCourse monday = buildTypicalCourse("WOD", TypicalCourse.DayOfWeek.LUNDI, null);
+        TypicalCourse sunday = buildTypicalCourse("Open Gym", TypicalCourse.DayOfWeek.DIMANCHE, null);
+        TypicalWeek week = buildWeek(LocalDate.of(2025, 10, 6), LocalDate.of(2025, 10, 19), monday, sunday);
+
+        when(typicalWeekRepository.findWithCoursesById(1L)).thenReturn(Optional.of(week));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(coach));
+        when(courseRepository.findCoachSlots(eq(Set.of(2L)), any(), any())).thenReturn(List.of());
+        when(dateTimeProvider.now()).thenReturn(NOW);
+        // Relecture : les quatre cours créés, plus un cours plus ancien du même créneau hors de ce passage
+        when(courseRepository.findSlotCourseKeys(Set.of(1L),
+                LocalDateTime.of(2025, 10, 6, 0, 0), LocalDateTime.of(2025, 10, 20, 0, 0))).thenReturn(List.of(
+                slotCourse(100L, LocalDateTime.of(2025, 10, 6, 7, 0), NOW),
+                slotCourse(101L, LocalDateTime.of(2025, 10, 12, 7, 0), NOW),
+                slotCourse(102L, LocalDateTime.of(2025, 10, 13, 7, 0), NOW),
+                slotCourse(103L, LocalDateTime.of(2025, 10, 19, 7, 0), NOW),
+                slotCourse(90L, LocalDateTime.of(2025, 10, 8, 18, 0), NOW.minusMonths(1))));
+        when(standingReservationService.enrolStandingMembers(List.of(100L, 101L, 102L, 103L))).thenReturn(3);
+
+        // Act
+        ScheduleGenerationResultDTO result = scheduleGenerationService.generateFromTypicalWeek(1L, 2L);
+
+        // Assert
+        assertThat(result.getCreatedCount()).isEqualTo(4);
+        assertThat(result.getConflicts()).isEmpty();
+        assertThat(result.getStandingEnrolmentCount()).isEqualTo(3);
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), rows.capture());
+        assertThat(rows.getValue())
+                .extracting(row -> row[2])
+                .containsExactly(
+                        LocalDateTime.of(2025, 10, 6, 7, 0),
+                        LocalDateTime.of(2025, 10, 12, 7, 0),
+                        LocalDateTime.of(2025, 10, 13, 7, 0),
+                        LocalDateTime.of(2025, 10, 19, 7, 0));
+        assertThat(rows.getValue()).extracting(row -> row[9]).containsOnly(1L);
+    }
+
+    @Test
+    public void testGenerate_ManualCourseWithSameTitleAndStartIsAConflict() {
+        // Arrange : un cours "WOD" saisi à la main au même horaire n'est pas une occurrence déjà générée
+        User coach = buildCoach(2L);
+        TypicalCourse wod = buildTypicalCourse("WOD", TypicalCourse.DayOfWeek.LUNDI, coach);
+        TypicalWeek week = buildWeek(LocalDate.of(2025, 10, 6), LocalDate.of(2025, 10, 12), wod);
+        CourseRepository.CoachSlot manual = buildSlot(2L, LocalDateTime.of(2025, 10, 6, 7, 0), null);
+
+        when(typicalWeekRepository.findWithCoursesById(1L)).thenReturn(Optional.of(week));
+        when(courseRepository.findCoachSlots(eq(Set.of(2L)), any(), any())).thenReturn(List.of(manual));
+        when(dateTimeProvider.now()).thenReturn(NOW);
+
+        // Act
+        ScheduleGenerationResultDTO result = scheduleGenerationService.generateFromTypicalWeek(1L, null);
+
+        // Assert
+        assertThat(result.getAlreadyExistingCount()).isZero();
+        assertThat(result.getConflicts()).containsExactly(LocalDateTime.of(2025, 10, 6, 7, 0));
+    }
+
+    @Test
+    public void testGenerate_DetectsOverlapWithCourseStartedTheDayBefore() {
+        // Arrange : WOD du lundi à 0h30, le coach finit un cours de 2h commencé dimanche à 23h
+        User coach = buildCoach(2L);
+        TypicalCourse wod = buildTypicalCourse("WOD", TypicalCourse.DayOfWeek.LUNDI, coach);
+        wod.setHour(LocalTime.of(0, 30));
+        TypicalWeek week = buildWeek(LocalDate.of(2025, 10, 6), LocalDate.of(2025, 10, 12), wod);
+        CourseRepository.CoachSlot lateNight = buildSlot(2L, LocalDateTime.of(2025, 10, 5, 23, 0), null);
+        when(lateNight.getDuration()).thenReturn((short) 120);
+
+        when(typicalWeekRepository.findWithCoursesById(1L)).thenReturn(Optional.of(week));
+        when(courseRepository.findMaxDuration(Set.of(2L))).thenReturn((short) 120);
+        when(courseRepository.findCoachSlots(Set.of(2L),
+                LocalDateTime.of(2025, 10, 5, 22, 0), LocalDateTime.of(2025, 10, 13, 0, 0))).thenReturn(List.of(lateNight));
+        when(dateTimeProvider.now()).thenReturn(NOW);
+
+        // Act
+        ScheduleGenerationResultDTO result = scheduleGenerationService.generateFromTypicalWeek(1L, null);
+
+        // Assert
+        assertThat(result.getCreatedCount()).isZero();
+        assertThat(result.getConflicts()).containsExactly(LocalDateTime.of(2025, 10, 6, 0, 30));
+        verifyNoInteractions(jdbcTemplate, standingReservationService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGenerate_CountsRowsInsertedByConcurrentGenerationAsExisting() {
+        // Arrange : le 13 octobre a été inséré par une autre génération entre la lecture et l'INSERT
+        User coach = buildCoach(2L);
+        TypicalCourse wod = buildTypicalCourse("WOD", TypicalCourse.DayOfWeek.LUNDI, coach);
+        TypicalWeek week = buildWeek(LocalDate.of(2025, 10, 6), LocalDate.of(2025, 10, 19), wod);
+
+        when(typicalWeekRepository.findWithCoursesById(1L)).thenReturn(Optional.of(week));
+        when(courseRepository.findCoachSlots(eq(Set.of(2L)), any(), any())).thenReturn(List.of());
+        when(dateTimeProvider.now()).thenReturn(NOW);
+        when(courseRepository.findSlotCourseKeys(Set.of(1L),
+                LocalDateTime.of(2025, 10, 6, 0, 0), LocalDateTime.of(2025, 10, 20, 0, 0))).thenReturn(List.of(
+                slotCourse(100L, LocalDateTime.of(2025, 10, 6, 7, 0), NOW),
+                slotCourse(101L, LocalDateTime.of(2025, 10, 13, 7, 0), NOW.minusSeconds(3))));
+        when(standingReservationService.enrolStandingMembers(List.of(100L))).thenReturn(2);
+
+        // Act
+        ScheduleGenerationResultDTO result = scheduleGenerationService.generateFromTypicalWeek(1L, null);
+
+        // Assert
+        assertThat(result.getCreatedCount()).isEqualTo(1);
+        assertThat(result.getAlreadyExistingCount()).isEqualTo(1);
+        assertThat(result.getStandingEnrolmentCount()).isEqualTo(2);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), any(List.class));
+    }
+
+    @Test
+    public void testGenerate_WithoutCoach_ShouldThrowException() {
+        // Arrange
+        TypicalCourse wod = buildTypicalCourse("WOD", TypicalCourse.DayOfWeek.LUNDI, null);
+        TypicalWeek week = buildWeek(LocalDate.of(2025, 10, 6), LocalDate.of(2025, 10, 19), wod);
+
+        when(typicalWeekRepository.findWithCoursesById(1L)).thenReturn(Optional.of(week));
+
+        // Act & Assert
+        assertThatThrownBy(() -> scheduleGenerationService.generateFromTypicalWeek(1L, null))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("No coach assigned");
+        verifyNoInteractions(courseRepository, jdbcTemplate);
+    }
+
+    private User buildCoach(Long id) {
+        User coach = new User();
+        coach.setId(id);
+        coach.setRoles(Set.of("ROLE_COACH"));
+        return coach;
+    }
+
+    private TypicalCourse buildTypicalCourse(String title, TypicalCourse.DayOfWeek day, User coach) {
+        return TypicalCourse.builder()
+                .id(1L)
+                .title(title)
+                .day(day)
+                .hour(LocalTime.of(7, 0))
+                .duration((short) 60)
+                .personLimit((byte) 12)
+                .coach(coach)
+                .build();
+    }
+
+    private TypicalWeek buildWeek(LocalDate start, LocalDate end, TypicalCourse... courses) {
+        return TypicalWeek.builder()
+                .id(1L)
+                .name("Saison")
+                .dateStartValidity(start)
+                .dateEndValidity(end)
+                .typicalCourses(List.of(courses))
+                .build();
+    }
+
+    private CourseRepository.SlotCourseKey slotCourse(Long id, LocalDateTime start, LocalDateTime createdAt) {
+        CourseRepository.SlotCourseKey key = mock(CourseRepository.SlotCourseKey.class);
+        lenient().when(key.getId()).thenReturn(id);
+        lenient().when(key.getTypicalCourseId()).thenReturn(1L);
+        lenient().when(key.getStartDatetime()).thenReturn(start);
+        lenient().when(key.getCreatedAt()).thenReturn(createdAt);
+        return key;
+    }
+
+    private CourseRepository.CoachSlot buildSlot(Long coachId, LocalDateTime start, Long typicalCourseId) {
+        CourseRepository.CoachSlot slot = mock(CourseRepository.CoachSlot.class);
+        lenient().when(slot.getCoachId()).thenReturn(coachId);
+        lenient().when(slot.getStartDatetime()).thenReturn(start);
+        lenient().when(slot.getDuration()).thenReturn((short) 60);
+        lenient().when(slot.getTypicalCourseId()).thenReturn(typicalCourseId);
+        return slot;
+    }
+}
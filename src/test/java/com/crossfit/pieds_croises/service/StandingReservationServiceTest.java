@@ -0,0 +1,173 @@
+package com.crossfit.pieds_croises.service;
+
+import com.crossfit.pieds_croises.datetime.DateTimeProvider;
+import com.crossfit.pieds_croises.event.SeatCountChangedEvent;
+import com.crossfit.pieds_croises.exception.BusinessException;
+import com.crossfit.pieds_croises.model.Course;
+import com.crossfit.pieds_croises.model.StandingReservation;
+import com.crossfit.pieds_croises.model.TypicalCourse;
+import com.crossfit.pieds_croises.model.User;
+import com.crossfit.pieds_croises.model.UserCourse;
+import com.crossfit.pieds_croises.model.WeeklySessionCounterId;
+import com.crossfit.pieds_croises.repository.CourseRepository;
+import com.crossfit.pieds_croises.repository.StandingReservationRepository;
+import com.crossfit.pieds_croises.repository.TypicalCourseRepository;
+import com.crossfit.pieds_croises.repository.UserCourseRepository;
+import com.crossfit.pieds_croises.repository.UserRepository;
+import com.crossfit.pieds_croises.repository.UserSubscriptionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@ActiveProfiles("test")
+public class StandingReservationServiceTest {
+
+    @Mock
+    private StandingReservationRepository standingReservationRepository;
+
+    @Mock
+    private TypicalCourseRepository typicalCourseRepository;
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserCourseRepository userCourseRepository;
+
+    @Mock
+    private UserSubscriptionRepository userSubscriptionRepository;
+
+    @Mock
+    private UserCourseService userCourseService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private DateTimeProvider dateTimeProvider;
+
+    @Mock
+    private WeeklySessionQuotaService weeklySessionQuotaService;
+
+    @InjectMocks
+    private StandingReservationService standingReservationService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testEnrolStandingMembers_RespectsSeatsSuspensionAndQuota() {
+        // Arrange : mardi 7 octobre 19h, une seule place restante
+        Course course = new Course();
+        course.setId(10L);
+        course.setTypicalCourseId(5L);
+        course.setStartDatetime(LocalDateTime.of(2025, 10, 7, 19, 0));
+        course.setPersonLimit(2);
+        course.setRegisteredCount(1);
+
+        User suspended = buildUser(2L);
+        suspended.setSuspensionStartDate(LocalDate.of(2025, 10, 1));
+        suspended.setSuspensionEndDate(LocalDate.of(2025, 10, 10));
+
+        when(courseRepository.findSlotCoursesForUpdate(List.of(10L))).thenReturn(List.of(course));
+        // 1 déjà inscrit, 2 suspendu, 3 a épuisé son quota, 4 et 5 éligibles, 6 sans abonnement donc sans limite
+        when(standingReservationRepository.findMembersBySlotIds(Set.of(5L))).thenReturn(List.of(
+                member(5L, 1L), member(5L, 2L), member(5L, 3L), member(5L, 4L), member(5L, 5L), member(5L, 6L)));
+        when(userRepository.findAllById(any())).thenReturn(List.of(
+                buildUser(1L), suspended, buildUser(3L), buildUser(4L), buildUser(5L), buildUser(6L)));
+        LocalDate week = LocalDate.of(2025, 10, 6);
+        when(weeklySessionQuotaService.getCounts(any(), eq(week), eq(week)))
+                .thenReturn(Map.of(new WeeklySessionCounterId(3L, week), 1));
+        when(userSubscriptionRepository.findActiveQuotas(any(), any(), any())).thenReturn(List.of(
+                quota(1L, 2), quota(2L, 2), quota(3L, 1), quota(4L, null), quota(5L, 3)));
+        UserCourseRepository.AttendeeItem attendee = mock(UserCourseRepository.AttendeeItem.class);
+        when(attendee.getCourseId()).thenReturn(10L);
+        when(attendee.getUserId()).thenReturn(1L);
+        when(userCourseRepository.findAttendeesByCourseIds(List.of(10L))).thenReturn(List.of(attendee));
+        when(dateTimeProvider.now()).thenReturn(LocalDateTime.of(2025, 10, 1, 12, 0));
+
+        // Act
+        int enrolled = standingReservationService.enrolStandingMembers(List.of(10L));
+
+        // Assert
+        assertThat(enrolled).isEqualTo(3);
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(userCourseService).insertEnrolments(rows.capture());
+        assertThat(rows.getValue())
+                .extracting(row -> row[0] + ":" + row[2])
+                .containsExactly("4:" + UserCourse.Status.REGISTERED, "5:" + UserCourse.Status.WAITING_LIST,
+                        "6:" + UserCourse.Status.WAITING_LIST);
+        verify(courseRepository).adjustSeatCounters(10L, 1, 2);
+        verify(weeklySessionQuotaService).addAll(Map.of(new WeeklySessionCounterId(4L, week), 1));
+
+        ArgumentCaptor<SeatCountChangedEvent> event = ArgumentCaptor.forClass(SeatCountChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().delta()).isEqualTo(1);
+    }
+
+    @Test
+    public void testEnrolStandingMembers_NoGeneratedCourse_DoesNothing() {
+        // Act
+        int enrolled = standingReservationService.enrolStandingMembers(List.of());
+
+        // Assert
+        assertThat(enrolled).isZero();
+        verifyNoInteractions(courseRepository, standingReservationRepository, userRepository, userCourseService, eventPublisher);
+    }
+
+    @Test
+    public void testSubscribe_AlreadySubscribed_ShouldThrowException() {
+        // Arrange
+        User user = buildUser(1L);
+        when(typicalCourseRepository.findById(5L)).thenReturn(Optional.of(TypicalCourse.builder().id(5L).build()));
+        when(standingReservationRepository.existsByUserIdAndTypicalCourseId(1L, 5L)).thenReturn(true);
+
+        // Act & Assert
+        assertThatThrownBy(() -> standingReservationService.subscribe(user, 5L))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Standing reservation already exists for this slot");
+        verify(standingReservationRepository, never()).save(any(StandingReservation.class));
+    }
+
+    private User buildUser(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    private StandingReservationRepository.SlotMember member(Long typicalCourseId, Long userId) {
+        StandingReservationRepository.SlotMember member = mock(StandingReservationRepository.SlotMember.class);
+        lenient().when(member.getTypicalCourseId()).thenReturn(typicalCourseId);
+        lenient().when(member.getUserId()).thenReturn(userId);
+        return member;
+    }
+
+    private UserSubscriptionRepository.ActiveQuota quota(Long userId, Integer sessionPerWeek) {
+        UserSubscriptionRepository.ActiveQuota quota = mock(UserSubscriptionRepository.ActiveQuota.class);
+        lenient().when(quota.getUserId()).thenReturn(userId);
+        lenient().when(quota.getStartDate()).thenReturn(LocalDateTime.of(2025, 9, 1, 0, 0));
+        lenient().when(quota.getEndDate()).thenReturn(LocalDateTime.of(2026, 8, 31, 0, 0));
+        lenient().when(quota.getSessionPerWeek()).thenReturn(sessionPerWeek);
+        return quota;
+    }
+}
@@ -1,5 +1,6 @@
 package com.crossfit.pieds_croises.service;
 
+import com.crossfit.pieds_croises.cache.VersionedResponseCache;
 import com.crossfit.pieds_croises.dto.SubscriptionCreateDto;
 import com.crossfit.pieds_croises.dto.SubscriptionDto;
 import com.crossfit.pieds_croises.exception.DuplicateResourceException;
@@ -36,6 +37,9 @@ public class SubscriptionServiceTest {
     @Mock
     private BoxRepository boxRepository;
 
+    @Mock
+    private VersionedResponseCache versionedResponseCache;
+
     @InjectMocks
     private SubscriptionService subscriptionService;
 
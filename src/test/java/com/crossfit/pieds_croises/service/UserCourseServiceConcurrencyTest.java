@@ -0,0 +1,131 @@
+package com.crossfit.pieds_croises.service;
+
+import com.crossfit.pieds_croises.dto.CourseDTO;
+import com.crossfit.pieds_croises.model.Course;
+import com.crossfit.pieds_croises.model.User;
+import com.crossfit.pieds_croises.model.UserCourse;
+import com.crossfit.pieds_croises.repository.CourseRepository;
+import com.crossfit.pieds_croises.repository.UserCourseRepository;
+import com.crossfit.pieds_croises.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserCourseServiceConcurrencyTest {
+
+    private static final int PERSON_LIMIT = 12;
+    private static final int BOOKINGS = 300;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private UserCourseService userCourseService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCourseRepository userCourseRepository;
+
+    @MockitoBean
+    private EmailService emailService;
+
+    private User coach;
+    private Course course;
+    private List<User> members;
+
+    @BeforeEach
+    void setUp() {
+        String runId = UUID.randomUUID().toString().substring(0, 8);
+        LocalDateTime now = LocalDateTime.now();
+
+        coach = userRepository.save(User.builder()
+                .firstname("Coach")
+                .lastname("Rush")
+                .email("coach-" + runId + "@example.com")
+                .roles(Set.of("ROLE_COACH"))
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+
+        Course newCourse = new Course();
+        newCourse.setTitle("WOD 6AM");
+        newCourse.setStartDatetime(now.plusDays(1));
+        newCourse.setDuration((short) 60);
+        newCourse.setPersonLimit(PERSON_LIMIT);
+        newCourse.setStatus(Course.Status.OPEN);
+        newCourse.setCreatedAt(now);
+        newCourse.setUpdatedAt(now);
+        newCourse.setCoach(coach);
+        course = courseRepository.save(newCourse);
+
+        members = userRepository.saveAll(IntStream.range(0, BOOKINGS)
+                .mapToObj(i -> User.builder()
+                        .firstname("Member" + i)
+                        .lastname("Rush")
+                        .email("member-" + i + "-" + runId + "@example.com")
+                        .roles(Set.of("ROLE_USER"))
+                        .createdAt(now)
+                        .updatedAt(now)
+                        .build())
+                .toList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        courseRepository.deleteById(course.getId());
+        userRepository.deleteAll(members);
+        userRepository.delete(coach);
+    }
+
+    @Test
+    void parallelBookingsNeverExceedPersonLimit() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CourseDTO>> results = new ArrayList<>();
+
+        for (User member : members) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return userCourseService.addUserToCourse(course.getId(), member.getId());
+            }));
+        }
+        start.countDown();
+        for (Future<CourseDTO> result : results) {
+            result.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(userCourseRepository.countByCourseIdAndStatus(course.getId(), UserCourse.Status.REGISTERED))
+                .isEqualTo(PERSON_LIMIT);
+        assertThat(userCourseRepository.countByCourseIdAndStatus(course.getId(), UserCourse.Status.WAITING_LIST))
+                .isEqualTo(BOOKINGS - PERSON_LIMIT);
+
+        Course reloaded = courseRepository.findById(course.getId()).orElseThrow();
+        assertThat(reloaded.getRegisteredCount()).isEqualTo(PERSON_LIMIT);
+        assertThat(reloaded.getWaitingCount()).isEqualTo(BOOKINGS - PERSON_LIMIT);
+        assertThat(reloaded.getStatus()).isEqualTo(Course.Status.FULL);
+    }
+}
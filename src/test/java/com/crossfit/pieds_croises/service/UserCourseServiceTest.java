@@ -0,0 +1,562 @@
+package com.crossfit.pieds_croises.service;
+
+import com.crossfit.pieds_croises.dto.AvailableUserDTO;
+import com.crossfit.pieds_croises.dto.AvailableUserPageDTO;
+import com.crossfit.pieds_croises.dto.CourseDTO;
+import com.crossfit.pieds_croises.event.SeatCountChangedEvent;
+import com.crossfit.pieds_croises.event.WaitingListPromotedEvent;
+import com.crossfit.pieds_croises.exception.BusinessException;
+import com.crossfit.pieds_croises.exception.ResourceNotFoundException;
+import com.crossfit.pieds_croises.mapper.CourseMapper;
+import com.crossfit.pieds_croises.mapper.UserMapper;
+import com.crossfit.pieds_croises.model.Course;
+import com.crossfit.pieds_croises.model.User;
+import com.crossfit.pieds_croises.model.UserCourse;
+import com.crossfit.pieds_croises.model.WeeklySessionCounterId;
+import com.crossfit.pieds_croises.repository.CourseRepository;
+import com.crossfit.pieds_croises.repository.UserCourseRepository;
+import com.crossfit.pieds_croises.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@ActiveProfiles("test")
+public class UserCourseServiceTest {
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private CourseMapper courseMapper;
+
+    @Mock
+    private UserMapper userMapper;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserCourseRepository userCourseRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private WeeklySessionQuotaService weeklySessionQuotaService;
+
+    @InjectMocks
+    private UserCourseService userCourseService;
+
+    @Test
+    public void testDeleteUserFromCourse_PromotesFirstWaiting() {
+        // Arrange
+        Course course = buildCourse(1L);
+        UserCourse registered = buildUserCourse(course, buildUser(10L, "leaving@example.com"), UserCourse.Status.REGISTERED);
+        UserCourse firstWaiting = buildUserCourse(course, buildUser(11L, "waiting@example.com"), UserCourse.Status.WAITING_LIST);
+        CourseDTO courseDTO = new CourseDTO();
+
+        when(courseRepository.existsById(1L)).thenReturn(true);
+        when(userCourseRepository.findByUserIdAndCourseId(10L, 1L)).thenReturn(Optional.of(registered));
+        when(userCourseRepository.findEligibleQueueHead(eq(1L), eq(UserCourse.Status.WAITING_LIST), any(), any(), isNull(), isNull(), any()))
+                .thenReturn(List.of(firstWaiting));
+        when(weeklySessionQuotaService.tryConsume(11L, course.getStartDatetime())).thenReturn(true);
+        when(courseRepository.reserveSeat(1L)).thenReturn(1);
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        when(courseMapper.convertToDto(course)).thenReturn(courseDTO);
+
+        // Act
+        CourseDTO result = userCourseService.deleteUserFromCourse(1L, 10L);
+
+        // Assert
+        assertThat(result).isEqualTo(courseDTO);
+        assertThat(firstWaiting.getStatus()).isEqualTo(UserCourse.Status.REGISTERED);
+        verify(userCourseRepository).delete(registered);
+        verify(courseRepository).releaseSeat(1L);
+        verify(courseRepository).decrementWaitingCount(1L);
+        verify(userCourseRepository).save(firstWaiting);
+        verify(weeklySessionQuotaService).release(10L, course.getStartDatetime());
+        verify(weeklySessionQuotaService).tryConsume(11L, course.getStartDatetime());
+
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, atLeastOnce()).publishEvent(events.capture());
+        assertThat(events.getAllValues())
+                .filteredOn(SeatCountChangedEvent.class::isInstance)
+                .extracting(e -> ((SeatCountChangedEvent) e).delta())
+                .containsExactly(-1, 1);
+        WaitingListPromotedEvent promoted = events.getAllValues().stream()
+                .filter(WaitingListPromotedEvent.class::isInstance)
+                .map(WaitingListPromotedEvent.class::cast)
+                .findFirst()
+                .orElseThrow();
+        assertThat(promoted.email()).isEqualTo("waiting@example.com");
+        assertThat(promoted.courseTitle()).isEqualTo("WOD");
+    }
+
+    @Test
+    public void testDeleteUserFromCourse_SkipsWaitingMemberAtQuota() {
+        // Arrange : le premier de la file a réservé d'autres séances depuis son entrée en liste d'attente
+        Course course = buildCourse(1L);
+        UserCourse registered = buildUserCourse(course, buildUser(10L, "leaving@example.com"), UserCourse.Status.REGISTERED);
+        UserCourse atQuota = buildUserCourse(course, buildUser(11L, "full-week@example.com"), UserCourse.Status.WAITING_LIST);
+        UserCourse next = buildUserCourse(course, buildUser(12L, "next@example.com"), UserCourse.Status.WAITING_LIST);
+
+        when(courseRepository.existsById(1L)).thenReturn(true);
+        when(userCourseRepository.findByUserIdAndCourseId(10L, 1L)).thenReturn(Optional.of(registered));
+        when(userCourseRepository.findEligibleQueueHead(eq(1L), eq(UserCourse.Status.WAITING_LIST), any(), any(), isNull(), isNull(), any()))
+                .thenReturn(List.of(atQuota, next));
+        when(weeklySessionQuotaService.tryConsume(11L, course.getStartDatetime())).thenReturn(false);
+        when(weeklySessionQuotaService.tryConsume(12L, course.getStartDatetime())).thenReturn(true);
+        when(courseRepository.reserveSeat(1L)).thenReturn(1);
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        when(courseMapper.convertToDto(course)).thenReturn(new CourseDTO());
+
+        // Act
+        userCourseService.deleteUserFromCourse(1L, 10L);
+
+        // Assert
+        assertThat(atQuota.getStatus()).isEqualTo(UserCourse.Status.WAITING_LIST);
+        assertThat(next.getStatus()).isEqualTo(UserCourse.Status.REGISTERED);
+        verify(userCourseRepository).save(next);
+        verify(userCourseRepository, never()).save(atQuota);
+        verify(courseRepository).decrementWaitingCount(1L);
+    }
+
+    @Test
+    public void testDeleteUserFromCourse_ReadsNextPageAfterLastCandidate() {
+        // Arrange : toute la première page (1 place + 2 de marge) a rempli sa semaine entre la lecture et l'incrément
+        Course course = buildCourse(1L);
+        UserCourse registered = buildUserCourse(course, buildUser(10L, "leaving@example.com"), UserCourse.Status.REGISTERED);
+        List<UserCourse> raced = List.of(
+                buildUserCourse(course, buildUser(11L, "a@example.com"), UserCourse.Status.WAITING_LIST),
+                buildUserCourse(course, buildUser(12L, "b@example.com"), UserCourse.Status.WAITING_LIST),
+                buildUserCourse(course, buildUser(13L, "c@example.com"), UserCourse.Status.WAITING_LIST));
+        UserCourse lastRaced = raced.get(2);
+        lastRaced.setId(73L);
+        UserCourse next = buildUserCourse(course, buildUser(14L, "next@example.com"), UserCourse.Status.WAITING_LIST);
+
+        when(courseRepository.existsById(1L)).thenReturn(true);
+        when(userCourseRepository.findByUserIdAndCourseId(10L, 1L)).thenReturn(Optional.of(registered));
+        when(userCourseRepository.findEligibleQueueHead(eq(1L), eq(UserCourse.Status.WAITING_LIST), any(), any(),
+                isNull(), isNull(), eq(PageRequest.of(0, 3)))).thenReturn(raced);
+        when(userCourseRepository.findEligibleQueueHead(eq(1L), eq(UserCourse.Status.WAITING_LIST), any(), any(),
+                eq(lastRaced.getCreatedAt()), eq(73L), eq(PageRequest.of(0, 3)))).thenReturn(List.of(next));
+        when(weeklySessionQuotaService.tryConsume(anyLong(), eq(course.getStartDatetime()))).thenReturn(false);
+        when(weeklySessionQuotaService.tryConsume(14L, course.getStartDatetime())).thenReturn(true);
+        when(courseRepository.reserveSeat(1L)).thenReturn(1);
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        when(courseMapper.convertToDto(course)).thenReturn(new CourseDTO());
+
+        // Act
+        userCourseService.deleteUserFromCourse(1L, 10L);
+
+        // Assert
+        assertThat(next.getStatus()).isEqualTo(UserCourse.Status.REGISTERED);
+        assertThat(raced).extracting(UserCourse::getStatus).containsOnly(UserCourse.Status.WAITING_LIST);
+        verify(userCourseRepository).save(next);
+    }
+
+    @Test
+    public void testDeleteUserFromCourse_WholeQueueAtQuota_SeatStaysFree() {
+        // Arrange
+        Course course = buildCourse(1L);
+        UserCourse registered = buildUserCourse(course, buildUser(10L, "leaving@example.com"), UserCourse.Status.REGISTERED);
+        UserCourse atQuota = buildUserCourse(course, buildUser(11L, "full-week@example.com"), UserCourse.Status.WAITING_LIST);
+
+        when(courseRepository.existsById(1L)).thenReturn(true);
+        when(userCourseRepository.findByUserIdAndCourseId(10L, 1L)).thenReturn(Optional.of(registered));
+        when(userCourseRepository.findEligibleQueueHead(eq(1L), eq(UserCourse.Status.WAITING_LIST), any(), any(), isNull(), isNull(), any()))
+                .thenReturn(List.of(atQuota));
+        when(weeklySessionQuotaService.tryConsume(11L, course.getStartDatetime())).thenReturn(false);
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        when(courseMapper.convertToDto(course)).thenReturn(new CourseDTO());
+
+        // Act
+        userCourseService.deleteUserFromCourse(1L, 10L);
+
+        // Assert
+        assertThat(atQuota.getStatus()).isEqualTo(UserCourse.Status.WAITING_LIST);
+        verify(courseRepository).releaseSeat(1L);
+        verify(courseRepository, never()).reserveSeat(any());
+        verify(courseRepository, never()).decrementWaitingCount(any());
+        verify(eventPublisher, never()).publishEvent(any(WaitingListPromotedEvent.class));
+    }
+
+    @Test
+    public void testDeleteUserFromCourse_WaitingUserLeaves_NoPromotion() {
+        // Arrange
+        Course course = buildCourse(1L);
+        UserCourse waiting = buildUserCourse(course, buildUser(11L, "waiting@example.com"), UserCourse.Status.WAITING_LIST);
+
+        when(courseRepository.existsById(1L)).thenReturn(true);
+        when(userCourseRepository.findByUserIdAndCourseId(11L, 1L)).thenReturn(Optional.of(waiting));
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        when(courseMapper.convertToDto(course)).thenReturn(new CourseDTO());
+
+        // Act
+        userCourseService.deleteUserFromCourse(1L, 11L);
+
+        // Assert
+        verify(userCourseRepository).delete(waiting);
+        verify(courseRepository).decrementWaitingCount(1L);
+        verify(courseRepository, never()).releaseSeat(any());
+        verify(courseRepository, never()).reserveSeat(any());
+        verifyNoInteractions(eventPublisher, weeklySessionQuotaService);
+    }
+
+    @Test
+    public void testAddUserToCourse_WeeklyQuotaReached() {
+        // Arrange
+        Course course = buildCourse(1L);
+        User user = buildUser(10L, "member@example.com");
+
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        when(userRepository.findById(10L)).thenReturn(Optional.of(user));
+        when(userCourseRepository.existsByUserIdAndCourseId(10L, 1L)).thenReturn(false);
+        when(courseRepository.reserveSeat(1L)).thenReturn(1);
+        doThrow(new BusinessException("Weekly session quota reached"))
+                .when(weeklySessionQuotaService).consume(10L, course.getStartDatetime());
+
+        // Act & Assert : l'exception annule la transaction, place réservée comprise
+        assertThatThrownBy(() -> userCourseService.addUserToCourse(1L, 10L))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Weekly session quota reached");
+        verify(userCourseRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    public void testGetUserWeeklyCourseCount_ReadsCounter() {
+        // Arrange
+        LocalDate wednesday = LocalDate.of(2025, 10, 8);
+        when(weeklySessionQuotaService.getCount(10L, wednesday)).thenReturn(3L);
+
+        // Act
+        Long count = userCourseService.getUserWeeklyCourseCount(10L, wednesday);
+
+        // Assert
+        assertThat(count).isEqualTo(3L);
+        verifyNoInteractions(courseRepository, userCourseRepository);
+    }
+
+    @Test
+    public void testSearchUsersNotInCourse_MapsProjectionWithEscapedPrefix() {
+        // Arrange
+        UserRepository.AvailableUser available = mock(UserRepository.AvailableUser.class);
+        when(available.getId()).thenReturn(10L);
+        when(available.getLastname()).thenReturn("Dupont");
+        lenient().when(available.getFirstname()).thenReturn("Jean");
+        lenient().when(available.getEmail()).thenReturn("jean.dupont@example.com");
+        when(courseRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.searchUsersNotInCourse(1L, "du!_p%", PageRequest.of(0, 20)))
+                .thenReturn(new SliceImpl<>(List.of(available), PageRequest.of(0, 20), true));
+
+        // Act
+        AvailableUserPageDTO result = userCourseService.searchUsersNotInCourse(1L, " du_p ", null, 20);
+
+        // Assert
+        assertThat(result.getNextCursor()).isNotNull();
+        assertThat(result.getItems()).hasSize(1);
+        assertThat(result.getItems().get(0).getId()).isEqualTo(10L);
+        assertThat(result.getItems().get(0).getLastname()).isEqualTo("Dupont");
+        assertThat(result.getItems().get(0).getProfilePictureThumbnail64()).isNull();
+        verifyNoInteractions(userMapper, userCourseRepository);
+    }
+
+    @Test
+    public void testSearchUsersNotInCourse_NextCursorResumesAfterLastUser() {
+        // Arrange
+        UserRepository.AvailableUser last = mock(UserRepository.AvailableUser.class);
+        when(last.getId()).thenReturn(42L);
+        when(courseRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.findUsersNotInCourse(1L, PageRequest.of(0, 1)))
+                .thenReturn(new SliceImpl<>(List.of(last), PageRequest.of(0, 1), true));
+        when(userRepository.findUsersNotInCourseAfter(1L, 42L, PageRequest.of(0, 1)))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 1), false));
+
+        // Act
+        AvailableUserPageDTO first = userCourseService.searchUsersNotInCourse(1L, " ", null, 1);
+        AvailableUserPageDTO second = userCourseService.searchUsersNotInCourse(1L, null, first.getNextCursor(), 1);
+
+        // Assert
+        assertThat(first.getItems()).extracting(AvailableUserDTO::getId).containsExactly(42L);
+        assertThat(second.getItems()).isEmpty();
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    public void testSearchUsersNotInCourse_InvalidCursor_ShouldThrowException() {
+        assertThatThrownBy(() -> userCourseService.searchUsersNotInCourse(1L, null, "not-a-cursor", 20))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Invalid cursor");
+        verifyNoInteractions(courseRepository, userRepository);
+    }
+
+    @Test
+    public void testSearchUsersNotInCourse_UnknownCourse_ShouldThrowException() {
+        // Arrange
+        when(courseRepository.existsById(1L)).thenReturn(false);
+
+        // Act & Assert
+        assertThatThrownBy(() -> userCourseService.searchUsersNotInCourse(1L, null, null, 20))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    public void testSearchUsersNotInCourse_InvalidSize_ShouldThrowException() {
+        assertThatThrownBy(() -> userCourseService.searchUsersNotInCourse(1L, "du", null, 500))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Page size must be between 1 and 50");
+        verifyNoInteractions(courseRepository, userRepository);
+    }
+
+    @Test
+    public void testDeleteUserFromCourse_NotEnrolled() {
+        // Arrange
+        when(courseRepository.existsById(1L)).thenReturn(true);
+        when(userCourseRepository.findByUserIdAndCourseId(10L, 1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> userCourseService.deleteUserFromCourse(1L, 10L))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("User not enrolled in this course");
+        verify(userCourseRepository, never()).delete(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAddUsersToCourse_SplitsSeatsByRequestOrder() {
+        // Arrange
+        Course course = buildCourse(1L);
+        course.setRegisteredCount(10);
+        CourseDTO courseDTO = new CourseDTO();
+
+        when(courseRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(course));
+        when(userRepository.findAllById(List.of(20L, 21L, 22L, 23L))).thenReturn(List.of(
+                buildUser(21L, "b@example.com"), buildUser(20L, "a@example.com"),
+                buildUser(23L, "d@example.com"), buildUser(22L, "c@example.com")));
+        when(userCourseRepository.findEnrolments(1L, List.of(20L, 21L, 22L, 23L)))
+                .thenReturn(List.of(enrolment(50L, 21L, UserCourse.Status.REGISTERED)));
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        when(courseMapper.convertToDto(course)).thenReturn(courseDTO);
+
+        // Act
+        CourseDTO result = userCourseService.addUsersToCourse(1L, List.of(20L, 21L, 22L, 20L, 23L));
+
+        // Assert
+        assertThat(result).isEqualTo(courseDTO);
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertThat(rows.getValue())
+                .extracting(row -> row[0] + ":" + row[2])
+                .containsExactly("20:REGISTERED", "22:REGISTERED", "23:WAITING_LIST");
+        verify(courseRepository).adjustSeatCounters(1L, 2, 1);
+        verify(courseRepository, never()).reserveSeat(any());
+        LocalDate week = LocalDate.of(2025, 9, 29);
+        verify(weeklySessionQuotaService).addAll(Map.of(
+                new WeeklySessionCounterId(20L, week), 1,
+                new WeeklySessionCounterId(22L, week), 1));
+
+        ArgumentCaptor<SeatCountChangedEvent> event = ArgumentCaptor.forClass(SeatCountChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().delta()).isEqualTo(2);
+    }
+
+    @Test
+    public void testAddUsersToCourse_UnknownUser_NothingInserted() {
+        // Arrange
+        when(courseRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(buildCourse(1L)));
+        when(userRepository.findAllById(List.of(20L, 99L))).thenReturn(List.of(buildUser(20L, "a@example.com")));
+
+        // Act & Assert
+        assertThatThrownBy(() -> userCourseService.addUsersToCourse(1L, List.of(20L, 99L)))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Users not found with ids: [99]");
+        verifyNoInteractions(jdbcTemplate);
+        verify(courseRepository, never()).adjustSeatCounters(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void testRemoveUsersFromCourse_PromotesWaitingListOnce() {
+        // Arrange
+        Course course = buildCourse(1L);
+        course.setRegisteredCount(12);
+        course.setWaitingCount(3);
+        UserCourse firstWaiting = buildUserCourse(course, buildUser(30L, "w1@example.com"), UserCourse.Status.WAITING_LIST);
+        firstWaiting.setId(70L);
+        UserCourse secondWaiting = buildUserCourse(course, buildUser(31L, "w2@example.com"), UserCourse.Status.WAITING_LIST);
+        secondWaiting.setId(71L);
+
+        when(courseRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(course));
+        when(userCourseRepository.findEnrolments(eq(1L), any())).thenReturn(List.of(
+                enrolment(50L, 10L, UserCourse.Status.REGISTERED),
+                enrolment(51L, 11L, UserCourse.Status.REGISTERED),
+                enrolment(52L, 12L, UserCourse.Status.WAITING_LIST)));
+        when(userCourseRepository.findEligibleQueueHead(eq(1L), eq(UserCourse.Status.WAITING_LIST), any(), any(), isNull(), isNull(), any()))
+                .thenReturn(List.of(firstWaiting, secondWaiting));
+        when(weeklySessionQuotaService.tryConsume(30L, course.getStartDatetime())).thenReturn(true);
+        when(weeklySessionQuotaService.tryConsume(31L, course.getStartDatetime())).thenReturn(true);
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        when(courseMapper.convertToDto(course)).thenReturn(new CourseDTO());
+
+        // Act
+        userCourseService.removeUsersFromCourse(1L, List.of(10L, 11L, 12L));
+
+        // Assert
+        verify(userCourseRepository).deleteAllByIdInBatch(List.of(50L, 51L, 52L));
+        verify(userCourseRepository).updateStatus(List.of(70L, 71L), UserCourse.Status.REGISTERED);
+        verify(courseRepository).adjustSeatCounters(1L, 0, -3);
+        verify(courseRepository, never()).releaseSeat(any());
+        LocalDate week = LocalDate.of(2025, 9, 29);
+        verify(weeklySessionQuotaService).addAll(Map.of(
+                new WeeklySessionCounterId(10L, week), -1,
+                new WeeklySessionCounterId(11L, week), -1));
+
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, atLeastOnce()).publishEvent(events.capture());
+        assertThat(events.getAllValues()).noneMatch(SeatCountChangedEvent.class::isInstance);
+        assertThat(events.getAllValues())
+                .filteredOn(WaitingListPromotedEvent.class::isInstance)
+                .extracting(e -> ((WaitingListPromotedEvent) e).email())
+                .containsExactly("w1@example.com", "w2@example.com");
+    }
+
+    @Test
+    public void testRemoveUserFromAllCourses_ReleasesCountersWithoutPromotingPastCourses() {
+        // Arrange : un cours passé où il était inscrit, un cours à venir où il était en liste d'attente
+        Course past = buildCourse(1L);
+        past.setRegisteredCount(12);
+        past.setWaitingCount(1);
+        Course upcoming = buildCourse(2L);
+        upcoming.setStartDatetime(LocalDateTime.now().plusDays(2));
+        upcoming.setRegisteredCount(12);
+        upcoming.setWaitingCount(2);
+
+        when(userCourseRepository.findCourseIdsByUserId(10L)).thenReturn(List.of(1L, 2L));
+        when(courseRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(past));
+        when(courseRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(upcoming));
+        when(userCourseRepository.findEnrolments(1L, Set.of(10L)))
+                .thenReturn(List.of(enrolment(50L, 10L, UserCourse.Status.REGISTERED)));
+        when(userCourseRepository.findEnrolments(2L, Set.of(10L)))
+                .thenReturn(List.of(enrolment(51L, 10L, UserCourse.Status.WAITING_LIST)));
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(past));
+        when(courseRepository.findById(2L)).thenReturn(Optional.of(upcoming));
+
+        // Act
+        userCourseService.removeUserFromAllCourses(10L);
+
+        // Assert
+        verify(courseRepository).adjustSeatCounters(1L, -1, 0);
+        verify(courseRepository).adjustSeatCounters(2L, 0, -1);
+        verify(weeklySessionQuotaService).addAll(Map.of(new WeeklySessionCounterId(10L, LocalDate.of(2025, 9, 29)), -1));
+        verify(userCourseRepository, never()).findEligibleQueueHead(any(), any(), any(), any(), any(), any(), any());
+        verifyNoInteractions(courseMapper);
+    }
+
+    @Test
+    public void testRemoveUsersFromCourse_SkipsWaitingMemberAtQuota() {
+        // Arrange : une place libérée, le premier de la file a rempli sa semaine entre-temps
+        Course course = buildCourse(1L);
+        course.setRegisteredCount(12);
+        course.setWaitingCount(2);
+        UserCourse atQuota = buildUserCourse(course, buildUser(30L, "full-week@example.com"), UserCourse.Status.WAITING_LIST);
+        atQuota.setId(70L);
+        UserCourse next = buildUserCourse(course, buildUser(31L, "next@example.com"), UserCourse.Status.WAITING_LIST);
+        next.setId(71L);
+
+        when(courseRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(course));
+        when(userCourseRepository.findEnrolments(eq(1L), any())).thenReturn(List.of(
+                enrolment(50L, 10L, UserCourse.Status.REGISTERED)));
+        when(userCourseRepository.findEligibleQueueHead(eq(1L), eq(UserCourse.Status.WAITING_LIST), any(), any(), isNull(), isNull(), any()))
+                .thenReturn(List.of(atQuota, next));
+        when(weeklySessionQuotaService.tryConsume(30L, course.getStartDatetime())).thenReturn(false);
+        when(weeklySessionQuotaService.tryConsume(31L, course.getStartDatetime())).thenReturn(true);
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        when(courseMapper.convertToDto(course)).thenReturn(new CourseDTO());
+
+        // Act
+        userCourseService.removeUsersFromCourse(1L, List.of(10L));
+
+        // Assert
+        verify(userCourseRepository).updateStatus(List.of(71L), UserCourse.Status.REGISTERED);
+        verify(courseRepository).adjustSeatCounters(1L, 0, -1);
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, atLeastOnce()).publishEvent(events.capture());
+        assertThat(events.getAllValues())
+                .filteredOn(WaitingListPromotedEvent.class::isInstance)
+                .extracting(e -> ((WaitingListPromotedEvent) e).email())
+                .containsExactly("next@example.com");
+    }
+
+    private UserCourseRepository.EnrolmentItem enrolment(Long id, Long userId, UserCourse.Status status) {
+        return new UserCourseRepository.EnrolmentItem() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public UserCourse.Status getStatus() {
+                return status;
+            }
+        };
+    }
+
+    private Course buildCourse(Long id) {
+        Course course = new Course();
+        course.setId(id);
+        course.setTitle("WOD");
+        course.setStartDatetime(LocalDateTime.of(2025, 10, 1, 6, 0));
+        course.setPersonLimit(12);
+        return course;
+    }
+
+    private User buildUser(Long id, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        user.setFirstname("John");
+        user.setLastname("Doe");
+        return user;
+    }
+
+    private UserCourse buildUserCourse(Course course, User user, UserCourse.Status status) {
+        return UserCourse.builder()
+                .course(course)
+                .user(user)
+                .status(status)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
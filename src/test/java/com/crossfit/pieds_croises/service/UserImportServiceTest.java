@@ -0,0 +1,209 @@
+package com.crossfit.pieds_croises.service;
+
+import com.crossfit.pieds_croises.datetime.DateTimeProvider;
+import com.crossfit.pieds_croises.dto.UserImportResultDTO;
+import com.crossfit.pieds_croises.dto.UserImportRowResultDTO;
+import com.crossfit.pieds_croises.event.MembershipStatsChangedEvent;
+import com.crossfit.pieds_croises.exception.BusinessException;
+import com.crossfit.pieds_croises.model.Subscription;
+import com.crossfit.pieds_croises.repository.SubscriptionRepository;
+import com.crossfit.pieds_croises.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@ActiveProfiles("test")
+public class UserImportServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private DateTimeProvider dateTimeProvider;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private UserImportService userImportService;
+
+    @BeforeEach
+    public void setUp() {
+        userImportService = new UserImportService(userRepository, subscriptionRepository, emailService, jdbcTemplate,
+                transactionTemplate, Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(),
+                dateTimeProvider, eventPublisher);
+        ReflectionTestUtils.setField(userImportService, "registrationUrl", "http://localhost/register");
+        ReflectionTestUtils.setField(userImportService, "registrationTokenExpirationDays", 7);
+    }
+
+    @Test
+    public void testImportCsv_ReportsEachRow() {
+        // Arrange
+        String csv = """
+                firstname,lastname,email,phone,subscriptionId
+                Jane,Doe,jane@example.com,0600000001,1
+                John,Doe,not-an-email,,
+                Janet,Doe,JANE@example.com,,
+                Old,Member,old@example.com,,
+                "Smith, Jr",Bob,bob@example.com,,
+                """;
+        Subscription subscription = Subscription.builder().id(1L).price(50).duration((short) 30).freezeDaysAllowed((short) 5).build();
+        UserRepository.EmailId existing = emailId(99L, "old@example.com");
+        UserRepository.EmailId jane = emailId(10L, "jane@example.com");
+        UserRepository.EmailId bob = emailId(11L, "bob@example.com");
+
+        when(subscriptionRepository.findAll()).thenReturn(List.of(subscription));
+        when(userRepository.findIdsByEmails(anyCollection()))
+                .thenReturn(List.of(existing))
+                .thenReturn(List.of(jane, bob));
+        when(userRepository.findExistingPhones(List.of("0600000001"))).thenReturn(List.of());
+        when(dateTimeProvider.now()).thenReturn(LocalDateTime.of(2025, 9, 1, 10, 0));
+        when(emailService.generateInvitationLink(anyString(), anyString(), anyString())).thenReturn("http://link");
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        // Act
+        UserImportResultDTO result = userImportService.importCsv(stream(csv));
+
+        // Assert
+        assertThat(result.getTotal()).isEqualTo(5);
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getRows()).extracting(UserImportRowResultDTO::getStatus).containsExactly(
+                UserImportRowResultDTO.Status.CREATED,
+                UserImportRowResultDTO.Status.INVALID,
+                UserImportRowResultDTO.Status.DUPLICATE_IN_FILE,
+                UserImportRowResultDTO.Status.ALREADY_EXISTS,
+                UserImportRowResultDTO.Status.CREATED);
+        assertThat(result.getRows().get(0).getUserId()).isEqualTo(10L);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> userRows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO user ("), userRows.capture());
+        assertThat(userRows.getValue()).hasSize(2);
+        assertThat(userRows.getValue().get(1)[0]).isEqualTo("Smith, Jr");
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO user_subscription"), anyList());
+        verify(emailService).sendBulkTemplateEmail(anyString(), eq("first-connection"), anyMap());
+        verify(eventPublisher).publishEvent(new MembershipStatsChangedEvent(2, 1, 50));
+    }
+
+    @Test
+    public void testImportJson_CreatesUsers() {
+        // Arrange
+        String json = """
+                [{"firstname": "Jane", "lastname": "Doe", "email": "jane@example.com"}]
+                """;
+        when(subscriptionRepository.findAll()).thenReturn(List.of());
+        when(userRepository.findIdsByEmails(anyCollection()))
+                .thenReturn(List.of())
+                .thenReturn(List.of(emailId(10L, "jane@example.com")));
+        when(dateTimeProvider.now()).thenReturn(LocalDateTime.of(2025, 9, 1, 10, 0));
+        when(emailService.generateInvitationLink(anyString(), anyString(), anyString())).thenReturn("http://link");
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        // Act
+        UserImportResultDTO result = userImportService.importJson(stream(json));
+
+        // Assert
+        assertThat(result.getCreated()).isEqualTo(1);
+        assertThat(result.getRejected()).isZero();
+        verify(jdbcTemplate, never()).batchUpdate(startsWith("INSERT INTO user_subscription"), anyList());
+        verify(emailService).sendBulkTemplateEmail(anyString(), eq("first-connection"),
+                eq(Map.of("jane@example.com", Map.of("registrationEmailLink", "http://link"))));
+    }
+
+    @Test
+    public void testImportCsv_FailedChunkIsRetriedRowByRow() {
+        // Arrange : le lot échoue (rendu d'une invitation), puis seule la ligne de Bob échoue à nouveau
+        String csv = """
+                firstname,lastname,email
+                Jane,Doe,jane@example.com
+                Bob,Smith,bob@example.com
+                """;
+        when(subscriptionRepository.findAll()).thenReturn(List.of());
+        when(userRepository.findIdsByEmails(anyCollection()))
+                .thenReturn(List.of())
+                .thenReturn(List.of(emailId(10L, "jane@example.com")))
+                .thenReturn(List.of(emailId(11L, "bob@example.com")));
+        when(dateTimeProvider.now()).thenReturn(LocalDateTime.of(2025, 9, 1, 10, 0));
+        when(emailService.generateInvitationLink(anyString(), anyString(), anyString())).thenReturn("http://link");
+        when(transactionTemplate.execute(any()))
+                .thenThrow(new IllegalStateException("Template rendering failed"))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        doThrow(new IllegalStateException("Template rendering failed")).when(emailService)
+                .sendBulkTemplateEmail(anyString(), eq("first-connection"), argThat(map -> map.containsKey("bob@example.com")));
+
+        // Act
+        UserImportResultDTO result = userImportService.importCsv(stream(csv));
+
+        // Assert
+        assertThat(result.getRows()).extracting(UserImportRowResultDTO::getStatus).containsExactly(
+                UserImportRowResultDTO.Status.CREATED,
+                UserImportRowResultDTO.Status.FAILED);
+        assertThat(result.getRows().get(0).getUserId()).isEqualTo(10L);
+        verify(eventPublisher, times(1)).publishEvent(new MembershipStatsChangedEvent(1, 0, 0));
+    }
+
+    @Test
+    public void testImportCsv_MissingRequiredColumn() {
+        // Act & Assert
+        assertThatThrownBy(() -> userImportService.importCsv(stream("firstname,email\nJane,jane@example.com\n")))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("CSV header must contain column lastname");
+        verifyNoInteractions(userRepository, jdbcTemplate);
+    }
+
+    private ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private UserRepository.EmailId emailId(Long id, String email) {
+        return new UserRepository.EmailId() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getEmail() {
+                return email;
+            }
+        };
+    }
+}
@@ -4,16 +4,19 @@ import com.crossfit.pieds_croises.datetime.DateTimeProvider;
 import com.crossfit.pieds_croises.dto.UserDto;
 import com.crossfit.pieds_croises.dto.UserSubscriptionDto;
 import com.crossfit.pieds_croises.dto.UserUpdateDto;
+import com.crossfit.pieds_croises.event.MembershipStatsChangedEvent;
 import com.crossfit.pieds_croises.exception.DuplicateResourceException;
 import com.crossfit.pieds_croises.exception.ResourceNotFoundException;
 import com.crossfit.pieds_croises.mapper.UserMapper;
 import com.crossfit.pieds_croises.model.User;
 import com.crossfit.pieds_croises.repository.UserRepository;
+import com.crossfit.pieds_croises.repository.UserSubscriptionRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.util.ReflectionTestUtils;
 
@@ -45,6 +48,15 @@ public class UserServiceTest {
     @Mock
     private UserSubscriptionService userSubscriptionService;
 
+    @Mock
+    private UserSubscriptionRepository userSubscriptionRepository;
+
+    @Mock
+    private UserCourseService userCourseService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserService userService;
 
@@ -376,9 +388,27 @@ public class UserServiceTest {
 
         // Assert
         verify(userRepository, times(1)).findById(userId);
+        verify(userCourseService, times(1)).removeUserFromAllCourses(userId);
         verify(userRepository, times(1)).delete(user);
     }
 
+    @Test
+    public void testDeleteUser_PublishesDeactivationOfActiveSubscriptions() {
+        // Arrange
+        Long userId = 1L;
+        User user = new User();
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userSubscriptionRepository.findActiveSubscriptionPricesByUserId(userId)).thenReturn(List.of(50));
+
+        // Act
+        userService.deleteUser(userId);
+
+        // Assert
+        verify(eventPublisher).publishEvent(MembershipStatsChangedEvent.userDeleted());
+        verify(eventPublisher).publishEvent(MembershipStatsChangedEvent.subscriptionDeactivated(50));
+    }
+
     @Test
     public void testDeleteUser_WhenUserNotFound_ShouldThrownException() {
         // Arrange
@@ -0,0 +1,129 @@
+package com.crossfit.pieds_croises.service;
+
+import com.crossfit.pieds_croises.datetime.DateTimeProvider;
+import com.crossfit.pieds_croises.exception.BusinessException;
+import com.crossfit.pieds_croises.model.WeeklySessionCounter;
+import com.crossfit.pieds_croises.model.WeeklySessionCounterId;
+import com.crossfit.pieds_croises.repository.UserSubscriptionRepository;
+import com.crossfit.pieds_croises.repository.WeeklySessionCounterRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@ActiveProfiles("test")
+public class WeeklySessionQuotaServiceTest {
+
+    // Jeudi : le compteur est rattaché au lundi 6 octobre
+    private static final LocalDateTime COURSE_START = LocalDateTime.of(2025, 10, 9, 19, 0);
+    private static final LocalDate WEEK = LocalDate.of(2025, 10, 6);
+
+    @Mock
+    private WeeklySessionCounterRepository counterRepository;
+
+    @Mock
+    private UserSubscriptionRepository userSubscriptionRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private DateTimeProvider dateTimeProvider;
+
+    @InjectMocks
+    private WeeklySessionQuotaService weeklySessionQuotaService;
+
+    @Test
+    public void testConsume_WithinQuota_IncrementsCounter() {
+        // Arrange
+        when(userSubscriptionRepository.findActiveQuotasAt(1L, COURSE_START)).thenReturn(List.of(quota(2)));
+        when(counterRepository.tryIncrement(1L, WEEK, 2)).thenReturn(1);
+
+        // Act
+        weeklySessionQuotaService.consume(1L, COURSE_START);
+
+        // Assert
+        verify(counterRepository).ensureRow(1L, WEEK);
+        verify(counterRepository).tryIncrement(1L, WEEK, 2);
+    }
+
+    @Test
+    public void testConsume_QuotaReached_ShouldThrowException() {
+        // Arrange
+        when(userSubscriptionRepository.findActiveQuotasAt(1L, COURSE_START)).thenReturn(List.of(quota(2)));
+        when(counterRepository.tryIncrement(1L, WEEK, 2)).thenReturn(0);
+
+        // Act & Assert
+        assertThatThrownBy(() -> weeklySessionQuotaService.consume(1L, COURSE_START))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Weekly session quota reached");
+    }
+
+    @Test
+    public void testTryConsume_QuotaReached_ReturnsFalse() {
+        // Arrange
+        when(userSubscriptionRepository.findActiveQuotasAt(1L, COURSE_START)).thenReturn(List.of(quota(2)));
+        when(counterRepository.tryIncrement(1L, WEEK, 2)).thenReturn(0);
+
+        // Act & Assert
+        assertThat(weeklySessionQuotaService.tryConsume(1L, COURSE_START)).isFalse();
+        verify(counterRepository, never()).addDelta(any(), any(), anyInt());
+    }
+
+    @Test
+    public void testConsume_UnlimitedSubscription_OnlyCounts() {
+        // Arrange
+        when(userSubscriptionRepository.findActiveQuotasAt(1L, COURSE_START)).thenReturn(List.of(quota(null)));
+
+        // Act
+        weeklySessionQuotaService.consume(1L, COURSE_START);
+
+        // Assert
+        verify(counterRepository).addDelta(1L, WEEK, 1);
+        verify(counterRepository, never()).tryIncrement(any(), any(), anyInt());
+    }
+
+    @Test
+    public void testCheckAvailable_FullWeek_ShouldThrowException() {
+        // Arrange
+        when(userSubscriptionRepository.findActiveQuotasAt(1L, COURSE_START)).thenReturn(List.of(quota(2)));
+        when(counterRepository.findById(new WeeklySessionCounterId(1L, WEEK)))
+                .thenReturn(Optional.of(new WeeklySessionCounter(new WeeklySessionCounterId(1L, WEEK), 2)));
+
+        // Act & Assert
+        assertThatThrownBy(() -> weeklySessionQuotaService.checkAvailable(1L, COURSE_START))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Weekly session quota reached");
+    }
+
+    @Test
+    public void testGetCount_NoCounter_ReturnsZero() {
+        // Arrange
+        when(counterRepository.findById(new WeeklySessionCounterId(1L, WEEK))).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThat(weeklySessionQuotaService.getCount(1L, LocalDate.of(2025, 10, 12))).isZero();
+    }
+
+    private UserSubscriptionRepository.ActiveQuota quota(Integer sessionPerWeek) {
+        UserSubscriptionRepository.ActiveQuota quota = mock(UserSubscriptionRepository.ActiveQuota.class);
+        lenient().when(quota.getStartDate()).thenReturn(COURSE_START.minusMonths(1));
+        lenient().when(quota.getEndDate()).thenReturn(COURSE_START.plusMonths(1));
+        lenient().when(quota.getSessionPerWeek()).thenReturn(sessionPerWeek);
+        return quota;
+    }
+}
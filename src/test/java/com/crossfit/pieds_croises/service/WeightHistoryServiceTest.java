@@ -1,11 +1,15 @@
 package com.crossfit.pieds_croises.service;
 
 import com.crossfit.pieds_croises.datetime.DateTimeProvider;
+import com.crossfit.pieds_croises.dto.TimeSeriesDTO;
 import com.crossfit.pieds_croises.dto.WeightHistoryDTO;
+import com.crossfit.pieds_croises.enums.TimeSeriesGranularity;
+import com.crossfit.pieds_croises.exception.BusinessException;
 import com.crossfit.pieds_croises.exception.ResourceNotFoundException;
 import com.crossfit.pieds_croises.mapper.WeightHistoryMapper;
 import com.crossfit.pieds_croises.model.User;
 import com.crossfit.pieds_croises.model.WeightHistory;
+import com.crossfit.pieds_croises.repository.TimeSeriesSample;
 import com.crossfit.pieds_croises.repository.UserRepository;
 import com.crossfit.pieds_croises.repository.WeightHistoryRepository;
 import org.junit.jupiter.api.Test;
@@ -239,6 +243,80 @@ public class WeightHistoryServiceTest {
         verify(weightHistoryRepository, times(1)).delete(weightHistory);
     }
 
+    @Test
+    public void testGetWeightSeries_AggregatesByWeek() {
+        // Arrange
+        Long userId = 1L;
+        when(weightHistoryRepository.findSamples(userId, null, null)).thenReturn(List.of(
+                sample(LocalDate.of(2025, 3, 3), 80.0),
+                sample(LocalDate.of(2025, 3, 5), 78.0),
+                sample(LocalDate.of(2025, 3, 9), 79.0),
+                sample(LocalDate.of(2025, 3, 10), 77.5)
+        ));
+
+        // Act
+        TimeSeriesDTO result = weightHistoryService.getWeightSeries(userId, null, null, TimeSeriesGranularity.WEEK, 120);
+
+        // Assert
+        assertThat(result.getGranularity()).isEqualTo(TimeSeriesGranularity.WEEK);
+        assertThat(result.isTruncated()).isFalse();
+        assertThat(result.getPoints()).hasSize(2);
+        assertThat(result.getPoints().get(0).getPeriodStart()).isEqualTo(LocalDate.of(2025, 3, 3));
+        assertThat(result.getPoints().get(0).getCount()).isEqualTo(3);
+        assertThat(result.getPoints().get(0).getMin()).isEqualTo(78.0);
+        assertThat(result.getPoints().get(0).getMax()).isEqualTo(80.0);
+        assertThat(result.getPoints().get(0).getAvg()).isEqualTo(79.0);
+        assertThat(result.getPoints().get(0).getLast()).isEqualTo(79.0);
+        assertThat(result.getPoints().get(1).getPeriodStart()).isEqualTo(LocalDate.of(2025, 3, 10));
+    }
+
+    @Test
+    public void testGetWeightSeries_ChoosesGranularityWithinMaxPoints() {
+        // Arrange : deux ans de mesures quotidiennes
+        Long userId = 1L;
+        LocalDate start = LocalDate.of(2023, 1, 1);
+        List<TimeSeriesSample> samples = start.datesUntil(start.plusYears(2))
+                .map(date -> sample(date, 80.0))
+                .toList();
+        when(weightHistoryRepository.findSamples(userId, null, null)).thenReturn(samples);
+
+        // Act
+        TimeSeriesDTO result = weightHistoryService.getWeightSeries(userId, null, null, null, 120);
+
+        // Assert
+        assertThat(result.getGranularity()).isEqualTo(TimeSeriesGranularity.WEEK);
+        assertThat(result.getPoints()).hasSizeLessThanOrEqualTo(120);
+        assertThat(result.isTruncated()).isFalse();
+    }
+
+    @Test
+    public void testGetWeightSeries_KeepsMostRecentPeriodsWhenTruncated() {
+        // Arrange
+        Long userId = 1L;
+        when(weightHistoryRepository.findSamples(userId, null, null)).thenReturn(List.of(
+                sample(LocalDate.of(2025, 1, 15), 82.0),
+                sample(LocalDate.of(2025, 2, 15), 81.0),
+                sample(LocalDate.of(2025, 3, 15), 80.0)
+        ));
+
+        // Act
+        TimeSeriesDTO result = weightHistoryService.getWeightSeries(userId, null, null, TimeSeriesGranularity.MONTH, 2);
+
+        // Assert
+        assertThat(result.isTruncated()).isTrue();
+        assertThat(result.getPoints()).extracting(point -> point.getPeriodStart())
+                .containsExactly(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 3, 1));
+    }
+
+    @Test
+    public void testGetWeightSeries_InvalidMaxPoints() {
+        // Act & Assert
+        assertThatThrownBy(() -> weightHistoryService.getWeightSeries(1L, null, null, null, 0))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("maxPoints must be between 1 and 500");
+        verifyNoInteractions(weightHistoryRepository);
+    }
+
     @Test
     public void testDeleteWeightHistory_WhenWeightHistoryNotFound_ShouldThrownException() {
         // Arrange
@@ -274,4 +352,18 @@ public class WeightHistoryServiceTest {
         verify(weightHistoryRepository, times(1)).findById(id);
         verifyNoMoreInteractions(weightHistoryRepository);
     }
+
+    private TimeSeriesSample sample(LocalDate date, double value) {
+        return new TimeSeriesSample() {
+            @Override
+            public LocalDate getSampleDate() {
+                return date;
+            }
+
+            @Override
+            public Double getMeasuredValue() {
+                return value;
+            }
+        };
+    }
 }